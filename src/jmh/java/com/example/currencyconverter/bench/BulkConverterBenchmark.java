@@ -0,0 +1,83 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.BulkConverter;
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.InMemoryRateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions per second of {@link BulkConverter}: row-wise and columnar, sequential and parallel, over a batch
+ * well above {@link BulkConverter#PARALLEL_THRESHOLD}. Scores are conversions per microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkConverterBenchmark {
+
+    private static final int ROWS = 1 << 20;
+
+    private BulkConverter bulk;
+    private double[] amounts;
+    private int[] fromIds;
+    private int[] toIds;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        bulk = BulkConverter.from(new InMemoryRateService());
+        Random random = new Random(7);
+        amounts = new double[ROWS];
+        fromIds = new int[ROWS];
+        toIds = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            amounts[i] = random.nextDouble() * 10_000;
+            fromIds[i] = random.nextInt(Currency.COUNT);
+            toIds[i] = random.nextInt(Currency.COUNT);
+        }
+        out = new double[ROWS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double[] rowWise() {
+        bulk.convert(amounts, fromIds, toIds, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double[] rowWiseParallel() {
+        bulk.convertParallel(amounts, fromIds, toIds, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double[] columnar() {
+        bulk.convert(amounts, Currency.USD, Currency.NGN, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double[] columnarParallel() {
+        bulk.convertParallel(amounts, Currency.USD, Currency.NGN, out);
+        return out;
+    }
+}
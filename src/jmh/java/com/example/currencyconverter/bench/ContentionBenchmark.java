@@ -0,0 +1,57 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.CachingRateService;
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.InMemoryRateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of many threads hammering one shared service instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ContentionBenchmark {
+
+    private static final Currency[] ALL = Currency.values();
+
+    private InMemoryRateService inMemory;
+    private CachingRateService cached;
+
+    @Setup
+    public void setUp() {
+        inMemory = new InMemoryRateService();
+        cached = new CachingRateService(new InMemoryRateService(), Duration.ofMinutes(10));
+    }
+
+    @Benchmark
+    public void inMemoryGetRate(Blackhole bh) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        bh.consume(inMemory.getRate(ALL[r.nextInt(ALL.length)], ALL[r.nextInt(ALL.length)]));
+    }
+
+    @Benchmark
+    public void cachedGetRate(Blackhole bh) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        bh.consume(cached.getRate(ALL[r.nextInt(ALL.length)], ALL[r.nextInt(ALL.length)]));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.CrossRateGraph;
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.CurrencyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One leg ticking in a graph spanning the whole registry: incremental re-pricing versus recomputing every
+ * route, plus the cost of a derived lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrossRateGraphBenchmark {
+
+    private CrossRateGraph graph;
+    private int n;
+    private int usd;
+    private int eur;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        n = CurrencyRegistry.global().size();
+        usd = Currency.USD.ordinal();
+        eur = Currency.EUR.ordinal();
+        graph = new CrossRateGraph();
+        Instant now = Instant.now();
+        // USD star plus a EUR-quoted leg for every tenth currency, so some pairs have two-hop routes and cycles.
+        for (int id = 0; id < n; id++) {
+            if (id != usd) graph.update(usd, id, 1.0 + id, now);
+            if (id != usd && id != eur && id % 10 == 0) graph.update(eur, id, (1.0 + id) / 0.92, now);
+        }
+    }
+
+    @Benchmark
+    public int tickIncremental() {
+        return graph.update(usd, eur, 0.92 + (i++ & 7) * 1e-4, Instant.ofEpochMilli(i));
+    }
+
+    @Benchmark
+    public void tickFullRecompute() {
+        graph.update(usd, eur, 0.92 + (i++ & 7) * 1e-4, Instant.ofEpochMilli(i));
+        graph.reroute();
+    }
+
+    @Benchmark
+    public double derivedLookup() {
+        int b = (i++ & 0x7fffffff) % n;
+        return graph.rate(b, (b * 31 + 7) % n);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.CurrencyRegistry;
+import com.example.currencyconverter.model.CurrencyUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving a currency code read from raw bytes (as the parsers and batch paths do): registry id lookup
+ * versus decoding a String and hashing it into a map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyLookupBenchmark {
+
+    private CurrencyRegistry registry;
+    private Map<String, Integer> byCode;
+    private byte[] codes;
+    private int count;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        registry = CurrencyRegistry.global();
+        count = registry.size();
+        byCode = new HashMap<>();
+        codes = new byte[count * 3];
+        for (int id = 0; id < count; id++) {
+            CurrencyUnit u = registry.unit(id);
+            byCode.put(u.getCode(), id);
+            // Only three-letter codes go into the byte stream; the rest repeat USD.
+            String code = u.getCode().length() == 3 ? u.getCode() : "USD";
+            System.arraycopy(code.getBytes(StandardCharsets.US_ASCII), 0, codes, id * 3, 3);
+        }
+    }
+
+    private int nextOffset() {
+        return ((i++ & 0x7fffffff) % count) * 3;
+    }
+
+    @Benchmark
+    public int registryIdFromBytes() {
+        return registry.idOf(codes, nextOffset(), 3);
+    }
+
+    @Benchmark
+    public int hashMapFromString() {
+        Integer id = byCode.get(new String(codes, nextOffset(), 3, StandardCharsets.US_ASCII));
+        return id == null ? -1 : id;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.HttpRateService;
+import com.example.currencyconverter.model.RateQuote;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link HttpRateService} throughput against an in-process stub provider on loopback.
+ * Measures client overhead (request building, HTTP/1.1 exchange, parsing), not provider latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HttpRateServiceBenchmark {
+
+    private HttpServer server;
+    private HttpRateService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] payload;
+        try (InputStream in = HttpRateServiceBenchmark.class.getResourceAsStream("/rates/open_er_api_all.json")) {
+            if (in == null) throw new IllegalStateException("Missing payload");
+            payload = in.readAllBytes();
+        }
+        // Without TCP_NODELAY the split header/body writes hit Nagle + delayed ACK and every call costs ~40 ms.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/latest", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        service = new HttpRateService("http://127.0.0.1:" + server.getAddress().getPort(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public Optional<RateQuote> getRate() {
+        return service.getRate(Currency.USD, Currency.EUR);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.BulkConverter;
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.InMemoryRateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting a batch of mixed-pair amounts: {@code double} multiply (rounded only when formatted),
+ * {@code long} fixed point rounded to the target's minor units, and {@link BigDecimal}. Run with
+ * {@code -prof gc} to compare allocation per amount.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyConversionBenchmark {
+
+    private static final int ROWS = 4096;
+
+    private BulkConverter bulk;
+    private double[] amounts;
+    private long[] minorAmounts;
+    private BigDecimal[] decimalAmounts;
+    private int[] fromIds;
+    private int[] toIds;
+    private BigDecimal[] decimalRates;
+    private int[] toScales;
+    private double[] doubleOut;
+    private long[] longOut;
+
+    @Setup
+    public void setUp() {
+        bulk = BulkConverter.from(new InMemoryRateService());
+        Random random = new Random(7);
+        amounts = new double[ROWS];
+        minorAmounts = new long[ROWS];
+        decimalAmounts = new BigDecimal[ROWS];
+        fromIds = new int[ROWS];
+        toIds = new int[ROWS];
+        decimalRates = new BigDecimal[ROWS];
+        toScales = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            Currency from = Currency.ofOrdinal(random.nextInt(Currency.COUNT));
+            Currency to = Currency.ofOrdinal(random.nextInt(Currency.COUNT));
+            int fromScale = from.unit().getMinorUnits();
+            minorAmounts[i] = 1 + random.nextInt(10_000_000);
+            decimalAmounts[i] = BigDecimal.valueOf(minorAmounts[i], fromScale);
+            amounts[i] = decimalAmounts[i].doubleValue();
+            fromIds[i] = from.ordinal();
+            toIds[i] = to.ordinal();
+            decimalRates[i] = new BigDecimal(Double.toString(bulk.getSnapshot().rate(from, to)));
+            toScales[i] = to.unit().getMinorUnits();
+        }
+        doubleOut = new double[ROWS];
+        longOut = new long[ROWS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double[] doubleMultiply() {
+        bulk.convert(amounts, fromIds, toIds, doubleOut);
+        return doubleOut;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long[] fixedPointHalfEven() {
+        bulk.convertMinor(minorAmounts, fromIds, toIds, longOut, RoundingMode.HALF_EVEN);
+        return longOut;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bigDecimalHalfEven(Blackhole bh) {
+        for (int i = 0; i < ROWS; i++) {
+            bh.consume(decimalAmounts[i].multiply(decimalRates[i]).setScale(toScales[i], RoundingMode.HALF_EVEN));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.InMemoryRateService;
+import com.example.currencyconverter.presenter.ConverterPresenter;
+import com.example.currencyconverter.presenter.ConverterPresenterImpl;
+import com.example.currencyconverter.view.ConverterView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@code onConvert}: validation, lookup and result formatting into a sink view.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenterBenchmark {
+
+    private ConverterPresenter presenter;
+
+    @Setup
+    public void setUp(Blackhole bh) {
+        presenter = new ConverterPresenterImpl(new InMemoryRateService());
+        presenter.attachView(new ConverterView() {
+            @Override public void setPresenter(ConverterPresenter p) { }
+            @Override public void clearError() { }
+            @Override public void showError(String message) { bh.consume(message); }
+            @Override public void showResult(String resultText) { bh.consume(resultText); }
+            @Override public void showLastUpdated(String lastUpdatedText) { bh.consume(lastUpdatedText); }
+        });
+    }
+
+    @Benchmark
+    public void onConvert() {
+        presenter.onConvert("12345.67", Currency.USD, Currency.NGN);
+    }
+}
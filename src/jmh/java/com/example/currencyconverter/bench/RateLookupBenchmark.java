@@ -0,0 +1,62 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.InMemoryRateService;
+import com.example.currencyconverter.model.RateQuote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of looking up a rate and of allocating the quote objects around it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLookupBenchmark {
+
+    private static final Currency[] ALL = Currency.values();
+
+    private InMemoryRateService service;
+    private Instant now;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        service = new InMemoryRateService();
+        now = Instant.now();
+    }
+
+    private Currency nextBase() {
+        return ALL[(i++ & 0x7fffffff) % ALL.length];
+    }
+
+    @Benchmark
+    public Optional<RateQuote> getRate() {
+        return service.getRate(nextBase(), Currency.EUR);
+    }
+
+    @Benchmark
+    public double primitiveRate() {
+        return service.rate(nextBase(), Currency.EUR);
+    }
+
+    @Benchmark
+    public RateQuote allocateRateQuote() {
+        return new RateQuote(Currency.USD, Currency.EUR, 0.92, now);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.RateJsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of realistic provider payloads from {@code src/test/resources/rates}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateParsingBenchmark {
+
+    @Param({"frankfurter.json", "exchangeratesapi_io.json", "open_er_api_all.json"})
+    public String payload;
+
+    private byte[] body;
+    private final RateJsonParser.Result reused = new RateJsonParser.Result();
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = RateParsingBenchmark.class.getResourceAsStream("/rates/" + payload)) {
+            if (in == null) throw new IllegalStateException("Missing payload " + payload);
+            body = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public RateJsonParser.Result parseNewResult() {
+        return RateJsonParser.parse(body);
+    }
+
+    @Benchmark
+    public RateJsonParser.Result parseIntoReusedResult() {
+        RateJsonParser.parse(body, 0, body.length, reused);
+        return reused;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.RateChangeNotifier;
+import com.example.currencyconverter.model.RatePublisher;
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.model.RateSnapshot;
+import com.example.currencyconverter.model.RateSubscription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of one rate change to thousands of {@link RatePublisher} subscribers of the changed pair.
+ *
+ * <p>{@code publishInline} delivers on the feed thread and so measures buffering plus {@code onNext} per
+ * subscriber. {@code publishAsync} delivers on a pool and waits until every subscriber has the change, adding the
+ * cost of scheduling each subscriber's drain. {@code publishToStalled} feeds subscribers that never request, i.e.
+ * the feed-thread cost of overflowing full buffers.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatePublisherBenchmark {
+
+    @Param({"1000", "10000"})
+    public int subscribers;
+
+    @Param({"CONFLATE", "DROP_OLDEST"})
+    public RatePublisher.Overflow overflow;
+
+    private FeedService inlineFeed;
+    private FeedService asyncFeed;
+    private FeedService stalledFeed;
+    private RatePublisher inline;
+    private RatePublisher async;
+    private RatePublisher stalled;
+    private ExecutorService pool;
+    private final AtomicLong delivered = new AtomicLong();
+    private double rate = 1.0;
+
+    /** Pushes a table in which only USD/EUR moves. */
+    private static final class FeedService implements ExchangeRateService {
+        private final RateChangeNotifier changes = new RateChangeNotifier();
+        private final double[] usdTo = new double[Currency.values().length];
+        private volatile RateSnapshot snapshot;
+
+        FeedService() {
+            Arrays.fill(usdTo, 2.0);
+            usdTo[Currency.USD.ordinal()] = 1.0;
+            snapshot = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+        }
+
+        void setEur(double rate) {
+            usdTo[Currency.EUR.ordinal()] = rate;
+            snapshot = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+            changes.publish(snapshot);
+        }
+
+        @Override
+        public Optional<RateQuote> getRate(Currency base, Currency quote) {
+            return snapshot.getRate(base, quote);
+        }
+
+        @Override
+        public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+            return changes.subscribe(base, quote, listener, snapshot);
+        }
+    }
+
+    /** Counts deliveries; requests everything, or nothing when {@code demand} is 0. */
+    private final class Counter implements Flow.Subscriber<RateQuote> {
+        private final long demand;
+
+        Counter(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            if (demand > 0) s.request(demand);
+        }
+
+        @Override public void onNext(RateQuote item) { delivered.incrementAndGet(); }
+        @Override public void onError(Throwable t) { }
+        @Override public void onComplete() { }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread t = new Thread(r, "fan-out");
+            t.setDaemon(true);
+            return t;
+        });
+        inlineFeed = new FeedService();
+        asyncFeed = new FeedService();
+        stalledFeed = new FeedService();
+        inline = subscribed(inlineFeed, Runnable::run, Long.MAX_VALUE);
+        async = subscribed(asyncFeed, pool, Long.MAX_VALUE);
+        stalled = subscribed(stalledFeed, Runnable::run, 0);
+    }
+
+    private RatePublisher subscribed(FeedService feed, Executor executor, long demand) {
+        RatePublisher publisher = new RatePublisher(feed, executor, overflow, 16);
+        Flow.Publisher<RateQuote> usdEur = publisher.pair(Currency.USD, Currency.EUR);
+        for (int i = 0; i < subscribers; i++) usdEur.subscribe(new Counter(demand));
+        return publisher;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        inline.close();
+        async.close();
+        stalled.close();
+        pool.shutdownNow();
+    }
+
+    private double nextRate() {
+        rate = rate == 1.0 ? 1.1 : 1.0;
+        return rate;
+    }
+
+    @Benchmark
+    public long publishInline() {
+        inlineFeed.setEur(nextRate());
+        return delivered.get();
+    }
+
+    @Benchmark
+    public long publishAsync() {
+        long target = delivered.get() + subscribers;
+        asyncFeed.setEur(nextRate());
+        while (delivered.get() < target) {
+            Thread.yield(); // leave the CPU to the pool on small machines
+        }
+        return target;
+    }
+
+    @Benchmark
+    public long publishToStalled() {
+        stalledFeed.setEur(nextRate());
+        return stalled.getDiscardedCount();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.currencyconverter.bench;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.presenter.ResultFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one result and its timestamp: the presenter's former {@link NumberFormat} and
+ * {@link DateTimeFormatter} concatenation against {@link ResultFormatter} appending into a reused builder.
+ * Run with {@code -prof gc} to compare allocation per result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultFormatterBenchmark {
+
+    private final NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+    private final NumberFormat moneyFormat = NumberFormat.getNumberInstance(Locale.US);
+    private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z").withZone(ZoneId.systemDefault());
+    private final ResultFormatter formatter = new ResultFormatter();
+    private final StringBuilder out = new StringBuilder(128);
+    private final Instant timestamp = Instant.parse("2024-06-01T12:00:00Z");
+    private double amount;
+    private long convertedMinor;
+
+    @Setup
+    public void setUp() {
+        amount = 1234.5;
+        convertedMinor = 113_574L;
+        moneyFormat.setMinimumFractionDigits(2);
+        moneyFormat.setMaximumFractionDigits(2);
+    }
+
+    @Benchmark
+    public String numberFormatConcat() {
+        return numberFormat.format(amount) + " " + Currency.USD + " = "
+                + moneyFormat.format(BigDecimal.valueOf(convertedMinor, 2)) + " " + Currency.EUR
+                + "Last updated: " + dtf.format(timestamp);
+    }
+
+    @Benchmark
+    public StringBuilder resultFormatterAppend() {
+        out.setLength(0);
+        formatter.appendAmount(out, amount).append(" USD = ");
+        formatter.appendMinor(out, convertedMinor, 2).append(" EUR");
+        return formatter.appendTimestamp(out.append("Last updated: "), timestamp);
+    }
+}
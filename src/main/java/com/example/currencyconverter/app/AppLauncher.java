@@ -5,9 +5,16 @@ import javafx.application.Application;
 /**
  * Separate entry point to launch JavaFX without putting the main method on the Application subclass.
  * This avoids the "JavaFX runtime components are missing" error when running from IDE/plain java.
+ * {@code --watchlist} or {@code --stress[=pairs]} opens the multi-pair watchlist instead of the converter.
  */
 public final class AppLauncher {
     public static void main(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--watchlist") || arg.equals("--stress") || arg.startsWith("--stress=")) {
+                Application.launch(WatchlistApp.class, args);
+                return;
+            }
+        }
         Application.launch(MainApp.class, args);
     }
 }
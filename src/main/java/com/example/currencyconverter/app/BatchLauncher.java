@@ -0,0 +1,31 @@
+package com.example.currencyconverter.app;
+
+import com.example.currencyconverter.model.CsvBatchConverter;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.RateSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Headless entry point converting an {@code amount,from,to} CSV file without starting JavaFX.
+ *
+ * <p>Usage: {@code BatchLauncher <input.csv> <output.csv>}. The rate provider is chosen the same way
+ * as for the UI; its rates are frozen once and every row is converted against that snapshot.</p>
+ */
+public final class BatchLauncher {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BatchLauncher <input.csv> <output.csv>");
+            System.exit(2);
+        }
+        ExchangeRateService service = RateServiceFactory.createFromEnvOrMock();
+        RateSnapshot snapshot = service.currentSnapshot();
+        System.out.println("[INFO] Converting against rates from " + snapshot.getTimestamp());
+        CsvBatchConverter.Summary summary = new CsvBatchConverter(snapshot).convert(Path.of(args[0]), Path.of(args[1]));
+        double seconds = summary.getElapsedNanos() / 1e9;
+        System.out.printf("[INFO] %d rows (%d rejected) in %.2fs, %.0f rows/s%n",
+                summary.getRows(), summary.getRejected(), seconds, summary.getRows() / Math.max(seconds, 1e-9));
+    }
+}
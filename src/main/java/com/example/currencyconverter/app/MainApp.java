@@ -1,12 +1,14 @@
 package com.example.currencyconverter.app;
 
+import com.example.currencyconverter.metrics.InstrumentedPresenter;
+import com.example.currencyconverter.metrics.MetricsReporter;
+import com.example.currencyconverter.metrics.PresenterMetrics;
 import com.example.currencyconverter.model.ExchangeRateService;
-import com.example.currencyconverter.model.InMemoryRateService;
-import com.example.currencyconverter.model.HttpRateService;
 import com.example.currencyconverter.presenter.ConverterPresenter;
 import com.example.currencyconverter.presenter.ConverterPresenterImpl;
 import com.example.currencyconverter.view.ConverterViewFx;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 /**
@@ -17,8 +19,12 @@ public class MainApp extends Application {
     @Override
     public void start(Stage primaryStage) {
         // Compose dependencies
-        ExchangeRateService service = createServiceFromEnvOrMock();
-        ConverterPresenter presenter = new ConverterPresenterImpl(service);
+        MetricsReporter metrics = RateServiceFactory.createMetricsReporter();
+        ExchangeRateService service = RateServiceFactory.createFromEnvOrMock(metrics);
+        PresenterMetrics presenterMetrics = new PresenterMetrics();
+        metrics.register(presenterMetrics);
+        ConverterPresenter presenter = new InstrumentedPresenter(
+                new ConverterPresenterImpl(service, Platform::runLater), presenterMetrics);
         ConverterViewFx view = new ConverterViewFx();
 
         // Wire
@@ -28,33 +34,4 @@ public class MainApp extends Application {
         // Start UI
         view.start(primaryStage);
     }
-
-    private ExchangeRateService createServiceFromEnvOrMock() {
-        // Allow both environment variables and system properties (for IDE run configs)
-        String baseUrl = firstNonBlank(
-                System.getenv("RATE_API_BASE_URL"),
-                System.getProperty("rate.api.baseUrl"));
-        String apiKey = firstNonBlank(
-                System.getenv("RATE_API_KEY"),
-                System.getProperty("rate.api.key"));
-        String apiKeyName = firstNonBlank(
-                System.getenv("RATE_API_KEY_NAME"),
-                System.getProperty("rate.api.keyName"),
-                "access_key");
-
-        if (baseUrl != null && !baseUrl.isBlank()) {
-            System.out.println("[INFO] Using HttpRateService with baseUrl=" + baseUrl);
-            return new HttpRateService(baseUrl, apiKey, apiKeyName);
-        }
-        System.out.println("[INFO] Using InMemoryRateService (no RATE_API_BASE_URL configured)");
-        return new InMemoryRateService();
-    }
-
-    private static String firstNonBlank(String... values) {
-        if (values == null) return null;
-        for (String v : values) {
-            if (v != null && !v.isBlank()) return v;
-        }
-        return null;
-    }
 }
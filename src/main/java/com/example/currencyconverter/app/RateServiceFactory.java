@@ -0,0 +1,201 @@
+package com.example.currencyconverter.app;
+
+import com.example.currencyconverter.metrics.InstrumentedRateService;
+import com.example.currencyconverter.metrics.MetricsReporter;
+import com.example.currencyconverter.metrics.RateServiceMetrics;
+import com.example.currencyconverter.model.CachingRateService;
+import com.example.currencyconverter.model.CrossRateGraph;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.HedgedRateService;
+import com.example.currencyconverter.model.HttpRateService;
+import com.example.currencyconverter.model.InMemoryRateService;
+import com.example.currencyconverter.model.RateHistoryStore;
+import com.example.currencyconverter.model.RateProviderGuard;
+import com.example.currencyconverter.model.RefreshingRateService;
+import com.example.currencyconverter.model.WebSocketRateService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses and configures the {@link ExchangeRateService} from environment variables or system properties.
+ * Shared by every entry point so the UI and headless modes see the same provider setup.
+ */
+final class RateServiceFactory {
+
+    private RateServiceFactory() {
+    }
+
+    static ExchangeRateService createFromEnvOrMock() {
+        return createFromEnvOrMock(null);
+    }
+
+    /**
+     * @param reporter if non-null, the service is instrumented and its metrics registered as an MBean
+     */
+    static ExchangeRateService createFromEnvOrMock(MetricsReporter reporter) {
+        ExchangeRateService service = createProviderFromEnvOrMock();
+        RateServiceMetrics metrics = null;
+        if (reporter != null) {
+            ExchangeRateService provider = service instanceof RateProviderGuard ? ((RateProviderGuard) service).getDelegate() : service;
+            metrics = new RateServiceMetrics(provider.getClass().getSimpleName());
+            if (provider instanceof HttpRateService) {
+                ((HttpRateService) provider).setMetrics(metrics);
+            }
+            reporter.register(metrics);
+        }
+        service = refreshInBackground(service);
+        Long ttlSeconds = parsePositiveLong("RATE_CACHE_TTL_SECONDS",
+                setting("RATE_CACHE_TTL_SECONDS", "rate.cache.ttlSeconds"));
+        if (ttlSeconds != null) {
+            System.out.println("[INFO] Caching rates for " + ttlSeconds + "s");
+            service = new CachingRateService(service, Duration.ofSeconds(ttlSeconds));
+        }
+        startHistoryRecording(service);
+        return metrics == null ? service : new InstrumentedRateService(service, metrics);
+    }
+
+    /**
+     * Keep requested pairs of a per-pair HTTP provider fresh every RATE_REFRESH_SECONDS, if set. Streaming and
+     * snapshot-mode providers are already current, so they are left alone.
+     */
+    private static ExchangeRateService refreshInBackground(ExchangeRateService service) {
+        Long seconds = parsePositiveLong("RATE_REFRESH_SECONDS", setting("RATE_REFRESH_SECONDS", "rate.refresh.seconds"));
+        if (seconds == null) return service;
+        if (setting("RATE_API_BASE_URL", "rate.api.baseUrl") == null || setting("RATE_WS_URL", "rate.ws.url") != null
+                || setting("RATE_API_SNAPSHOT_SECONDS", "rate.api.snapshotSeconds") != null) {
+            System.out.println("[INFO] Ignoring RATE_REFRESH_SECONDS: only per-pair HTTP providers are refreshed");
+            return service;
+        }
+        System.out.println("[INFO] Refreshing requested pairs in the background every " + seconds + "s");
+        return new RefreshingRateService(service, Duration.ofSeconds(seconds));
+    }
+
+    /**
+     * Serve the last saved table from RATE_SNAPSHOT_FILE (default ~/.currency-converter/last-rates.bin) until
+     * the first refresh, so startup does not wait on the network. Set it to "off" to disable.
+     */
+    private static void enableWarmStart(HttpRateService http) {
+        String configured = setting("RATE_SNAPSHOT_FILE", "rate.snapshot.file");
+        if ("off".equalsIgnoreCase(configured)) return;
+        Path file = configured != null ? Path.of(configured)
+                : Path.of(System.getProperty("user.home"), ".currency-converter", "last-rates.bin");
+        if (http.enableWarmStart(file)) {
+            System.out.println("[INFO] Serving saved rates from " + file + " until the first refresh");
+        }
+    }
+
+    /** Records the service's rate table to RATE_HISTORY_DIR, if set, every RATE_HISTORY_SECONDS (default 60). */
+    private static void startHistoryRecording(ExchangeRateService service) {
+        String dir = setting("RATE_HISTORY_DIR", "rate.history.dir");
+        if (dir == null) return;
+        Long seconds = parsePositiveLong("RATE_HISTORY_SECONDS", setting("RATE_HISTORY_SECONDS", "rate.history.seconds"));
+        long interval = seconds == null ? 60 : seconds;
+        try {
+            new RateHistoryStore(Path.of(dir)).startRecording(service, Duration.ofSeconds(interval));
+            System.out.println("[INFO] Recording rate history to " + dir + " every " + interval + "s");
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[WARN] Rate history disabled: " + e.getMessage());
+        }
+    }
+
+    /** Metrics reporter with the optional periodic log dump from RATE_METRICS_LOG_SECONDS applied. */
+    static MetricsReporter createMetricsReporter() {
+        MetricsReporter reporter = new MetricsReporter();
+        Long logSeconds = parsePositiveLong("RATE_METRICS_LOG_SECONDS",
+                setting("RATE_METRICS_LOG_SECONDS", "rate.metrics.logSeconds"));
+        if (logSeconds != null) {
+            reporter.startLogging(Duration.ofSeconds(logSeconds));
+        }
+        return reporter;
+    }
+
+    private static ExchangeRateService createProviderFromEnvOrMock() {
+        // Allow both environment variables and system properties (for IDE run configs)
+        String baseUrl = setting("RATE_API_BASE_URL", "rate.api.baseUrl");
+        String apiKey = setting("RATE_API_KEY", "rate.api.key");
+        String apiKeyName = firstNonBlank(setting("RATE_API_KEY_NAME", "rate.api.keyName"), "access_key");
+
+        String wsUrl = setting("RATE_WS_URL", "rate.ws.url");
+        if (wsUrl != null) {
+            System.out.println("[INFO] Using WebSocketRateService with feed=" + wsUrl);
+            return new WebSocketRateService(URI.create(wsUrl));
+        }
+
+        if (baseUrl != null) {
+            Long snapshotSeconds = parsePositiveLong("RATE_API_SNAPSHOT_SECONDS",
+                    setting("RATE_API_SNAPSHOT_SECONDS", "rate.api.snapshotSeconds"));
+            Long connectMillis = parsePositiveLong("RATE_API_CONNECT_TIMEOUT_MS",
+                    setting("RATE_API_CONNECT_TIMEOUT_MS", "rate.api.connectTimeoutMs"));
+            Long requestMillis = parsePositiveLong("RATE_API_TIMEOUT_MS", setting("RATE_API_TIMEOUT_MS", "rate.api.timeoutMs"));
+            Long threads = parsePositiveLong("RATE_API_THREADS", setting("RATE_API_THREADS", "rate.api.threads"));
+            Duration connectTimeout = Duration.ofMillis(connectMillis == null ? 5_000 : connectMillis);
+            Duration requestTimeout = Duration.ofMillis(requestMillis == null ? 10_000 : requestMillis);
+            int threadCount = threads == null ? 4 : (int) Math.min(threads, 64);
+            Long perMinute = parsePositiveLong("RATE_API_REQUESTS_PER_MINUTE",
+                    setting("RATE_API_REQUESTS_PER_MINUTE", "rate.api.requestsPerMinute"));
+            Long burst = parsePositiveLong("RATE_API_BURST", setting("RATE_API_BURST", "rate.api.burst"));
+            double requestsPerSecond = perMinute == null ? Double.POSITIVE_INFINITY : perMinute / 60.0;
+            int burstSize = burst != null ? (int) Math.min(burst, 10_000) : perMinute != null ? (int) Math.min(perMinute, 10) : 10;
+            if (perMinute != null) {
+                System.out.println("[INFO] Limiting each provider to " + perMinute + " requests/min, bursts of " + burstSize);
+            }
+            List<RateProviderGuard> providers = new ArrayList<>();
+            CrossRateGraph crossRates = new CrossRateGraph();
+            for (String url : baseUrl.split(",")) {
+                if (url.isBlank()) continue;
+                HttpRateService http = new HttpRateService(url.trim(), apiKey, apiKeyName,
+                        connectTimeout, requestTimeout, threadCount);
+                http.setCrossRateGraph(crossRates);
+                if (snapshotSeconds != null) {
+                    http.startSnapshotRefresh(Duration.ofSeconds(snapshotSeconds));
+                }
+                providers.add(RateProviderGuard.around(http, requestsPerSecond, burstSize));
+            }
+            if (snapshotSeconds != null) {
+                System.out.println("[INFO] Refreshing full rate table every " + snapshotSeconds + "s");
+            }
+            if (providers.size() > 1) {
+                System.out.println("[INFO] Using HedgedRateService over " + providers.size() + " providers: " + baseUrl);
+                return new HedgedRateService(providers);
+            }
+            if (providers.size() == 1) {
+                HttpRateService http = (HttpRateService) providers.get(0).getDelegate();
+                System.out.println("[INFO] Using HttpRateService with baseUrl=" + http.getBaseUrl());
+                enableWarmStart(http);
+                return providers.get(0);
+            }
+        }
+        System.out.println("[INFO] Using InMemoryRateService (no RATE_API_BASE_URL configured)");
+        return new InMemoryRateService();
+    }
+
+    /** Value of environment variable {@code envName}, falling back to system property {@code propertyName}. */
+    static String setting(String envName, String propertyName) {
+        return firstNonBlank(System.getenv(envName), System.getProperty(propertyName));
+    }
+
+    static Long parsePositiveLong(String name, String value) {
+        if (value == null) return null;
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed > 0) return parsed;
+        } catch (NumberFormatException ignored) {
+            // fall through to warning
+        }
+        System.out.println("[WARN] Ignoring invalid " + name + "=" + value);
+        return null;
+    }
+
+    static String firstNonBlank(String... values) {
+        if (values == null) return null;
+        for (String v : values) {
+            if (v != null && !v.isBlank()) return v;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.currencyconverter.app;
+
+import com.example.currencyconverter.metrics.MetricsReporter;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.server.ConversionServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Headless entry point serving conversions over HTTP/JSON without starting JavaFX.
+ *
+ * <p>Usage: {@code ServerLauncher [port]} (default 8080, or CONVERTER_SERVER_PORT / converter.server.port).
+ * The rate provider is chosen the same way as for the UI. Ctrl+C drains in-flight requests before exiting.</p>
+ */
+public final class ServerLauncher {
+
+    private static final int DRAIN_SECONDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        String portSetting = args.length > 0 ? args[0]
+                : RateServiceFactory.setting("CONVERTER_SERVER_PORT", "converter.server.port");
+        Long port = RateServiceFactory.parsePositiveLong("CONVERTER_SERVER_PORT", portSetting);
+        MetricsReporter metrics = RateServiceFactory.createMetricsReporter();
+        ExchangeRateService service = RateServiceFactory.createFromEnvOrMock(metrics);
+
+        // JVM-wide, and read when the JDK server first loads: keep-alive responses must not wait on Nagle.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        ConversionServer server = new ConversionServer(service, new InetSocketAddress(port == null ? 8080 : port.intValue()));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("[INFO] Shutting down conversion server");
+            server.stop(DRAIN_SECONDS);
+            metrics.stopLogging();
+        }, "conversion-server-shutdown"));
+        server.start();
+        System.out.println("[INFO] Conversion server listening on port " + server.getPort()
+                + (server.isUsingVirtualThreads() ? " (virtual threads)" : " (thread pool)"));
+    }
+}
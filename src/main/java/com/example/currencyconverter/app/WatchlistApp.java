@@ -0,0 +1,113 @@
+package com.example.currencyconverter.app;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.presenter.WatchlistPresenter;
+import com.example.currencyconverter.view.WatchlistViewFx;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JavaFX launcher for the multi-pair watchlist.
+ *
+ * <p>By default every pair of the configured rate service is watched. With {@code --stress[=pairs]} (default
+ * 1,000) the rows are fed instead by a synthetic random walk ticking every pair {@code --hz} times a second
+ * (default 10) from a background thread, and the frame rate is logged once a second. {@code --seconds=N}
+ * closes the window after N seconds.</p>
+ */
+public class WatchlistApp extends Application {
+
+    private static final long STRESS_STEP_MILLIS = 10;
+
+    private ScheduledExecutorService feed;
+
+    @Override
+    public void start(Stage stage) {
+        Map<String, String> named = getParameters().getNamed();
+        boolean stress = named.containsKey("stress") || getParameters().getUnnamed().contains("--stress");
+        ExchangeRateService service = RateServiceFactory.createFromEnvOrMock();
+        WatchlistPresenter presenter = new WatchlistPresenter(service, Platform::runLater);
+        WatchlistViewFx view = new WatchlistViewFx();
+        presenter.attachView(view);
+        view.setPresenter(presenter);
+        view.start(stage);
+
+        if (stress) {
+            String pairs = named.getOrDefault("stress", "1000");
+            startStressFeed(presenter, Integer.parseInt(pairs.isEmpty() ? "1000" : pairs),
+                    Integer.parseInt(named.getOrDefault("hz", "10")));
+            view.setLogFrameStats(true);
+        } else {
+            List<Currency> all = List.of(Currency.values());
+            presenter.watchPairs(all, all);
+        }
+        String seconds = named.get("seconds");
+        if (seconds != null) {
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "watchlist-timer");
+                t.setDaemon(true);
+                return t;
+            }).schedule(() -> Platform.runLater(() -> {
+                presenter.stop();
+                Platform.exit();
+            }), Long.parseLong(seconds), TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (feed != null) feed.shutdownNow();
+    }
+
+    /** Tick {@code pairs} synthetic rows {@code hz} times a second each, spread evenly over 10 ms steps. */
+    private void startStressFeed(WatchlistPresenter presenter, int pairs, int hz) {
+        if (pairs <= 0 || hz <= 0) throw new IllegalArgumentException("--stress and --hz must be positive");
+        Currency[] currencies = Currency.values();
+        List<String> labels = new ArrayList<>(pairs);
+        Currency[] bases = new Currency[pairs];
+        Currency[] quotes = new Currency[pairs];
+        double[] rates = new double[pairs];
+        for (int i = 0; i < pairs; i++) {
+            bases[i] = currencies[i % currencies.length];
+            quotes[i] = currencies[(i / currencies.length + 1 + i) % currencies.length];
+            if (quotes[i] == bases[i]) quotes[i] = currencies[(bases[i].ordinal() + 1) % currencies.length];
+            rates[i] = 0.5 + ThreadLocalRandom.current().nextDouble() * 100;
+            labels.add(String.format("%s/%s #%04d", bases[i], quotes[i], i));
+        }
+        presenter.showRows(labels);
+        System.out.println("[INFO] Stress mode: " + pairs + " pairs at " + hz + " Hz = " + (long) pairs * hz + " ticks/s");
+
+        feed = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "watchlist-stress-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        double perStep = (double) pairs * hz * STRESS_STEP_MILLIS / 1000.0;
+        double[] carry = new double[1];
+        int[] next = new int[1];
+        feed.scheduleAtFixedRate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            carry[0] += perStep;
+            int n = (int) carry[0];
+            carry[0] -= n;
+            Instant now = Instant.now();
+            for (int k = 0; k < n; k++) {
+                int i = next[0];
+                next[0] = (i + 1) % pairs;
+                rates[i] *= 1 + (random.nextDouble() - 0.5) * 2e-4; // +-1 basis point
+                presenter.onTick(i, new RateQuote(bases[i], quotes[i], rates[i], now));
+            }
+        }, 0, STRESS_STEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.currencyconverter.metrics;
+
+/** Why an upstream attempt produced no rate. */
+public enum ErrorCause {
+    /** Provider answered with a non-2xx status. */
+    HTTP_STATUS,
+    /** Request or connect timeout. */
+    TIMEOUT,
+    /** Connection or other I/O failure. */
+    IO,
+    /** 2xx response without the requested rates. */
+    PARSE,
+    /** Anything else, including exceptions thrown by a delegate. */
+    OTHER
+}
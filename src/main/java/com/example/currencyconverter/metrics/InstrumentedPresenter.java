@@ -0,0 +1,52 @@
+package com.example.currencyconverter.metrics;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.presenter.ConverterPresenter;
+import com.example.currencyconverter.view.ConverterView;
+
+/**
+ * Decorator timing each {@link ConverterPresenter#onConvert} and {@link ConverterPresenter#onWatch} call into
+ * {@link PresenterMetrics}.
+ */
+public class InstrumentedPresenter implements ConverterPresenter {
+
+    private final ConverterPresenter delegate;
+    private final PresenterMetrics metrics;
+
+    public InstrumentedPresenter(ConverterPresenter delegate, PresenterMetrics metrics) {
+        if (delegate == null || metrics == null) throw new IllegalArgumentException("delegate and metrics must be non-null");
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void attachView(ConverterView view) {
+        delegate.attachView(view);
+    }
+
+    @Override
+    public void onConvert(String amountText, Currency from, Currency to) {
+        long start = System.nanoTime();
+        try {
+            delegate.onConvert(amountText, from, to);
+        } finally {
+            metrics.recordConvert(System.nanoTime() - start);
+        }
+    }
+
+    /** Only the initial conversion is timed; pushed updates are rendered by the delegate. */
+    @Override
+    public void onWatch(String amountText, Currency from, Currency to) {
+        long start = System.nanoTime();
+        try {
+            delegate.onWatch(amountText, from, to);
+        } finally {
+            metrics.recordConvert(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void stopWatching() {
+        delegate.stopWatching();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.currencyconverter.metrics;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.model.RateSnapshot;
+import com.example.currencyconverter.model.RateSubscription;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Decorator recording user-facing latency, empty results and delegate failures into {@link RateServiceMetrics}.
+ * Provider-specific detail (per-attempt latency, upstream requests) is recorded by the provider itself.
+ */
+public class InstrumentedRateService implements ExchangeRateService {
+
+    private final ExchangeRateService delegate;
+    private final RateServiceMetrics metrics;
+
+    public InstrumentedRateService(ExchangeRateService delegate, RateServiceMetrics metrics) {
+        if (delegate == null || metrics == null) throw new IllegalArgumentException("delegate and metrics must be non-null");
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        long start = System.nanoTime();
+        try {
+            Optional<RateQuote> result = delegate.getRate(base, quote);
+            metrics.recordCall(System.nanoTime() - start, result == null || result.isEmpty());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordCall(System.nanoTime() - start, true);
+            metrics.recordError(ErrorCause.OTHER);
+            throw e;
+        }
+    }
+
+    @Override
+    public double rate(Currency base, Currency quote) {
+        long start = System.nanoTime();
+        double r = delegate.rate(base, quote);
+        metrics.recordCall(System.nanoTime() - start, Double.isNaN(r));
+        return r;
+    }
+
+    @Override
+    public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+        long start = System.nanoTime();
+        return delegate.getRateAsync(base, quote).whenComplete((result, error) -> {
+            metrics.recordCall(System.nanoTime() - start, error != null || result == null || result.isEmpty());
+            if (error != null) metrics.recordError(RateServiceMetrics.causeOf(error));
+        });
+    }
+
+    @Override
+    public RateSnapshot currentSnapshot() {
+        return delegate.currentSnapshot();
+    }
+
+    /** Pushed updates are not lookups, so they are not recorded. */
+    @Override
+    public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+        return delegate.subscribe(base, quote, listener);
+    }
+
+    public RateServiceMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.currencyconverter.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes metrics as platform MBeans under {@value #DOMAIN} and optionally dumps them to stdout.
+ */
+public final class MetricsReporter {
+
+    static final String DOMAIN = "com.example.currencyconverter";
+
+    private final List<Object> registered = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService logScheduler;
+
+    public void register(RateServiceMetrics metrics) {
+        register("type=RateService,provider=" + ObjectName.quote(metrics.getProvider()), metrics);
+    }
+
+    public void register(PresenterMetrics metrics) {
+        register("type=Presenter", metrics);
+    }
+
+    private void register(String properties, Object mbean) {
+        registered.add(mbean);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            System.out.println("[WARN] Could not register MBean " + properties + ": " + e.getMessage());
+        }
+    }
+
+    /** Print every registered metrics object every {@code interval}. */
+    public synchronized void startLogging(Duration interval) {
+        stopLogging();
+        logScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-log");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        logScheduler.scheduleAtFixedRate(() -> {
+            for (Object m : registered) {
+                System.out.println("[METRICS] " + m);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopLogging() {
+        if (logScheduler != null) {
+            logScheduler.shutdownNow();
+            logScheduler = null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.currencyconverter.metrics;
+
+/** Where time is spent while answering one {@code getRate} call. */
+public enum Phase {
+    /** Whole user-facing call, including caching and fallbacks. */
+    CALL,
+    /** {@code /latest?base=X&symbols=Y} attempt. */
+    DIRECT,
+    /** {@code /latest?symbols=X,Y} cross-rate fallback. */
+    FALLBACK,
+    /** Whole-table snapshot download. */
+    SNAPSHOT
+}
@@ -0,0 +1,51 @@
+package com.example.currencyconverter.metrics;
+
+/**
+ * Time spent inside {@code ConverterPresenter.onConvert} on the calling (UI) thread:
+ * validation, formatting and, for synchronous presenters, the rate lookup itself.
+ */
+public final class PresenterMetrics implements PresenterMetricsMXBean {
+
+    private final LatencyHistogram convert = new LatencyHistogram();
+
+    public void recordConvert(long nanos) {
+        convert.record(nanos);
+    }
+
+    public LatencyHistogram latency() {
+        return convert;
+    }
+
+    @Override
+    public long getConversions() {
+        return convert.count();
+    }
+
+    @Override
+    public double getConvertP50Micros() {
+        return convert.percentileNanos(50) / 1000.0;
+    }
+
+    @Override
+    public double getConvertP99Micros() {
+        return convert.percentileNanos(99) / 1000.0;
+    }
+
+    @Override
+    public double getConvertMaxMicros() {
+        return convert.maxNanos() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        convert.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "conversions=" + getConversions()
+                + " p50Micros=" + getConvertP50Micros()
+                + " p99Micros=" + getConvertP99Micros()
+                + " maxMicros=" + getConvertMaxMicros();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.currencyconverter.metrics;
+
+/** JMX view of {@link PresenterMetrics}. Latencies are in microseconds. */
+public interface PresenterMetricsMXBean {
+
+    long getConversions();
+
+    double getConvertP50Micros();
+
+    double getConvertP99Micros();
+
+    double getConvertMaxMicros();
+
+    void reset();
+}
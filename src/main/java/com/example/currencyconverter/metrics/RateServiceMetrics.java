@@ -0,0 +1,134 @@
+package com.example.currencyconverter.metrics;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and latency histograms for one rate provider.
+ *
+ * <p>All {@code record*} methods are lock-free and allocation-free, so they can sit on the lookup hot
+ * path. Reading goes through {@link RateServiceMetricsMXBean} and builds small maps on demand.</p>
+ */
+public final class RateServiceMetrics implements RateServiceMetricsMXBean {
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ErrorCause[] CAUSES = ErrorCause.values();
+
+    private final String provider;
+    private final LatencyHistogram[] latency = new LatencyHistogram[PHASES.length];
+    private final AtomicLongArray errors = new AtomicLongArray(CAUSES.length);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong emptyResults = new AtomicLong();
+    private final AtomicLong upstreamRequests = new AtomicLong();
+
+    public RateServiceMetrics(String provider) {
+        this.provider = provider;
+        for (int i = 0; i < latency.length; i++) {
+            latency[i] = new LatencyHistogram();
+        }
+    }
+
+    public void recordCall(long nanos, boolean empty) {
+        requests.incrementAndGet();
+        if (empty) emptyResults.incrementAndGet();
+        latency[Phase.CALL.ordinal()].record(nanos);
+    }
+
+    public void recordPhase(Phase phase, long nanos) {
+        latency[phase.ordinal()].record(nanos);
+    }
+
+    public void recordUpstreamRequest() {
+        upstreamRequests.incrementAndGet();
+    }
+
+    public void recordError(ErrorCause cause) {
+        errors.incrementAndGet(cause.ordinal());
+    }
+
+    /** Map an exception from an HTTP exchange to its cause. */
+    public static ErrorCause causeOf(Throwable error) {
+        Throwable t = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (t instanceof HttpTimeoutException) return ErrorCause.TIMEOUT;
+        if (t instanceof IOException) return ErrorCause.IO;
+        return ErrorCause.OTHER;
+    }
+
+    public LatencyHistogram latency(Phase phase) {
+        return latency[phase.ordinal()];
+    }
+
+    public long errorCount(ErrorCause cause) {
+        return errors.get(cause.ordinal());
+    }
+
+    @Override
+    public String getProvider() {
+        return provider;
+    }
+
+    @Override
+    public long getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public long getEmptyResults() {
+        return emptyResults.get();
+    }
+
+    @Override
+    public long getUpstreamRequests() {
+        return upstreamRequests.get();
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (ErrorCause c : CAUSES) {
+            out.put(c.name(), errors.get(c.ordinal()));
+        }
+        return out;
+    }
+
+    @Override
+    public Map<String, Double> getLatencyMicros() {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (Phase p : PHASES) {
+            LatencyHistogram h = latency[p.ordinal()];
+            if (h.count() == 0) continue;
+            String key = p.name().toLowerCase(Locale.ROOT);
+            out.put(key + ".p50", h.percentileNanos(50) / 1000.0);
+            out.put(key + ".p90", h.percentileNanos(90) / 1000.0);
+            out.put(key + ".p99", h.percentileNanos(99) / 1000.0);
+            out.put(key + ".max", h.maxNanos() / 1000.0);
+            out.put(key + ".mean", h.meanNanos() / 1000.0);
+        }
+        return out;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram h : latency) h.reset();
+        for (int i = 0; i < CAUSES.length; i++) errors.set(i, 0);
+        requests.set(0);
+        emptyResults.set(0);
+        upstreamRequests.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "provider=" + provider
+                + " requests=" + getRequests()
+                + " empty=" + getEmptyResults()
+                + " upstream=" + getUpstreamRequests()
+                + " errors=" + getErrorCounts()
+                + " latencyMicros=" + getLatencyMicros();
+    }
+}
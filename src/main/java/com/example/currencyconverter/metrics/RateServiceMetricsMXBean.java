@@ -0,0 +1,26 @@
+package com.example.currencyconverter.metrics;
+
+import java.util.Map;
+
+/** JMX view of {@link RateServiceMetrics}. Latencies are in microseconds. */
+public interface RateServiceMetricsMXBean {
+
+    String getProvider();
+
+    /** Calls made into the service by the app. */
+    long getRequests();
+
+    /** Calls that returned no quote. */
+    long getEmptyResults();
+
+    /** HTTP requests sent upstream (one call may cost several). */
+    long getUpstreamRequests();
+
+    /** Failure counts keyed by {@link ErrorCause} name. */
+    Map<String, Long> getErrorCounts();
+
+    /** p50/p90/p99/max/mean per phase, keyed like {@code call.p99} or {@code direct.p50}. */
+    Map<String, Double> getLatencyMicros();
+
+    void reset();
+}
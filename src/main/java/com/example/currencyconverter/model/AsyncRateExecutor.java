@@ -0,0 +1,23 @@
+package com.example.currencyconverter.model;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared daemon pool backing the default {@link ExchangeRateService#getRateAsync} adapter.
+ * Kept off the common ForkJoinPool because synchronous providers block on I/O.
+ */
+final class AsyncRateExecutor {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "rate-async-" + COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private AsyncRateExecutor() {
+    }
+}
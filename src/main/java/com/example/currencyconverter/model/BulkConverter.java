@@ -0,0 +1,195 @@
+package com.example.currencyconverter.model;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Converts large batches of amounts held in primitive arrays against one frozen {@link RateSnapshot}.
+ *
+ * <p>Two layouts are supported: row-wise, where every amount carries its own from/to {@link CurrencyRegistry} ids,
+ * and columnar, where a whole group of amounts shares one pair. The columnar loop is a single multiply
+ * per element and is auto-vectorised by the JIT. Results are written into caller-supplied arrays;
+ * unsupported pairs produce NaN. Nothing is allocated per element.</p>
+ *
+ * <p>The {@code convertMinor} variants do the same on {@code long} minor units through {@link FixedPoint}:
+ * each result is rounded once to the quote currency's minor units, and overflow is reported per row.</p>
+ *
+ * <p>The {@code *Parallel} variants split inputs above {@link #PARALLEL_THRESHOLD} into fixed-size
+ * chunks on the common fork-join pool. Instances are immutable and thread-safe.</p>
+ */
+public final class BulkConverter {
+
+    /** Inputs smaller than this are converted on the calling thread even by the parallel methods. */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private final RateSnapshot snapshot;
+    /** Minor units per registry id, for the fixed-point paths; -1 where unknown or too large to scale. */
+    private final int[] scales;
+
+    public BulkConverter(RateSnapshot snapshot) {
+        if (snapshot == null) throw new IllegalArgumentException("snapshot must be non-null");
+        this.snapshot = snapshot;
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        this.scales = new int[Math.min(snapshot.size(), registry.size())];
+        for (int id = 0; id < scales.length; id++) {
+            int minor = registry.unit(id).getMinorUnits();
+            scales[id] = minor <= FixedPoint.MAX_SCALE ? minor : -1;
+        }
+    }
+
+    /** Freeze the service's current rates for a batch. */
+    public static BulkConverter from(ExchangeRateService service) {
+        return new BulkConverter(service.currentSnapshot());
+    }
+
+    public RateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Row-wise conversion: {@code out[i] = amounts[i] * rate(from[i], to[i])} for
+     * {@code i in [offset, offset + length)}.
+     *
+     * @param fromIds registry id of each row's base currency ({@link Currency#ordinal()} for enum constants)
+     * @param toIds registry id of each row's quote currency
+     */
+    public void convert(double[] amounts, int[] fromIds, int[] toIds, double[] out, int offset, int length) {
+        checkRange(amounts.length, offset, length);
+        checkRange(fromIds.length, offset, length);
+        checkRange(toIds.length, offset, length);
+        checkRange(out.length, offset, length);
+        convertRange(amounts, fromIds, toIds, out, offset, offset + length);
+    }
+
+    public void convert(double[] amounts, int[] fromIds, int[] toIds, double[] out) {
+        convert(amounts, fromIds, toIds, out, 0, amounts.length);
+    }
+
+    /** Columnar conversion of a group of amounts that all share one pair. */
+    public void convert(double[] amounts, Currency from, Currency to, double[] out, int offset, int length) {
+        checkRange(amounts.length, offset, length);
+        checkRange(out.length, offset, length);
+        scaleRange(amounts, snapshot.rate(from, to), out, offset, offset + length);
+    }
+
+    public void convert(double[] amounts, Currency from, Currency to, double[] out) {
+        convert(amounts, from, to, out, 0, amounts.length);
+    }
+
+    public void convertParallel(double[] amounts, int[] fromIds, int[] toIds, double[] out) {
+        int n = amounts.length;
+        checkRange(fromIds.length, 0, n);
+        checkRange(toIds.length, 0, n);
+        checkRange(out.length, 0, n);
+        if (n < PARALLEL_THRESHOLD) {
+            convertRange(amounts, fromIds, toIds, out, 0, n);
+            return;
+        }
+        IntStream.range(0, chunkCount(n)).parallel().forEach(c -> {
+            int start = c * CHUNK_SIZE;
+            convertRange(amounts, fromIds, toIds, out, start, Math.min(n, start + CHUNK_SIZE));
+        });
+    }
+
+    public void convertParallel(double[] amounts, Currency from, Currency to, double[] out) {
+        int n = amounts.length;
+        checkRange(out.length, 0, n);
+        double rate = snapshot.rate(from, to);
+        if (n < PARALLEL_THRESHOLD) {
+            scaleRange(amounts, rate, out, 0, n);
+            return;
+        }
+        IntStream.range(0, chunkCount(n)).parallel().forEach(c -> {
+            int start = c * CHUNK_SIZE;
+            scaleRange(amounts, rate, out, start, Math.min(n, start + CHUNK_SIZE));
+        });
+    }
+
+    /**
+     * Fixed-point row-wise conversion of amounts in minor units of each row's base currency into minor units of
+     * its quote currency, rounded once with {@code mode}. Rows without a rate, or whose result overflows, are
+     * set to {@link FixedPoint#NO_AMOUNT}.
+     *
+     * @return number of rows set to {@link FixedPoint#NO_AMOUNT}
+     */
+    public int convertMinor(long[] amounts, int[] fromIds, int[] toIds, long[] out, RoundingMode mode, int offset, int length) {
+        if (mode == null) throw new IllegalArgumentException("mode must be non-null");
+        checkRange(amounts.length, offset, length);
+        checkRange(fromIds.length, offset, length);
+        checkRange(toIds.length, offset, length);
+        checkRange(out.length, offset, length);
+        RateSnapshot s = snapshot;
+        int[] sc = scales;
+        int failed = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int from = fromIds[i], to = toIds[i];
+            double rate = s.rate(from, to);
+            if (from < 0 || to < 0 || from >= sc.length || to >= sc.length || sc[from] < 0 || sc[to] < 0
+                    || !FixedPoint.isSupportedRate(rate)) {
+                out[i] = FixedPoint.NO_AMOUNT;
+                failed++;
+                continue;
+            }
+            int e = FixedPoint.rateExponent(rate);
+            long r = FixedPoint.multiply(amounts[i], FixedPoint.rateMantissa(rate, e), sc[to] - sc[from] - e, mode);
+            out[i] = r;
+            if (r == FixedPoint.NO_AMOUNT) failed++;
+        }
+        return failed;
+    }
+
+    public int convertMinor(long[] amounts, int[] fromIds, int[] toIds, long[] out, RoundingMode mode) {
+        return convertMinor(amounts, fromIds, toIds, out, mode, 0, amounts.length);
+    }
+
+    /** Columnar fixed-point conversion of a group sharing one pair; the rate is decomposed once for the group. */
+    public int convertMinor(long[] amounts, Currency from, Currency to, long[] out, RoundingMode mode, int offset, int length) {
+        if (mode == null) throw new IllegalArgumentException("mode must be non-null");
+        checkRange(amounts.length, offset, length);
+        checkRange(out.length, offset, length);
+        double rate = snapshot.rate(from, to);
+        if (!FixedPoint.isSupportedRate(rate)) {
+            Arrays.fill(out, offset, offset + length, FixedPoint.NO_AMOUNT);
+            return length;
+        }
+        int e = FixedPoint.rateExponent(rate);
+        long mantissa = FixedPoint.rateMantissa(rate, e);
+        int exponent = scales[to.ordinal()] - scales[from.ordinal()] - e;
+        int failed = 0;
+        for (int i = offset; i < offset + length; i++) {
+            long r = FixedPoint.multiply(amounts[i], mantissa, exponent, mode);
+            out[i] = r;
+            if (r == FixedPoint.NO_AMOUNT) failed++;
+        }
+        return failed;
+    }
+
+    public int convertMinor(long[] amounts, Currency from, Currency to, long[] out, RoundingMode mode) {
+        return convertMinor(amounts, from, to, out, mode, 0, amounts.length);
+    }
+
+    private void convertRange(double[] amounts, int[] fromIds, int[] toIds, double[] out, int start, int end) {
+        RateSnapshot s = snapshot;
+        for (int i = start; i < end; i++) {
+            out[i] = amounts[i] * s.rate(fromIds[i], toIds[i]);
+        }
+    }
+
+    private static void scaleRange(double[] amounts, double rate, double[] out, int start, int end) {
+        for (int i = start; i < end; i++) {
+            out[i] = amounts[i] * rate;
+        }
+    }
+
+    private static int chunkCount(int n) {
+        return (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > arrayLength) {
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + (offset + length) + ") out of bounds for length " + arrayLength);
+        }
+    }
+}
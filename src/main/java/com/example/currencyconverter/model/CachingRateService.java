@@ -0,0 +1,169 @@
+package com.example.currencyconverter.model;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Caching decorator around any {@link ExchangeRateService}.
+ *
+ * <p>Quotes are cached per currency pair for {@code ttl}. After that they are still served for up to
+ * {@code staleTtl} while a single background reload refreshes them (stale-while-revalidate). Concurrent
+ * misses for the same pair share one upstream call (single-flight). The cache holds at most
+ * {@code maxEntries} pairs and evicts the least recently used ones when full.</p>
+ */
+public class CachingRateService implements ExchangeRateService {
+
+    private static final int PAIRS_PER_BASE = Currency.values().length;
+
+    private final ExchangeRateService delegate;
+    private final long ttlMillis;
+    private final long staleTtlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentHashMap<Integer, Entry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CompletableFuture<Optional<RateQuote>>> inFlight = new ConcurrentHashMap<>();
+
+    /** Cache up to 256 pairs for {@code ttl}, then serve them stale for one more {@code ttl} while reloading. */
+    public CachingRateService(ExchangeRateService delegate, Duration ttl) {
+        this(delegate, ttl, ttl, 256);
+    }
+
+    /**
+     * @param delegate upstream service
+     * @param ttl time a quote is considered fresh
+     * @param staleTtl extra time a quote may be served while a background reload runs
+     * @param maxEntries maximum number of cached pairs
+     */
+    public CachingRateService(ExchangeRateService delegate, Duration ttl, Duration staleTtl, int maxEntries) {
+        this(delegate, ttl, staleTtl, maxEntries, Clock.systemUTC(), Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "rate-cache-refresh");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    CachingRateService(ExchangeRateService delegate, Duration ttl, Duration staleTtl, int maxEntries,
+                       Clock clock, Executor refreshExecutor) {
+        if (delegate == null) throw new IllegalArgumentException("delegate must be non-null");
+        if (ttl == null || ttl.isNegative()) throw new IllegalArgumentException("ttl must be non-negative");
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        this.delegate = delegate;
+        this.ttlMillis = ttl.toMillis();
+        this.staleTtlMillis = staleTtl == null ? 0 : Math.max(0, staleTtl.toMillis());
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        if (base == null || quote == null) return Optional.empty();
+        Integer key = key(base, quote);
+        long now = clock.millis();
+
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            entry.lastAccess = now;
+            if (age < ttlMillis) {
+                return entry.quote;
+            }
+            if (age < ttlMillis + staleTtlMillis && entry.quote.isPresent()) {
+                refreshInBackground(base, quote, key);
+                return entry.quote;
+            }
+        }
+        return load(base, quote, key).join();
+    }
+
+    /** Drop every cached quote, e.g. after a provider switch. */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /** Number of pairs currently cached. */
+    public int size() {
+        return cache.size();
+    }
+
+    private void refreshInBackground(Currency base, Currency quote, Integer key) {
+        if (inFlight.containsKey(key)) return;
+        try {
+            refreshExecutor.execute(() -> load(base, quote, key));
+        } catch (RuntimeException ignored) {
+            // Executor rejected the task; the next caller past the stale window will load synchronously.
+        }
+    }
+
+    private CompletableFuture<Optional<RateQuote>> load(Currency base, Currency quote, Integer key) {
+        CompletableFuture<Optional<RateQuote>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<RateQuote>> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            // The previous loader may have finished between our cache miss and winning the slot.
+            Entry fresh = cache.get(key);
+            if (fresh != null && clock.millis() - fresh.loadedAt < ttlMillis) {
+                mine.complete(fresh.quote);
+                return mine;
+            }
+            Optional<RateQuote> result = delegate.getRate(base, quote);
+            // Empty results are cached too, but only for the fresh window, so a missing pair is not hammered.
+            put(key, result == null ? Optional.empty() : result);
+            mine.complete(result == null ? Optional.empty() : result);
+        } catch (RuntimeException e) {
+            mine.complete(Optional.empty());
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return mine;
+    }
+
+    private void put(Integer key, Optional<RateQuote> quote) {
+        long now = clock.millis();
+        cache.put(key, new Entry(quote, now));
+        if (cache.size() > maxEntries) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (cache.size() > maxEntries) {
+            Integer oldestKey = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<Integer, Entry> e : cache.entrySet()) {
+                if (e.getValue().lastAccess < oldestAccess) {
+                    oldestAccess = e.getValue().lastAccess;
+                    oldestKey = e.getKey();
+                }
+            }
+            if (oldestKey == null) return;
+            cache.remove(oldestKey);
+        }
+    }
+
+    private static Integer key(Currency base, Currency quote) {
+        return base.ordinal() * PAIRS_PER_BASE + quote.ordinal();
+    }
+
+    private static final class Entry {
+        final Optional<RateQuote> quote;
+        final long loadedAt;
+        volatile long lastAccess;
+
+        Entry(Optional<RateQuote> quote, long loadedAt) {
+            this.quote = quote;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.example.currencyconverter.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Triangulates rates for any pair of currencies linked by a chain of directly quoted legs.
+ *
+ * <p>Every direct quote becomes an undirected leg between two registry ids. The latest quote for either
+ * direction defines the leg, and the reverse rate is its reciprocal. For each currency the graph keeps a
+ * shortest-path tree over the legs. Routes use the fewest hops, and ties go to the route whose oldest leg
+ * is freshest. The derived rate and age of every reachable pair are precomputed, so lookups are
+ * array reads.</p>
+ *
+ * <p>A tick on an existing leg re-prices only the pairs whose route crosses it. Each tree is stored in
+ * preorder, so those pairs are one contiguous subtree per source. Ticks never re-route. Adding or
+ * removing a leg, or calling {@link #reroute()}, rebuilds every tree.</p>
+ *
+ * <p>Legs outside a tree close a cycle. When the legs around a cycle disagree, {@link #findInconsistencies}
+ * reports it as a {@link RateInconsistency}.</p>
+ *
+ * <p>Updates are serialized. Lookups are lock-free unless they race an update.</p>
+ */
+public final class CrossRateGraph {
+
+    /** One direct quote between {@code lo < hi}: units of {@code hi} per one {@code lo}. */
+    private static final class Leg {
+        final int lo;
+        final int hi;
+        double rate;
+        long stampMillis;
+
+        Leg(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        double rateFrom(int from) {
+            return from == lo ? rate : 1.0 / rate;
+        }
+
+        int other(int id) {
+            return id == lo ? hi : lo;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<Long, Leg> legs = new HashMap<>();
+    private int capacity;
+
+    // Per-source route trees, indexed [source][target]; rows are null for currencies without legs.
+    private int[][] parent = new int[0][];
+    private Leg[][] via = new Leg[0][];
+    private int[][] hops = new int[0][];
+    private double[][] derived = new double[0][];
+    private long[][] oldest = new long[0][];
+    // Preorder of each tree: the subtree of x is order[s][pos[s][x] .. end[s][x]).
+    private int[][] order = new int[0][];
+    private int[][] pos = new int[0][];
+    private int[][] end = new int[0][];
+    /** Lowest id in each currency's connected component; its tree is the reference for consistency checks. */
+    private int[] component = new int[0];
+
+    /**
+     * Record a direct quote and re-price the routes through it.
+     *
+     * @param rate units of {@code quoteId} per one unit of {@code baseId}
+     * @return number of derived pairs whose rate was recomputed
+     * @throws IllegalArgumentException if the ids are negative or equal, the rate is not positive and finite, or
+     *                                  the timestamp is null
+     */
+    public int update(int baseId, int quoteId, double rate, Instant timestamp) {
+        checkLeg(baseId, quoteId);
+        if (!(rate > 0) || Double.isInfinite(rate)) throw new IllegalArgumentException("rate must be positive and finite");
+        if (timestamp == null) throw new IllegalArgumentException("timestamp must be non-null");
+        long stamp = lock.writeLock();
+        try {
+            Leg leg = legs.get(key(baseId, quoteId));
+            if (leg == null) {
+                put(baseId, quoteId, rate, timestamp.toEpochMilli());
+                return rebuild();
+            }
+            set(leg, baseId, rate, timestamp.toEpochMilli());
+            return reprice(leg);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int update(RateQuote quote) {
+        if (quote == null) throw new IllegalArgumentException("quote must be non-null");
+        return update(quote.getBase().ordinal(), quote.getQuote().ordinal(), quote.getRate(), quote.getTimestamp());
+    }
+
+    /**
+     * Record every leg of a provider payload against {@code baseId}, or against the payload's own base when it
+     * declares one. Rebuilds at most once.
+     *
+     * @return number of derived pairs whose rate was recomputed, or 0 if no base is known
+     */
+    public int update(RateJsonParser.Result payload, int baseId, Instant timestamp) {
+        if (payload == null || timestamp == null) throw new IllegalArgumentException("payload and timestamp must be non-null");
+        int base = payload.getBaseId() >= 0 ? payload.getBaseId() : baseId;
+        if (base < 0 || payload.size() == 0) return 0;
+        long millis = timestamp.toEpochMilli();
+        long stamp = lock.writeLock();
+        try {
+            List<Leg> ticked = new ArrayList<>();
+            boolean topologyChanged = false;
+            for (int id = 0; id < payload.capacity(); id++) {
+                if (id == base || !payload.has(id)) continue;
+                Leg leg = legs.get(key(base, id));
+                if (leg == null) {
+                    put(base, id, payload.rate(id), millis);
+                    topologyChanged = true;
+                } else {
+                    set(leg, base, payload.rate(id), millis);
+                    ticked.add(leg);
+                }
+            }
+            if (topologyChanged) return rebuild();
+            int affected = 0;
+            for (Leg leg : ticked) affected += reprice(leg);
+            return affected;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Forget the direct quote between two currencies, if any. Pairs that were routed through it are re-routed.
+     *
+     * @return true if a leg was removed
+     */
+    public boolean remove(int baseId, int quoteId) {
+        checkLeg(baseId, quoteId);
+        long stamp = lock.writeLock();
+        try {
+            if (legs.remove(key(baseId, quoteId)) == null) return false;
+            rebuild();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Re-choose every route using the current leg timestamps, e.g. after many ticks have changed which legs are freshest. */
+    public void reroute() {
+        long stamp = lock.writeLock();
+        try {
+            rebuild();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Allocation-free lookup.
+     *
+     * @return units of {@code quoteId} per one unit of {@code baseId}, or NaN when no chain of legs links them
+     */
+    public double rate(int baseId, int quoteId) {
+        long stamp = lock.tryOptimisticRead();
+        double r = readRate(baseId, quoteId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                r = readRate(baseId, quoteId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return r;
+    }
+
+    public double rate(Currency base, Currency quote) {
+        return base == null || quote == null ? Double.NaN : rate(base.ordinal(), quote.ordinal());
+    }
+
+    /** Derived quote timestamped with the oldest leg on its route. */
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        if (base == null || quote == null) return Optional.empty();
+        int b = base.ordinal(), q = quote.ordinal();
+        long stamp = lock.readLock();
+        try {
+            double r = readRate(b, q);
+            if (Double.isNaN(r)) return Optional.empty();
+            long millis = b == q ? oldestLeg(b) : oldest[b][q];
+            return Optional.of(new RateQuote(base, quote, r, Instant.ofEpochMilli(millis)));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Number of legs on the route between two currencies: 0 for a currency to itself, -1 when unreachable. */
+    public int hops(int baseId, int quoteId) {
+        long stamp = lock.readLock();
+        try {
+            return reachable(baseId, quoteId) ? hops[baseId][quoteId] : -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Registry ids along the route from base to quote, both included, or an empty array when unreachable. */
+    public int[] path(int baseId, int quoteId) {
+        long stamp = lock.readLock();
+        try {
+            if (!reachable(baseId, quoteId)) return new int[0];
+            int[] path = new int[hops[baseId][quoteId] + 1];
+            for (int i = path.length - 1, x = quoteId; i >= 0; i--, x = parent[baseId][x]) {
+                path[i] = x;
+            }
+            return path;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Every derived rate against {@code anchorId} as a snapshot, timestamped with the oldest leg in use.
+     *
+     * @return empty if the anchor has no legs
+     */
+    public Optional<RateSnapshot> snapshot(int anchorId) {
+        long stamp = lock.readLock();
+        try {
+            if (anchorId < 0 || anchorId >= capacity || derived[anchorId] == null) return Optional.empty();
+            double[] perAnchor = Arrays.copyOf(derived[anchorId], Math.max(capacity, Currency.COUNT));
+            Arrays.fill(perAnchor, capacity, perAnchor.length, Double.NaN);
+            long millis = Long.MAX_VALUE;
+            for (long o : oldest[anchorId]) millis = Math.min(millis, o);
+            return Optional.of(RateSnapshot.fromAnchorRates(perAnchor, Instant.ofEpochMilli(millis)));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int legCount() {
+        long stamp = lock.readLock();
+        try {
+            return legs.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Check every leg against the route the rest of the graph implies for it.
+     *
+     * <p>Each leg that is not part of a route tree closes exactly one cycle with that tree. A leg is reported
+     * when the product of rates around its cycle differs from 1 by more than {@code tolerance}. The cycle is
+     * oriented in its gaining direction. If no leg is reported, every cycle in the graph is consistent.</p>
+     */
+    public List<RateInconsistency> findInconsistencies(double tolerance) {
+        if (!(tolerance >= 0)) throw new IllegalArgumentException("tolerance must be >= 0");
+        long stamp = lock.readLock();
+        try {
+            List<RateInconsistency> found = new ArrayList<>();
+            for (Leg leg : legs.values()) {
+                int root = component[leg.lo];
+                if (via[root][leg.hi] == leg || via[root][leg.lo] == leg) continue;
+                double gain = leg.rate * derived[root][leg.lo] / derived[root][leg.hi];
+                if (Math.abs(gain - 1.0) <= tolerance) continue;
+                int[] cycle = cycle(root, leg.lo, leg.hi);
+                if (gain < 1.0) {
+                    reverse(cycle);
+                    gain = 1.0 / gain;
+                }
+                found.add(new RateInconsistency(cycle, gain));
+            }
+            found.sort((a, b) -> Double.compare(b.getGain(), a.getGain()));
+            return found;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void put(int baseId, int quoteId, double rate, long millis) {
+        Leg leg = new Leg(Math.min(baseId, quoteId), Math.max(baseId, quoteId));
+        set(leg, baseId, rate, millis);
+        legs.put(key(baseId, quoteId), leg);
+    }
+
+    private static void set(Leg leg, int baseId, double rate, long millis) {
+        leg.rate = baseId == leg.lo ? rate : 1.0 / rate;
+        leg.stampMillis = millis;
+    }
+
+    /** Recompute the subtree below {@code leg} in every tree that routes through it. */
+    private int reprice(Leg leg) {
+        int affected = 0;
+        for (int s = 0; s < capacity; s++) {
+            Leg[] row = via[s];
+            if (row == null) continue;
+            int child = row[leg.hi] == leg ? leg.hi : row[leg.lo] == leg ? leg.lo : -1;
+            if (child < 0) continue;
+            int[] o = order[s], p = parent[s];
+            double[] d = derived[s];
+            long[] age = oldest[s];
+            int to = end[s][child];
+            for (int i = pos[s][child]; i < to; i++) {
+                int x = o[i], up = p[x];
+                d[x] = d[up] * row[x].rateFrom(up);
+                age[x] = Math.min(age[up], row[x].stampMillis);
+            }
+            affected += to - pos[s][child];
+        }
+        return affected;
+    }
+
+    /** Rebuild every route tree; returns the number of reachable ordered pairs. */
+    private int rebuild() {
+        int n = 0;
+        for (Leg leg : legs.values()) n = Math.max(n, leg.hi + 1);
+        Leg[][] adjacency = adjacency(n);
+        parent = new int[n][];
+        via = new Leg[n][];
+        hops = new int[n][];
+        derived = new double[n][];
+        oldest = new long[n][];
+        order = new int[n][];
+        pos = new int[n][];
+        end = new int[n][];
+        component = new int[n];
+        Arrays.fill(component, -1);
+        capacity = n;
+        int pairs = 0;
+        int[] queue = new int[n];
+        for (int s = 0; s < n; s++) {
+            if (adjacency[s].length > 0) pairs += buildTree(s, adjacency, queue) - 1;
+        }
+        return pairs;
+    }
+
+    private Leg[][] adjacency(int n) {
+        int[] degree = new int[n];
+        for (Leg leg : legs.values()) {
+            degree[leg.lo]++;
+            degree[leg.hi]++;
+        }
+        Leg[][] adjacency = new Leg[n][];
+        for (int i = 0; i < n; i++) adjacency[i] = new Leg[degree[i]];
+        for (Leg leg : legs.values()) {
+            adjacency[leg.lo][--degree[leg.lo]] = leg;
+            adjacency[leg.hi][--degree[leg.hi]] = leg;
+        }
+        return adjacency;
+    }
+
+    /** Breadth-first route tree from {@code s}, then its preorder and derived rates; returns the tree size. */
+    private int buildTree(int s, Leg[][] adjacency, int[] queue) {
+        int n = capacity;
+        int[] p = new int[n], h = new int[n];
+        Leg[] v = new Leg[n];
+        long[] age = new long[n];
+        Arrays.fill(p, -1);
+        Arrays.fill(h, -1);
+        Arrays.fill(age, Long.MAX_VALUE);
+        h[s] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        while (head < tail) {
+            int u = queue[head++];
+            for (Leg leg : adjacency[u]) {
+                int w = leg.other(u);
+                long bottleneck = Math.min(age[u], leg.stampMillis);
+                if (h[w] < 0) {
+                    h[w] = h[u] + 1;
+                    queue[tail++] = w;
+                } else if (h[w] != h[u] + 1 || bottleneck <= age[w]) {
+                    continue;
+                }
+                // All parents at depth h[u] are final before any node at depth h[w] is expanded.
+                p[w] = u;
+                v[w] = leg;
+                age[w] = bottleneck;
+            }
+        }
+        int size = tail;
+        for (int i = 0; i < size; i++) {
+            if (component[queue[i]] < 0) component[queue[i]] = s;
+        }
+
+        // Children in compressed form, then an explicit-stack preorder walk.
+        int[] childStart = new int[n + 1];
+        for (int i = 0; i < size; i++) {
+            int x = queue[i];
+            if (x != s) childStart[p[x] + 1]++;
+        }
+        for (int i = 0; i < n; i++) childStart[i + 1] += childStart[i];
+        int[] children = new int[Math.max(0, size - 1)];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int i = 0; i < size; i++) {
+            int x = queue[i];
+            if (x != s) children[fill[p[x]]++] = x;
+        }
+        int[] o = new int[size], start = new int[n], stop = new int[n];
+        int[] stack = new int[size];
+        int[] next = Arrays.copyOf(childStart, n);
+        int top = 0, visited = 0;
+        stack[top++] = s;
+        start[s] = visited;
+        o[visited++] = s;
+        while (top > 0) {
+            int x = stack[top - 1];
+            if (next[x] < childStart[x + 1]) {
+                int c = children[next[x]++];
+                start[c] = visited;
+                o[visited++] = c;
+                stack[top++] = c;
+            } else {
+                stop[x] = visited;
+                top--;
+            }
+        }
+
+        double[] d = new double[n];
+        Arrays.fill(d, Double.NaN);
+        d[s] = 1.0;
+        for (int i = 1; i < size; i++) {
+            int x = o[i];
+            d[x] = d[p[x]] * v[x].rateFrom(p[x]);
+        }
+        parent[s] = p;
+        via[s] = v;
+        hops[s] = h;
+        derived[s] = d;
+        oldest[s] = age;
+        order[s] = o;
+        pos[s] = start;
+        end[s] = stop;
+        return size;
+    }
+
+    /** Closed cycle lo -> hi -> (tree route back) -> lo in the tree of {@code root}. */
+    private int[] cycle(int root, int lo, int hi) {
+        int[] p = parent[root], h = hops[root];
+        List<Integer> up = new ArrayList<>();   // hi upwards
+        List<Integer> down = new ArrayList<>(); // lo upwards, reversed later
+        int a = hi, b = lo;
+        while (h[a] > h[b]) { up.add(a); a = p[a]; }
+        while (h[b] > h[a]) { down.add(b); b = p[b]; }
+        while (a != b) {
+            up.add(a);
+            down.add(b);
+            a = p[a];
+            b = p[b];
+        }
+        int[] cycle = new int[up.size() + down.size() + 2];
+        int i = 0;
+        cycle[i++] = lo;
+        for (int x : up) cycle[i++] = x;
+        cycle[i++] = a;
+        // Walking back down from the common ancestor ends at lo itself, closing the cycle.
+        for (int k = down.size() - 1; k >= 0; k--) cycle[i++] = down.get(k);
+        return cycle;
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private boolean reachable(int baseId, int quoteId) {
+        return baseId >= 0 && quoteId >= 0 && baseId < capacity && quoteId < capacity
+                && hops[baseId] != null && hops[baseId][quoteId] >= 0;
+    }
+
+    /** Plain reads of the current arrays; the optimistic caller revalidates, so torn state is harmless. */
+    private double readRate(int baseId, int quoteId) {
+        double[][] table = derived;
+        if (baseId < 0 || quoteId < 0 || baseId >= table.length) return Double.NaN;
+        double[] row = table[baseId];
+        return row == null || quoteId >= row.length ? Double.NaN : row[quoteId];
+    }
+
+    private long oldestLeg(int id) {
+        long millis = Long.MAX_VALUE;
+        for (Leg leg : legs.values()) {
+            if (leg.lo == id || leg.hi == id) millis = Math.min(millis, leg.stampMillis);
+        }
+        return millis;
+    }
+
+    private static void checkLeg(int baseId, int quoteId) {
+        if (baseId < 0 || quoteId < 0 || baseId == quoteId) {
+            throw new IllegalArgumentException("a leg needs two distinct registry ids: " + baseId + ", " + quoteId);
+        }
+    }
+
+    private static long key(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
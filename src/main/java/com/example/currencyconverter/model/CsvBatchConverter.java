@@ -0,0 +1,332 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts {@code amount,from,to} CSV files of any size against one frozen {@link RateSnapshot}.
+ *
+ * <p>The input is split into fixed-size regions that are memory-mapped and converted in parallel. Each
+ * output row is the input row followed by {@code ,converted} (rounded to two decimals, or empty when the
+ * row cannot be converted). Fields are parsed straight from the mapped bytes, so no String is built per
+ * row. Regions are written back in input order while at most a small window of them is in flight, which
+ * keeps heap use independent of file size.</p>
+ *
+ * <p>A first line whose amount does not parse is treated as a header and copied with
+ * {@code ,converted} appended. Lines may end with {@code \n} or {@code \r\n}.</p>
+ */
+public final class CsvBatchConverter {
+
+    /** Longest line accepted; a region looks this far past its end to finish its last row. */
+    static final int MAX_LINE_LENGTH = 4096;
+    private static final int DEFAULT_REGION_SIZE = 8 << 20;
+    private static final byte[] HEADER_SUFFIX = ",converted".getBytes(StandardCharsets.US_ASCII);
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final RateSnapshot snapshot;
+    private final int threads;
+    private final int regionSize;
+
+    public CsvBatchConverter(RateSnapshot snapshot) {
+        this(snapshot, Runtime.getRuntime().availableProcessors(), DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * @param snapshot rates every row is converted against
+     * @param threads worker threads
+     * @param regionSize bytes of input per work unit
+     */
+    public CsvBatchConverter(RateSnapshot snapshot, int threads, int regionSize) {
+        if (snapshot == null) throw new IllegalArgumentException("snapshot must be non-null");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        if (regionSize < MAX_LINE_LENGTH) throw new IllegalArgumentException("regionSize must be at least " + MAX_LINE_LENGTH);
+        this.snapshot = snapshot;
+        this.threads = threads;
+        this.regionSize = regionSize;
+    }
+
+    /** Totals for one run. */
+    public static final class Summary {
+        private final long rows;
+        private final long rejected;
+        private final long nanos;
+
+        Summary(long rows, long rejected, long nanos) {
+            this.rows = rows;
+            this.rejected = rejected;
+            this.nanos = nanos;
+        }
+
+        /** Data rows read, excluding a header. */
+        public long getRows() { return rows; }
+
+        /** Rows written without a converted value (bad amount, unknown code or unsupported pair). */
+        public long getRejected() { return rejected; }
+
+        public long getElapsedNanos() { return nanos; }
+
+        @Override
+        public String toString() {
+            return "Summary{rows=" + rows + ", rejected=" + rejected + ", elapsedMs=" + nanos / 1_000_000 + '}';
+        }
+    }
+
+    public Summary convert(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "csv-batch-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long rows = 0;
+        long rejected = 0;
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            ArrayDeque<Future<RegionResult>> window = new ArrayDeque<>();
+            int maxInFlight = threads * 2;
+            for (long regionStart = 0; regionStart < size; regionStart += regionSize) {
+                long from = regionStart;
+                long to = Math.min(size, regionStart + regionSize);
+                window.add(pool.submit(() -> convertRegion(in, size, from, to)));
+                if (window.size() >= maxInFlight) {
+                    RegionResult r = await(window.poll());
+                    write(out, r);
+                    rows += r.rows;
+                    rejected += r.rejected;
+                }
+            }
+            while (!window.isEmpty()) {
+                RegionResult r = await(window.poll());
+                write(out, r);
+                rows += r.rows;
+                rejected += r.rejected;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Summary(rows, rejected, System.nanoTime() - start);
+    }
+
+    private static RegionResult await(Future<RegionResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Conversion failed", cause);
+        }
+    }
+
+    private static void write(FileChannel out, RegionResult r) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(r.out, 0, r.length);
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+    }
+
+    /**
+     * Converts every line that starts inside {@code [from, to)}. The mapping starts one byte early to see
+     * whether {@code from} is a line start and runs up to {@link #MAX_LINE_LENGTH} past {@code to} to
+     * finish the last line.
+     */
+    private RegionResult convertRegion(FileChannel in, long fileSize, long from, long to) throws IOException {
+        long mapStart = Math.max(0, from - 1);
+        long mapEnd = Math.min(fileSize, to + MAX_LINE_LENGTH);
+        MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = (int) (mapEnd - mapStart);
+        int ownedEnd = (int) (to - mapStart);
+
+        int pos = (int) (from - mapStart);
+        if (from > 0 && map.get(pos - 1) != '\n') {
+            while (pos < limit && map.get(pos) != '\n') pos++;
+            pos++;
+        }
+
+        RegionResult result = new RegionResult((int) Math.min(Integer.MAX_VALUE - 8, (to - from) + (to - from) / 2 + 64));
+        byte[] line = new byte[MAX_LINE_LENGTH];
+        while (pos < ownedEnd && pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < limit && map.get(lineEnd) != '\n') lineEnd++;
+            if (lineEnd == limit && mapEnd < fileSize) {
+                throw new IOException("Line at byte " + (mapStart + pos) + " exceeds " + MAX_LINE_LENGTH + " bytes");
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > pos && map.get(contentEnd - 1) == '\r') contentEnd--;
+            int len = contentEnd - pos;
+            if (len > MAX_LINE_LENGTH) {
+                throw new IOException("Line at byte " + (mapStart + pos) + " exceeds " + MAX_LINE_LENGTH + " bytes");
+            }
+            map.get(pos, line, 0, len);
+            if (len > 0) {
+                convertLine(line, len, mapStart + pos == 0, result);
+            }
+            pos = lineEnd + 1;
+        }
+        return result;
+    }
+
+    private void convertLine(byte[] line, int len, boolean firstLine, RegionResult result) {
+        int c1 = indexOf(line, 0, len, (byte) ',');
+        int c2 = c1 < 0 ? -1 : indexOf(line, c1 + 1, len, (byte) ',');
+        double amount = c1 < 0 ? Double.NaN : parseAmount(line, 0, c1);
+        if (firstLine && Double.isNaN(amount)) {
+            result.append(line, 0, len);
+            result.append(HEADER_SUFFIX, 0, HEADER_SUFFIX.length);
+            result.newline();
+            return;
+        }
+        result.rows++;
+        result.append(line, 0, len);
+        result.append((byte) ',');
+        int from = c2 < 0 ? -1 : codeAt(line, c1 + 1, c2);
+        int to = c2 < 0 ? -1 : codeAt(line, c2 + 1, len);
+        double rate = (from < 0 || to < 0) ? Double.NaN : snapshot.rate(from, to);
+        double converted = amount * rate;
+        if (Double.isNaN(converted) || !result.appendMoney(converted)) {
+            result.rejected++;
+        }
+        result.newline();
+    }
+
+    private static int codeAt(byte[] line, int start, int end) {
+        while (start < end && line[start] == ' ') start++;
+        while (end > start && line[end - 1] == ' ') end--;
+        return CurrencyRegistry.global().idOf(line, start, end - start);
+    }
+
+    private static int indexOf(byte[] line, int from, int end, byte b) {
+        for (int i = from; i < end; i++) {
+            if (line[i] == b) return i;
+        }
+        return -1;
+    }
+
+    /** Parses a plain decimal such as {@code 1234.56} or {@code -0.5}; returns NaN for anything else. */
+    static double parseAmount(byte[] b, int start, int end) {
+        while (start < end && b[start] == ' ') start++;
+        while (end > start && b[end - 1] == ' ') end--;
+        if (start >= end) return Double.NaN;
+        boolean negative = false;
+        if (b[start] == '-' || b[start] == '+') {
+            negative = b[start] == '-';
+            start++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean dot = false;
+        for (int i = start; i < end; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                if (digits >= 18) return slowParse(b, start, end, negative);
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+                if (dot) scale++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return slowParse(b, start, end, negative);
+            }
+        }
+        if (digits == 0 && mantissa == 0 && end - start == (dot ? 1 : 0)) return Double.NaN;
+        double value = scale <= 22 ? mantissa / POW10[scale] : Double.parseDouble(mantissa + "E-" + scale);
+        return negative ? -value : value;
+    }
+
+    private static double slowParse(byte[] b, int start, int end, boolean negative) {
+        try {
+            double v = Double.parseDouble(new String(b, start, end - start, StandardCharsets.US_ASCII));
+            return negative ? -v : v;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** Growable output buffer for one region. */
+    private static final class RegionResult {
+        byte[] out;
+        int length;
+        long rows;
+        long rejected;
+
+        RegionResult(int initialCapacity) {
+            out = new byte[Math.max(256, initialCapacity)];
+        }
+
+        void append(byte b) {
+            ensure(1);
+            out[length++] = b;
+        }
+
+        void append(byte[] src, int off, int len) {
+            ensure(len);
+            System.arraycopy(src, off, out, length, len);
+            length += len;
+        }
+
+        void newline() {
+            append((byte) '\n');
+        }
+
+        /** Appends {@code value} rounded half-up to two decimals; returns false if it is out of range. */
+        boolean appendMoney(double value) {
+            if (Double.isInfinite(value) || Math.abs(value) >= 9.0e15) return false;
+            long cents = Math.round(value * 100.0);
+            ensure(24);
+            if (cents < 0) {
+                out[length++] = '-';
+                cents = -cents;
+            }
+            long whole = cents / 100;
+            int frac = (int) (cents % 100);
+            length = writeLong(whole, out, length);
+            out[length++] = '.';
+            out[length++] = (byte) ('0' + frac / 10);
+            out[length++] = (byte) ('0' + frac % 10);
+            return true;
+        }
+
+        private static int writeLong(long v, byte[] dst, int at) {
+            if (v == 0) {
+                dst[at] = '0';
+                return at + 1;
+            }
+            int digits = 0;
+            for (long t = v; t > 0; t /= 10) digits++;
+            int end = at + digits;
+            for (int i = end - 1; i >= at; i--) {
+                dst[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            return end;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -11,5 +11,50 @@ public enum Currency {
     CNY,
     ZAR,
     INR,
-    GHS
+    GHS;
+
+    private static final Currency[] VALUES = values();
+
+    /** Number of enum constants; they occupy ids {@code [0, COUNT)} in every {@link CurrencyRegistry}. */
+    public static final int COUNT = VALUES.length;
+
+    /** Maps a packed three-letter code to {@code ordinal + 1}, or 0 when unknown. */
+    private static final byte[] CODE_TO_ORDINAL = new byte[26 * 26 * 26];
+
+    static {
+        for (Currency c : VALUES) {
+            String code = c.name();
+            CODE_TO_ORDINAL[pack(code.charAt(0), code.charAt(1), code.charAt(2))] = (byte) (c.ordinal() + 1);
+        }
+    }
+
+    /**
+     * Looks up a three-letter ASCII code (case-insensitive) stored at {@code bytes[offset..offset+2]}
+     * without allocating.
+     *
+     * @return the currency ordinal, or -1 if the bytes are not a known code
+     */
+    public static int ordinalOf(byte[] bytes, int offset) {
+        int a = upper(bytes[offset]), b = upper(bytes[offset + 1]), c = upper(bytes[offset + 2]);
+        if (a < 'A' || a > 'Z' || b < 'A' || b > 'Z' || c < 'A' || c > 'Z') return -1;
+        return CODE_TO_ORDINAL[pack(a, b, c)] - 1;
+    }
+
+    /** Currency for an ordinal returned by {@link #ordinalOf}, without cloning {@link #values()}. */
+    public static Currency ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /** This currency's entry in the global {@link CurrencyRegistry}; its id equals {@link #ordinal()}. */
+    public CurrencyUnit unit() {
+        return CurrencyRegistry.global().unit(ordinal());
+    }
+
+    private static int pack(int a, int b, int c) {
+        return (a - 'A') * 676 + (b - 'A') * 26 + (c - 'A');
+    }
+
+    private static int upper(int b) {
+        return (b >= 'a' && b <= 'z') ? b - 32 : b;
+    }
 }
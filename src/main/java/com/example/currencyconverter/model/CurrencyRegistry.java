@@ -0,0 +1,198 @@
+package com.example.currencyconverter.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Runtime set of currencies with dense integer ids.
+ *
+ * <p>The {@link Currency} enum constants are always registered first, so {@code Currency.ordinal()} is also
+ * the registry id and existing ordinal-indexed arrays stay valid. The global registry then loads
+ * {@code /currencies.txt} from the classpath, which covers ISO 4217 plus metals and common crypto assets.
+ * More codes can be added at any time with {@link #register} or {@link #load}; ids are never reused
+ * or removed.</p>
+ *
+ * <p>Codes are 2 to 12 ASCII letters or digits, matched case-insensitively. Lookups pack the code into a
+ * {@code long} and probe an open-addressing table, so they neither allocate nor hash Strings. Lookups
+ * are lock-free; registration is synchronized and publishes a new table.</p>
+ */
+public final class CurrencyRegistry {
+
+    static final int MAX_CODE_LENGTH = 12;
+    private static final String DEFAULT_RESOURCE = "/currencies.txt";
+
+    private static final class GlobalHolder {
+        static final CurrencyRegistry INSTANCE = createGlobal();
+    }
+
+    /** Immutable lookup state, replaced as a whole on registration. */
+    private static final class Table {
+        final CurrencyUnit[] units;
+        final long[] keys;
+        final int[] ids;
+        final int mask;
+
+        Table(CurrencyUnit[] units) {
+            this.units = units;
+            int capacity = Integer.highestOneBit(Math.max(16, units.length * 4) - 1) << 1;
+            this.keys = new long[capacity];
+            this.ids = new int[capacity];
+            this.mask = capacity - 1;
+            for (CurrencyUnit u : units) {
+                long key = pack(u.getCode());
+                int slot = slot(key, mask);
+                while (keys[slot] != 0) slot = (slot + 1) & mask;
+                keys[slot] = key;
+                ids[slot] = u.getId();
+            }
+        }
+
+        int find(long key) {
+            if (key <= 0) return -1;
+            int slot = slot(key, mask);
+            while (true) {
+                long k = keys[slot];
+                if (k == key) return ids[slot];
+                if (k == 0) return -1;
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    private volatile Table table;
+
+    /** A registry holding only the {@link Currency} enum constants. */
+    public CurrencyRegistry() {
+        CurrencyUnit[] units = new CurrencyUnit[Currency.COUNT];
+        for (int i = 0; i < units.length; i++) {
+            String code = Currency.ofOrdinal(i).name();
+            units[i] = new CurrencyUnit(i, code, java.util.Currency.getInstance(code).getDefaultFractionDigits());
+        }
+        table = new Table(units);
+    }
+
+    /** The process-wide registry, loaded from {@code /currencies.txt} on first use. */
+    public static CurrencyRegistry global() {
+        return GlobalHolder.INSTANCE;
+    }
+
+    private static CurrencyRegistry createGlobal() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        try (InputStream in = CurrencyRegistry.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in != null) registry.load(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + DEFAULT_RESOURCE, e);
+        }
+        return registry;
+    }
+
+    /** Number of registered currencies; valid ids are {@code [0, size())}. */
+    public int size() {
+        return table.units.length;
+    }
+
+    /** @throws IndexOutOfBoundsException if {@code id} is not registered */
+    public CurrencyUnit unit(int id) {
+        return table.units[id];
+    }
+
+    public Optional<CurrencyUnit> find(CharSequence code) {
+        int id = idOf(code);
+        return id < 0 ? Optional.empty() : Optional.of(table.units[id]);
+    }
+
+    /** @return the id of {@code code}, or -1 if it is not registered or not a valid code */
+    public int idOf(CharSequence code) {
+        return code == null ? -1 : table.find(pack(code));
+    }
+
+    /** Same as {@link #idOf(CharSequence)} for the ASCII code at {@code bytes[offset, offset + length)}. */
+    public int idOf(byte[] bytes, int offset, int length) {
+        return table.find(pack(bytes, offset, length));
+    }
+
+    /**
+     * Add a currency, or return the existing one if the code is already known.
+     *
+     * @throws IllegalArgumentException if the code is not 2-12 letters or digits, or minorUnits is negative
+     */
+    public synchronized CurrencyUnit register(String code, int minorUnits) {
+        long key = code == null ? -1 : pack(code);
+        if (key <= 0 || code.length() < 2) {
+            throw new IllegalArgumentException("currency code must be 2-" + MAX_CODE_LENGTH + " letters or digits: " + code);
+        }
+        if (minorUnits < 0) throw new IllegalArgumentException("minorUnits must be >= 0");
+        Table current = table;
+        int existing = current.find(key);
+        if (existing >= 0) return current.units[existing];
+        CurrencyUnit[] grown = Arrays.copyOf(current.units, current.units.length + 1);
+        CurrencyUnit unit = new CurrencyUnit(current.units.length, code.toUpperCase(Locale.ROOT), minorUnits);
+        grown[unit.getId()] = unit;
+        table = new Table(grown);
+        return unit;
+    }
+
+    /**
+     * Register every {@code <code> [minor units]} line from {@code reader}. Blank lines and lines starting with
+     * {@code #} are ignored; minor units default to 2.
+     */
+    public void load(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNo = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            try {
+                register(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 2);
+            } catch (IllegalArgumentException e) {
+                System.out.println("[WARN] Skipping currency line " + lineNo + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Base-37 packing of an alphanumeric code; 0 and negative values mean invalid. */
+    static long pack(CharSequence code) {
+        int n = code.length();
+        if (n == 0 || n > MAX_CODE_LENGTH) return -1;
+        long key = 0;
+        for (int i = 0; i < n; i++) {
+            int d = digit(code.charAt(i));
+            if (d < 0) return -1;
+            key = key * 37 + d;
+        }
+        return key;
+    }
+
+    static long pack(byte[] bytes, int offset, int length) {
+        if (length <= 0 || length > MAX_CODE_LENGTH) return -1;
+        long key = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int d = digit(bytes[i]);
+            if (d < 0) return -1;
+            key = key * 37 + d;
+        }
+        return key;
+    }
+
+    private static int digit(int c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A' + 1;
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return -1;
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+}
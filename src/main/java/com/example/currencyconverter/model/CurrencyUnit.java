@@ -0,0 +1,37 @@
+package com.example.currencyconverter.model;
+
+/**
+ * One currency known to a {@link CurrencyRegistry}.
+ *
+ * <p>Instances are interned: a registry hands out exactly one per code, so they compare by identity.
+ * {@link #getId()} is dense and stable for the life of the registry, which lets rate tables be plain arrays
+ * indexed by id. The first ids belong to the {@link Currency} enum, in ordinal order.</p>
+ */
+public final class CurrencyUnit {
+
+    private final int id;
+    private final String code;
+    private final int minorUnits;
+
+    CurrencyUnit(int id, String code, int minorUnits) {
+        this.id = id;
+        this.code = code;
+        this.minorUnits = minorUnits;
+    }
+
+    public int getId() { return id; }
+    public String getCode() { return code; }
+
+    /** Digits after the decimal point in everyday amounts, e.g. 2 for USD, 0 for JPY, 8 for BTC. */
+    public int getMinorUnits() { return minorUnits; }
+
+    /** The matching enum constant, or null for currencies only known to the registry. */
+    public Currency toCurrency() {
+        return id < Currency.COUNT ? Currency.ofOrdinal(id) : null;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
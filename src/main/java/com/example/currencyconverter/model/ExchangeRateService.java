@@ -1,8 +1,88 @@
 package com.example.currencyconverter.model;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface ExchangeRateService {
 
     Optional<RateQuote> getRate(Currency base, Currency quote);
+
+    /**
+     * Primitive lookup for hot paths.
+     *
+     * <p>Snapshot-backed services override this with an allocation-free array read. The default simply
+     * unwraps {@link #getRate(Currency, Currency)}.</p>
+     *
+     * @return units of {@code quote} per one unit of {@code base}, or NaN when unavailable
+     */
+    default double rate(Currency base, Currency quote) {
+        Optional<RateQuote> q = getRate(base, quote);
+        return q.isPresent() ? q.get().getRate() : Double.NaN;
+    }
+
+    /**
+     * A consistent table of every rate this service can currently provide.
+     *
+     * <p>Snapshot-backed services return their live snapshot. The default builds one by asking for each
+     * currency against USD, which costs one {@link #getRate} call per currency, so callers that need
+     * a frozen table (bulk or batch conversions) should fetch it once and reuse it.</p>
+     */
+    default RateSnapshot currentSnapshot() {
+        Currency[] all = Currency.values();
+        double[] usdTo = new double[all.length];
+        Instant oldest = null;
+        for (Currency c : all) {
+            Optional<RateQuote> q = getRate(Currency.USD, c);
+            usdTo[c.ordinal()] = q.isPresent() ? q.get().getRate() : Double.NaN;
+            if (q.isPresent() && (oldest == null || q.get().getTimestamp().isBefore(oldest))) {
+                oldest = q.get().getTimestamp();
+            }
+        }
+        return RateSnapshot.fromAnchorRates(usdTo, oldest == null ? Instant.now() : oldest);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getRate(Currency, Currency)}.
+     *
+     * <p>The default adapter runs the blocking lookup on a shared daemon pool so existing synchronous
+     * implementations work unchanged. Network-backed services should override it with a truly
+     * asynchronous implementation. The returned future never completes exceptionally for provider
+     * failures; it completes with {@code Optional.empty()} instead, matching {@code getRate}.</p>
+     */
+    default CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Optional<RateQuote> q = getRate(base, quote);
+                return q == null ? Optional.<RateQuote>empty() : q;
+            } catch (RuntimeException e) {
+                return Optional.<RateQuote>empty();
+            }
+        }, AsyncRateExecutor.INSTANCE);
+    }
+
+    /**
+     * Notify {@code listener} with the pair's quote now and again whenever its rate changes, until the returned
+     * subscription is closed.
+     *
+     * <p>Streaming and snapshot-backed services push each change as it is published. The default polls
+     * {@link #getRateAsync} every 5 seconds and forwards only answers that differ from the last one. Listeners
+     * run on the service's threads and must not block.</p>
+     */
+    default RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+        return RateChangeNotifier.poll(this, base, quote, listener, RateChangeNotifier.DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * A {@link java.util.concurrent.Flow.Publisher} of this service's rate changes, for one pair or all, fed by
+     * {@link #subscribe} and so pushed or polled as that is.
+     *
+     * <p>Each subscriber gets its own conflating buffer, so a slow one never holds up the others. Every call opens
+     * a new feed: create one publisher and share it among subscribers, or construct a {@link RatePublisher}
+     * directly to choose the executor, overflow policy and buffer size.</p>
+     */
+    default RatePublisher publisher() {
+        return new RatePublisher(this);
+    }
 }
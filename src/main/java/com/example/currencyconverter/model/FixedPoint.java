@@ -0,0 +1,315 @@
+package com.example.currencyconverter.model;
+
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free fixed-point arithmetic on amounts held as {@code long} minor units.
+ *
+ * <p>An amount at scale {@code s} is {@code value / 10^s}, e.g. 12345 at scale 2 is 123.45. Conversions
+ * turn the {@code double} rate into a decimal with at most 15 significant digits. Provider rates are quoted
+ * with fewer digits, so they come through exactly. The amount is then multiplied by that decimal in 128-bit
+ * integer arithmetic and rounded once, with the requested {@link RoundingMode}, to the target scale. Results
+ * that do not fit in a {@code long} are detected rather than wrapped.</p>
+ *
+ * <p>Single conversions throw {@link ArithmeticException} on overflow. The batch paths in
+ * {@link BulkConverter} write {@link #NO_AMOUNT} instead, so one bad row does not abort a batch.</p>
+ */
+public final class FixedPoint {
+
+    /** Largest supported scale; 10^18 is the largest power of ten in a {@code long}. */
+    public static final int MAX_SCALE = 18;
+
+    /** Marker for rows without a result. Never a valid amount: magnitudes of 2^63 count as overflow. */
+    public static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    private static final int RATE_DIGITS = 15;
+    private static final double LOG10_2 = Math.log10(2);
+    private static final double MIN_RATE = 1e-18;
+    private static final double MAX_RATE = 1e18;
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+    private static final double[] DOUBLE_POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+        DOUBLE_POW10[0] = 1;
+        for (int i = 1; i < DOUBLE_POW10.length; i++) DOUBLE_POW10[i] = DOUBLE_POW10[i - 1] * 10; // exact up to 1e22
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Convert {@code amount} (at {@code fromScale}) by {@code rate} into minor units at {@code toScale}.
+     *
+     * @throws IllegalArgumentException if a scale is outside [0, {@link #MAX_SCALE}], the rate is not in
+     *                                  [1e-18, 1e18], or the mode is null
+     * @throws ArithmeticException      if the result does not fit in a {@code long}, or mode is
+     *                                  {@link RoundingMode#UNNECESSARY} and rounding is needed
+     */
+    public static long convert(long amount, int fromScale, int toScale, double rate, RoundingMode mode) {
+        checkScale(fromScale);
+        checkScale(toScale);
+        checkRate(rate);
+        if (mode == null) throw new IllegalArgumentException("mode must be non-null");
+        int e = rateExponent(rate);
+        long result = multiply(amount, rateMantissa(rate, e), toScale - fromScale - e, mode);
+        if (result == NO_AMOUNT) throw failure(mode);
+        return result;
+    }
+
+    /**
+     * Same amount at another scale, e.g. 12345 at scale 2 to 123 at scale 0.
+     *
+     * @throws ArithmeticException if the result does not fit, or rounding is needed under UNNECESSARY
+     */
+    public static long rescale(long amount, int fromScale, int toScale, RoundingMode mode) {
+        checkScale(fromScale);
+        checkScale(toScale);
+        if (mode == null) throw new IllegalArgumentException("mode must be non-null");
+        long result = multiply(amount, 1, toScale - fromScale, mode);
+        if (result == NO_AMOUNT) throw failure(mode);
+        return result;
+    }
+
+    /**
+     * Parse a plain decimal such as {@code "-1234.5678"} into minor units at {@code scale}, rounding extra
+     * fraction digits with {@code mode}. Surrounding whitespace is ignored. Exponents and grouping separators
+     * are not accepted.
+     *
+     * @throws NumberFormatException if the text is not a plain decimal
+     * @throws ArithmeticException   if the value does not fit, or rounding is needed under UNNECESSARY
+     */
+    public static long parse(CharSequence text, int scale, RoundingMode mode) {
+        checkScale(scale);
+        if (text == null || mode == null) throw new IllegalArgumentException("text and mode must be non-null");
+        int i = 0, end = text.length();
+        while (i < end && Character.isWhitespace(text.charAt(i))) i++;
+        while (end > i && Character.isWhitespace(text.charAt(end - 1))) end--;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long value = 0;
+        int digits = 0, fraction = -1, firstDropped = -1;
+        boolean sticky = false, overflow = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') throw new NumberFormatException("Not a plain decimal: " + text);
+            digits++;
+            int d = c - '0';
+            if (fraction >= 0 && fraction++ >= scale) {
+                if (firstDropped < 0) firstDropped = d;
+                else sticky |= d != 0;
+                continue;
+            }
+            if (value > (Long.MAX_VALUE - d) / 10) overflow = true;
+            value = value * 10 + d;
+        }
+        if (digits == 0) throw new NumberFormatException("Not a plain decimal: " + text);
+        for (int f = Math.max(fraction, 0); f < scale && !overflow; f++) {
+            if (value > Long.MAX_VALUE / 10) overflow = true;
+            value *= 10;
+        }
+        if (overflow) throw failure(RoundingMode.DOWN);
+        int half = firstDropped < 0 ? -1 : firstDropped > 5 ? 1 : firstDropped < 5 ? -1 : sticky ? 1 : 0;
+        boolean inexact = firstDropped > 0 || sticky;
+        long result = round(value, half, inexact, negative, mode);
+        if (result == NO_AMOUNT) throw failure(mode);
+        return negative ? -result : result;
+    }
+
+    /** Number of digits after the decimal point in {@code text}, capped at {@link #MAX_SCALE}. */
+    public static int fractionDigits(CharSequence text) {
+        int dot = -1, digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.') dot = i;
+            else if (dot >= 0 && c >= '0' && c <= '9') digits++;
+        }
+        return Math.min(digits, MAX_SCALE);
+    }
+
+    /**
+     * Batch kernel: same as {@link #convert} with the rate already split by {@link #rateExponent} and
+     * {@link #rateMantissa}, returning {@link #NO_AMOUNT} instead of throwing.
+     *
+     * @param exponent {@code toScale - fromScale - rateExponent}
+     */
+    static long multiply(long amount, long mantissa, int exponent, RoundingMode mode) {
+        if (amount == 0) return 0;
+        if (amount == Long.MIN_VALUE) return NO_AMOUNT;
+        boolean negative = amount < 0;
+        long magnitude = negative ? -amount : amount;
+        long hi = Math.multiplyHigh(magnitude, mantissa);
+        long lo = magnitude * mantissa;
+        long result;
+        if (exponent >= 0) {
+            if (hi != 0 || lo < 0 || exponent > MAX_SCALE) return NO_AMOUNT;
+            long p = POW10[exponent];
+            if (lo > Long.MAX_VALUE / p) return NO_AMOUNT;
+            result = lo * p;
+        } else if (hi == 0 && lo >= 0 && exponent >= -MAX_SCALE) {
+            long d = POW10[-exponent];
+            long q = lo / d, r = lo - q * d;
+            result = round(q, compareHalf(r, d, false), r != 0, negative, mode);
+        } else {
+            result = divideWide(hi, lo, -exponent, negative, mode);
+        }
+        if (result == NO_AMOUNT) return NO_AMOUNT;
+        return negative ? -result : result;
+    }
+
+    /**
+     * Smallest power of ten that makes the rate an integer of at most 15 digits, so that
+     * {@code rate ~= rateMantissa(rate, e) / 10^e}. Rates quoted with few digits get small mantissas, which
+     * keeps most products within 64 bits.
+     */
+    static int rateExponent(double rate) {
+        // floor(log10(rate)) from the binary exponent; the estimate is at most one too low.
+        int e = RATE_DIGITS - 1 - (int) Math.floor(Math.getExponent(rate) * LOG10_2);
+        if (scaleByPow10(rate, e) >= POW10[RATE_DIGITS] - 0.5) e--;
+        long m = rateMantissa(rate, e);
+        // Drop trailing zeros in halving steps; constant divisors compile to multiplications.
+        if (m % 100_000_000L == 0) { m /= 100_000_000L; e -= 8; }
+        if (m % 10_000L == 0) { m /= 10_000L; e -= 4; }
+        if (m % 100L == 0) { m /= 100L; e -= 2; }
+        if (m % 10L == 0) { e -= 1; }
+        return e;
+    }
+
+    static long rateMantissa(double rate, int exponent) {
+        return Math.round(scaleByPow10(rate, exponent));
+    }
+
+    static void checkRate(double rate) {
+        if (!(rate >= MIN_RATE && rate <= MAX_RATE)) {
+            throw new IllegalArgumentException("rate must be between 1e-18 and 1e18: " + rate);
+        }
+    }
+
+    static boolean isSupportedRate(double rate) {
+        return rate >= MIN_RATE && rate <= MAX_RATE;
+    }
+
+    private static double scaleByPow10(double value, int exponent) {
+        if (exponent >= 0) {
+            while (exponent > 22) {
+                value *= 1e22;
+                exponent -= 22;
+            }
+            return value * DOUBLE_POW10[exponent];
+        }
+        while (exponent < -22) {
+            value /= 1e22;
+            exponent += 22;
+        }
+        return value / DOUBLE_POW10[-exponent];
+    }
+
+    /** {@code (hi:lo) / 10^digits} for a 128-bit unsigned product, rounded. */
+    private static long divideWide(long hi, long lo, int digits, boolean negative, RoundingMode mode) {
+        boolean sticky = false;
+        while (digits > MAX_SCALE) {
+            // Divide by the excess first, keeping only whether anything was discarded; the final divisor
+            // is then 10^18, which is even, so an exact half is still recognised.
+            int step = Math.min(digits - MAX_SCALE, MAX_SCALE);
+            long d = POW10[step];
+            long qHi = divideUnsigned(hi, d);
+            long rHi = hi - qHi * d;
+            long qLo = divideUnsigned128(rHi, lo, d);
+            sticky |= lo - qLo * d != 0;
+            hi = qHi;
+            lo = qLo;
+            digits -= step;
+        }
+        long d = POW10[digits];
+        if (Long.compareUnsigned(hi, d) >= 0) return NO_AMOUNT;
+        long q = divideUnsigned128(hi, lo, d);
+        if (q < 0) return NO_AMOUNT;
+        long r = lo - q * d;
+        return round(q, compareHalf(r, d, sticky), r != 0 || sticky, negative, mode);
+    }
+
+    /**
+     * Unsigned {@code (u1:u0) / v} for {@code u1 < v}, after Hacker's Delight {@code divlu}. The remainder
+     * is {@code u0 - q * v}.
+     */
+    private static long divideUnsigned128(long u1, long u0, long v) {
+        final long b = 1L << 32;
+        int s = Long.numberOfLeadingZeros(v);
+        v <<= s;
+        long vn1 = v >>> 32, vn0 = v & 0xFFFFFFFFL;
+        long un32 = s == 0 ? u1 : (u1 << s) | (u0 >>> (64 - s));
+        long un10 = u0 << s;
+        long un1 = un10 >>> 32, un0 = un10 & 0xFFFFFFFFL;
+
+        long q1 = divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (Long.compareUnsigned(q1, b) >= 0 || Long.compareUnsigned(q1 * vn0, b * rhat + un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, b) >= 0) break;
+        }
+        long un21 = un32 * b + un1 - q1 * v;
+        long q0 = divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (Long.compareUnsigned(q0, b) >= 0 || Long.compareUnsigned(q0 * vn0, b * rhat + un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, b) >= 0) break;
+        }
+        return q1 * b + q0;
+    }
+
+    /**
+     * Unsigned {@code n / d} for {@code 0 < d < 2^63}. {@link Long#divideUnsigned} falls back to BigInteger for
+     * dividends of 2^63 and above on this JDK.
+     */
+    private static long divideUnsigned(long n, long d) {
+        if (n >= 0) return n / d;
+        long q = ((n >>> 1) / d) << 1;
+        long r = n - q * d;
+        return Long.compareUnsigned(r, d) >= 0 ? q + 1 : q;
+    }
+
+    /** Sign of {@code remainder / divisor - 1/2}, where {@code sticky} means more was discarded below it. */
+    private static int compareHalf(long remainder, long divisor, boolean sticky) {
+        long twice = remainder << 1; // remainder < divisor <= 10^18, so no overflow
+        if (twice != divisor) return twice < divisor ? -1 : 1;
+        return sticky ? 1 : 0;
+    }
+
+    /** Apply {@code mode} to the truncated magnitude {@code q}; NO_AMOUNT on overflow or forbidden rounding. */
+    private static long round(long q, int half, boolean inexact, boolean negative, RoundingMode mode) {
+        if (!inexact) return q;
+        boolean up;
+        switch (mode) {
+            case UP: up = true; break;
+            case DOWN: up = false; break;
+            case CEILING: up = !negative; break;
+            case FLOOR: up = negative; break;
+            case HALF_UP: up = half >= 0; break;
+            case HALF_DOWN: up = half > 0; break;
+            case HALF_EVEN: up = half > 0 || (half == 0 && (q & 1) != 0); break;
+            default: return NO_AMOUNT; // UNNECESSARY
+        }
+        if (!up) return q;
+        return q == Long.MAX_VALUE ? NO_AMOUNT : q + 1;
+    }
+
+    private static ArithmeticException failure(RoundingMode mode) {
+        return new ArithmeticException(mode == RoundingMode.UNNECESSARY
+                ? "Result overflows a long or needs rounding" : "Result overflows a long");
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) throw new IllegalArgumentException("scale must be in [0, " + MAX_SCALE + "]: " + scale);
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.currencyconverter.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Composite service spreading each lookup over several providers of the same rates.
+ *
+ * <p>Every provider carries a moving score: an exponentially weighted latency, inflated by its recent
+ * error rate, plus that error rate times the maximum hedge delay. The added term keeps a provider that fails
+ * within microseconds behind a slower healthy one. A lookup goes to the best-scored provider first. If it has
+ * not answered once that provider's recent 95th-percentile latency has passed, a hedged request goes to the
+ * next-best one. The first usable quote wins and the other request is cancelled. A provider that fails or
+ * returns nothing fails over to the next one immediately, so the result is empty only when every provider
+ * came up empty. A stale quote, such as a {@link RateProviderGuard}'s last good quote while its circuit is
+ * open, also counts as a failure; it is returned only if no provider has a fresh one.</p>
+ *
+ * <p>Errors fade with a half-life, so a provider that was down is tried again once it has been quiet
+ * for a while.</p>
+ */
+public class HedgedRateService implements ExchangeRateService {
+
+    static final Duration DEFAULT_MIN_HEDGE_DELAY = Duration.ofMillis(10);
+    static final Duration DEFAULT_MAX_HEDGE_DELAY = Duration.ofSeconds(2);
+    /** Hedge delay used until a provider has {@link #MIN_SAMPLES} latency samples. */
+    static final Duration INITIAL_HEDGE_DELAY = Duration.ofMillis(100);
+    static final int MIN_SAMPLES = 8;
+    private static final int WINDOW = 64;
+    private static final double HEDGE_PERCENTILE = 95.0;
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final double ERROR_ALPHA = 0.3;
+    private static final double ERROR_PENALTY = 20.0;
+    private static final long ERROR_HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final List<Provider> providers;
+    private final ScheduledExecutorService scheduler;
+    private final long minHedgeNanos;
+    private final long maxHedgeNanos;
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong failovers = new AtomicLong();
+
+    public HedgedRateService(List<? extends ExchangeRateService> providers) {
+        this(providers, DEFAULT_MIN_HEDGE_DELAY, DEFAULT_MAX_HEDGE_DELAY);
+    }
+
+    /**
+     * @param minHedgeDelay lower bound on the hedge delay, so a very fast provider does not get hedged on noise
+     * @param maxHedgeDelay upper bound on the hedge delay, so one slow outlier cannot disable hedging
+     */
+    public HedgedRateService(List<? extends ExchangeRateService> providers, Duration minHedgeDelay, Duration maxHedgeDelay) {
+        if (providers == null || providers.isEmpty()) {
+            throw new IllegalArgumentException("providers must be non-empty");
+        }
+        if (minHedgeDelay == null || maxHedgeDelay == null || minHedgeDelay.isNegative()
+                || maxHedgeDelay.compareTo(minHedgeDelay) < 0) {
+            throw new IllegalArgumentException("hedge delays must satisfy 0 <= min <= max");
+        }
+        List<Provider> list = new ArrayList<>(providers.size());
+        for (ExchangeRateService p : providers) {
+            if (p == null) throw new IllegalArgumentException("providers must not contain null");
+            list.add(new Provider(p, Math.max(maxHedgeDelay.toNanos(), INITIAL_HEDGE_DELAY.toNanos())));
+        }
+        this.providers = Collections.unmodifiableList(list);
+        this.minHedgeNanos = minHedgeDelay.toNanos();
+        this.maxHedgeNanos = maxHedgeDelay.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hedged-rate-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        try {
+            return getRateAsync(base, quote).join();
+        } catch (CompletionException | CancellationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** Cancelling the returned future cancels every provider request still in flight. */
+    @Override
+    public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+        if (base == null || quote == null) return CompletableFuture.completedFuture(Optional.empty());
+        Call call = new Call(base, quote, ranked());
+        call.launchNext();
+        call.scheduleHedge();
+        return call.result;
+    }
+
+    /** Number of lookups where a hedged second request was sent. */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /** Number of times a failed or empty answer moved a lookup on to the next provider. */
+    public long getFailoverCount() {
+        return failovers.get();
+    }
+
+    /** Lookups won by the provider at {@code index} in constructor order. */
+    public long getWins(int index) {
+        return providers.get(index).wins.get();
+    }
+
+    /** Current routing score of the provider at {@code index}; lower is better. */
+    public double getScore(int index) {
+        return providers.get(index).score(System.nanoTime());
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private Provider[] ranked() {
+        long now = System.nanoTime();
+        Provider[] order = providers.toArray(new Provider[0]);
+        double[] scores = new double[order.length];
+        for (int i = 0; i < order.length; i++) scores[i] = order[i].score(now);
+        Integer[] idx = new Integer[order.length];
+        for (int i = 0; i < idx.length; i++) idx[i] = i;
+        // Stable sort: ties (e.g. providers not tried yet) keep their configured order.
+        Arrays.sort(idx, Comparator.comparingDouble(i -> scores[i]));
+        Provider[] ranked = new Provider[order.length];
+        for (int i = 0; i < idx.length; i++) ranked[i] = order[idx[i]];
+        return ranked;
+    }
+
+    /**
+     * One lookup racing over the ranked providers. Bookkeeping happens under the call's lock; providers
+     * are invoked and the result completed outside it, so caller callbacks never run while it is held.
+     */
+    private final class Call {
+        final Currency base;
+        final Currency quote;
+        final Provider[] ranked;
+        final CompletableFuture<?>[] attempts;
+        final long[] starts;
+        final CompletableFuture<Optional<RateQuote>> result = new CompletableFuture<>();
+        int next;
+        /** First stale answer, kept in case no provider has a fresh one. */
+        Optional<RateQuote> stale;
+        int outstanding;
+        ScheduledFuture<?> hedgeTimer;
+
+        Call(Currency base, Currency quote, Provider[] ranked) {
+            this.base = base;
+            this.quote = quote;
+            this.ranked = ranked;
+            this.attempts = new CompletableFuture<?>[ranked.length];
+            this.starts = new long[ranked.length];
+            result.whenComplete((q, error) -> cancelOutstanding());
+        }
+
+        boolean launchNext() {
+            int i;
+            synchronized (this) {
+                if (result.isDone() || next >= ranked.length) return false;
+                i = next++;
+                outstanding++;
+                starts[i] = System.nanoTime();
+            }
+            CompletableFuture<Optional<RateQuote>> attempt;
+            try {
+                attempt = ranked[i].service.getRateAsync(base, quote);
+            } catch (RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            }
+            synchronized (this) {
+                attempts[i] = attempt;
+            }
+            // The race may already be over if another provider answered meanwhile.
+            if (result.isDone()) attempt.cancel(true);
+            attempt.whenComplete((q, error) -> onAttempt(i, q, error));
+            return true;
+        }
+
+        void scheduleHedge() {
+            if (ranked.length < 2) return;
+            long delay = ranked[0].hedgeDelayNanos(minHedgeNanos, maxHedgeNanos);
+            synchronized (this) {
+                if (result.isDone()) return;
+                try {
+                    hedgeTimer = scheduler.schedule(this::hedge, delay, TimeUnit.NANOSECONDS);
+                } catch (RuntimeException ignored) {
+                    // Scheduler shut down; no hedging, failover still applies.
+                }
+            }
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                // Only hedge while the first provider is still the only one tried.
+                if (next != 1) return;
+            }
+            if (launchNext()) hedges.incrementAndGet();
+        }
+
+        private void onAttempt(int i, Optional<RateQuote> q, Throwable error) {
+            long elapsed = System.nanoTime() - starts[i];
+            Provider p = ranked[i];
+            Optional<RateQuote> lastResort;
+            boolean exhausted;
+            synchronized (this) {
+                outstanding--;
+                if (result.isDone()) {
+                    // Cancelled loser: it was at least this slow, which is worth remembering.
+                    if (attempts[i] != null && attempts[i].isCancelled()) p.recordLatency(elapsed);
+                    return;
+                }
+                boolean present = error == null && q != null && q.isPresent();
+                if (present && !q.get().isStale()) {
+                    p.recordSuccess(elapsed);
+                    p.wins.incrementAndGet();
+                    exhausted = false;
+                } else {
+                    // A stale answer means the provider could not get a fresh one (down, throttled, circuit open).
+                    p.recordFailure(elapsed);
+                    if (present && stale == null) stale = q;
+                    q = null;
+                    exhausted = next >= ranked.length && outstanding == 0;
+                }
+                lastResort = stale;
+            }
+            if (q != null) {
+                result.complete(q);
+            } else if (exhausted) {
+                result.complete(lastResort != null ? lastResort : Optional.empty());
+            } else if (launchNext()) {
+                failovers.incrementAndGet();
+            }
+        }
+
+        private void cancelOutstanding() {
+            CompletableFuture<?>[] pending;
+            synchronized (this) {
+                if (hedgeTimer != null) hedgeTimer.cancel(false);
+                pending = attempts.clone();
+            }
+            for (CompletableFuture<?> attempt : pending) {
+                if (attempt != null && !attempt.isDone()) attempt.cancel(true);
+            }
+        }
+    }
+
+    /** Per-provider score and recent latency window. */
+    private static final class Provider {
+        final ExchangeRateService service;
+        /** What one unit of error rate costs in the score, in nanoseconds. */
+        private final double errorCostNanos;
+        final AtomicLong wins = new AtomicLong();
+        private final long[] window = new long[WINDOW];
+        private int samples;
+        private double latencyEwma;
+        private double errorEwma;
+        private long lastErrorUpdate = System.nanoTime();
+        private long hedgeDelay = -1;
+
+        Provider(ExchangeRateService service, long errorCostNanos) {
+            this.service = service;
+            this.errorCostNanos = errorCostNanos;
+        }
+
+        synchronized double score(long now) {
+            // Providers never tried score 0, so each gets sampled early on. The error term is in time units, so
+            // fast failures cannot make a broken provider look better than a healthy one.
+            double errors = decayedErrors(now);
+            return latencyEwma * (1.0 + ERROR_PENALTY * errors) + errors * errorCostNanos;
+        }
+
+        synchronized long hedgeDelayNanos(long min, long max) {
+            long d = hedgeDelay < 0 ? INITIAL_HEDGE_DELAY.toNanos() : hedgeDelay;
+            return Math.max(min, Math.min(max, d));
+        }
+
+        synchronized void recordSuccess(long nanos) {
+            recordLatency(nanos);
+            recordOutcome(0.0);
+        }
+
+        synchronized void recordFailure(long nanos) {
+            recordLatency(nanos);
+            recordOutcome(1.0);
+        }
+
+        synchronized void recordLatency(long nanos) {
+            window[samples % WINDOW] = nanos;
+            samples++;
+            latencyEwma = samples == 1 ? nanos : latencyEwma + LATENCY_ALPHA * (nanos - latencyEwma);
+            if (samples >= MIN_SAMPLES) {
+                long[] sorted = Arrays.copyOf(window, Math.min(samples, WINDOW));
+                Arrays.sort(sorted);
+                hedgeDelay = sorted[(int) Math.ceil(HEDGE_PERCENTILE / 100.0 * sorted.length) - 1];
+            }
+        }
+
+        private void recordOutcome(double error) {
+            long now = System.nanoTime();
+            errorEwma = decayedErrors(now) + ERROR_ALPHA * (error - decayedErrors(now));
+            lastErrorUpdate = now;
+        }
+
+        private double decayedErrors(long now) {
+            double halfLives = (now - lastErrorUpdate) / (double) ERROR_HALF_LIFE_NANOS;
+            return errorEwma * Math.pow(0.5, halfLives);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.currencyconverter.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * HTTP transport behind {@link HttpRateService}.
+ *
+ * <p>One client is kept per service, preferring HTTP/2 and reusing its connections, with a connect timeout,
+ * a per-request timeout and a fixed number of worker threads. Requests advertise {@code gzip} and
+ * {@code deflate}, and compressed bodies are inflated here. Every URL that answered with an {@code ETag} or
+ * {@code Last-Modified} is revalidated on the next request; a {@code 304} reuses the body kept from the
+ * previous {@code 200}.</p>
+ */
+final class HttpFetcher {
+
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    static final int DEFAULT_THREADS = 4;
+    /** URLs whose validators and body are kept; the per-pair URLs for every enum pair fit. */
+    private static final int MAX_VALIDATED_URLS = 256;
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    /** Outcome of one request; a revalidated {@code 304} is reported as {@code 200} with the kept body. */
+    static final class Reply {
+        final int status;
+        final byte[] body;
+        final boolean notModified;
+        /** The server's {@code Retry-After}, or null. */
+        final Duration retryAfter;
+
+        Reply(int status, byte[] body, boolean notModified, Duration retryAfter) {
+            this.status = status;
+            this.body = body;
+            this.notModified = notModified;
+            this.retryAfter = retryAfter;
+        }
+
+        boolean isSuccess() {
+            return status / 100 == 2;
+        }
+    }
+
+    /** Validators and decoded body of the last {@code 200} for one URL. */
+    private static final class Validated {
+        final String etag;
+        final String lastModified;
+        final byte[] body;
+
+        Validated(String etag, String lastModified, byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final Map<String, Validated> validated = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Validated> eldest) {
+            return size() > MAX_VALIDATED_URLS;
+        }
+    };
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    HttpFetcher(Duration connectTimeout, Duration requestTimeout, int threads) {
+        if (connectTimeout == null || connectTimeout.isZero() || connectTimeout.isNegative()
+                || requestTimeout == null || requestTimeout.isZero() || requestTimeout.isNegative()) {
+            throw new IllegalArgumentException("timeouts must be positive");
+        }
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        this.requestTimeout = requestTimeout;
+        // A fixed number of daemon threads that exit when idle; the default client executor is unbounded.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "http-rate-" + COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * GET {@code uri}, revalidating it if an earlier response carried validators. The raw exchange is stored in
+     * {@code inFlight}, if given, so cancelling it aborts the request.
+     */
+    CompletableFuture<Reply> get(URI uri, AtomicReference<CompletableFuture<?>> inFlight) {
+        String key = uri.toString();
+        Validated previous;
+        synchronized (validated) {
+            previous = validated.get(key);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip, deflate");
+        if (previous != null) {
+            if (previous.etag != null) request.header("If-None-Match", previous.etag);
+            if (previous.lastModified != null) request.header("If-Modified-Since", previous.lastModified);
+        }
+        CompletableFuture<HttpResponse<byte[]>> send = client.sendAsync(request.build(), this::decodingHandler);
+        if (inFlight != null) inFlight.set(send);
+        return send.thenApply(response -> reply(key, previous, response));
+    }
+
+    private Reply reply(String key, Validated previous, HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status == 304 && previous != null) {
+            notModified.incrementAndGet();
+            return new Reply(200, previous.body, true, null);
+        }
+        if (status == 200) {
+            HttpHeaders headers = response.headers();
+            Optional<String> etag = headers.firstValue("ETag");
+            Optional<String> lastModified = headers.firstValue("Last-Modified");
+            synchronized (validated) {
+                if (etag.isPresent() || lastModified.isPresent()) {
+                    validated.put(key, new Validated(etag.orElse(null), lastModified.orElse(null), response.body()));
+                } else {
+                    validated.remove(key);
+                }
+            }
+        }
+        return new Reply(status, response.body(), false, retryAfter(response.headers()));
+    }
+
+    /** {@code Retry-After} as delay-seconds or an HTTP date; null when absent or unparseable. */
+    static Duration retryAfter(HttpHeaders headers) {
+        Optional<String> value = headers.firstValue("Retry-After");
+        if (value.isEmpty()) return null;
+        String v = value.get().trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(v)));
+        } catch (NumberFormatException e) {
+            try {
+                Instant at = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration delay = Duration.between(Instant.now(), at);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /** Collects the body as sent, counts it, and inflates it according to {@code Content-Encoding}. */
+    private HttpResponse.BodySubscriber<byte[]> decodingHandler(HttpResponse.ResponseInfo info) {
+        String encoding = info.headers().firstValue("Content-Encoding").orElse("identity").trim();
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), raw -> {
+            bytesReceived.addAndGet(raw.length);
+            return decode(encoding, raw);
+        });
+    }
+
+    static byte[] decode(String encoding, byte[] raw) {
+        if (raw.length == 0) return raw;
+        try {
+            if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+                    return in.readAllBytes();
+                }
+            }
+            if ("deflate".equalsIgnoreCase(encoding)) {
+                // The spec says zlib-wrapped, but some servers send raw deflate; accept both.
+                try {
+                    return inflate(raw, false);
+                } catch (DataFormatException e) {
+                    return inflate(raw, true);
+                }
+            }
+            return raw;
+        } catch (IOException | DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt " + encoding + " body", e));
+        }
+    }
+
+    private static byte[] inflate(byte[] raw, boolean nowrap) throws DataFormatException {
+        Inflater inflater = new Inflater(nowrap);
+        try {
+            inflater.setInput(raw);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated deflate stream");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /** Response body bytes received as sent, i.e. before decompression. */
+    long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /** Requests answered {@code 304 Not Modified} from a kept body. */
+    long getNotModifiedCount() {
+        return notModified.get();
+    }
+}
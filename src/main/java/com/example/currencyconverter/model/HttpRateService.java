@@ -1,20 +1,51 @@
 package com.example.currencyconverter.model;
 
+import com.example.currencyconverter.metrics.ErrorCause;
+import com.example.currencyconverter.metrics.Phase;
+import com.example.currencyconverter.metrics.RateServiceMetrics;
+
+import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
-
+/**
+ * Exchange rates from a REST provider exposing {@code /latest}.
+ *
+ * <p>By default each pair is fetched on demand. After {@link #startSnapshotRefresh(Duration)} the service
+ * instead downloads the provider's whole {@code rates} table in one call and answers every pair locally
+ * from that {@link RateSnapshot}, refreshing it in the background. Pairs missing from the snapshot still
+ * fall back to per-pair requests. With a {@link CrossRateGraph} attached, a pair that neither request can
+ * quote is triangulated from legs seen in earlier responses.</p>
+ *
+ * <p>Requests go through one HTTP/2 client with timeouts and a bounded thread pool. Responses may be
+ * gzip- or deflate-compressed, and unchanged ones are revalidated with {@code ETag} / {@code Last-Modified}
+ * so a {@code 304} reuses the previous body.</p>
+ */
 public class HttpRateService implements ExchangeRateService {
 
     private final String baseUrl;
     private final String apiKey;
     private final String apiKeyQueryParamName;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final HttpFetcher http;
+
+    private volatile RateSnapshot snapshot;
+    private ScheduledExecutorService snapshotScheduler;
+    private volatile Path warmStartFile;
+    private volatile RateServiceMetrics metrics;
+    private volatile UpstreamListener upstreamListener;
+    private volatile CrossRateGraph crossRates;
+    private final RateChangeNotifier changes = new RateChangeNotifier();
 
     /**
      * @param baseUrl HTTP API base URL (e.g., https://api.exchangerate.host)
@@ -30,6 +61,18 @@ public class HttpRateService implements ExchangeRateService {
      * @param apiKeyQueryParamName Query parameter name to send the key (default differs across providers, e.g., apikey/access_key/apiKey)
      */
     public HttpRateService(String baseUrl, String apiKey, String apiKeyQueryParamName) {
+        this(baseUrl, apiKey, apiKeyQueryParamName, HttpFetcher.DEFAULT_CONNECT_TIMEOUT,
+                HttpFetcher.DEFAULT_REQUEST_TIMEOUT, HttpFetcher.DEFAULT_THREADS);
+    }
+
+    /**
+     * @param connectTimeout limit for establishing a connection
+     * @param requestTimeout limit for each request, from sending it to receiving the response headers
+     * @param threads worker threads of the HTTP client
+     */
+    public HttpRateService(String baseUrl, String apiKey, String apiKeyQueryParamName,
+                           Duration connectTimeout, Duration requestTimeout, int threads) {
+        this.http = new HttpFetcher(connectTimeout, requestTimeout, threads);
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length()-1) : baseUrl;
         this.apiKey = apiKey;
         this.apiKeyQueryParamName = (apiKeyQueryParamName == null || apiKeyQueryParamName.isBlank()) ? "apikey" : apiKeyQueryParamName;
@@ -38,87 +81,330 @@ public class HttpRateService implements ExchangeRateService {
     @Override
     public Optional<RateQuote> getRate(Currency base, Currency quote) {
         try {
-            if (base == null || quote == null) return Optional.empty();
+            return getRateAsync(base, quote).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
 
+    @Override
+    public double rate(Currency base, Currency quote) {
+        RateSnapshot current = snapshot;
+        if (current != null && base != null && quote != null) {
+            double r = current.rate(base, quote);
+            if (!Double.isNaN(r)) return r;
+        }
+        return ExchangeRateService.super.rate(base, quote);
+    }
+
+    /**
+     * Cancelling the returned future aborts whichever HTTP exchange is still in flight and skips the
+     * fallback request.
+     */
+    @Override
+    public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+        if (base == null || quote == null) return CompletableFuture.completedFuture(Optional.empty());
+        RateSnapshot current = snapshot;
+        if (current != null && current.supports(base) && current.supports(quote)) {
+            return CompletableFuture.completedFuture(current.getRate(base, quote));
+        }
+        CompletableFuture<Optional<RateQuote>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>();
+        result.whenComplete((q, error) -> {
+            CompletableFuture<?> pending = inFlight.get();
+            if (result.isCancelled() && pending != null) pending.cancel(true);
+        });
+        try {
             // Attempt 1: Provider supports base parameter directly
-            String endpoint1 = this.baseUrl + "/latest?base=" + encode(base.name()) + "&symbols=" + encode(quote.name());
-            if (apiKey != null && !apiKey.isBlank()) {
-                endpoint1 += "&" + apiKeyQueryParamName + "=" + encode(apiKey);
+            URI req1 = buildRequest("/latest?base=" + encode(base.name()) + "&symbols=" + encode(quote.name()));
+            long start = startAttempt();
+            http.get(req1, inFlight).handle((resp1, error) -> {
+                        Optional<RateQuote> direct = Optional.empty();
+                        if (error == null && resp1.isSuccess()) {
+                            RateJsonParser.Result rates = RateJsonParser.parse(resp1.body);
+                            learn(rates, base.ordinal());
+                            double directRate = rates.rate(quote);
+                            if (directRate > 0) {
+                                direct = Optional.of(new RateQuote(base, quote, directRate, Instant.now()));
+                            }
+                        }
+                        finishAttempt(Phase.DIRECT, start, resp1, error, direct.isPresent());
+                        if (error == null && resp1.status == 429) {
+                            // Throttled: a fallback request would only spend more of the quota.
+                            result.complete(triangulate(base, quote));
+                        }
+                        return direct;
+                    })
+                    .thenCompose(direct -> direct.isPresent() || result.isDone()
+                            ? CompletableFuture.completedFuture(direct)
+                            : fetchCrossRate(base, quote, inFlight))
+                    .thenApply(q -> q.isPresent() || result.isDone() ? q : triangulate(base, quote))
+                    .whenComplete((q, error) -> result.complete(error == null ? q : Optional.empty()));
+        } catch (Exception e) {
+            result.complete(Optional.empty());
+        }
+        return result;
+    }
+
+    /** Attempt 2: request both currencies relative to the provider's default base and cross them locally. */
+    private CompletableFuture<Optional<RateQuote>> fetchCrossRate(Currency base, Currency quote,
+                                                                  AtomicReference<CompletableFuture<?>> inFlight) {
+        URI req2 = buildRequest("/latest?symbols=" + encode(base.name()) + "," + encode(quote.name()));
+        long start = startAttempt();
+        return http.get(req2, inFlight)
+                .handle((resp2, error) -> {
+                    if (error != null || !resp2.isSuccess()) {
+                        finishAttempt(Phase.FALLBACK, start, resp2, error, false);
+                        return Optional.empty();
+                    }
+                    RateJsonParser.Result rates = RateJsonParser.parse(resp2.body);
+                    learn(rates, -1);
+                    double quotePerDefaultBase = rates.rate(quote);
+                    double basePerDefaultBase = rates.rate(base);
+                    boolean usable = quotePerDefaultBase > 0 && basePerDefaultBase > 0;
+                    finishAttempt(Phase.FALLBACK, start, resp2, null, usable);
+                    if (!usable) {
+                        return Optional.empty();
+                    }
+                    double crossRate = quotePerDefaultBase / basePerDefaultBase;
+                    return Optional.of(new RateQuote(base, quote, crossRate, Instant.now()));
+                });
+    }
+
+    /**
+     * Switch to snapshot mode: fetch the full rate table now and then every {@code interval} on a
+     * background thread. Calling it again replaces the previous schedule.
+     */
+    public synchronized void startSnapshotRefresh(Duration interval) {
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        stopSnapshotRefresh();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "http-rate-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::refreshSnapshotQuietly, 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopSnapshotRefresh() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+            snapshotScheduler = null;
+        }
+    }
+
+    /** True while snapshot mode is on, i.e. between {@link #startSnapshotRefresh} and {@link #stopSnapshotRefresh}. */
+    public synchronized boolean isRefreshingSnapshot() {
+        return snapshotScheduler != null;
+    }
+
+    /**
+     * Fetch the provider's whole {@code rates} object in one request and publish it as the current snapshot.
+     *
+     * @return the new snapshot, or empty if the provider could not be reached or returned no usable rates
+     */
+    public CompletableFuture<Optional<RateSnapshot>> refreshSnapshot() {
+        URI req;
+        try {
+            req = buildRequest("/latest");
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        long start = startAttempt();
+        return http.get(req, null)
+                .handle((resp, error) -> {
+                    if (error != null || !resp.isSuccess()) {
+                        finishAttempt(Phase.SNAPSHOT, start, resp, error, false);
+                        return Optional.<RateSnapshot>empty();
+                    }
+                    Optional<RateSnapshot> parsed = parseSnapshot(resp.body, Instant.now());
+                    finishAttempt(Phase.SNAPSHOT, start, resp, null, parsed.isPresent());
+                    parsed.ifPresent(this::publishSnapshot);
+                    return parsed;
+                });
+    }
+
+    /**
+     * Serve the table saved in {@code file}, marked stale, until a refresh succeeds, and save every refreshed
+     * table back to it. Call it after {@link #startSnapshotRefresh(Duration)} if snapshot mode is used.
+     * Outside snapshot mode one background refresh is started. Once that succeeds, lookups go back to
+     * per-pair requests. Per-pair lookups are not saved, so in that mode the file holds the table as of
+     * the last launch.
+     *
+     * @return true if a saved table was loaded
+     */
+    public boolean enableWarmStart(Path file) {
+        if (file == null) throw new IllegalArgumentException("file must be non-null");
+        boolean loaded = false;
+        boolean tableMode;
+        synchronized (this) {
+            warmStartFile = file;
+            tableMode = snapshotScheduler != null;
+            if (snapshot == null) {
+                Optional<RateSnapshot> saved = RateSnapshotFile.read(file);
+                if (saved.isPresent()) {
+                    snapshot = saved.get().asStale();
+                    loaded = true;
+                }
             }
-            HttpRequest req1 = HttpRequest.newBuilder(URI.create(endpoint1))
-                    .GET()
-                    .header("Accept", "application/json")
-                    .build();
-            HttpResponse<String> resp1 = httpClient.send(req1, HttpResponse.BodyHandlers.ofString());
-            if (resp1.statusCode() / 100 == 2) {
-                String body1 = resp1.body();
-                Double directRate = extractRate(body1, quote);
-                if (directRate != null && directRate > 0) {
-                    return Optional.of(new RateQuote(base, quote, directRate, Instant.now()));
+        }
+        if (!tableMode) {
+            refreshSnapshot().thenAccept(fresh -> {
+                if (fresh.isPresent()) {
+                    synchronized (this) {
+                        if (snapshotScheduler == null) snapshot = null;
+                    }
                 }
+            });
+        }
+        return loaded;
+    }
 
+    /** Saves the table first, so anyone who sees it served can also read it from the warm-start file. */
+    private void publishSnapshot(RateSnapshot fresh) {
+        Path file = warmStartFile;
+        if (file != null) {
+            try {
+                RateSnapshotFile.write(fresh, file);
+            } catch (IOException e) {
+                System.out.println("[WARN] Could not save rate snapshot to " + file + ": " + e.getMessage());
             }
+        }
+        synchronized (this) {
+            snapshot = fresh;
+        }
+        changes.publish(fresh);
+    }
 
-            String endpoint2 = this.baseUrl + "/latest?symbols=" + encode(base.name()) + "," + encode(quote.name());
-            if (apiKey != null && !apiKey.isBlank()) {
-                endpoint2 += "&" + apiKeyQueryParamName + "=" + encode(apiKey);
-            }
-            HttpRequest req2 = HttpRequest.newBuilder(URI.create(endpoint2))
-                    .GET()
-                    .header("Accept", "application/json")
-                    .build();
-            HttpResponse<String> resp2 = httpClient.send(req2, HttpResponse.BodyHandlers.ofString());
-            if (resp2.statusCode() / 100 != 2) {
-                return Optional.empty();
-            }
-            String body2 = resp2.body();
-            Double quotePerDefaultBase = extractRate(body2, quote);
-            Double basePerDefaultBase = extractRate(body2, base);
-            if (quotePerDefaultBase == null || basePerDefaultBase == null || quotePerDefaultBase <= 0 || basePerDefaultBase <= 0) {
-                return Optional.empty();
-            }
-            double crossRate = quotePerDefaultBase / basePerDefaultBase;
-            return Optional.of(new RateQuote(base, quote, crossRate, Instant.now()));
-        } catch (Exception e) {
-            return Optional.empty();
+    /**
+     * In snapshot mode subscribers are notified by each table refresh that changes their pair, with no extra
+     * requests. Otherwise the pair is polled as by the default, through the per-pair lookups.
+     */
+    @Override
+    public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+        synchronized (this) {
+            if (snapshotScheduler != null) return changes.subscribe(base, quote, listener, snapshot);
         }
+        return ExchangeRateService.super.subscribe(base, quote, listener);
     }
 
-    private static String encode(String s) {
-        return java.net.URLEncoder.encode(s, java.nio.charset.StandardCharsets.UTF_8);
+    @Override
+    public RateSnapshot currentSnapshot() {
+        RateSnapshot current = snapshot;
+        return current != null ? current : ExchangeRateService.super.currentSnapshot();
+    }
+
+    /** Most recent snapshot (possibly a stale warm-start one), or empty when there is none. */
+    public Optional<RateSnapshot> getSnapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    private void refreshSnapshotQuietly() {
+        try {
+            refreshSnapshot().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ignored) {
+            // Keep serving the previous snapshot; the next tick will retry.
+        }
+    }
+
+    static Optional<RateSnapshot> parseSnapshot(byte[] json, Instant timestamp) {
+        RateJsonParser.Result rates = RateJsonParser.parse(json);
+        double[] perAnchor = rates.toAnchorRates();
+        int usable = 0;
+        for (double r : perAnchor) {
+            if (r > 0) usable++;
+        }
+        if (usable < 2) return Optional.empty();
+        return Optional.of(RateSnapshot.fromAnchorRates(perAnchor, timestamp));
     }
 
+    /**
+     * Feed the legs of every per-pair response into {@code graph}, and answer pairs the provider cannot quote
+     * by triangulating through it. The graph may be shared between providers.
+     */
+    public void setCrossRateGraph(CrossRateGraph graph) {
+        this.crossRates = graph;
+    }
+
+    private void learn(RateJsonParser.Result payload, int requestedBase) {
+        CrossRateGraph graph = crossRates;
+        if (graph != null) graph.update(payload, requestedBase, Instant.now());
+    }
+
+    /** Attempt 3: derive the pair from legs learned earlier, when a graph is attached. */
+    private Optional<RateQuote> triangulate(Currency base, Currency quote) {
+        CrossRateGraph graph = crossRates;
+        return graph == null ? Optional.empty() : graph.getRate(base, quote);
+    }
+
+    /** Record per-attempt latency, upstream request counts and failure causes into {@code metrics}. */
+    public void setMetrics(RateServiceMetrics metrics) {
+        this.metrics = metrics;
+    }
 
-    private static Double extractRate(String json, Currency quote) {
-        if (json == null) return null;
-        String q = quote.name().toUpperCase(Locale.ROOT);
-        int ratesIdx = json.indexOf("\"rates\"");
-        if (ratesIdx < 0) return null;
-        int qIdx = json.indexOf("\"" + q + "\"", ratesIdx);
-        if (qIdx < 0) return null;
-        int colon = json.indexOf(':', qIdx);
-        if (colon < 0) return null;
+    /** Report every request sent upstream and its outcome to {@code listener}, e.g. a {@link RateProviderGuard}. */
+    public void setUpstreamListener(UpstreamListener listener) {
+        this.upstreamListener = listener;
+    }
 
-        int i = colon + 1;
-        int n = json.length();
+    private long startAttempt() {
+        UpstreamListener l = upstreamListener;
+        if (l != null) l.onRequest();
+        RateServiceMetrics m = metrics;
+        if (m == null) return 0;
+        m.recordUpstreamRequest();
+        return System.nanoTime();
+    }
 
-        while (i < n && Character.isWhitespace(json.charAt(i))) i++;
-        int start = i;
-        boolean dotSeen = false;
-        while (i < n) {
-            char c = json.charAt(i);
-            if ((c >= '0' && c <= '9') || c == '-' || c == '+') { i++; continue; }
-            if (c == '.' && !dotSeen) { dotSeen = true; i++; continue; }
-            break;
+    private void finishAttempt(Phase phase, long start, HttpFetcher.Reply response, Throwable error, boolean usable) {
+        UpstreamListener l = upstreamListener;
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (l != null && !(cause instanceof CancellationException)) { // a caller's cancel says nothing about the provider
+            l.onResponse(error != null || response == null ? -1 : response.status, response == null ? null : response.retryAfter);
         }
-        if (start >= n || start == i) return null;
-        try {
-            return Double.parseDouble(json.substring(start, i));
-        } catch (NumberFormatException ex) {
-            return null;
+        RateServiceMetrics m = metrics;
+        if (m == null) return;
+        m.recordPhase(phase, System.nanoTime() - start);
+        if (error != null) {
+            m.recordError(RateServiceMetrics.causeOf(error));
+        } else if (response != null && !response.isSuccess()) {
+            m.recordError(ErrorCause.HTTP_STATUS);
+        } else if (!usable) {
+            m.recordError(ErrorCause.PARSE);
         }
     }
 
+    private URI buildRequest(String pathAndQuery) {
+        String endpoint = this.baseUrl + pathAndQuery;
+        if (apiKey != null && !apiKey.isBlank()) {
+            endpoint += (pathAndQuery.indexOf('?') < 0 ? "?" : "&") + apiKeyQueryParamName + "=" + encode(apiKey);
+        }
+        return URI.create(endpoint);
+    }
+
+    private static String encode(String s) {
+        return java.net.URLEncoder.encode(s, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+
+    /** Response body bytes received from the provider, before decompression. */
+    public long getBytesReceived() {
+        return http.getBytesReceived();
+    }
+
+    /** Requests the provider answered {@code 304 Not Modified}, served from the previous body. */
+    public long getNotModifiedCount() {
+        return http.getNotModifiedCount();
+    }
+
     public String getBaseUrl() { return baseUrl; }
     public String getApiKey() { return apiKey; }
     public String getApiKeyQueryParamName() { return apiKeyQueryParamName; }
@@ -1,47 +1,54 @@
 package com.example.currencyconverter.model;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class InMemoryRateService implements ExchangeRateService {
 
-    private final Map<Currency, Double> usdTo = new HashMap<>();
-    private Instant lastRefresh;
+    private volatile RateSnapshot snapshot;
+    private final RateChangeNotifier changes = new RateChangeNotifier();
 
     public InMemoryRateService() {
         refreshMockData();
     }
 
     private void refreshMockData() {
-        lastRefresh = Instant.now();
-        usdTo.clear();
-        usdTo.put(Currency.USD, 1.0);
-        usdTo.put(Currency.EUR, 0.92);
-        usdTo.put(Currency.GBP, 0.80);
-        usdTo.put(Currency.NGN, 1500.0);
-        usdTo.put(Currency.JPY, 150.0);
-        usdTo.put(Currency.CAD, 1.36);
-        usdTo.put(Currency.AUD, 1.53);
-        usdTo.put(Currency.CNY, 7.20);
-        usdTo.put(Currency.ZAR, 18.50);
-        usdTo.put(Currency.INR, 83.20);
-        usdTo.put(Currency.GHS, 15.30);
+        double[] usdTo = new double[Currency.values().length];
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.92;
+        usdTo[Currency.GBP.ordinal()] = 0.80;
+        usdTo[Currency.NGN.ordinal()] = 1500.0;
+        usdTo[Currency.JPY.ordinal()] = 150.0;
+        usdTo[Currency.CAD.ordinal()] = 1.36;
+        usdTo[Currency.AUD.ordinal()] = 1.53;
+        usdTo[Currency.CNY.ordinal()] = 7.20;
+        usdTo[Currency.ZAR.ordinal()] = 18.50;
+        usdTo[Currency.INR.ordinal()] = 83.20;
+        usdTo[Currency.GHS.ordinal()] = 15.30;
+        snapshot = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+        changes.publish(snapshot);
     }
 
     @Override
     public Optional<RateQuote> getRate(Currency base, Currency quote) {
-        if (base == null || quote == null) return Optional.empty();
-        if (base == quote) {
-            return Optional.of(new RateQuote(base, quote, 1.0, Instant.now()));
-        }
-        Double usdToBase = usdTo.get(base);
-        Double usdToQuote = usdTo.get(quote);
-        if (usdToBase == null || usdToQuote == null) {
-            return Optional.empty();
-        }
-        double rate = usdToQuote / usdToBase;
-        return Optional.of(new RateQuote(base, quote, rate, lastRefresh));
+        return snapshot.getRate(base, quote);
+    }
+
+    @Override
+    public double rate(Currency base, Currency quote) {
+        return snapshot.rate(base, quote);
+    }
+
+    /** Current table; replaced atomically on refresh. */
+    @Override
+    public RateSnapshot currentSnapshot() {
+        return snapshot;
+    }
+
+    /** Delivers the current quote; the mock rates never change afterwards, so nothing polls. */
+    @Override
+    public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+        return changes.subscribe(base, quote, listener, snapshot);
     }
 }
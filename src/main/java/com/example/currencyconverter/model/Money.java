@@ -0,0 +1,90 @@
+package com.example.currencyconverter.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount of one currency, held as a {@code long} count of its minor units (cents for USD, yen for
+ * JPY, satoshis for BTC). The scale comes from {@link CurrencyUnit#getMinorUnits()}.
+ *
+ * <p>Immutable. For batches, use the primitive kernel in {@link FixedPoint} or
+ * {@link BulkConverter#convertMinor}, which do not allocate per amount.</p>
+ */
+public final class Money {
+
+    private final long minorAmount;
+    private final CurrencyUnit currency;
+
+    /**
+     * @param minorAmount amount in minor units of {@code currency}
+     */
+    public Money(long minorAmount, CurrencyUnit currency) {
+        if (currency == null) throw new IllegalArgumentException("currency must be non-null");
+        if (currency.getMinorUnits() > FixedPoint.MAX_SCALE) {
+            throw new IllegalArgumentException(currency + " has more minor units than a long can scale");
+        }
+        if (minorAmount == FixedPoint.NO_AMOUNT) throw new IllegalArgumentException("amount out of range");
+        this.minorAmount = minorAmount;
+        this.currency = currency;
+    }
+
+    /**
+     * Parse a plain decimal amount, rounding digits beyond the currency's minor units with {@code mode}.
+     *
+     * @throws NumberFormatException if the text is not a plain decimal
+     * @throws ArithmeticException   if the amount does not fit in a {@code long} of minor units
+     */
+    public static Money parse(CharSequence amount, CurrencyUnit currency, RoundingMode mode) {
+        if (currency == null) throw new IllegalArgumentException("currency must be non-null");
+        return new Money(FixedPoint.parse(amount, currency.getMinorUnits(), mode), currency);
+    }
+
+    public long getMinorAmount() { return minorAmount; }
+    public CurrencyUnit getCurrency() { return currency; }
+
+    /**
+     * This amount in {@code target} at {@code rate} units of target per unit of this currency, rounded once
+     * to the target's minor units.
+     *
+     * @throws ArithmeticException if the result does not fit in a {@code long} of minor units
+     */
+    public Money convertTo(CurrencyUnit target, double rate, RoundingMode mode) {
+        if (target == null) throw new IllegalArgumentException("target must be non-null");
+        long converted = FixedPoint.convert(minorAmount, currency.getMinorUnits(), target.getMinorUnits(), rate, mode);
+        return new Money(converted, target);
+    }
+
+    /** @throws IllegalArgumentException if the currencies differ; ArithmeticException on overflow */
+    public Money plus(Money other) {
+        if (other == null || other.currency != currency) {
+            throw new IllegalArgumentException("cannot add " + (other == null ? null : other.currency) + " to " + currency);
+        }
+        long sum = Math.addExact(minorAmount, other.minorAmount);
+        // Long.MIN_VALUE fits in a long but is reserved for FixedPoint.NO_AMOUNT.
+        if (sum == FixedPoint.NO_AMOUNT) throw new ArithmeticException("sum out of range");
+        return new Money(sum, currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorAmount, currency.getMinorUnits());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        Money money = (Money) o;
+        return minorAmount == money.minorAmount && currency == money.currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorAmount) + currency.getId();
+    }
+
+    /** Plain amount with exactly the currency's minor digits, e.g. {@code 1234.50 USD} or {@code 1500 JPY}. */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCode();
+    }
+}
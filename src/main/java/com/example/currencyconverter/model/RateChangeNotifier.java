@@ -0,0 +1,124 @@
+package com.example.currencyconverter.model;
+
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fans published {@link RateSnapshot}s out to per-pair listeners, notifying each only when its pair's rate (or
+ * staleness) actually changed.
+ *
+ * <p>Services that publish snapshots keep one notifier and call {@link #publish} after every update; checking
+ * an unchanged pair is one array read and allocates nothing. {@link #poll} gives the same change detection to
+ * services that can only be asked.</p>
+ */
+public final class RateChangeNotifier {
+
+    /** Interval of the polling fallback; the live-update period the UI used before subscriptions. */
+    static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(5);
+
+    private static final ScheduledExecutorService POLLER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "rate-poll");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final CopyOnWriteArrayList<Watch> watches = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register {@code listener} for the pair and, if {@code current} has it, deliver the current quote at once.
+     */
+    public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener, RateSnapshot current) {
+        Watch watch = new Watch(base, quote, listener, this);
+        watches.add(watch);
+        if (current != null) watch.offer(current);
+        return watch;
+    }
+
+    /** Notify every listener whose pair differs in {@code snapshot} from what it was last given. */
+    public void publish(RateSnapshot snapshot) {
+        if (snapshot == null) return;
+        for (Watch watch : watches) {
+            watch.offer(snapshot);
+        }
+    }
+
+    /** Number of open subscriptions. */
+    public int size() {
+        return watches.size();
+    }
+
+    /**
+     * Ask {@code service} for the pair now and then every {@code interval}, notifying {@code listener} only when
+     * the answer changed.
+     */
+    static RateSubscription poll(ExchangeRateService service, Currency base, Currency quote,
+                                 Consumer<RateQuote> listener, Duration interval) {
+        if (service == null) throw new IllegalArgumentException("service must be non-null");
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        Watch watch = new Watch(base, quote, listener, null);
+        watch.polling = POLLER.scheduleWithFixedDelay(() -> {
+            if (watch.closed) return;
+            service.getRateAsync(base, quote).thenAccept(q -> q.ifPresent(watch::offer));
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return watch;
+    }
+
+    private static final class Watch implements RateSubscription {
+        final Currency base;
+        final Currency quote;
+        final Consumer<RateQuote> listener;
+        final RateChangeNotifier owner;
+        volatile ScheduledFuture<?> polling;
+        volatile boolean closed;
+        /** Last delivered rate and staleness; guarded by this. NaN until the first delivery. */
+        private double lastRate = Double.NaN;
+        private boolean lastStale;
+
+        Watch(Currency base, Currency quote, Consumer<RateQuote> listener, RateChangeNotifier owner) {
+            if (base == null || quote == null || listener == null) {
+                throw new IllegalArgumentException("base, quote and listener must be non-null");
+            }
+            this.base = base;
+            this.quote = quote;
+            this.listener = listener;
+            this.owner = owner;
+        }
+
+        void offer(RateSnapshot snapshot) {
+            double r = snapshot.rate(base, quote);
+            if (!(r > 0) || unchanged(r, snapshot.isStale())) return;
+            snapshot.getRate(base, quote).ifPresent(this::offer);
+        }
+
+        synchronized void offer(RateQuote q) {
+            if (closed || unchanged(q.getRate(), q.isStale())) return;
+            lastRate = q.getRate();
+            lastStale = q.isStale();
+            try {
+                listener.accept(q);
+            } catch (RuntimeException e) {
+                // One faulty listener must not stop the feed thread notifying the others.
+                System.out.println("[WARN] Rate listener for " + base + "/" + quote + " failed: " + e);
+            }
+        }
+
+        private synchronized boolean unchanged(double rate, boolean stale) {
+            return rate == lastRate && stale == lastStale;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            ScheduledFuture<?> p = polling;
+            if (p != null) p.cancel(false);
+            if (owner != null) owner.watches.remove(this);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only history of rate snapshots kept in memory-mapped segment files.
+ *
+ * <p>Each record is fixed-width: the snapshot's timestamp in epoch nanoseconds followed by one double per
+ * {@link Currency} holding its units per USD. Any pair is derived from two reads of the same record, so
+ * storing one row per snapshot covers every pair. Records are appended in timestamp order to
+ * {@code rates-<n>.seg} files of {@code recordsPerSegment} records each; a full segment is left
+ * mapped read-only and a new one started.</p>
+ *
+ * <p>Lookups binary-search the segment list and then the records inside one segment, touching only the
+ * pages they read; history lives in the page cache, not on the heap. There is a single writer
+ * ({@link #append} is synchronized) and any number of concurrent readers.</p>
+ */
+public class RateHistoryStore implements AutoCloseable {
+
+    /** Receives points from {@link #scan}; primitive so long scans do not allocate. */
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long epochNanos, double rate);
+    }
+
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+    private static final int MAGIC = 0x46584831; // "FXH1"
+    private static final int VERSION = 1;
+    /** Header: magic, version, currency count, record count (long), then the currency codes. */
+    private static final int COUNT_OFFSET = 12;
+    private static final int CODES_OFFSET = 20;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int currencyCount = Currency.values().length;
+    private final int recordSize = 8 + 8 * currencyCount;
+    private final int headerSize = align8(CODES_OFFSET + 3 * currencyCount);
+
+    /** Segments in timestamp order; replaced copy-on-write when a segment is added. */
+    private volatile Segment[] segments;
+    private long nextSegmentNumber;
+    private ScheduledExecutorService recorder;
+
+    public RateHistoryStore(Path directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    RateHistoryStore(Path directory, int recordsPerSegment) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("directory must be non-null");
+        if (recordsPerSegment <= 0 || headerSize + (long) recordsPerSegment * recordSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("recordsPerSegment must be positive and fit one 2 GB mapping");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(p -> p.getFileName().toString().matches("rates-\\d+\\.seg")).forEach(files::add);
+        }
+        files.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+        List<Segment> opened = new ArrayList<>(files.size());
+        for (Path file : files) {
+            nextSegmentNumber = segmentNumber(file) + 1;
+            Segment s = openSegment(file);
+            if (s != null) {
+                opened.add(s);
+            } else {
+                Files.delete(file); // created just before a crash, never written
+            }
+        }
+        segments = opened.toArray(new Segment[0]);
+    }
+
+    /**
+     * Record a snapshot.
+     *
+     * @return false if it is older than the last recorded snapshot (history stays ordered) or the same one
+     */
+    public synchronized boolean append(RateSnapshot snapshot) throws IOException {
+        if (snapshot == null) throw new IllegalArgumentException("snapshot must be non-null");
+        long nanos = toEpochNanos(snapshot.getTimestamp());
+        Segment[] current = segments;
+        Segment last = current.length == 0 ? null : current[current.length - 1];
+        if (last != null && nanos <= last.lastNanos()) return false;
+        boolean started = last == null || last.count == recordsPerSegment || !last.writable;
+        if (started) last = createSegment(directory.resolve("rates-" + nextSegmentNumber++ + ".seg"));
+        int pos = headerSize + last.count * recordSize;
+        MappedByteBuffer buf = last.buffer;
+        buf.putLong(pos, nanos);
+        for (Currency c : Currency.values()) {
+            buf.putDouble(pos + 8 + 8 * c.ordinal(), snapshot.rate(Currency.USD, c));
+        }
+        buf.putLong(COUNT_OFFSET, last.count + 1L);
+        last.count++; // volatile write publishes the record to readers
+        if (started) {
+            // Only now is the segment visible: readers never meet one without a record to search.
+            Segment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = last;
+            segments = grown;
+        }
+        return true;
+    }
+
+    /** Rate in effect at {@code at}: the last recorded one at or before it, if any. */
+    public Optional<RateQuote> getRateAt(Currency base, Currency quote, Instant at) {
+        if (base == null || quote == null || at == null) return Optional.empty();
+        long nanos = toEpochNanos(at);
+        Segment[] segs = segments;
+        int si = lastSegmentStartingAtOrBefore(segs, nanos);
+        if (si < 0) return Optional.empty();
+        Segment s = segs[si];
+        int ri = s.lastRecordAtOrBefore(nanos);
+        double r = s.rate(ri, base.ordinal(), quote.ordinal());
+        if (Double.isNaN(r)) return Optional.empty();
+        return Optional.of(new RateQuote(base, quote, r, ofEpochNanos(s.nanos(ri))));
+    }
+
+    /**
+     * Feed every recorded point in {@code [from, to]} to {@code consumer}, oldest first. Points where the pair
+     * was unavailable are skipped.
+     *
+     * @return number of points delivered
+     */
+    public long scan(Currency base, Currency quote, Instant from, Instant to, PointConsumer consumer) {
+        if (base == null || quote == null || from == null || to == null || consumer == null) {
+            throw new IllegalArgumentException("arguments must be non-null");
+        }
+        long fromNanos = toEpochNanos(from);
+        long toNanos = toEpochNanos(to);
+        Segment[] segs = segments;
+        int si = Math.max(0, lastSegmentStartingAtOrBefore(segs, fromNanos));
+        int b = base.ordinal();
+        int q = quote.ordinal();
+        long delivered = 0;
+        for (; si < segs.length; si++) {
+            Segment s = segs[si];
+            int count = s.count;
+            int ri = Math.max(0, s.lastRecordAtOrBefore(fromNanos));
+            for (; ri < count; ri++) {
+                long t = s.nanos(ri);
+                if (t > toNanos) return delivered;
+                if (t < fromNanos) continue;
+                double r = s.rate(ri, b, q);
+                if (!Double.isNaN(r)) {
+                    consumer.accept(t, r);
+                    delivered++;
+                }
+            }
+        }
+        return delivered;
+    }
+
+    /** Total number of recorded snapshots. */
+    public long size() {
+        long n = 0;
+        for (Segment s : segments) n += s.count;
+        return n;
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Append {@code service.currentSnapshot()} every {@code interval} on a background thread. Snapshots
+     * that have not changed since the last run are skipped. Calling it again replaces the schedule.
+     */
+    public synchronized void startRecording(ExchangeRateService service, Duration interval) {
+        if (service == null) throw new IllegalArgumentException("service must be non-null");
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        stopRecording();
+        recorder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-history-recorder");
+            t.setDaemon(true);
+            return t;
+        });
+        recorder.scheduleWithFixedDelay(() -> {
+            try {
+                append(service.currentSnapshot());
+            } catch (IOException | RuntimeException e) {
+                System.out.println("[WARN] Could not record rate history: " + e.getMessage());
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopRecording() {
+        if (recorder != null) {
+            recorder.shutdownNow();
+            recorder = null;
+        }
+    }
+
+    /** Stops recording and flushes the open segment to disk. Mapped buffers are released by the GC. */
+    @Override
+    public synchronized void close() {
+        stopRecording();
+        Segment[] segs = segments;
+        if (segs.length > 0 && segs[segs.length - 1].writable) {
+            segs[segs.length - 1].buffer.force();
+        }
+    }
+
+    private static int lastSegmentStartingAtOrBefore(Segment[] segs, long nanos) {
+        int lo = 0;
+        int hi = segs.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (segs[mid].firstNanos() <= nanos) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private Segment createSegment(Path file) throws IOException {
+        long size = headerSize + (long) recordsPerSegment * recordSize;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.putInt(0, MAGIC);
+            buf.putInt(4, VERSION);
+            buf.putInt(8, currencyCount);
+            buf.putLong(COUNT_OFFSET, 0);
+            for (Currency c : Currency.values()) {
+                byte[] code = c.name().getBytes(StandardCharsets.US_ASCII);
+                buf.put(CODES_OFFSET + 3 * c.ordinal(), code, 0, 3);
+            }
+            return new Segment(buf, 0, true);
+        }
+    }
+
+    /** @return the mapped segment, or null if it holds no records */
+    private Segment openSegment(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            if (size < headerSize || ch.read(header, 0) < headerSize) {
+                throw new IOException("Truncated history segment " + file);
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a rate history segment: " + file);
+            }
+            if (header.getInt(8) != currencyCount) {
+                throw new IOException("History segment " + file + " was written for " + header.getInt(8) + " currencies");
+            }
+            for (Currency c : Currency.values()) {
+                byte[] code = new byte[3];
+                header.get(CODES_OFFSET + 3 * c.ordinal(), code, 0, 3);
+                if (!c.name().equals(new String(code, StandardCharsets.US_ASCII))) {
+                    throw new IOException("History segment " + file + " has a different currency layout");
+                }
+            }
+            long capacity = (size - headerSize) / recordSize;
+            long count = Math.min(header.getLong(COUNT_OFFSET), capacity);
+            if (count <= 0) return null;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(buf, (int) count, capacity == recordsPerSegment);
+        }
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("rates-".length(), name.length() - ".seg".length()));
+    }
+
+    private static int align8(int n) {
+        return (n + 7) & ~7;
+    }
+
+    static long toEpochNanos(Instant t) {
+        return Math.addExact(Math.multiplyExact(t.getEpochSecond(), 1_000_000_000L), t.getNano());
+    }
+
+    static Instant ofEpochNanos(long nanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    private final class Segment {
+        final MappedByteBuffer buffer;
+        final boolean writable;
+        volatile int count;
+
+        Segment(MappedByteBuffer buffer, int count, boolean writable) {
+            this.buffer = buffer;
+            this.count = count;
+            this.writable = writable;
+        }
+
+        long nanos(int record) {
+            return buffer.getLong(headerSize + record * recordSize);
+        }
+
+        long firstNanos() {
+            return nanos(0);
+        }
+
+        long lastNanos() {
+            return nanos(count - 1);
+        }
+
+        double rate(int record, int base, int quote) {
+            if (base == quote) return 1.0;
+            int pos = headerSize + record * recordSize + 8;
+            return buffer.getDouble(pos + 8 * quote) / buffer.getDouble(pos + 8 * base);
+        }
+
+        /** Index of the last record with timestamp at or before {@code nanos}, or -1. */
+        int lastRecordAtOrBefore(long nanos) {
+            int lo = 0;
+            int hi = count - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (nanos(mid) <= nanos) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
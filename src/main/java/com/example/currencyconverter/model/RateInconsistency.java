@@ -0,0 +1,71 @@
+package com.example.currencyconverter.model;
+
+import java.util.Arrays;
+
+/**
+ * A cycle of directly quoted legs whose rates do not multiply back to 1, found by
+ * {@link CrossRateGraph#findInconsistencies(double)}.
+ *
+ * <p>The cycle is oriented so that converting one unit all the way around it yields {@link #getGain()}
+ * units, which is always at least 1. With mid-market rates this is a disagreement between sources. It is
+ * an arbitrage opportunity only if the gain survives the cost of each conversion; see {@link #isArbitrage}.</p>
+ */
+public final class RateInconsistency {
+
+    private final int[] cycle;
+    private final double gain;
+
+    RateInconsistency(int[] cycle, double gain) {
+        this.cycle = cycle;
+        this.gain = gain;
+    }
+
+    /** Registry ids around the cycle; the first and last entries are the same currency. */
+    public int[] getCycle() {
+        return cycle.clone();
+    }
+
+    /** Number of conversions around the cycle. */
+    public int legs() {
+        return cycle.length - 1;
+    }
+
+    /** Units received per unit converted once around the cycle. */
+    public double getGain() {
+        return gain;
+    }
+
+    /**
+     * @param costPerLeg fraction lost on each conversion, e.g. 0.001 for a 10 bp spread
+     * @return true if going around the cycle still gains after paying {@code costPerLeg} on every leg
+     */
+    public boolean isArbitrage(double costPerLeg) {
+        if (!(costPerLeg >= 0) || costPerLeg >= 1) throw new IllegalArgumentException("costPerLeg must be in [0, 1)");
+        return gain * Math.pow(1.0 - costPerLeg, legs()) > 1.0;
+    }
+
+    @Override
+    public String toString() {
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cycle.length; i++) {
+            if (i > 0) sb.append(" -> ");
+            int id = cycle[i];
+            sb.append(id < registry.size() ? registry.unit(id).getCode() : "#" + id);
+        }
+        return sb.append(String.format(" gains %.4f%%", (gain - 1.0) * 100)).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RateInconsistency)) return false;
+        RateInconsistency that = (RateInconsistency) o;
+        return Double.compare(gain, that.gain) == 0 && Arrays.equals(cycle, that.cycle);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(cycle) + Double.hashCode(gain);
+    }
+}
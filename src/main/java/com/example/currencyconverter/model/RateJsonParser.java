@@ -0,0 +1,378 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Single-pass, allocation-light parser for rate provider payloads.
+ *
+ * <p>Reads raw UTF-8 bytes and fills a {@link Result} with every {@link CurrencyRegistry registered} currency found in the
+ * {@code rates} (or {@code conversion_rates}) object, plus the base currency from {@code base},
+ * {@code base_code} or {@code source}. currencylayer-style {@code quotes} objects keyed by six-letter
+ * pairs such as {@code "USDEUR"} are understood too. Unknown codes and unrelated fields are skipped
+ * without building Strings. Numbers may use exponent notation or be quoted.</p>
+ *
+ * <p>Malformed input never throws; whatever was parsed before the problem is kept.</p>
+ */
+public final class RateJsonParser {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final int MAX_KEY_LENGTH = 32;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final byte[] KEY_RATES = ascii("rates");
+    private static final byte[] KEY_CONVERSION_RATES = ascii("conversion_rates");
+    private static final byte[] KEY_QUOTES = ascii("quotes");
+    private static final byte[] KEY_BASE = ascii("base");
+    private static final byte[] KEY_BASE_CODE = ascii("base_code");
+    private static final byte[] KEY_SOURCE = ascii("source");
+
+    private RateJsonParser() {
+    }
+
+    /**
+     * Parsed rates relative to the payload's base, indexed by {@link CurrencyRegistry} id. Sized for the
+     * currencies registered when it was created.
+     */
+    public static final class Result {
+        private final CurrencyRegistry registry;
+        private final double[] rates;
+        private int baseId;
+        private int count;
+
+        public Result() {
+            this(CurrencyRegistry.global());
+        }
+
+        public Result(CurrencyRegistry registry) {
+            this.registry = registry;
+            this.rates = new double[registry.size()];
+            clear();
+        }
+
+        public void clear() {
+            Arrays.fill(rates, Double.NaN);
+            baseId = -1;
+            count = 0;
+        }
+
+        /** Units of {@code currency} per one unit of the base, or NaN when absent. */
+        public double rate(Currency currency) {
+            return rates[currency.ordinal()];
+        }
+
+        /** Same as {@link #rate(Currency)} by registry id. */
+        public double rate(int id) {
+            return id >= 0 && id < rates.length ? rates[id] : Double.NaN;
+        }
+
+        public boolean has(Currency currency) {
+            return rates[currency.ordinal()] > 0;
+        }
+
+        public boolean has(int id) {
+            return id >= 0 && id < rates.length && rates[id] > 0;
+        }
+
+        /** Base currency declared by the payload, or null if absent or not one of the enum constants. */
+        public Currency getBase() {
+            return baseId >= 0 && baseId < Currency.COUNT ? Currency.ofOrdinal(baseId) : null;
+        }
+
+        /** Registry id of the declared base, or -1 if absent or unknown. */
+        public int getBaseId() { return baseId; }
+
+        /** Number of known currencies with a positive rate. */
+        public int size() { return count; }
+
+        /** Number of id slots; ids at or above it were registered after this result was created. */
+        public int capacity() { return rates.length; }
+
+        /** Copy of the rate array, with the base filled in as 1.0 when the provider omitted it. */
+        public double[] toAnchorRates() {
+            double[] copy = Arrays.copyOf(rates, rates.length);
+            if (baseId >= 0 && baseId < copy.length && !(copy[baseId] > 0)) {
+                copy[baseId] = 1.0;
+            }
+            return copy;
+        }
+
+        void put(int id, double value) {
+            if (id >= rates.length || !(value > 0) || Double.isInfinite(value)) return;
+            if (!(rates[id] > 0)) count++;
+            rates[id] = value;
+        }
+    }
+
+    public static Result parse(byte[] json) {
+        Result out = new Result();
+        if (json != null) parse(json, 0, json.length, out);
+        return out;
+    }
+
+    /** Parse {@code json[offset, offset+length)} into {@code out}, which is cleared first. */
+    public static void parse(byte[] json, int offset, int length, Result out) {
+        out.clear();
+        new Cursor(json, offset, offset + length, null).parseDocument(out);
+    }
+
+    /** Parse a response body stream into {@code out}. The stream is read to the end of the document but not closed. */
+    public static void parse(InputStream in, Result out) throws IOException {
+        out.clear();
+        Cursor cursor = new Cursor(new byte[STREAM_BUFFER_SIZE], 0, 0, in);
+        cursor.parseDocument(out);
+        if (cursor.ioError != null) throw cursor.ioError;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Byte cursor over either a fixed array or a refillable stream buffer. */
+    private static final class Cursor {
+        private static final int EOF = -1;
+
+        private final byte[] buf;
+        private final InputStream in;
+        private int pos;
+        private int limit;
+        IOException ioError;
+
+        private final byte[] key = new byte[MAX_KEY_LENGTH];
+        private int keyLength;
+        private boolean keyTruncated;
+
+        Cursor(byte[] buf, int pos, int limit, InputStream in) {
+            this.buf = buf;
+            this.pos = pos;
+            this.limit = limit;
+            this.in = in;
+        }
+
+        void parseDocument(Result out) {
+            if (skipWhitespaceAndPeek() != '{') return;
+            parseObject(out, 0);
+        }
+
+        /** kind: 0 = plain object, 1 = code-keyed rates map, 2 = six-letter quotes map. */
+        private void parseObject(Result out, int kind) {
+            pos++; // '{'
+            if (skipWhitespaceAndPeek() == '}') { pos++; return; }
+            while (true) {
+                if (skipWhitespaceAndPeek() != '"') return;
+                readKey();
+                if (skipWhitespaceAndPeek() != ':') return;
+                pos++;
+                int c = skipWhitespaceAndPeek();
+                if (kind != 0) {
+                    int id = -1;
+                    if (!keyTruncated) {
+                        if (kind == 1) id = out.registry.idOf(key, 0, keyLength);
+                        else if (keyLength == 6) id = out.registry.idOf(key, 3, 3);
+                    }
+                    if (id >= 0 && (c == '-' || (c >= '0' && c <= '9') || c == '"')) {
+                        out.put(id, readNumber(c == '"'));
+                    } else if (!skipValue()) {
+                        return;
+                    }
+                } else if (c == '{' && (keyEquals(KEY_RATES) || keyEquals(KEY_CONVERSION_RATES))) {
+                    parseObject(out, 1);
+                } else if (c == '{' && keyEquals(KEY_QUOTES)) {
+                    parseObject(out, 2);
+                } else if (c == '"' && (keyEquals(KEY_BASE) || keyEquals(KEY_BASE_CODE) || keyEquals(KEY_SOURCE))) {
+                    readKey();
+                    if (!keyTruncated) {
+                        int id = out.registry.idOf(key, 0, keyLength);
+                        if (id >= 0) out.baseId = id;
+                    }
+                } else if (c == '{') {
+                    parseObject(out, 0); // nested wrappers such as {"data":{"rates":{...}}}
+                } else if (!skipValue()) {
+                    return;
+                }
+                int sep = skipWhitespaceAndPeek();
+                if (sep == ',') { pos++; continue; }
+                if (sep == '}') pos++;
+                return;
+            }
+        }
+
+        /** Reads a JSON string at the cursor into {@link #key}, keeping at most MAX_KEY_LENGTH bytes. */
+        private void readKey() {
+            pos++; // opening quote
+            keyLength = 0;
+            keyTruncated = false;
+            while (true) {
+                int b = next();
+                if (b == EOF || b == '"') return;
+                if (b == '\\') {
+                    next();
+                    keyTruncated = true; // escaped keys never match a currency code
+                    continue;
+                }
+                if (keyLength < MAX_KEY_LENGTH) key[keyLength++] = (byte) b;
+                else keyTruncated = true;
+            }
+        }
+
+        private boolean keyEquals(byte[] expected) {
+            if (keyTruncated || keyLength != expected.length) return false;
+            for (int i = 0; i < keyLength; i++) {
+                if (key[i] != expected[i]) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Parses a JSON number (optionally wrapped in quotes) without allocating in the common case.
+         * Mantissas up to 19 digits with a decimal exponent within +/-22 are exact; anything else falls
+         * back to {@link Double#parseDouble}.
+         */
+        private double readNumber(boolean quoted) {
+            if (quoted) pos++;
+            boolean negative = false;
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean any = false;
+            boolean overflow = false;
+
+            int c = peek();
+            if (c == '-' || c == '+') { negative = c == '-'; pos++; c = peek(); }
+            while (c >= '0' && c <= '9') {
+                any = true;
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                } else {
+                    exponent++;
+                    overflow = true;
+                }
+                pos++;
+                c = peek();
+            }
+            if (c == '.') {
+                pos++;
+                c = peek();
+                while (c >= '0' && c <= '9') {
+                    any = true;
+                    if (digits < 19) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0) digits++;
+                        exponent--;
+                    } else {
+                        overflow = true;
+                    }
+                    pos++;
+                    c = peek();
+                }
+            }
+            if (c == 'e' || c == 'E') {
+                pos++;
+                c = peek();
+                boolean expNegative = false;
+                if (c == '-' || c == '+') { expNegative = c == '-'; pos++; c = peek(); }
+                int exp = 0;
+                while (c >= '0' && c <= '9') {
+                    if (exp < 10000) exp = exp * 10 + (c - '0');
+                    pos++;
+                    c = peek();
+                }
+                exponent += expNegative ? -exp : exp;
+            }
+            if (quoted) {
+                while (c != EOF && c != '"') { pos++; c = peek(); }
+                if (c == '"') pos++;
+            }
+            if (!any) return Double.NaN;
+
+            double value;
+            if (!overflow && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+                value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            } else {
+                // Rare: rebuild a canonical literal and let the JDK round it correctly.
+                value = Double.parseDouble(mantissa + "E" + exponent);
+            }
+            return negative ? -value : value;
+        }
+
+        /** Skips any JSON value. Returns false on malformed input or end of data. */
+        private boolean skipValue() {
+            int c = skipWhitespaceAndPeek();
+            if (c == EOF) return false;
+            if (c == '"') {
+                pos++;
+                while (true) {
+                    int b = next();
+                    if (b == EOF) return false;
+                    if (b == '\\') { next(); continue; }
+                    if (b == '"') return true;
+                }
+            }
+            if (c == '{' || c == '[') {
+                int depth = 0;
+                while (true) {
+                    int b = next();
+                    if (b == EOF) return false;
+                    if (b == '"') {
+                        while (true) {
+                            int s = next();
+                            if (s == EOF) return false;
+                            if (s == '\\') { next(); continue; }
+                            if (s == '"') break;
+                        }
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        if (--depth == 0) return true;
+                    }
+                }
+            }
+            // Literal: number, true, false, null
+            while (true) {
+                c = peek();
+                if (c == EOF || c == ',' || c == '}' || c == ']' || c <= ' ') return true;
+                pos++;
+            }
+        }
+
+        private int skipWhitespaceAndPeek() {
+            while (true) {
+                int c = peek();
+                if (c == ' ' || c == '\n' || c == '\r' || c == '\t') { pos++; continue; }
+                return c;
+            }
+        }
+
+        private int next() {
+            int c = peek();
+            if (c != EOF) pos++;
+            return c;
+        }
+
+        private int peek() {
+            if (pos < limit) return buf[pos] & 0xFF;
+            if (in == null || !refill()) return EOF;
+            return buf[pos] & 0xFF;
+        }
+
+        private boolean refill() {
+            try {
+                int n = in.read(buf, 0, buf.length);
+                if (n <= 0) return false;
+                pos = 0;
+                limit = n;
+                return true;
+            } catch (IOException e) {
+                ioError = e;
+                return false;
+            }
+        }
+    }
+}
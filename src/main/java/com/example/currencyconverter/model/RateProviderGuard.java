@@ -0,0 +1,325 @@
+package com.example.currencyconverter.model;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorator that keeps lookups within an upstream provider's limits and keeps answering while it is down.
+ *
+ * <p>Each lookup goes through four steps, in order:</p>
+ * <ul>
+ *   <li><b>Coalescing</b>: a lookup for a pair already in flight shares that request.</li>
+ *   <li><b>Circuit breaker</b>: any {@code 429}, or {@value #FAILURE_THRESHOLD} consecutive failures (5xx,
+ *   timeouts, connection errors), opens the circuit. No requests are sent until a backoff has passed. The
+ *   backoff doubles with each failure up to {@code maxBackoff}, is jittered by ±20%, and is never shorter than
+ *   the provider's {@code Retry-After}. After that a single trial lookup is let through, and its success
+ *   closes the circuit again.</li>
+ *   <li><b>Budget</b>: a token bucket holding up to {@code burst} requests, refilled at
+ *   {@code requestsPerSecond}.</li>
+ *   <li>The lookup is delegated.</li>
+ * </ul>
+ * <p>Lookups refused by the breaker or the budget, and lookups that come back empty, are answered with the
+ * pair's last good quote flagged stale, or with nothing if none was ever seen.</p>
+ *
+ * <p>Use {@link #around(HttpRateService, double, int)} for HTTP providers. The bucket is then charged per
+ * request actually sent, including the fallback and snapshot requests, the breaker sees status codes, and
+ * pairs the provider's snapshot already covers skip the guard entirely. Around any other service, each
+ * delegated lookup costs one token and only exceptional completions count as failures.</p>
+ */
+public class RateProviderGuard implements ExchangeRateService, UpstreamListener {
+
+    /** Consecutive failures that open the circuit. */
+    static final int FAILURE_THRESHOLD = 3;
+    static final Duration DEFAULT_BASE_BACKOFF = Duration.ofSeconds(1);
+    static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int PAIRS_PER_BASE = Currency.values().length;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Admission { ADMIT, TRIAL, OPEN, BUDGET }
+
+    private final ExchangeRateService delegate;
+    /** Non-null when attached with {@link #around}: requests are then charged and classified via callbacks. */
+    private final HttpRateService http;
+    private final double tokensPerNano;
+    private final double burst;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentHashMap<Integer, CompletableFuture<Optional<RateQuote>>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, RateQuote> lastGood = new ConcurrentHashMap<>();
+
+    // Bucket and breaker state, guarded by this.
+    private double tokens;
+    private long refilledAt;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+
+    /**
+     * @param delegate          provider to protect
+     * @param requestsPerSecond sustained request budget; {@code Double.POSITIVE_INFINITY} for none
+     * @param burst             requests that may be sent back to back when the budget is full
+     */
+    public RateProviderGuard(ExchangeRateService delegate, double requestsPerSecond, int burst) {
+        this(delegate, null, requestsPerSecond, burst, DEFAULT_BASE_BACKOFF, DEFAULT_MAX_BACKOFF, System::nanoTime);
+    }
+
+    RateProviderGuard(ExchangeRateService delegate, HttpRateService http, double requestsPerSecond, int burst,
+                      Duration baseBackoff, Duration maxBackoff, LongSupplier nanoTime) {
+        if (delegate == null) throw new IllegalArgumentException("delegate must be non-null");
+        if (!(requestsPerSecond > 0)) throw new IllegalArgumentException("requestsPerSecond must be positive");
+        if (burst <= 0) throw new IllegalArgumentException("burst must be positive");
+        if (baseBackoff == null || baseBackoff.isNegative() || maxBackoff == null || maxBackoff.compareTo(baseBackoff) < 0) {
+            throw new IllegalArgumentException("backoffs must satisfy 0 <= baseBackoff <= maxBackoff");
+        }
+        this.delegate = delegate;
+        this.http = http;
+        this.tokensPerNano = requestsPerSecond / 1e9;
+        this.burst = burst;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.nanoTime = nanoTime;
+        this.tokens = burst;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    /** Guard {@code http}, registering as its {@link UpstreamListener}. */
+    public static RateProviderGuard around(HttpRateService http, double requestsPerSecond, int burst) {
+        return around(http, requestsPerSecond, burst, DEFAULT_BASE_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    static RateProviderGuard around(HttpRateService http, double requestsPerSecond, int burst,
+                                    Duration baseBackoff, Duration maxBackoff) {
+        if (http == null) throw new IllegalArgumentException("http must be non-null");
+        RateProviderGuard guard = new RateProviderGuard(http, http, requestsPerSecond, burst, baseBackoff, maxBackoff, System::nanoTime);
+        http.setUpstreamListener(guard);
+        return guard;
+    }
+
+    @Override
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        return getRateAsync(base, quote).join();
+    }
+
+    /**
+     * Cancelling the returned future only detaches this caller: the shared request keeps running for the others
+     * and still refreshes the pair's last good quote.
+     */
+    @Override
+    public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+        if (base == null || quote == null) return CompletableFuture.completedFuture(Optional.empty());
+        if (coveredBySnapshot(base, quote)) return delegate.getRateAsync(base, quote);
+        Integer key = key(base, quote);
+        CompletableFuture<Optional<RateQuote>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<RateQuote>> shared = inFlight.putIfAbsent(key, mine);
+        if (shared != null) {
+            coalesced.incrementAndGet();
+            return shared.copy();
+        }
+        Admission admission = admit();
+        if (admission == Admission.OPEN || admission == Admission.BUDGET) {
+            (admission == Admission.OPEN ? shortCircuited : throttled).incrementAndGet();
+            inFlight.remove(key, mine);
+            mine.complete(fallback(key));
+            return mine;
+        }
+        boolean trial = admission == Admission.TRIAL;
+        CompletableFuture<Optional<RateQuote>> call;
+        try {
+            call = delegate.getRateAsync(base, quote);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((result, error) -> {
+            boolean present = error == null && result != null && result.isPresent();
+            if (present) lastGood.put(key, result.get());
+            if (trial) {
+                settleTrial(present);
+            } else if (http == null) {
+                if (error != null) recordFailure(null, false);
+                else recordSuccess();
+            }
+            inFlight.remove(key, mine);
+            mine.complete(present ? result : fallback(key));
+        });
+        return mine.copy();
+    }
+
+    @Override
+    public double rate(Currency base, Currency quote) {
+        if (http != null && base != null && quote != null) {
+            Optional<RateSnapshot> snapshot = http.getSnapshot();
+            if (snapshot.isPresent()) {
+                double r = snapshot.get().rate(base, quote);
+                if (!Double.isNaN(r)) return r;
+            }
+        }
+        return ExchangeRateService.super.rate(base, quote);
+    }
+
+    @Override
+    public RateSnapshot currentSnapshot() {
+        Optional<RateSnapshot> snapshot = http == null ? Optional.empty() : http.getSnapshot();
+        return snapshot.isPresent() ? snapshot.get() : ExchangeRateService.super.currentSnapshot();
+    }
+
+    /** Snapshot-mode HTTP providers push table changes at no cost; everything else is polled through the guard. */
+    @Override
+    public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+        if (http != null && http.isRefreshingSnapshot()) return http.subscribe(base, quote, listener);
+        return ExchangeRateService.super.subscribe(base, quote, listener);
+    }
+
+    @Override
+    public void onRequest() {
+        synchronized (this) {
+            refill(nanoTime.getAsLong());
+            tokens -= 1; // may go negative: requests past the budget are paid back before the next one is admitted
+        }
+    }
+
+    @Override
+    public void onResponse(int status, Duration retryAfter) {
+        if (status == 429) {
+            recordFailure(retryAfter, true);
+        } else if (status < 0 || status >= 500) {
+            recordFailure(retryAfter, false);
+        } else if (status / 100 == 2 || status == 304) {
+            recordSuccess();
+        }
+        // Other 4xx concern the request, not the provider's health.
+    }
+
+    private boolean coveredBySnapshot(Currency base, Currency quote) {
+        if (http == null) return false;
+        Optional<RateSnapshot> snapshot = http.getSnapshot();
+        return snapshot.isPresent() && snapshot.get().supports(base) && snapshot.get().supports(quote);
+    }
+
+    private synchronized Admission admit() {
+        long now = nanoTime.getAsLong();
+        if (state == State.OPEN) {
+            if (now - openUntil < 0) return Admission.OPEN;
+            state = State.HALF_OPEN;
+        }
+        boolean trial = state == State.HALF_OPEN;
+        if (trial && trialInFlight) return Admission.OPEN;
+        refill(now);
+        if (tokens < 1) return Admission.BUDGET;
+        if (http == null) tokens -= 1; // otherwise charged per request in onRequest
+        if (trial) trialInFlight = true;
+        return trial ? Admission.TRIAL : Admission.ADMIT;
+    }
+
+    private void refill(long now) {
+        if (Double.isInfinite(tokensPerNano)) {
+            tokens = burst;
+        } else {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        }
+        refilledAt = now;
+    }
+
+    private synchronized void settleTrial(boolean success) {
+        trialInFlight = false;
+        if (state != State.HALF_OPEN) return; // already settled by the provider's responses
+        if (success) recordSuccess();
+        else open(null);
+    }
+
+    private synchronized void recordSuccess() {
+        failures = 0;
+        if (state != State.CLOSED) {
+            System.out.println("[INFO] Provider recovered; closing circuit");
+            state = State.CLOSED;
+            trialInFlight = false;
+        }
+    }
+
+    private synchronized void recordFailure(Duration retryAfter, boolean throttledUpstream) {
+        failures++;
+        if (throttledUpstream || failures >= FAILURE_THRESHOLD || state == State.HALF_OPEN) {
+            open(retryAfter);
+        }
+    }
+
+    /** Open, or keep open, for the current backoff or {@code retryAfter}, whichever ends later. */
+    private void open(Duration retryAfter) {
+        long now = nanoTime.getAsLong();
+        int doublings = Math.min(Math.max(failures, 1) - 1, 30);
+        long backoff = Math.min(maxBackoffNanos, baseBackoffNanos << doublings);
+        backoff = (long) (backoff * (0.8 + 0.4 * ThreadLocalRandom.current().nextDouble()));
+        if (retryAfter != null) backoff = Math.max(backoff, retryAfter.toNanos());
+        long until = now + backoff;
+        if (state != State.OPEN) {
+            opened.incrementAndGet();
+            System.out.println("[WARN] Opening circuit for " + backoff / 1_000_000 + "ms after "
+                    + failures + " failure(s)" + (retryAfter != null ? ", Retry-After " + retryAfter.toSeconds() + "s" : ""));
+            state = State.OPEN;
+            openUntil = until;
+        } else if (until - openUntil > 0) {
+            openUntil = until;
+        }
+    }
+
+    private Optional<RateQuote> fallback(Integer key) {
+        RateQuote last = lastGood.get(key);
+        if (last == null) return Optional.empty();
+        staleServed.incrementAndGet();
+        return Optional.of(last.isStale() ? last
+                : new RateQuote(last.getBase(), last.getQuote(), last.getRate(), last.getTimestamp(), true));
+    }
+
+    private static Integer key(Currency base, Currency quote) {
+        return base.ordinal() * PAIRS_PER_BASE + quote.ordinal();
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openUntil >= 0) return State.HALF_OPEN;
+        return state;
+    }
+
+    public ExchangeRateService getDelegate() {
+        return delegate;
+    }
+
+    /** Lookups that shared another caller's in-flight request. */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /** Lookups refused because the request budget was spent. */
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    /** Lookups refused because the circuit was open. */
+    public long getShortCircuitCount() {
+        return shortCircuited.get();
+    }
+
+    /** Lookups answered with a last good quote flagged stale. */
+    public long getStaleServedCount() {
+        return staleServed.get();
+    }
+
+    /** Times the circuit has opened. */
+    public long getOpenCount() {
+        return opened.get();
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.currencyconverter.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Flow.Publisher} of rate changes from one {@link ExchangeRateService}, for consumers that would otherwise
+ * poll {@code getRate}.
+ *
+ * <p>Subscribing to the publisher itself streams every pair; {@link #pair} streams one. Either way a subscriber
+ * first receives the pair's current quote, then each change. The publisher opens one
+ * {@link ExchangeRateService#subscribe} per pair on first use and shares it among all its subscribers, so create
+ * one publisher and hand it to every consumer rather than one per consumer. When a pair's last subscriber
+ * cancels or completes, its upstream subscription is closed.</p>
+ *
+ * <p>Every subscriber has its own bounded buffer, drained on the executor only as far as it has requested.
+ * When a subscriber falls behind, its buffer overflows by the publisher's {@link Overflow} policy; the feed thread
+ * and the other subscribers never wait for it. A subscriber whose {@code onNext} throws is cancelled.</p>
+ */
+public final class RatePublisher implements Flow.Publisher<RateQuote>, AutoCloseable {
+
+    /** What a subscriber's full buffer does with the next quote. */
+    public enum Overflow {
+        /** Keep only the latest pending quote per pair; a newer quote replaces the undelivered one. */
+        CONFLATE,
+        /** Queue quotes in order up to the buffer size, discarding the oldest when full. */
+        DROP_OLDEST
+    }
+
+    static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+
+    private static final Currency[] ALL = Currency.values();
+    private static final int N = ALL.length;
+
+    private final ExchangeRateService service;
+    private final Executor executor;
+    private final Overflow overflow;
+    private final int bufferSize;
+    /** Latest quote per pair index, to start late subscribers from. */
+    private final AtomicReferenceArray<RateQuote> latest = new AtomicReferenceArray<>(N * N);
+    /** Upstream subscription per pair index, open while the pair has subscribers; guarded by this. */
+    private final RateSubscription[] upstream = new RateSubscription[N * N];
+    /** Subscribers per pair index, counting every all-pairs subscriber on each pair; guarded by this. */
+    private final int[] users = new int[N * N];
+    private final CopyOnWriteArrayList<Sink> allPairs = new CopyOnWriteArrayList<>();
+    private final AtomicReferenceArray<CopyOnWriteArrayList<Sink>> byPair = new AtomicReferenceArray<>(N * N);
+    private final LongAdder discarded = new LongAdder();
+    private volatile boolean closed;
+
+    /** Conflating publisher delivering on the common fork-join pool. */
+    public RatePublisher(ExchangeRateService service) {
+        this(service, ForkJoinPool.commonPool(), Overflow.CONFLATE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param executor   runs subscriber callbacks; subscribers that may block need an executor of their own
+     * @param overflow   what a full subscriber buffer does
+     * @param bufferSize quotes buffered per subscriber; a conflating buffer never holds more than one per pair
+     */
+    public RatePublisher(ExchangeRateService service, Executor executor, Overflow overflow, int bufferSize) {
+        if (service == null || executor == null || overflow == null) {
+            throw new IllegalArgumentException("service, executor and overflow must be non-null");
+        }
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize must be positive");
+        this.service = service;
+        this.executor = executor;
+        this.overflow = overflow;
+        this.bufferSize = bufferSize;
+    }
+
+    /** Stream every pair's quote to {@code subscriber}. */
+    @Override
+    public void subscribe(Flow.Subscriber<? super RateQuote> subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        Sink sink = new Sink(subscriber, -1);
+        allPairs.add(sink);
+        for (int i = 0; i < N * N; i++) {
+            if (i / N != i % N) acquire(i);
+        }
+        for (int i = 0; i < N * N && !closed; i++) {
+            RateQuote q = latest.get(i);
+            if (q != null) sink.seed(i, q);
+        }
+        start(sink);
+    }
+
+    /** A publisher of just the {@code base}/{@code quote} pair, sharing this publisher's feed and policy. */
+    public Flow.Publisher<RateQuote> pair(Currency base, Currency quote) {
+        if (base == null || quote == null) throw new IllegalArgumentException("base and quote must be non-null");
+        if (base == quote) throw new IllegalArgumentException("base and quote must differ");
+        int index = base.ordinal() * N + quote.ordinal();
+        return subscriber -> {
+            if (subscriber == null) throw new NullPointerException("subscriber");
+            Sink sink = new Sink(subscriber, index);
+            CopyOnWriteArrayList<Sink> sinks = byPair.get(index);
+            if (sinks == null) {
+                byPair.compareAndSet(index, null, new CopyOnWriteArrayList<>());
+                sinks = byPair.get(index);
+            }
+            sinks.add(sink);
+            acquire(index);
+            RateQuote q = latest.get(index);
+            if (q != null && !closed) sink.seed(index, q);
+            start(sink);
+        };
+    }
+
+    /** Stop the upstream feed and complete every subscriber once it has drained what is already buffered. */
+    @Override
+    public void close() {
+        List<RateSubscription> open = new ArrayList<>();
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (int i = 0; i < upstream.length; i++) {
+                if (upstream[i] != null) open.add(upstream[i]);
+                upstream[i] = null;
+            }
+        }
+        for (RateSubscription s : open) s.close();
+        for (Sink sink : allPairs) sink.complete();
+        for (int i = 0; i < N * N; i++) {
+            CopyOnWriteArrayList<Sink> sinks = byPair.get(i);
+            if (sinks != null) for (Sink sink : sinks) sink.complete();
+        }
+    }
+
+    /** Subscribers currently attached, to all pairs or to one. */
+    public int getSubscriberCount() {
+        int count = allPairs.size();
+        for (int i = 0; i < N * N; i++) {
+            CopyOnWriteArrayList<Sink> sinks = byPair.get(i);
+            if (sinks != null) count += sinks.size();
+        }
+        return count;
+    }
+
+    /** Quotes never delivered because a subscriber's buffer conflated or dropped them. */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /** Count one more subscriber of the pair, opening its upstream feed for the first. */
+    private synchronized void acquire(int index) {
+        users[index]++;
+        if (closed || upstream[index] != null) return;
+        upstream[index] = service.subscribe(ALL[index / N], ALL[index % N], q -> publish(index, q));
+    }
+
+    /** Count one subscriber of the pair less, closing its upstream feed after the last. */
+    private void release(int index) {
+        RateSubscription idle;
+        synchronized (this) {
+            if (--users[index] > 0 || upstream[index] == null) return;
+            idle = upstream[index];
+            upstream[index] = null;
+            // The next subscriber starts from the reopened feed's quote, not one that may have gone stale meanwhile.
+            latest.set(index, null);
+        }
+        idle.close();
+    }
+
+    private void start(Sink sink) {
+        sink.subscriber.onSubscribe(sink);
+        if (closed) sink.complete();
+    }
+
+    /** Feed thread: hand the quote to every interested buffer; never blocks on a subscriber. */
+    private void publish(int index, RateQuote quote) {
+        latest.set(index, quote);
+        for (Sink sink : allPairs) sink.offer(index, quote);
+        CopyOnWriteArrayList<Sink> sinks = byPair.get(index);
+        if (sinks != null) for (Sink sink : sinks) sink.offer(index, quote);
+    }
+
+    private void remove(Sink sink) {
+        if (sink.pair < 0) {
+            allPairs.remove(sink);
+            for (int i = 0; i < N * N; i++) {
+                if (i / N != i % N) release(i);
+            }
+        } else {
+            byPair.get(sink.pair).remove(sink);
+            release(sink.pair);
+        }
+    }
+
+    /** One subscriber's subscription, buffer and drain loop. */
+    private final class Sink implements Flow.Subscription {
+        final Flow.Subscriber<? super RateQuote> subscriber;
+        /** Pair index for a single-pair subscriber, -1 for all pairs. */
+        final int pair;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final Runnable drainTask = this::drain;
+
+        // Guarded by this.
+        /** Last quote accepted per slot, to skip the duplicate a concurrent seed and publish can produce. */
+        private final RateQuote[] seen;
+        /** CONFLATE: pending quote per slot, and the slots holding one in arrival order. */
+        private final RateQuote[] pending;
+        private final int[] order;
+        private int orderHead;
+        private int orderSize;
+        /** DROP_OLDEST: the queue itself. */
+        private final ArrayDeque<RateQuote> queue;
+        private long demand;
+        private boolean completing;
+        /** Protocol violation to report from the drain, so onError never overlaps onNext. */
+        private Throwable error;
+        private volatile boolean cancelled;
+
+        Sink(Flow.Subscriber<? super RateQuote> subscriber, int pair) {
+            this.subscriber = subscriber;
+            this.pair = pair;
+            int slots = pair < 0 ? N * N : 1;
+            this.seen = new RateQuote[slots];
+            if (overflow == Overflow.CONFLATE) {
+                this.pending = new RateQuote[slots];
+                this.order = new int[Math.min(slots, bufferSize)];
+                this.queue = null;
+            } else {
+                this.pending = null;
+                this.order = null;
+                this.queue = new ArrayDeque<>(Math.min(bufferSize, 16));
+            }
+        }
+
+        private int slot(int index) {
+            return pair < 0 ? index : 0;
+        }
+
+        /** Queue {@code q} unless this subscriber already has a quote for the pair. */
+        void seed(int index, RateQuote q) {
+            boolean wake;
+            synchronized (this) {
+                if (seen[slot(index)] != null) return;
+                seen[slot(index)] = q;
+                enqueue(index, q);
+                wake = demand > 0;
+            }
+            if (wake) signal();
+        }
+
+        void offer(int index, RateQuote q) {
+            if (cancelled) return;
+            boolean wake;
+            synchronized (this) {
+                int slot = slot(index);
+                if (seen[slot] == q || completing) return;
+                seen[slot] = q;
+                enqueue(index, q);
+                // Without demand there is nothing to drain; the next request() schedules it.
+                wake = demand > 0;
+            }
+            if (wake) signal();
+        }
+
+        private void enqueue(int index, RateQuote q) {
+            if (queue != null) {
+                if (queue.size() == bufferSize) {
+                    queue.pollFirst();
+                    discarded.increment();
+                }
+                queue.addLast(q);
+                return;
+            }
+            int slot = slot(index);
+            if (pending[slot] != null) {
+                pending[slot] = q;
+                discarded.increment();
+                return;
+            }
+            if (orderSize == order.length) {
+                // More pairs pending than the buffer holds: give up the oldest pair's quote.
+                int oldest = order[orderHead];
+                pending[oldest] = null;
+                orderHead = (orderHead + 1) % order.length;
+                orderSize--;
+                discarded.increment();
+            }
+            pending[slot] = q;
+            order[(orderHead + orderSize++) % order.length] = slot;
+        }
+
+        /** Next buffered quote if the subscriber has demand for it; null otherwise. Holds this. */
+        private RateQuote take() {
+            if (demand == 0) return null;
+            RateQuote q;
+            if (queue != null) {
+                q = queue.pollFirst();
+            } else if (orderSize == 0) {
+                q = null;
+            } else {
+                int slot = order[orderHead];
+                orderHead = (orderHead + 1) % order.length;
+                orderSize--;
+                q = pending[slot];
+                pending[slot] = null;
+            }
+            if (q != null && demand != Long.MAX_VALUE) demand--;
+            return q;
+        }
+
+        private boolean isEmpty() {
+            return queue != null ? queue.isEmpty() : orderSize == 0;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                synchronized (this) {
+                    if (error == null) error = new IllegalArgumentException("request must be positive, got " + n);
+                }
+                signal();
+                return;
+            }
+            synchronized (this) {
+                long d = demand + n;
+                demand = d < 0 ? Long.MAX_VALUE : d;
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            detach();
+        }
+
+        /** Stop delivering and release this subscriber's pairs; true only for the call that did it. */
+        private boolean detach() {
+            synchronized (this) {
+                if (cancelled) return false;
+                cancelled = true;
+            }
+            remove(this);
+            return true;
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            signal();
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() != 0) return; // the running drain will loop again
+            try {
+                executor.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                wip.set(0);
+                System.out.println("[WARN] Rate publisher executor rejected delivery: " + e.getMessage());
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                Throwable failure;
+                synchronized (this) {
+                    failure = error;
+                }
+                if (failure != null && detach()) subscriber.onError(failure);
+                while (!cancelled) {
+                    RateQuote q;
+                    synchronized (this) {
+                        q = take();
+                    }
+                    if (q == null) break;
+                    try {
+                        subscriber.onNext(q);
+                    } catch (RuntimeException e) {
+                        System.out.println("[WARN] Rate subscriber failed, cancelling it: " + e);
+                        cancel();
+                    }
+                }
+                boolean done;
+                synchronized (this) {
+                    done = completing && isEmpty();
+                }
+                if (done && detach()) subscriber.onComplete();
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) return;
+            }
+        }
+    }
+}
@@ -8,8 +8,17 @@ public final class RateQuote {
     private final Currency quote;
     private final double rate;
     private final Instant timestamp;
+    private final boolean stale;
 
     public RateQuote(Currency base, Currency quote, double rate, Instant timestamp) {
+        this(base, quote, rate, timestamp, false);
+    }
+
+    /**
+     * @param stale true when the rate comes from a persisted table that has not been refreshed since startup, or
+     *              is a last good quote served while the provider is unavailable
+     */
+    public RateQuote(Currency base, Currency quote, double rate, Instant timestamp, boolean stale) {
         if (base == null || quote == null || timestamp == null) {
             throw new IllegalArgumentException("base, quote, and timestamp must be non-null");
         }
@@ -20,24 +29,26 @@ public final class RateQuote {
         this.quote = quote;
         this.rate = rate;
         this.timestamp = timestamp;
+        this.stale = stale;
     }
 
     public Currency getBase() { return base; }
     public Currency getQuote() { return quote; }
     public double getRate() { return rate; }
     public Instant getTimestamp() { return timestamp; }
+    public boolean isStale() { return stale; }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof RateQuote)) return false;
         RateQuote rateQuote = (RateQuote) o;
-        return Double.compare(rateQuote.rate, rate) == 0 && base == rateQuote.base && quote == rateQuote.quote && Objects.equals(timestamp, rateQuote.timestamp);
+        return Double.compare(rateQuote.rate, rate) == 0 && stale == rateQuote.stale && base == rateQuote.base && quote == rateQuote.quote && Objects.equals(timestamp, rateQuote.timestamp);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(base, quote, rate, timestamp);
+        return Objects.hash(base, quote, rate, timestamp, stale);
     }
 
     @Override
@@ -47,6 +58,7 @@ public final class RateQuote {
                 ", quote=" + quote +
                 ", rate=" + rate +
                 ", timestamp=" + timestamp +
+                ", stale=" + stale +
                 '}';
     }
 }
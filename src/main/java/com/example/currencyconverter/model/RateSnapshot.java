@@ -0,0 +1,118 @@
+package com.example.currencyconverter.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Immutable table of rates captured at one instant.
+ *
+ * <p>Built from rates relative to a single anchor currency and indexed by {@link CurrencyRegistry} id,
+ * which equals {@link Currency#ordinal()} for the enum constants. The cross-rate matrix between the enum
+ * currencies is precomputed, so {@link #rate(Currency, Currency)} is a plain array read. Pairs involving
+ * registry-only currencies cost one division instead of a quadratic table. Instances are safe to share between threads; services publish a new one through a single volatile
+ * reference on every refresh, so readers never block and never see a half-applied update.</p>
+ */
+public final class RateSnapshot {
+
+    private final double[] perAnchor;
+    private final double[][] cross;
+    private final Instant timestamp;
+    private final boolean stale;
+
+    private RateSnapshot(double[] perAnchor, Instant timestamp) {
+        this.perAnchor = perAnchor;
+        this.timestamp = timestamp;
+        this.stale = false;
+        int n = Currency.COUNT;
+        this.cross = new double[n][n];
+        for (int b = 0; b < n; b++) {
+            double[] row = cross[b];
+            double anchorToBase = perAnchor[b];
+            for (int q = 0; q < n; q++) {
+                row[q] = b == q ? 1.0 : perAnchor[q] / anchorToBase; // NaN propagates for missing legs
+            }
+        }
+    }
+
+    private RateSnapshot(RateSnapshot fresh) {
+        this.perAnchor = fresh.perAnchor;
+        this.cross = fresh.cross;
+        this.timestamp = fresh.timestamp;
+        this.stale = true;
+    }
+
+    /**
+     * @param perAnchor units of each currency per one unit of the anchor, indexed by registry id (at least one
+     *                  entry per {@link Currency}); non-positive or NaN entries mark a currency as unavailable
+     * @param timestamp when the rates were observed
+     */
+    public static RateSnapshot fromAnchorRates(double[] perAnchor, Instant timestamp) {
+        if (perAnchor == null || timestamp == null) {
+            throw new IllegalArgumentException("perAnchor and timestamp must be non-null");
+        }
+        if (perAnchor.length < Currency.COUNT) {
+            throw new IllegalArgumentException("perAnchor must have at least one entry per Currency");
+        }
+        double[] copy = Arrays.copyOf(perAnchor, perAnchor.length);
+        for (int i = 0; i < copy.length; i++) {
+            if (!(copy[i] > 0) || Double.isInfinite(copy[i])) copy[i] = Double.NaN;
+        }
+        return new RateSnapshot(copy, timestamp);
+    }
+
+    public boolean supports(Currency currency) {
+        return currency != null && !Double.isNaN(perAnchor[currency.ordinal()]);
+    }
+
+    /** Whether the currency with this registry id has a rate. */
+    public boolean supports(int id) {
+        return id >= 0 && id < perAnchor.length && !Double.isNaN(perAnchor[id]);
+    }
+
+    /** Number of registry ids this snapshot has slots for; ids at or above it are unavailable. */
+    public int size() {
+        return perAnchor.length;
+    }
+
+    /**
+     * Allocation-free lookup.
+     *
+     * @return units of {@code quote} per one unit of {@code base}, or NaN when either leg is unavailable
+     */
+    public double rate(Currency base, Currency quote) {
+        return cross[base.ordinal()][quote.ordinal()];
+    }
+
+    /**
+     * Same as {@link #rate(Currency, Currency)} but by registry id, for array-driven callers. Ids outside the
+     * snapshot, including -1 from a failed lookup, give NaN.
+     */
+    public double rate(int baseId, int quoteId) {
+        if (baseId < Currency.COUNT && quoteId < Currency.COUNT && baseId >= 0 && quoteId >= 0) {
+            return cross[baseId][quoteId];
+        }
+        if (baseId < 0 || quoteId < 0 || baseId >= perAnchor.length || quoteId >= perAnchor.length) return Double.NaN;
+        return baseId == quoteId ? 1.0 : perAnchor[quoteId] / perAnchor[baseId];
+    }
+
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        if (base == null || quote == null) return Optional.empty();
+        double r = cross[base.ordinal()][quote.ordinal()];
+        if (Double.isNaN(r)) return Optional.empty();
+        return Optional.of(new RateQuote(base, quote, r, timestamp, stale));
+    }
+
+    /** Same rates flagged as stale, e.g. loaded from disk at startup; quotes from it report {@link RateQuote#isStale()}. */
+    public RateSnapshot asStale() {
+        return stale ? this : new RateSnapshot(this);
+    }
+
+    /** Units of the currency with this registry id per one unit of the anchor, or NaN. */
+    double anchorRate(int id) {
+        return id < perAnchor.length ? perAnchor[id] : Double.NaN;
+    }
+
+    public Instant getTimestamp() { return timestamp; }
+    public boolean isStale() { return stale; }
+}
@@ -0,0 +1,106 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Compact binary file holding one {@link RateSnapshot}, used to warm-start the app from the last good table.
+ *
+ * <p>Layout: magic, version, timestamp (epoch seconds and nanos), entry count, then one entry per available
+ * currency: its code (length byte, then ASCII) followed by its rate against the snapshot's anchor. Codes rather
+ * than registry ids are stored, so a file survives the registry changing; unknown codes are skipped when reading.
+ * Writes go to a temporary file that is then moved into place, so readers never see a partial file.</p>
+ */
+public final class RateSnapshotFile {
+
+    private static final int MAGIC = 0x46585331; // "FXS1"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final int MAX_ENTRY_SIZE = 1 + CurrencyRegistry.MAX_CODE_LENGTH + 8;
+
+    private RateSnapshotFile() {
+    }
+
+    public static void write(RateSnapshot snapshot, Path file) throws IOException {
+        if (snapshot == null || file == null) throw new IllegalArgumentException("snapshot and file must be non-null");
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        int n = Math.min(snapshot.size(), registry.size());
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + n * MAX_ENTRY_SIZE);
+        buf.putInt(MAGIC).putInt(VERSION)
+                .putLong(snapshot.getTimestamp().getEpochSecond()).putInt(snapshot.getTimestamp().getNano());
+        int countPos = buf.position();
+        buf.putInt(0);
+        int count = 0;
+        for (int id = 0; id < n; id++) {
+            double r = snapshot.anchorRate(id);
+            if (Double.isNaN(r)) continue;
+            byte[] code = registry.unit(id).getCode().getBytes(StandardCharsets.US_ASCII);
+            buf.put((byte) code.length).put(code).putDouble(r);
+            count++;
+        }
+        buf.putInt(countPos, count);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        // A unique name per write, so concurrent writers (two app instances) never share a temporary file.
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, Arrays.copyOf(buf.array(), buf.position()));
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp); // only still there if the write or move failed
+        }
+    }
+
+    /**
+     * @return the stored snapshot, or empty if the file is missing, unreadable or holds fewer than two rates
+     */
+    public static Optional<RateSnapshot> read(Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            System.out.println("[WARN] Could not read rate snapshot " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+        if (bytes.length < HEADER_SIZE) return Optional.empty();
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return Optional.empty();
+        long seconds = buf.getLong();
+        int nanos = buf.getInt();
+        int count = buf.getInt();
+        if (count < 0) return Optional.empty();
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        double[] perAnchor = new double[registry.size()];
+        Arrays.fill(perAnchor, Double.NaN);
+        int usable = 0;
+        for (int i = 0; i < count; i++) {
+            if (buf.remaining() < 1) return Optional.empty();
+            int length = buf.get();
+            if (length <= 0 || buf.remaining() < length + 8) return Optional.empty();
+            int id = registry.idOf(bytes, buf.position(), length);
+            buf.position(buf.position() + length);
+            double r = buf.getDouble();
+            if (id >= 0 && r > 0) {
+                perAnchor[id] = r;
+                usable++;
+            }
+        }
+        if (usable < 2) return Optional.empty();
+        return Optional.of(RateSnapshot.fromAnchorRates(perAnchor, Instant.ofEpochSecond(seconds, nanos)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.currencyconverter.model;
+
+/**
+ * Handle returned by {@link ExchangeRateService#subscribe}. Closing it stops further notifications; closing it
+ * again has no effect.
+ */
+public interface RateSubscription extends AutoCloseable {
+
+    @Override
+    void close();
+}
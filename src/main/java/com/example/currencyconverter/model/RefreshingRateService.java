@@ -0,0 +1,266 @@
+package com.example.currencyconverter.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorator that keeps the pairs callers actually ask for fresh in the background, so lookups are answered from
+ * memory instead of waiting on the provider.
+ *
+ * <p>A pair joins the working set on its first successful lookup, which is the only one that waits for the
+ * delegate; a pair the delegate cannot quote is asked for again on the next lookup rather than kept empty. From
+ * then on a shared scheduler re-fetches it about every {@code interval}. Each refresh is due at a random point
+ * in the last 20% of the interval, so pairs loaded together at startup do not all fall due together. When more
+ * pairs are due than {@code maxInFlight} allows, the most requested go first. A pair nobody asked for since
+ * its last refresh is refreshed at half the rate, and one idle for {@code idleTimeout} leaves the set.</p>
+ *
+ * <p>A quote older than three intervals, because refreshes keep failing, is still served without blocking but
+ * flagged stale.</p>
+ */
+public class RefreshingRateService implements ExchangeRateService, AutoCloseable {
+
+    /** Fraction of the interval refreshes are spread over. */
+    static final double JITTER = 0.2;
+    static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    private static final int PAIRS_PER_BASE = Currency.values().length;
+
+    /** Runs every instance's ticks; they only pick due pairs and start async lookups, so two threads suffice. */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "rate-refresh-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    private final ExchangeRateService delegate;
+    private final long intervalNanos;
+    private final long idleNanos;
+    private final int maxInFlight;
+    private final LongSupplier nanoTime;
+    private final ConcurrentHashMap<Integer, Tracked> pairs = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ScheduledFuture<?> ticker;
+
+    private final LongAdder blockingLoads = new LongAdder();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Refresh every {@code interval}, evicting pairs idle for ten intervals, with up to 4 refreshes in flight. */
+    public RefreshingRateService(ExchangeRateService delegate, Duration interval) {
+        this(delegate, interval, interval == null ? null : interval.multipliedBy(10), DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param interval    target age of a hot pair's quote
+     * @param idleTimeout time without lookups after which a pair stops being refreshed
+     * @param maxInFlight refreshes running at once; further due pairs wait for the next tick
+     */
+    public RefreshingRateService(ExchangeRateService delegate, Duration interval, Duration idleTimeout, int maxInFlight) {
+        this(delegate, interval, idleTimeout, maxInFlight, System::nanoTime, SCHEDULER);
+    }
+
+    /** @param scheduler runs the ticks; null leaves them to {@link #tick()} calls, for tests */
+    RefreshingRateService(ExchangeRateService delegate, Duration interval, Duration idleTimeout, int maxInFlight,
+                          LongSupplier nanoTime, ScheduledExecutorService scheduler) {
+        if (delegate == null) throw new IllegalArgumentException("delegate must be non-null");
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (idleTimeout == null || idleTimeout.compareTo(interval) < 0) {
+            throw new IllegalArgumentException("idleTimeout must be at least the interval");
+        }
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive");
+        this.delegate = delegate;
+        this.intervalNanos = interval.toNanos();
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxInFlight = maxInFlight;
+        this.nanoTime = nanoTime;
+        // Ticks only pick what is due, so ten per interval keep refreshes close to their jittered time.
+        long tickMillis = Math.max(10, Math.min(1_000, interval.toMillis() / 10));
+        this.ticker = scheduler == null ? null
+                : scheduler.scheduleWithFixedDelay(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<RateQuote> getRate(Currency base, Currency quote) {
+        if (base == null || quote == null) return Optional.empty();
+        Optional<RateQuote> cached = cached(base, quote);
+        if (cached != null) return cached;
+        blockingLoads.increment();
+        Optional<RateQuote> loaded = delegate.getRate(base, quote);
+        if (loaded == null) return Optional.empty();
+        track(base, quote, loaded);
+        return loaded;
+    }
+
+    @Override
+    public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+        if (base == null || quote == null) return CompletableFuture.completedFuture(Optional.empty());
+        Optional<RateQuote> cached = cached(base, quote);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        blockingLoads.increment();
+        return delegate.getRateAsync(base, quote).thenApply(loaded -> {
+            Optional<RateQuote> q = loaded == null ? Optional.empty() : loaded;
+            track(base, quote, q);
+            return q;
+        });
+    }
+
+    @Override
+    public RateSnapshot currentSnapshot() {
+        return delegate.currentSnapshot();
+    }
+
+    /** Stop refreshing; lookups keep working from the working set and the delegate. */
+    @Override
+    public void close() {
+        if (ticker != null) ticker.cancel(false);
+    }
+
+    /** Pairs currently kept fresh. */
+    public int getWorkingSetSize() {
+        return pairs.size();
+    }
+
+    /** Lookups that had to wait for the delegate because their pair was not in the working set. */
+    public long getBlockingLoadCount() {
+        return blockingLoads.sum();
+    }
+
+    /** Background refreshes completed, successful or not. */
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    /** Pairs dropped from the working set after going idle. */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** The working set's quote for the pair, recording the lookup; null when the pair is not tracked yet. */
+    private Optional<RateQuote> cached(Currency base, Currency quote) {
+        Tracked t = pairs.get(key(base, quote));
+        if (t == null) return null;
+        long now = nanoTime.getAsLong();
+        t.lastAccess = now;
+        t.hits.increment();
+        Optional<RateQuote> q = t.latest;
+        if (q.isEmpty() || q.get().isStale() || now - t.loadedAt < 3 * intervalNanos) return q;
+        RateQuote old = q.get();
+        return Optional.of(new RateQuote(old.getBase(), old.getQuote(), old.getRate(), old.getTimestamp(), true));
+    }
+
+    /** Start refreshing the pair from {@code loaded}; empty results are not tracked. */
+    private void track(Currency base, Currency quote, Optional<RateQuote> loaded) {
+        if (loaded.isEmpty()) return;
+        long now = nanoTime.getAsLong();
+        Tracked t = new Tracked(base, quote, loaded, now);
+        t.nextDue = now + jittered(intervalNanos);
+        pairs.putIfAbsent(key(base, quote), t);
+    }
+
+    /** One scheduler pass: evict idle pairs, then start refreshes for due pairs, most requested first. */
+    void tick() {
+        long now = nanoTime.getAsLong();
+        List<Tracked> due = new ArrayList<>();
+        for (Tracked t : pairs.values()) {
+            if (now - t.lastAccess > idleNanos) {
+                if (pairs.remove(key(t.base, t.quote), t)) evictions.incrementAndGet();
+            } else if (!t.refreshing && now - t.nextDue >= 0) {
+                t.priority = t.score + t.hits.sum();
+                due.add(t);
+            }
+        }
+        if (due.isEmpty()) return;
+        due.sort((a, b) -> Double.compare(b.priority, a.priority));
+        for (Tracked t : due) {
+            if (inFlight.get() >= maxInFlight) return; // the rest stay due for the next tick
+            refresh(t);
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            // A failing tick must not cancel the schedule.
+            System.out.println("[WARN] Rate refresh tick failed: " + e);
+        }
+    }
+
+    private void refresh(Tracked t) {
+        t.refreshing = true;
+        inFlight.incrementAndGet();
+        // Half-life of one refresh: a pair stays hot for a couple of intervals after its lookups stop.
+        t.score = t.score / 2 + t.hits.sumThenReset();
+        CompletableFuture<Optional<RateQuote>> f;
+        try {
+            f = delegate.getRateAsync(t.base, t.quote);
+        } catch (RuntimeException e) {
+            f = CompletableFuture.completedFuture(Optional.empty());
+        }
+        f.whenComplete((q, error) -> {
+            long now = nanoTime.getAsLong();
+            if (error == null && q != null && q.isPresent()) {
+                t.latest = q;
+                t.loadedAt = now;
+            }
+            // Cold pairs (no lookups lately) are refreshed at half the rate until they are evicted.
+            t.nextDue = now + jittered(t.score >= 1 ? intervalNanos : 2 * intervalNanos);
+            t.refreshing = false;
+            inFlight.decrementAndGet();
+            refreshes.incrementAndGet();
+        });
+    }
+
+    /** {@code nanos} shortened by up to {@link #JITTER}, so refreshes never line up across pairs. */
+    static long jittered(long nanos) {
+        return nanos - (long) (nanos * JITTER * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private static Integer key(Currency base, Currency quote) {
+        return base.ordinal() * PAIRS_PER_BASE + quote.ordinal();
+    }
+
+    private static final class Tracked {
+        final Currency base;
+        final Currency quote;
+        final LongAdder hits = new LongAdder();
+        volatile Optional<RateQuote> latest;
+        volatile long loadedAt;
+        volatile long lastAccess;
+        volatile long nextDue;
+        volatile boolean refreshing;
+        /** Decayed lookup count as of the last refresh; written by the refresh, read by ticks. */
+        volatile double score;
+        /** Sort key of the current tick. */
+        double priority;
+
+        Tracked(Currency base, Currency quote, Optional<RateQuote> latest, long now) {
+            this.base = base;
+            this.quote = quote;
+            this.latest = latest;
+            this.loadedAt = now;
+            this.lastAccess = now;
+            this.score = 1;
+        }
+    }
+}
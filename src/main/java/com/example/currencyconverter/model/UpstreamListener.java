@@ -0,0 +1,22 @@
+package com.example.currencyconverter.model;
+
+import java.time.Duration;
+
+/**
+ * Receives the outcome of every request a provider sends upstream, e.g. so {@link RateProviderGuard} can
+ * budget real requests and back off when the provider pushes back. Called on the provider's threads; must
+ * not block.
+ */
+public interface UpstreamListener {
+
+    /** A request is about to be sent. */
+    void onRequest();
+
+    /**
+     * A request finished.
+     *
+     * @param status     HTTP status, or -1 when no response arrived (timeout, connection failure)
+     * @param retryAfter the response's {@code Retry-After}, or null when absent
+     */
+    void onResponse(int status, Duration retryAfter);
+}
@@ -1,61 +1,257 @@
 package com.example.currencyconverter.model;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * Streaming rate service fed by a WebSocket.
+ *
+ * <p>On connect the service sends {@code {"action":"subscribe","symbols":[...]}} for every known currency.
+ * The feed then pushes tick messages shaped like a provider payload, e.g.
+ * {@code {"base":"USD","rates":{"EUR":0.9213}}}. Each tick only carries the legs that changed; they are
+ * merged into a USD-anchored table and published as a new immutable {@link RateSnapshot}, so readers
+ * never block and always see a consistent table.</p>
+ *
+ * <p>Subscribers are notified from the listener thread as soon as a tick changes their pair.</p>
+ *
+ * <p>If the connection drops the service reconnects with exponential backoff and jitter, and
+ * resubscribes. The last known rates keep being served meanwhile.</p>
+ */
 public class WebSocketRateService implements ExchangeRateService {
 
-    private final Map<Currency, Double> usdTo = new HashMap<>();
-    private volatile Instant lastRefresh;
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(250);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final URI feedUri;
+    private final HttpClient httpClient;
     private final ScheduledExecutorService scheduler;
 
+    /**
+     * Working copy of the USD-anchored rates by registry id; only touched by the WebSocket listener, which is
+     * serial. Sized for every currency registered at construction.
+     */
+    private final double[] usdTo = new double[CurrencyRegistry.global().size()];
+    private volatile RateSnapshot snapshot;
+    private final RateChangeNotifier changes = new RateChangeNotifier();
+
+    private volatile WebSocket webSocket;
+    private volatile boolean closed;
+    private long backoffMillis = MIN_BACKOFF.toMillis();
+    private final AtomicLong ticksApplied = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+
+    /** Offline instance serving the built-in seed rates; no feed connection is made. */
     public WebSocketRateService() {
-        initMockRates();
-        lastRefresh = Instant.now();
+        this(null);
+    }
+
+    /**
+     * @param feedUri ws:// or wss:// endpoint of the tick feed, or null to serve the seed rates only
+     */
+    public WebSocketRateService(URI feedUri) {
+        this.feedUri = feedUri;
+        initSeedRates();
+        snapshot = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+        if (feedUri == null) {
+            httpClient = null;
+            scheduler = null;
+            return;
+        }
+        httpClient = HttpClient.newHttpClient();
         scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "ws-rate-refresh");
+            Thread t = new Thread(r, "ws-rate-reconnect");
             t.setDaemon(true);
             return t;
         });
-
-        scheduler.scheduleAtFixedRate(() -> lastRefresh = Instant.now(), 2, 2, TimeUnit.SECONDS);
+        scheduler.execute(this::connect);
     }
 
-    private void initMockRates() {
-        usdTo.clear();
-        usdTo.put(Currency.USD, 1.0);
-        usdTo.put(Currency.EUR, 0.92);
-        usdTo.put(Currency.GBP, 0.80);
-        usdTo.put(Currency.NGN, 1500.0);
-        usdTo.put(Currency.JPY, 150.0);
-        usdTo.put(Currency.CAD, 1.36);
-        usdTo.put(Currency.AUD, 1.53);
-        usdTo.put(Currency.CNY, 7.20);
-        usdTo.put(Currency.ZAR, 18.50);
-        usdTo.put(Currency.INR, 83.20);
-        usdTo.put(Currency.GHS, 15.30);
+    private void initSeedRates() {
+        Arrays.fill(usdTo, Double.NaN);
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.92;
+        usdTo[Currency.GBP.ordinal()] = 0.80;
+        usdTo[Currency.NGN.ordinal()] = 1500.0;
+        usdTo[Currency.JPY.ordinal()] = 150.0;
+        usdTo[Currency.CAD.ordinal()] = 1.36;
+        usdTo[Currency.AUD.ordinal()] = 1.53;
+        usdTo[Currency.CNY.ordinal()] = 7.20;
+        usdTo[Currency.ZAR.ordinal()] = 18.50;
+        usdTo[Currency.INR.ordinal()] = 83.20;
+        usdTo[Currency.GHS.ordinal()] = 15.30;
     }
 
     @Override
     public Optional<RateQuote> getRate(Currency base, Currency quote) {
-        if (base == null || quote == null) return Optional.empty();
-        if (base == quote) {
-            return Optional.of(new RateQuote(base, quote, 1.0, Instant.now()));
-        }
-        Double usdToBase = usdTo.get(base);
-        Double usdToQuote = usdTo.get(quote);
-        if (usdToBase == null || usdToQuote == null) return Optional.empty();
-        double rate = usdToQuote / usdToBase;
-        return Optional.of(new RateQuote(base, quote, rate, lastRefresh));
+        return snapshot.getRate(base, quote);
+    }
+
+    @Override
+    public double rate(Currency base, Currency quote) {
+        return snapshot.rate(base, quote);
     }
 
+    /** Current table; replaced atomically on every applied tick. */
+    @Override
+    public RateSnapshot currentSnapshot() {
+        return snapshot;
+    }
+
+    /** Pushes every tick that changes the pair; no polling. */
+    @Override
+    public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+        return changes.subscribe(base, quote, listener, snapshot);
+    }
+
+    public boolean isConnected() {
+        return webSocket != null;
+    }
+
+    /** Number of tick messages merged into the table since start. */
+    public long getTicksApplied() {
+        return ticksApplied.get();
+    }
+
+    /** Number of successful connections, including reconnects. */
+    public long getConnectCount() {
+        return connects.get();
+    }
 
     public void shutdown() {
-        scheduler.shutdownNow();
+        closed = true;
+        WebSocket ws = webSocket;
+        webSocket = null;
+        if (ws != null) {
+            ws.abort();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void connect() {
+        if (closed) return;
+        httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(feedUri, new Listener())
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        scheduleReconnect();
+                    }
+                });
+    }
+
+    private void scheduleReconnect() {
+        webSocket = null;
+        if (closed) return;
+        long delay;
+        synchronized (this) {
+            delay = backoffMillis;
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF.toMillis());
+        }
+        // Full jitter keeps many clients from reconnecting in lockstep after a feed restart.
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        try {
+            scheduler.schedule(this::connect, jittered, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException ignored) {
+            // Scheduler shut down concurrently.
+        }
+    }
+
+    private static String subscribeMessage() {
+        StringBuilder sb = new StringBuilder("{\"action\":\"subscribe\",\"symbols\":[");
+        Currency[] all = Currency.values();
+        for (int i = 0; i < all.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(all[i].name()).append('"');
+        }
+        return sb.append("]}").toString();
+    }
+
+    /** Merge one tick into the working table and publish it. Called only from the listener. */
+    private void applyTick(byte[] message) {
+        RateJsonParser.Result tick = RateJsonParser.parse(message);
+        if (tick.size() == 0) return;
+        int usd = Currency.USD.ordinal();
+        int base = tick.getBaseId() < 0 ? usd : tick.getBaseId();
+        if (base >= usdTo.length) return;
+        double usdToBase = usdTo[base];
+        if (tick.has(usd) && base != usd) {
+            // The tick re-quotes USD itself, which rebases every other leg it carries.
+            usdToBase = 1.0 / tick.rate(usd);
+            usdTo[base] = usdToBase;
+        }
+        if (!(usdToBase > 0)) return;
+        int n = Math.min(usdTo.length, tick.capacity());
+        for (int id = 0; id < n; id++) {
+            if (id != usd && tick.has(id)) {
+                usdTo[id] = tick.rate(id) * usdToBase;
+            }
+        }
+        snapshot = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+        ticksApplied.incrementAndGet();
+        changes.publish(snapshot);
+    }
+
+    private final class Listener implements WebSocket.Listener {
+        private StringBuilder partial = new StringBuilder();
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            webSocket = ws;
+            connects.incrementAndGet();
+            synchronized (WebSocketRateService.this) {
+                backoffMillis = MIN_BACKOFF.toMillis();
+            }
+            ws.sendText(subscribeMessage(), true);
+            ws.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            if (last && partial.length() == 0) {
+                applyTick(data.toString().getBytes(StandardCharsets.UTF_8));
+            } else {
+                partial.append(data);
+                if (last) {
+                    applyTick(partial.toString().getBytes(StandardCharsets.UTF_8));
+                    partial = new StringBuilder();
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+            // The feed only speaks text; ignore binary frames but keep the stream flowing.
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            scheduleReconnect();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            scheduleReconnect();
+        }
     }
 }
@@ -23,4 +23,16 @@ public interface ConverterPresenter {
      * @param to quote currency
      */
     void onConvert(String amountText, Currency from, Currency to);
+
+    /**
+     * Convert now, then keep the result current: re-render whenever the pair's rate changes, until
+     * {@link #stopWatching()} or the next call. Replaces any earlier watch.
+     */
+    default void onWatch(String amountText, Currency from, Currency to) {
+        onConvert(amountText, from, to);
+    }
+
+    /** Stop the updates started by {@link #onWatch}. */
+    default void stopWatching() {
+    }
 }
@@ -2,31 +2,61 @@ package com.example.currencyconverter.presenter;
 
 import com.example.currencyconverter.model.Currency;
 import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.FixedPoint;
 import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.model.RateSubscription;
 import com.example.currencyconverter.view.ConverterView;
 
-import java.text.NumberFormat;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.math.RoundingMode;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Presenter implementation handling validation, formatting and calling the view.
+ *
+ * <p>When constructed with a UI executor, rate lookups go through
+ * {@link ExchangeRateService#getRateAsync} and results are handed back to the view on that executor.
+ * Only the most recent request is rendered; superseded lookups are cancelled and their results dropped.
+ * Without a UI executor the presenter resolves rates inline on the calling thread.</p>
+ *
+ * <p>{@link #onWatch} subscribes to the pair through {@link ExchangeRateService#subscribe} and re-renders only
+ * when its rate changes, handing bursts of ticks to the UI executor at most once per frame.</p>
  */
 public class ConverterPresenterImpl implements ConverterPresenter {
 
+    /** Rounding for converted amounts; matches what {@code NumberFormat} applied before amounts were exact. */
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
     private final ExchangeRateService rateService;
+    private final Executor uiExecutor;
     private ConverterView view;
 
-    private final NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
-    private final NumberFormat moneyFormat = NumberFormat.getNumberInstance(Locale.US);
-    private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z").withZone(ZoneId.systemDefault());
+    private final AtomicLong latestRequest = new AtomicLong();
+    private volatile CompletableFuture<Optional<RateQuote>> pending;
+    private RateSubscription watch;
+    /** Request id of the current watch, or 0; pushed quotes for any other request are dropped. */
+    private volatile long watchRequest;
+    /** Rate and staleness last rendered, so a watch's first push does not repaint what the lookup just showed. */
+    private volatile double shownRate = Double.NaN;
+    private volatile boolean shownStale;
+
+    /** Thread-safe, so shared by the per-request presenters the conversion server creates. */
+    private static final ResultFormatter FORMATTER = new ResultFormatter();
 
     public ConverterPresenterImpl(ExchangeRateService rateService) {
+        this(rateService, null);
+    }
+
+    /**
+     * @param rateService rate source
+     * @param uiExecutor executor that runs view updates on the UI thread (e.g. {@code Platform::runLater}),
+     *                   or null to resolve rates synchronously
+     */
+    public ConverterPresenterImpl(ExchangeRateService rateService, Executor uiExecutor) {
         this.rateService = rateService;
-        moneyFormat.setMaximumFractionDigits(2);
-        moneyFormat.setMinimumFractionDigits(2);
+        this.uiExecutor = uiExecutor;
     }
 
     @Override
@@ -37,39 +67,125 @@ public class ConverterPresenterImpl implements ConverterPresenter {
     @Override
     public void onConvert(String amountText, Currency from, Currency to) {
         if (view == null) return; // no-op if not attached
+        // Any new input, valid or not, supersedes a lookup that is still in flight.
+        long requestId = latestRequest.incrementAndGet();
         view.clearError();
+        Double amount = validate(amountText, from, to);
+        if (amount != null) {
+            convert(requestId, amountText.trim(), amount, from, to);
+        }
+    }
 
-        // Validate
+    @Override
+    public void onWatch(String amountText, Currency from, Currency to) {
+        stopWatching();
+        if (view == null) return;
+        long requestId = latestRequest.incrementAndGet();
+        view.clearError();
+        Double amount = validate(amountText, from, to);
+        if (amount == null) return;
+        String text = amountText.trim();
+        convert(requestId, text, amount, from, to);
+
+        Executor executor = uiExecutor != null ? uiExecutor : Runnable::run;
+        FrameCoalescer<RateQuote> updates = new FrameCoalescer<>(executor, FrameCoalescer.FRAME_NANOS, quote -> {
+            boolean shown = quote.getRate() == shownRate && quote.isStale() == shownStale;
+            if (requestId == watchRequest && requestId == latestRequest.get() && !shown) {
+                render(Optional.of(quote), text, amount, from, to);
+            }
+        });
+        watchRequest = requestId;
+        synchronized (this) {
+            watch = rateService.subscribe(from, to, updates::offer);
+        }
+    }
+
+    @Override
+    public void stopWatching() {
+        watchRequest = 0;
+        RateSubscription previous;
+        synchronized (this) {
+            previous = watch;
+            watch = null;
+        }
+        if (previous != null) previous.close();
+    }
+
+    /** Shows the first problem with the input and returns null, or returns the parsed amount. */
+    private Double validate(String amountText, Currency from, Currency to) {
         if (amountText == null || amountText.trim().isEmpty()) {
             view.showError("Please enter an amount.");
-            return;
+            return null;
         }
         double amount;
         try {
             amount = Double.parseDouble(amountText.trim());
         } catch (NumberFormatException e) {
             view.showError("Amount must be a valid number.");
-            return;
+            return null;
         }
         if (amount < 0) {
             view.showError("Amount cannot be negative.");
-            return;
+            return null;
         }
         if (from == null || to == null) {
             view.showError("Please select both currencies.");
+            return null;
+        }
+        return amount;
+    }
+
+    private void convert(long requestId, String text, double amount, Currency from, Currency to) {
+        if (uiExecutor == null) {
+            render(rateService.getRate(from, to), text, amount, from, to);
             return;
         }
 
-        Optional<RateQuote> quoteOpt = rateService.getRate(from, to);
+        CompletableFuture<Optional<RateQuote>> previous = pending;
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        CompletableFuture<Optional<RateQuote>> future = rateService.getRateAsync(from, to);
+        pending = future;
+        future.whenComplete((quoteOpt, error) -> {
+            if (requestId != latestRequest.get()) return; // superseded
+            Optional<RateQuote> result = error == null && quoteOpt != null ? quoteOpt : Optional.empty();
+            uiExecutor.execute(() -> {
+                // Re-check on the UI thread: a newer request may have started while this was queued.
+                if (requestId != latestRequest.get()) return;
+                render(result, text, amount, from, to);
+            });
+        });
+    }
+
+    private void render(Optional<RateQuote> quoteOpt, String amountText, double amount, Currency from, Currency to) {
         if (quoteOpt.isEmpty()) {
+            shownRate = Double.NaN;
             view.showError("This currency pair is not supported yet.");
             return;
         }
         RateQuote quote = quoteOpt.get();
-        double converted = amount * quote.getRate();
-        String result = numberFormat.format(amount) + " " + from + " = " + moneyFormat.format(converted) + " " + to;
-        String lastUpdated = "Last updated: " + dtf.format(quote.getTimestamp());
-        view.showResult(result);
-        view.showLastUpdated(lastUpdated);
+        shownRate = quote.getRate();
+        shownStale = quote.isStale();
+        view.showResult(formatResult(amountText, amount, from, to, quote.getRate()));
+        view.showLastUpdated(FORMATTER.formatLastUpdated(quote.getTimestamp(), quote.isStale()));
+    }
+
+    /**
+     * The result line, with the converted amount at exactly the target currency's minor digits, computed in
+     * fixed point from the amount as typed so it is rounded once.
+     */
+    private static String formatResult(String amountText, double amount, Currency from, Currency to, double rate) {
+        int toScale = to.unit().getMinorUnits();
+        long converted;
+        try {
+            int fromScale = Math.max(from.unit().getMinorUnits(), FixedPoint.fractionDigits(amountText));
+            long minor = FixedPoint.parse(amountText, fromScale, ROUNDING);
+            converted = FixedPoint.convert(minor, fromScale, toScale, rate, ROUNDING);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            // Exponent notation, amounts beyond the range of a long and extreme rates keep the double path.
+            return FORMATTER.formatResult(amount, from, amount * rate, toScale, to);
+        }
+        return FORMATTER.formatResult(amount, from, converted, toScale, to);
     }
 }
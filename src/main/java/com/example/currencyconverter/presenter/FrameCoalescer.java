@@ -0,0 +1,71 @@
+package com.example.currencyconverter.presenter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands the latest of a burst of values to a consumer on an executor, at most once per frame.
+ *
+ * <p>{@link #offer} may be called from any thread and never blocks. Values offered while a hand-off is pending
+ * replace each other, so a feed ticking far faster than the screen refreshes costs one
+ * {@code Platform.runLater} per frame rather than one per tick.</p>
+ */
+final class FrameCoalescer<T> {
+
+    /** One frame at JavaFX's default 60 pulses per second. */
+    static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "frame-coalescer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Executor executor;
+    private final long frameNanos;
+    private final Consumer<? super T> consumer;
+    private final AtomicReference<T> latest = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long lastRun;
+    private volatile long dispatches;
+
+    FrameCoalescer(Executor executor, long frameNanos, Consumer<? super T> consumer) {
+        if (executor == null || consumer == null) throw new IllegalArgumentException("executor and consumer must be non-null");
+        if (frameNanos < 0) throw new IllegalArgumentException("frameNanos must be non-negative");
+        this.executor = executor;
+        this.frameNanos = frameNanos;
+        this.consumer = consumer;
+        this.lastRun = System.nanoTime() - frameNanos;
+    }
+
+    void offer(T value) {
+        if (value == null) throw new IllegalArgumentException("value must be non-null");
+        latest.set(value);
+        if (!scheduled.compareAndSet(false, true)) return; // the pending hand-off will pick this value up
+        dispatches++; // only the thread that set the flag gets here
+        long wait = lastRun + frameNanos - System.nanoTime();
+        if (wait <= 0) {
+            executor.execute(this::drain);
+        } else {
+            TIMER.schedule(() -> executor.execute(this::drain), wait, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Number of hand-offs made to the executor so far. */
+    long getDispatchCount() {
+        return dispatches;
+    }
+
+    private void drain() {
+        lastRun = System.nanoTime();
+        // Clear the flag before taking the value: an offer in between schedules another hand-off, a frame later.
+        scheduled.set(false);
+        T value = latest.getAndSet(null);
+        if (value != null) consumer.accept(value);
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.currencyconverter.presenter;
+
+import com.example.currencyconverter.model.Currency;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+
+/**
+ * Thread-safe formatter for conversion results and timestamps.
+ *
+ * <p>Renders the same text as {@code NumberFormat.getNumberInstance(locale)} and
+ * {@code DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z")}, byte for byte for {@link Locale#US}, without
+ * their per-call garbage or their lack of thread safety. The {@code append*} methods write into a
+ * caller-supplied {@link StringBuilder} and allocate nothing. The {@code format*} methods build in a
+ * per-thread buffer, so the returned String is their only allocation.</p>
+ *
+ * <p>Doubles are rounded half-even on their exact binary value, as {@link DecimalFormat} does. Amounts too large
+ * for that (about 4.5 trillion at three decimals), NaN and infinities go through a {@link DecimalFormat} copy
+ * instead. Zone names follow the
+ * default locale, as the presenter's formatter always did.</p>
+ */
+public final class ResultFormatter {
+
+    /** Fraction digits {@code NumberFormat.getNumberInstance} shows at most. */
+    private static final int AMOUNT_FRACTION_DIGITS = 3;
+    /** Scaled magnitudes below 2^52 keep a fraction bit, so {@link #roundHalfEven} can see the tie. */
+    private static final double FAST_PATH_LIMIT = 0x1p52;
+    private static final double SPLIT = 134217729.0; // 2^27 + 1, for Dekker's exact product
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    private static final String STALE_SUFFIX = " (saved rates, refreshing...)";
+
+    private final DecimalFormat template;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final char minusSign;
+    private final int groupingSize;
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final DateTimeFormatter timestampFormat;
+    private final DateTimeFormatter zoneNameFormat;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /** Per-thread scratch space and the zone details valid for a window of instants. */
+    private static final class Buffers {
+        final StringBuilder text = new StringBuilder(128);
+        final char[] digits = new char[20];
+        long zoneFrom = 1;
+        long zoneUntil = 0;
+        int offsetSeconds;
+        ZoneOffset standardOffset;
+        String zoneName;
+    }
+
+    /** {@link Locale#US} numbers and the system default time zone, matching the presenter's original output. */
+    public ResultFormatter() {
+        this(Locale.US, ZoneId.systemDefault());
+    }
+
+    public ResultFormatter(Locale locale, ZoneId zone) {
+        if (locale == null || zone == null) throw new IllegalArgumentException("locale and zone must be non-null");
+        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        template = nf instanceof DecimalFormat ? (DecimalFormat) nf : (DecimalFormat) NumberFormat.getNumberInstance(Locale.US);
+        DecimalFormatSymbols symbols = template.getDecimalFormatSymbols();
+        zeroDigit = symbols.getZeroDigit();
+        groupingSeparator = symbols.getGroupingSeparator();
+        decimalSeparator = symbols.getDecimalSeparator();
+        minusSign = symbols.getMinusSign();
+        groupingSize = template.isGroupingUsed() ? template.getGroupingSize() : 0;
+        this.zone = zone;
+        rules = zone.getRules();
+        timestampFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z").withZone(zone);
+        zoneNameFormat = DateTimeFormatter.ofPattern("z").withZone(zone);
+    }
+
+    /** {@code "100 USD = 92.00 EUR"}: the typed amount as {@link #appendAmount}, the result at {@code scale}. */
+    public String formatResult(double amount, Currency from, long convertedMinor, int scale, Currency to) {
+        StringBuilder sb = buffer();
+        appendAmount(sb, amount).append(' ').append(from.name()).append(" = ");
+        appendMinor(sb, convertedMinor, scale).append(' ').append(to.name());
+        return sb.toString();
+    }
+
+    /** Same as {@link #formatResult(double, Currency, long, int, Currency)} for a converted amount held as a double. */
+    public String formatResult(double amount, Currency from, double converted, int scale, Currency to) {
+        StringBuilder sb = buffer();
+        appendAmount(sb, amount).append(' ').append(from.name()).append(" = ");
+        appendFixed(sb, converted, scale).append(' ').append(to.name());
+        return sb.toString();
+    }
+
+    /** {@code "Last updated: 2024-01-01 10:15:30 UTC"}, flagged when the rate comes from a saved table. */
+    public String formatLastUpdated(Instant timestamp, boolean stale) {
+        StringBuilder sb = buffer().append("Last updated: ");
+        appendTimestamp(sb, timestamp);
+        if (stale) sb.append(STALE_SUFFIX);
+        return sb.toString();
+    }
+
+    /** Grouped, with up to three fraction digits and no trailing zeros, like {@code NumberFormat.getNumberInstance}. */
+    public StringBuilder appendAmount(StringBuilder out, double value) {
+        return appendDouble(out, value, 0, AMOUNT_FRACTION_DIGITS);
+    }
+
+    /** Grouped, with exactly {@code fractionDigits} digits. */
+    public StringBuilder appendFixed(StringBuilder out, double value, int fractionDigits) {
+        if (fractionDigits < 0 || fractionDigits >= POW10.length) throw new IllegalArgumentException("fractionDigits must be in [0, 18]");
+        return appendDouble(out, value, fractionDigits, fractionDigits);
+    }
+
+    /** An exact amount of {@code minor} units at {@code scale}, grouped, with exactly {@code scale} fraction digits. */
+    public StringBuilder appendMinor(StringBuilder out, long minor, int scale) {
+        if (scale < 0 || scale >= POW10.length) throw new IllegalArgumentException("scale must be in [0, 18]");
+        boolean negative = minor < 0;
+        long unit = POW10[scale];
+        long whole = minor / unit; // appendGrouped prints the magnitude, Long.MIN_VALUE included
+        long fraction = Math.abs(minor % unit);
+        if (negative) out.append(minusSign);
+        appendGrouped(out, whole);
+        if (scale > 0) {
+            out.append(decimalSeparator);
+            appendPadded(out, fraction, scale);
+        }
+        return out;
+    }
+
+    /** {@code yyyy-MM-dd HH:mm:ss z} in this formatter's zone. */
+    public StringBuilder appendTimestamp(StringBuilder out, Instant timestamp) {
+        Buffers b = buffers.get();
+        long epochSecond = timestamp.getEpochSecond();
+        // The name also follows the standard offset, which can move without a wall-clock transition (London, 1968-71).
+        if (epochSecond < b.zoneFrom || epochSecond >= b.zoneUntil || !rules.getStandardOffset(timestamp).equals(b.standardOffset)) {
+            loadZone(b, timestamp);
+        }
+        long local = epochSecond + b.offsetSeconds;
+        long days = Math.floorDiv(local, 86_400);
+        int secondOfDay = Math.floorMod(local, 86_400);
+
+        // Civil date from days since 1970-01-01 (Howard Hinnant's algorithm).
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return out.append(timestampFormat.format(timestamp)); // sign-prefixed years; never seen in practice
+        }
+        appendTwo(appendTwo(out, (int) (year / 100)), (int) (year % 100)).append('-');
+        appendTwo(out, month).append('-');
+        appendTwo(out, day).append(' ');
+        appendTwo(out, secondOfDay / 3600).append(':');
+        appendTwo(out, secondOfDay / 60 % 60).append(':');
+        appendTwo(out, secondOfDay % 60).append(' ');
+        return out.append(b.zoneName);
+    }
+
+    private StringBuilder buffer() {
+        StringBuilder sb = buffers.get().text;
+        sb.setLength(0);
+        return sb;
+    }
+
+    /** Offset and zone name for {@code timestamp}, and the span of instants between wall-clock transitions. */
+    private void loadZone(Buffers b, Instant timestamp) {
+        ZoneOffset offset = rules.getOffset(timestamp);
+        long epochSecond = timestamp.getEpochSecond();
+        ZoneOffsetTransition previous = rules.previousTransition(timestamp);
+        ZoneOffsetTransition next = rules.nextTransition(timestamp);
+        long from = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+        if (previous != null && !previous.getOffsetAfter().equals(offset)) from = epochSecond; // transition exactly here
+        b.zoneFrom = from;
+        b.zoneUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        b.offsetSeconds = offset.getTotalSeconds();
+        b.standardOffset = rules.getStandardOffset(timestamp);
+        b.zoneName = zoneNameFormat.format(timestamp);
+    }
+
+    private StringBuilder appendDouble(StringBuilder out, double value, int minFraction, int maxFraction) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude * POW10[maxFraction] < FAST_PATH_LIMIT)) {
+            DecimalFormat f = (DecimalFormat) template.clone();
+            f.setMinimumFractionDigits(minFraction);
+            f.setMaximumFractionDigits(maxFraction);
+            return out.append(f.format(value));
+        }
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        long scaled = roundHalfEven(magnitude, maxFraction);
+        long unit = POW10[maxFraction];
+        long fraction = scaled % unit;
+        int digits = maxFraction;
+        while (digits > minFraction && fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        if (negative) out.append(minusSign);
+        appendGrouped(out, scaled / unit);
+        if (digits > 0) {
+            out.append(decimalSeparator);
+            appendPadded(out, fraction, digits);
+        }
+        return out;
+    }
+
+    /**
+     * {@code x * 10^digits} rounded half-even on the exact value. The rounded product and its exact error
+     * (Dekker) decide ties without BigDecimal. Requires {@code 0 <= x * 10^digits < 2^52}.
+     */
+    static long roundHalfEven(double x, int digits) {
+        double scale = POW10[digits];
+        double p = x * scale;
+        double floor = Math.floor(p);
+        long q = (long) floor;
+        double fraction = p - floor; // exact: both are multiples of ulp(p)
+        if (fraction == 0) return q; // the error is at most ulp(p)/2 <= 1/4, so p itself is nearest
+        double err = productError(x, scale, p);
+        double d = fraction - 0.5;
+        int cmp = d != 0 ? (d < 0 ? -1 : 1) : Double.compare(err, 0.0);
+        return cmp > 0 || (cmp == 0 && (q & 1) != 0) ? q + 1 : q;
+    }
+
+    /** Exact {@code a * b - p} for {@code p = a * b} rounded, by Veltkamp splitting. */
+    private static double productError(double a, double b, double p) {
+        double t = SPLIT * a;
+        double aHi = t - (t - a), aLo = a - aHi;
+        t = SPLIT * b;
+        double bHi = t - (t - b), bLo = b - bHi;
+        return ((aHi * bHi - p) + aHi * bLo + aLo * bHi) + aLo * bLo;
+    }
+
+    /** The magnitude of {@code value} with grouping separators every {@code groupingSize} digits. */
+    private void appendGrouped(StringBuilder out, long value) {
+        char[] digits = buffers.get().digits;
+        long v = value > 0 ? -value : value; // negative space holds every magnitude
+        int n = 0;
+        do {
+            digits[n++] = (char) (zeroDigit - (int) (v % 10));
+            v /= 10;
+        } while (v != 0);
+        for (int i = n - 1; i >= 0; i--) {
+            out.append(digits[i]);
+            if (groupingSize > 0 && i > 0 && i % groupingSize == 0) out.append(groupingSeparator);
+        }
+    }
+
+    private void appendPadded(StringBuilder out, long value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            out.append((char) (zeroDigit + (int) (value / POW10[i] % 10)));
+        }
+    }
+
+    private StringBuilder appendTwo(StringBuilder out, int value) {
+        return out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.currencyconverter.presenter;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.model.RateSubscription;
+import com.example.currencyconverter.view.WatchlistView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Presenter for a watchlist of many pairs ticking at once.
+ *
+ * <p>Ticks arrive on the service's threads and only mark their row: each row keeps just its latest quote, so a
+ * row ticking several times within a frame is applied once. At most once per frame the changed rows are handed
+ * to the view in a single batch on the UI executor, so 1,000 pairs at 10 Hz cost one {@code Platform.runLater}
+ * per pulse rather than 10,000 per second.</p>
+ */
+public class WatchlistPresenter {
+
+    private final ExchangeRateService rateService;
+    private final FrameCoalescer<Rows> frames;
+    private final List<RateSubscription> subscriptions = new ArrayList<>();
+    private final AtomicLong ticks = new AtomicLong();
+    private WatchlistView view;
+    private volatile Rows rows = new Rows(0);
+
+    /**
+     * @param rateService rate source for {@link #watchPairs}
+     * @param uiExecutor  executor that runs view updates on the UI thread (e.g. {@code Platform::runLater})
+     */
+    public WatchlistPresenter(ExchangeRateService rateService, Executor uiExecutor) {
+        this(rateService, uiExecutor, FrameCoalescer.FRAME_NANOS);
+    }
+
+    WatchlistPresenter(ExchangeRateService rateService, Executor uiExecutor, long frameNanos) {
+        if (rateService == null || uiExecutor == null) throw new IllegalArgumentException("rateService and uiExecutor must be non-null");
+        this.rateService = rateService;
+        this.frames = new FrameCoalescer<>(uiExecutor, frameNanos, this::flush);
+    }
+
+    public void attachView(WatchlistView view) {
+        this.view = view;
+    }
+
+    /**
+     * Show one row per pair of a base in {@code bases} and a different quote in {@code quotes}, kept current through
+     * {@link ExchangeRateService#subscribe}. Call on the UI thread.
+     */
+    public synchronized void watchPairs(List<Currency> bases, List<Currency> quotes) {
+        List<String> labels = new ArrayList<>();
+        List<Currency[]> pairs = new ArrayList<>();
+        for (Currency base : bases) {
+            for (Currency quote : quotes) {
+                if (base == quote) continue;
+                labels.add(base + "/" + quote);
+                pairs.add(new Currency[]{base, quote});
+            }
+        }
+        Rows current = replaceRows(labels);
+        for (int i = 0; i < pairs.size(); i++) {
+            int row = i;
+            subscriptions.add(rateService.subscribe(pairs.get(i)[0], pairs.get(i)[1], quote -> tick(current, row, quote)));
+        }
+    }
+
+    /**
+     * Show {@code labels} as rows fed only through {@link #onTick}, e.g. by a synthetic feed. Replaces any
+     * watched pairs. Call on the UI thread.
+     */
+    public synchronized void showRows(List<String> labels) {
+        replaceRows(labels);
+    }
+
+    private Rows replaceRows(List<String> labels) {
+        stop();
+        Rows fresh = new Rows(labels.size());
+        rows = fresh;
+        if (view != null) view.showRows(labels);
+        return fresh;
+    }
+
+    /** Record a new quote for {@code row}; callable from any thread, never blocks. */
+    public void onTick(int row, RateQuote quote) {
+        tick(rows, row, quote);
+    }
+
+    /** Close every pair subscription; rows already shown stay as they are. */
+    public synchronized void stop() {
+        for (RateSubscription s : subscriptions) s.close();
+        subscriptions.clear();
+    }
+
+    /** Ticks received so far, including those superseded within a frame. */
+    public long getTickCount() {
+        return ticks.get();
+    }
+
+    /** Batches handed to the UI executor so far. */
+    public long getFrameCount() {
+        return frames.getDispatchCount();
+    }
+
+    private void tick(Rows target, int row, RateQuote quote) {
+        if (quote == null || row < 0 || row >= target.size) return;
+        ticks.incrementAndGet();
+        if (target.mark(row, quote)) frames.offer(target);
+    }
+
+    /** On the UI thread: hand the changed rows of the current list to the view. */
+    private void flush(Rows target) {
+        if (target != rows || view == null) return; // rows were replaced since
+        int count = target.drain();
+        if (count > 0) view.applyQuotes(target.outRows, target.outQuotes, count);
+    }
+
+    /** Latest pending quote per row, plus the list of rows that have one. */
+    private static final class Rows {
+        final int size;
+        private final AtomicReferenceArray<RateQuote> pending;
+        /** Rows whose pending slot went from empty to full, each listed once until drained. Guarded by this. */
+        private int[] dirty;
+        private int dirtyCount;
+        private int[] draining;
+        final int[] outRows;
+        final RateQuote[] outQuotes;
+
+        Rows(int size) {
+            this.size = size;
+            this.pending = new AtomicReferenceArray<>(size);
+            this.dirty = new int[size];
+            this.draining = new int[size];
+            this.outRows = new int[size];
+            this.outQuotes = new RateQuote[size];
+        }
+
+        /** @return true when the row was not pending yet, i.e. a frame needs scheduling */
+        boolean mark(int row, RateQuote quote) {
+            if (pending.getAndSet(row, quote) != null) return false; // the pending entry now carries this quote
+            synchronized (this) {
+                dirty[dirtyCount++] = row;
+            }
+            return true;
+        }
+
+        /** Move every pending row into {@link #outRows}/{@link #outQuotes}; returns how many. UI thread only. */
+        int drain() {
+            int[] taken;
+            int count;
+            synchronized (this) {
+                taken = dirty;
+                count = dirtyCount;
+                dirty = draining;
+                dirtyCount = 0;
+                draining = taken;
+            }
+            for (int i = 0; i < count; i++) {
+                int row = taken[i];
+                outRows[i] = row;
+                // A tick landing after the swap replaces the pending quote and is applied here, not listed again.
+                outQuotes[i] = pending.getAndSet(row, null);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.currencyconverter.server;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.CurrencyRegistry;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.FixedPoint;
+import com.example.currencyconverter.model.RateSnapshot;
+import com.example.currencyconverter.presenter.ConverterPresenter;
+import com.example.currencyconverter.presenter.ConverterPresenterImpl;
+import com.example.currencyconverter.view.ConverterView;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP/JSON front end for an {@link ExchangeRateService}, built on the JDK {@code com.sun.net.httpserver}.
+ *
+ * <ul>
+ *     <li>{@code GET /convert?amount=100&from=USD&to=EUR} runs the same validation and formatting as the UI
+ *     through {@link ConverterPresenterImpl} and answers {@code {"result":...,"lastUpdated":...}} or
+ *     {@code {"error":...}} with status 400.</li>
+ *     <li>{@code POST /convert/batch} takes {@code amount,from,to} lines and answers a JSON array of numeric
+ *     results at the target currency's minor digits (null where a row cannot be converted), all against one
+ *     frozen rate snapshot. The snapshot is reused across batches for up to {@code snapshotMaxAge}, so services
+ *     without a native table are not asked for every currency on every batch.</li>
+ *     <li>{@code GET /health} answers {@code {"status":"ok"}}.</li>
+ * </ul>
+ *
+ * <p>Each exchange runs on its own virtual thread when the runtime supports them (JDK 21+), otherwise on a
+ * bounded platform thread pool. HTTP/1.1 keep-alive is handled by the JDK server. {@link #stop(int)} stops
+ * accepting connections, lets in-flight exchanges finish for up to the given delay, then shuts down.</p>
+ *
+ * <p>Disabling Nagle ({@code sun.net.httpserver.nodelay}) is a JVM-wide setting, so it is left to the launcher;
+ * {@code ServerLauncher} turns it on.</p>
+ */
+public class ConversionServer {
+
+    /** Rows accepted by one batch request. */
+    static final int MAX_BATCH_ROWS = 100_000;
+    /** How long batches reuse one rate snapshot by default. */
+    static final Duration DEFAULT_SNAPSHOT_MAX_AGE = Duration.ofSeconds(1);
+    /** Rounding for batch results; the same as the presenter's. */
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+    private static final long[] POW10 = new long[FixedPoint.MAX_SCALE + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    private final ExchangeRateService service;
+    private final long snapshotMaxAgeNanos;
+    private volatile RateSnapshot batchSnapshot;
+    private volatile long batchSnapshotAt;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public ConversionServer(ExchangeRateService service, InetSocketAddress address) throws IOException {
+        this(service, address, DEFAULT_SNAPSHOT_MAX_AGE);
+    }
+
+    /** @param snapshotMaxAge how long batches reuse one rate snapshot; zero takes a new one per batch */
+    public ConversionServer(ExchangeRateService service, InetSocketAddress address, Duration snapshotMaxAge) throws IOException {
+        if (service == null) throw new IllegalArgumentException("service must be non-null");
+        if (snapshotMaxAge == null || snapshotMaxAge.isNegative()) {
+            throw new IllegalArgumentException("snapshotMaxAge must be non-negative");
+        }
+        this.service = service;
+        this.snapshotMaxAgeNanos = snapshotMaxAge.toNanos();
+        this.server = HttpServer.create(address, 4096);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newBoundedPool();
+        server.setExecutor(executor);
+        server.createContext("/convert", this::handleConvert);
+        server.createContext("/convert/batch", this::handleBatch);
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"ok\"}"));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** Graceful shutdown: stop accepting, wait up to {@code drainSeconds} for in-flight exchanges, then stop. */
+    public void stop(int drainSeconds) {
+        server.stop(drainSeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Math.max(1, drainSeconds), TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleConvert(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"error\":\"Use GET\"}");
+                return;
+            }
+            String query = exchange.getRequestURI().getRawQuery();
+            String amount = queryParam(query, "amount");
+            Currency from = parseCurrency(queryParam(query, "from"));
+            Currency to = parseCurrency(queryParam(query, "to"));
+
+            CapturingView view = new CapturingView();
+            ConverterPresenter presenter = new ConverterPresenterImpl(service);
+            presenter.attachView(view);
+            presenter.onConvert(amount, from, to);
+            if (view.error != null) {
+                respond(exchange, 400, "{\"error\":" + jsonString(view.error) + "}");
+            } else {
+                respond(exchange, 200, "{\"result\":" + jsonString(view.result)
+                        + ",\"lastUpdated\":" + jsonString(view.lastUpdated) + "}");
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "{\"error\":\"Internal error\"}");
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"error\":\"Use POST with amount,from,to lines\"}");
+                return;
+            }
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            BatchRows rows = BatchRows.parse(body, MAX_BATCH_ROWS);
+            if (rows == null) {
+                respond(exchange, 413, "{\"error\":\"At most " + MAX_BATCH_ROWS + " rows per batch\"}");
+                return;
+            }
+            RateSnapshot rates = batchSnapshot();
+            CurrencyRegistry registry = CurrencyRegistry.global();
+            StringBuilder sb = new StringBuilder(rows.size * 12 + 2).append('[');
+            for (int i = 0; i < rows.size; i++) {
+                if (i > 0) sb.append(',');
+                int toScale = rows.scales[i] < 0 ? -1 : registry.unit(rows.to[i]).getMinorUnits();
+                long converted = convert(rows.amounts[i], rows.scales[i], toScale, rates.rate(rows.from[i], rows.to[i]));
+                if (converted == FixedPoint.NO_AMOUNT) sb.append("null");
+                else appendDecimal(sb, converted, toScale);
+            }
+            respond(exchange, 200, sb.append(']').toString());
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "{\"error\":\"Internal error\"}");
+        }
+    }
+
+    /** The service's rate table, taken at most once per {@code snapshotMaxAge} however many batches arrive. */
+    private RateSnapshot batchSnapshot() {
+        RateSnapshot s = batchSnapshot;
+        if (s != null && System.nanoTime() - batchSnapshotAt < snapshotMaxAgeNanos) return s;
+        synchronized (this) {
+            s = batchSnapshot;
+            long now = System.nanoTime();
+            if (s == null || now - batchSnapshotAt >= snapshotMaxAgeNanos) {
+                s = service.currentSnapshot();
+                batchSnapshotAt = now;
+                batchSnapshot = s;
+            }
+            return s;
+        }
+    }
+
+    /** {@code minor} at {@code fromScale} converted and rounded once to {@code toScale}, or NO_AMOUNT. */
+    private static long convert(long minor, int fromScale, int toScale, double rate) {
+        if (fromScale < 0 || !(rate > 0)) return FixedPoint.NO_AMOUNT;
+        try {
+            return FixedPoint.convert(minor, fromScale, toScale, rate, ROUNDING);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return FixedPoint.NO_AMOUNT; // rate or scale outside what FixedPoint handles, or overflow
+        }
+    }
+
+    /** Plain JSON number with exactly {@code scale} fraction digits, e.g. 9.20. */
+    static StringBuilder appendDecimal(StringBuilder out, long minor, int scale) {
+        if (minor < 0) out.append('-');
+        long unit = POW10[scale];
+        out.append(Math.abs(minor / unit));
+        if (scale > 0) {
+            String fraction = Long.toString(Math.abs(minor % unit));
+            out.append('.');
+            for (int i = fraction.length(); i < scale; i++) out.append('0');
+            out.append(fraction);
+        }
+        return out;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static Currency parseCurrency(String code) {
+        if (code == null) return null;
+        try {
+            return Currency.valueOf(code.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static String queryParam(String rawQuery, String name) {
+        if (rawQuery == null) return null;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    static String jsonString(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} looked up reflectively so the project still
+     * compiles for Java 17; returns null on runtimes without virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method m = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newBoundedPool() {
+        int threads = Math.max(16, Runtime.getRuntime().availableProcessors() * 8);
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "conversion-server-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Per-request view that just remembers what the presenter rendered. */
+    private static final class CapturingView implements ConverterView {
+        String result;
+        String lastUpdated;
+        String error;
+
+        @Override public void setPresenter(ConverterPresenter presenter) { }
+        @Override public void clearError() { error = null; }
+        @Override public void showError(String message) { error = message; }
+        @Override public void showResult(String resultText) { result = resultText; }
+        @Override public void showLastUpdated(String lastUpdatedText) { lastUpdated = lastUpdatedText; }
+    }
+
+    /** Columnar rows parsed from an {@code amount,from,to} request body. */
+    private static final class BatchRows {
+        /** Each amount exactly as sent, in minor units at the row's scale. */
+        long[] amounts = new long[64];
+        /** Fraction digits of the row's amount, at least the base currency's; -1 for a malformed row. */
+        int[] scales = new int[64];
+        int[] from = new int[64];
+        int[] to = new int[64];
+        int size;
+
+        /** @return parsed rows, or null when there are more than {@code maxRows} */
+        static BatchRows parse(byte[] body, int maxRows) {
+            BatchRows rows = new BatchRows();
+            int pos = 0;
+            while (pos < body.length) {
+                int end = pos;
+                while (end < body.length && body[end] != '\n') end++;
+                int contentEnd = end > pos && body[end - 1] == '\r' ? end - 1 : end;
+                if (contentEnd > pos) {
+                    if (rows.size == maxRows) return null;
+                    rows.add(body, pos, contentEnd);
+                }
+                pos = end + 1;
+            }
+            return rows;
+        }
+
+        private void add(byte[] b, int start, int end) {
+            if (size == amounts.length) {
+                amounts = java.util.Arrays.copyOf(amounts, size * 2);
+                scales = java.util.Arrays.copyOf(scales, size * 2);
+                from = java.util.Arrays.copyOf(from, size * 2);
+                to = java.util.Arrays.copyOf(to, size * 2);
+            }
+            int c1 = indexOf(b, start, end, (byte) ',');
+            int c2 = c1 < 0 ? -1 : indexOf(b, c1 + 1, end, (byte) ',');
+            int f = -1;
+            int t = -1;
+            if (c2 > 0) {
+                f = code(b, c1 + 1, c2);
+                t = code(b, c2 + 1, end);
+            }
+            int scale = -1;
+            if (f >= 0 && t >= 0) {
+                String text = new String(b, start, c1 - start, StandardCharsets.US_ASCII).trim();
+                scale = Math.max(CurrencyRegistry.global().unit(f).getMinorUnits(), FixedPoint.fractionDigits(text));
+                amounts[size] = parse(text, scale);
+                if (amounts[size] == FixedPoint.NO_AMOUNT) scale = -1;
+            }
+            // Malformed rows are marked by scale -1 on an identity pair, which renders as null.
+            boolean ok = scale >= 0;
+            scales[size] = ok ? scale : -1;
+            from[size] = ok ? f : 0;
+            to[size] = ok ? t : 0;
+            size++;
+        }
+
+        /** Exact minor units of a plain or exponent-notation decimal, or NO_AMOUNT if it is not one or too large. */
+        private static long parse(String text, int scale) {
+            try {
+                return FixedPoint.parse(text, scale, ROUNDING);
+            } catch (NumberFormatException e) {
+                try {
+                    return FixedPoint.parse(new BigDecimal(text).toPlainString(), scale, ROUNDING); // e.g. 1e3
+                } catch (ArithmeticException | IllegalArgumentException ignored) {
+                    return FixedPoint.NO_AMOUNT;
+                }
+            } catch (ArithmeticException | IllegalArgumentException e) {
+                return FixedPoint.NO_AMOUNT;
+            }
+        }
+
+        private static int code(byte[] b, int start, int end) {
+            while (start < end && b[start] == ' ') start++;
+            while (end > start && b[end - 1] == ' ') end--;
+            return CurrencyRegistry.global().idOf(b, start, end - start);
+        }
+
+        private static int indexOf(byte[] b, int from, int end, byte v) {
+            for (int i = from; i < end; i++) {
+                if (b[i] == v) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.example.currencyconverter.view;
 
 import com.example.currencyconverter.model.Currency;
 import com.example.currencyconverter.presenter.ConverterPresenter;
-import javafx.application.Platform;
+import javafx.animation.PauseTransition;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,16 +11,16 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import javafx.util.Duration;
 
 /**
  * JavaFX implementation of ConverterView. Only contains rendering and event wiring.
  */
 public class ConverterViewFx implements ConverterView {
 
+    /** Quiet period after the last keystroke before a live view re-converts the typed amount. */
+    private static final Duration AMOUNT_DEBOUNCE = Duration.millis(300);
+
     private ConverterPresenter presenter;
 
     private final ComboBox<Currency> fromCombo = new ComboBox<>();
@@ -32,8 +32,7 @@ public class ConverterViewFx implements ConverterView {
     private final Label resultLabel = new Label();
     private final Label lastUpdatedLabel = new Label();
     private final Label errorLabel = new Label();
-
-    private ScheduledExecutorService liveScheduler;
+    private final PauseTransition amountSettled = new PauseTransition(AMOUNT_DEBOUNCE);
 
     public void start(Stage stage) {
         stage.setTitle("Currency Converter (MVP)");
@@ -61,6 +60,15 @@ public class ConverterViewFx implements ConverterView {
 
         liveUpdatesToggle.setSelected(false);
         liveUpdatesToggle.setOnAction(e -> toggleLiveUpdates(liveUpdatesToggle.isSelected()));
+        // While live, follow the inputs so the watched pair is always the one on screen. A new pair is watched
+        // at once; typing only re-watches once the amount has settled, so partial input neither costs a
+        // lookup and resubscribe per keystroke nor flashes validation errors.
+        fromCombo.valueProperty().addListener((obs, old, value) -> rewatch());
+        toCombo.valueProperty().addListener((obs, old, value) -> rewatch());
+        amountSettled.setOnFinished(e -> rewatch());
+        amountField.textProperty().addListener((obs, old, value) -> {
+            if (liveUpdatesToggle.isSelected()) amountSettled.playFromStart();
+        });
 
         GridPane grid = new GridPane();
         grid.getStyleClass().add("card");
@@ -89,34 +97,32 @@ public class ConverterViewFx implements ConverterView {
     }
 
     private void doConvert() {
-        if (presenter != null) {
+        amountSettled.stop(); // this conversion already uses the current amount
+        if (presenter == null) return;
+        if (liveUpdatesToggle.isSelected()) {
+            presenter.onWatch(amountField.getText(), fromCombo.getValue(), toCombo.getValue());
+        } else {
             presenter.onConvert(amountField.getText(), fromCombo.getValue(), toCombo.getValue());
         }
     }
 
+    private void rewatch() {
+        if (liveUpdatesToggle.isSelected()) doConvert();
+    }
+
+    /** Live updates are pushed by the presenter when the pair's rate changes, instead of polled from here. */
     private void toggleLiveUpdates(boolean enable) {
         if (enable) {
-            startLiveUpdates();
+            doConvert();
         } else {
             stopLiveUpdates();
         }
     }
 
-    private void startLiveUpdates() {
-        if (liveScheduler != null && !liveScheduler.isShutdown()) return;
-        liveScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "live-convert");
-            t.setDaemon(true);
-            return t;
-        });
-        // Refresh every 5 seconds
-        liveScheduler.scheduleAtFixedRate(() -> Platform.runLater(this::doConvert), 0, 5, TimeUnit.SECONDS);
-    }
-
     private void stopLiveUpdates() {
-        if (liveScheduler != null) {
-            liveScheduler.shutdownNow();
-            liveScheduler = null;
+        amountSettled.stop();
+        if (presenter != null) {
+            presenter.stopWatching();
         }
     }
 
@@ -0,0 +1,23 @@
+package com.example.currencyconverter.view;
+
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.presenter.WatchlistPresenter;
+
+import java.util.List;
+
+/**
+ * View contract for the multi-pair watchlist. The presenter batches ticks, so the view only applies them.
+ */
+public interface WatchlistView {
+    /** Attach a presenter so the view can forward user actions. */
+    void setPresenter(WatchlistPresenter presenter);
+
+    /** Replace the rows shown, one per label. Called on the UI thread. */
+    void showRows(List<String> labels);
+
+    /**
+     * Apply one frame of changes: row {@code rows[i]} now shows {@code quotes[i]}, for {@code i < count}. Called
+     * on the UI thread at most once per frame; the arrays are reused once this returns.
+     */
+    void applyQuotes(int[] rows, RateQuote[] quotes, int count);
+}
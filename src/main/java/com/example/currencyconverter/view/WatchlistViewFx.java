@@ -0,0 +1,272 @@
+package com.example.currencyconverter.view;
+
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.presenter.ResultFormatter;
+import com.example.currencyconverter.presenter.WatchlistPresenter;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * JavaFX implementation of WatchlistView: a virtualized {@code TableView} with one row per pair.
+ *
+ * <p>Each row holds a single immutable {@link Tick}, so a change is one property write and only visible cells
+ * re-render. Changed rate cells flash green or red; one {@link AnimationTimer} shared by the whole table clears
+ * the flashes as they expire, instead of a {@code Timeline} per cell. The same timer measures the frame rate
+ * shown in the status line.</p>
+ */
+public class WatchlistViewFx implements WatchlistView {
+
+    static final long FLASH_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+    private static final ResultFormatter FORMATTER = new ResultFormatter();
+
+    private WatchlistPresenter presenter;
+    private final TableView<Row> table = new TableView<>();
+    private final Label status = new Label();
+    private Row[] rows = new Row[0];
+    private boolean logFrameStats;
+
+    // Flashing rows in expiry order; a ring because every flash lasts the same time.
+    private Row[] flashRows = new Row[64];
+    private long[] flashExpiry = new long[64];
+    private int flashHead;
+    private int flashSize;
+
+    private final FrameStats frames = new FrameStats();
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            expireFlashes(System.nanoTime());
+            frames.onPulse(now);
+        }
+    };
+
+    /** What a row shows; replaced as a whole on every change. */
+    static final class Tick {
+        final double rate;
+        final double changePercent;
+        /** +1 or -1 while the rate cell flashes, else 0. */
+        final int direction;
+        final Instant timestamp;
+        final boolean stale;
+
+        Tick(double rate, double changePercent, int direction, Instant timestamp, boolean stale) {
+            this.rate = rate;
+            this.changePercent = changePercent;
+            this.direction = direction;
+            this.timestamp = timestamp;
+            this.stale = stale;
+        }
+
+        Tick settled() {
+            return new Tick(rate, changePercent, 0, timestamp, stale);
+        }
+    }
+
+    static final class Row {
+        final String label;
+        final ObjectProperty<Tick> tick = new SimpleObjectProperty<>();
+        long flashUntil;
+
+        Row(String label) {
+            this.label = label;
+        }
+    }
+
+    public void start(Stage stage) {
+        stage.setTitle("Currency Watchlist");
+
+        TableColumn<Row, String> pairColumn = new TableColumn<>("Pair");
+        pairColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().label));
+        pairColumn.setPrefWidth(120);
+        TableColumn<Row, Tick> rateColumn = tickColumn("Rate", 120, true, t -> FORMATTER.appendFixed(new StringBuilder(16), t.rate, digitsFor(t.rate)).toString());
+        TableColumn<Row, Tick> changeColumn = tickColumn("Change", 90, false, t -> {
+            StringBuilder sb = new StringBuilder(12);
+            if (t.changePercent > 0) sb.append('+');
+            return FORMATTER.appendFixed(sb, t.changePercent, 3).append('%').toString();
+        });
+        TableColumn<Row, Tick> updatedColumn = tickColumn("Updated", 150, false, t -> {
+            String time = FORMATTER.appendTimestamp(new StringBuilder(32), t.timestamp).substring(11);
+            return t.stale ? time + " (stale)" : time;
+        });
+        table.getColumns().setAll(List.of(pairColumn, rateColumn, changeColumn, updatedColumn));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.setPlaceholder(new Label("No pairs"));
+        table.getStyleClass().add("watchlist");
+
+        VBox.setVgrow(table, Priority.ALWAYS);
+        status.getStyleClass().add("watchlist-status");
+        VBox root = new VBox(8, table, status);
+        root.setPadding(new Insets(12));
+        Scene scene = new Scene(root, 560, 640);
+        scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        stage.setScene(scene);
+        stage.setOnCloseRequest(e -> {
+            pulse.stop();
+            if (presenter != null) presenter.stop();
+        });
+        stage.show();
+        pulse.start();
+    }
+
+    private static TableColumn<Row, Tick> tickColumn(String title, double width, boolean flashes, Function<Tick, String> text) {
+        TableColumn<Row, Tick> column = new TableColumn<>(title);
+        column.setCellValueFactory(c -> c.getValue().tick);
+        column.setCellFactory(c -> new TickCell(text, flashes));
+        column.setPrefWidth(width);
+        column.setSortable(false);
+        return column;
+    }
+
+    private static int digitsFor(double rate) {
+        return rate >= 100 ? 2 : rate >= 1 ? 4 : 6;
+    }
+
+    @Override
+    public void setPresenter(WatchlistPresenter presenter) {
+        this.presenter = presenter;
+    }
+
+    @Override
+    public void showRows(List<String> labels) {
+        Row[] fresh = new Row[labels.size()];
+        List<Row> items = new ArrayList<>(fresh.length);
+        for (int i = 0; i < fresh.length; i++) {
+            fresh[i] = new Row(labels.get(i));
+            items.add(fresh[i]);
+        }
+        rows = fresh;
+        flashHead = 0;
+        flashSize = 0;
+        table.setItems(FXCollections.observableArrayList(items));
+    }
+
+    @Override
+    public void applyQuotes(int[] rowIndexes, RateQuote[] quotes, int count) {
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int index = rowIndexes[i];
+            RateQuote quote = quotes[i];
+            if (index < 0 || index >= rows.length || quote == null) continue;
+            Row row = rows[index];
+            Tick old = row.tick.get();
+            double rate = quote.getRate();
+            if (old != null && old.rate == rate && old.stale == quote.isStale()) continue; // nothing visible changed
+            int direction = old == null || old.rate == rate ? 0 : rate > old.rate ? 1 : -1;
+            double change = old == null ? 0 : (rate / old.rate - 1) * 100;
+            row.tick.set(new Tick(rate, change, direction, quote.getTimestamp(), quote.isStale()));
+            frames.cellsChanged++;
+            if (direction != 0) flash(row, now + FLASH_NANOS);
+        }
+    }
+
+    private void flash(Row row, long until) {
+        row.flashUntil = until;
+        if (flashSize == flashRows.length) {
+            Row[] r = new Row[flashRows.length * 2];
+            long[] e = new long[r.length];
+            for (int i = 0; i < flashSize; i++) {
+                r[i] = flashRows[(flashHead + i) % flashRows.length];
+                e[i] = flashExpiry[(flashHead + i) % flashRows.length];
+            }
+            flashRows = r;
+            flashExpiry = e;
+            flashHead = 0;
+        }
+        int tail = (flashHead + flashSize++) % flashRows.length;
+        flashRows[tail] = row;
+        flashExpiry[tail] = until;
+    }
+
+    private void expireFlashes(long now) {
+        while (flashSize > 0 && flashExpiry[flashHead] - now <= 0) {
+            Row row = flashRows[flashHead];
+            flashRows[flashHead] = null;
+            flashHead = (flashHead + 1) % flashRows.length;
+            flashSize--;
+            if (row.flashUntil - now > 0) continue; // flashed again since; a later entry clears it
+            Tick tick = row.tick.get();
+            if (tick != null && tick.direction != 0) row.tick.set(tick.settled());
+        }
+    }
+
+    /** Frames per second and the longest gap between pulses, reported once a second. */
+    private final class FrameStats {
+        private long windowStart;
+        private long lastPulse;
+        private long worstGap;
+        private int pulses;
+        long cellsChanged;
+        private long cellsAtWindowStart;
+
+        void onPulse(long now) {
+            if (windowStart == 0) {
+                windowStart = now;
+                lastPulse = now;
+                return;
+            }
+            worstGap = Math.max(worstGap, now - lastPulse);
+            lastPulse = now;
+            pulses++;
+            long elapsed = now - windowStart;
+            if (elapsed < TimeUnit.SECONDS.toNanos(1)) return;
+            double fps = pulses * 1e9 / elapsed;
+            double rowsPerSecond = (cellsChanged - cellsAtWindowStart) * 1e9 / elapsed;
+            String text = String.format("%d pairs · %.1f fps · worst frame %.1f ms · %.0f row updates/s",
+                    rows.length, fps, worstGap / 1e6, rowsPerSecond);
+            status.setText(text);
+            if (logFrameStats) System.out.println("[INFO] Watchlist: " + text);
+            windowStart = now;
+            pulses = 0;
+            worstGap = 0;
+            cellsAtWindowStart = cellsChanged;
+        }
+    }
+
+    /** Also print the status line's frame statistics once a second, e.g. in stress mode. */
+    public void setLogFrameStats(boolean log) {
+        this.logFrameStats = log;
+    }
+
+    /** Rate cell text from the row's tick, flashing by direction when {@code flashes}. */
+    private static final class TickCell extends TableCell<Row, Tick> {
+        private static final PseudoClass UP = PseudoClass.getPseudoClass("up");
+        private static final PseudoClass DOWN = PseudoClass.getPseudoClass("down");
+
+        private final Function<Tick, String> text;
+        private final boolean flashes;
+
+        TickCell(Function<Tick, String> text, boolean flashes) {
+            this.text = text;
+            this.flashes = flashes;
+        }
+
+        @Override
+        protected void updateItem(Tick tick, boolean empty) {
+            super.updateItem(tick, empty);
+            setText(empty || tick == null ? null : text.apply(tick));
+            if (!flashes) return;
+            int direction = empty || tick == null ? 0 : tick.direction;
+            pseudoClassStateChanged(UP, direction > 0);
+            pseudoClassStateChanged(DOWN, direction < 0);
+        }
+    }
+}
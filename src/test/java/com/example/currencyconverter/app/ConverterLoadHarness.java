@@ -0,0 +1,366 @@
+package com.example.currencyconverter.app;
+
+import com.example.currencyconverter.metrics.LatencyHistogram;
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.InMemoryRateService;
+import com.example.currencyconverter.model.RateSnapshot;
+import com.example.currencyconverter.presenter.ConverterPresenter;
+import com.example.currencyconverter.presenter.ConverterPresenterImpl;
+import com.example.currencyconverter.view.ConverterView;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the whole conversion path: N simulated users, each with its own presenter and a
+ * headless view, convert random pairs back-to-back through {@link ConverterPresenterImpl#onConvert} against a
+ * service built by {@link RateServiceFactory} from the usual settings. Unless {@code rate.api.baseUrl} is set,
+ * an in-process stub provider with injected latency, jitter, errors and payload size is started and used.
+ *
+ * <p>Usage: {@code ConverterLoadHarness [--users=64] [--seconds=10] [--warmup=2] [--think-ms=0]
+ * [--latency-ms=50] [--jitter-ms=10] [--error-rate=0] [--payload-bytes=0] [--out=target/load-report.json]}.
+ * Service settings are passed as system properties, e.g. {@code -Drate.cache.ttlSeconds=30}. The JSON report
+ * holds throughput, latency percentiles, upstream requests per conversion and the settings used.</p>
+ */
+public class ConverterLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            opts.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int users = Integer.parseInt(opts.getOrDefault("users", "64"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "10"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "2"));
+        long thinkMillis = Long.parseLong(opts.getOrDefault("think-ms", "0"));
+        Path out = Path.of(opts.getOrDefault("out", "target/load-report.json"));
+
+        StubProvider stub = null;
+        if (RateServiceFactory.setting("RATE_API_BASE_URL", "rate.api.baseUrl") == null) {
+            stub = new StubProvider(Long.parseLong(opts.getOrDefault("latency-ms", "50")),
+                    Long.parseLong(opts.getOrDefault("jitter-ms", "10")),
+                    Double.parseDouble(opts.getOrDefault("error-rate", "0")),
+                    Integer.parseInt(opts.getOrDefault("payload-bytes", "0")));
+            System.setProperty("rate.api.baseUrl", "http://127.0.0.1:" + stub.getPort());
+        }
+        if (System.getProperty("rate.snapshot.file") == null) {
+            System.setProperty("rate.snapshot.file", "off"); // every run starts cold
+        }
+        ExchangeRateService service = RateServiceFactory.createFromEnvOrMock();
+
+        Currency[] currencies = Currency.values();
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong results = new AtomicLong();
+        AtomicLong stale = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong timeouts = new AtomicLong();
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        long[] upstreamAtStart = new long[1];
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            HeadlessView view = new HeadlessView();
+            ConverterPresenter presenter = new ConverterPresenterImpl(service, Runnable::run);
+            presenter.attachView(view);
+            view.setPresenter(presenter);
+            Thread t = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start >= end) return;
+                    Currency from = currencies[random.nextInt(currencies.length)];
+                    Currency to = currencies[random.nextInt(currencies.length)];
+                    CompletableFuture<Boolean> outcome = view.expect();
+                    presenter.onConvert("100", from, to);
+                    boolean measured = start >= warmupEnd;
+                    try {
+                        boolean ok = outcome.get(30, TimeUnit.SECONDS);
+                        if (measured) {
+                            latency.record(System.nanoTime() - start);
+                            if (!ok) errors.incrementAndGet();
+                            else if (view.lastStale) stale.incrementAndGet();
+                            else results.incrementAndGet();
+                        }
+                    } catch (TimeoutException e) {
+                        if (measured) timeouts.incrementAndGet();
+                    } catch (Exception e) {
+                        return;
+                    }
+                    if (thinkMillis > 0) {
+                        try {
+                            Thread.sleep(thinkMillis);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            }, "load-user-" + i);
+            threads.add(t);
+        }
+        StubProvider provider = stub;
+        Thread marker = new Thread(() -> {
+            try {
+                TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+            } catch (InterruptedException e) {
+                return;
+            }
+            upstreamAtStart[0] = upstreamRequests(provider);
+        }, "load-warmup-marker");
+        marker.start();
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        marker.join();
+        long upstream = upstreamRequests(stub) - upstreamAtStart[0];
+        if (stub != null) stub.close();
+
+        long conversions = latency.count();
+        String report = report(opts, users, seconds, warmup, thinkMillis, stub, conversions, results.get(), stale.get(),
+                errors.get(), timeouts.get(), latency, upstream);
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        Files.writeString(out, report);
+        System.out.printf("[INFO] %d users, %ds: %d conversions, %.0f/s, %d stale, %d errors, %d timeouts%n",
+                users, seconds, conversions, conversions / (double) seconds, stale.get(), errors.get(), timeouts.get());
+        System.out.printf("[INFO] latency p50=%.1fms p99=%.1fms p99.9=%.1fms; %s upstream requests per conversion%n",
+                latency.percentileNanos(50) / 1e6, latency.percentileNanos(99) / 1e6, latency.percentileNanos(99.9) / 1e6,
+                stub == null ? "unknown" : String.format("%.3f", upstream / (double) Math.max(1, conversions)));
+        System.out.println("[INFO] Report written to " + out);
+        System.exit(0); // the service's refresh and client threads are not meant to be stopped
+    }
+
+    /** Requests the stub has served, or -1 when testing against a real provider. */
+    private static long upstreamRequests(StubProvider stub) {
+        return stub == null ? -1 : stub.requests.get();
+    }
+
+    private static String report(Map<String, String> opts, int users, int seconds, int warmup, long thinkMillis,
+                                 StubProvider stub, long conversions, long results, long stale, long errors, long timeouts,
+                                 LatencyHistogram latency, long upstream) {
+        StringBuilder sb = new StringBuilder(1024).append("{\n");
+        sb.append("  \"users\": ").append(users).append(",\n");
+        sb.append("  \"seconds\": ").append(seconds).append(",\n");
+        sb.append("  \"warmupSeconds\": ").append(warmup).append(",\n");
+        sb.append("  \"thinkMillis\": ").append(thinkMillis).append(",\n");
+        sb.append("  \"stub\": ");
+        if (stub == null) {
+            sb.append("null");
+        } else {
+            sb.append("{\"latencyMillis\": ").append(stub.latencyMillis)
+                    .append(", \"jitterMillis\": ").append(stub.jitterMillis)
+                    .append(", \"errorRate\": ").append(stub.errorRate)
+                    .append(", \"payloadBytes\": ").append(stub.payloadBytes)
+                    .append(", \"injectedErrors\": ").append(stub.injectedErrors.get()).append('}');
+        }
+        sb.append(",\n  \"settings\": {");
+        Map<String, String> settings = settings();
+        int i = 0;
+        for (Map.Entry<String, String> e : settings.entrySet()) {
+            sb.append(i++ == 0 ? "" : ", ");
+            json(sb, e.getKey()).append(": ");
+            json(sb, e.getValue());
+        }
+        sb.append("},\n");
+        sb.append("  \"conversions\": ").append(conversions).append(",\n");
+        sb.append("  \"throughputPerSecond\": ").append(String.format("%.1f", conversions / (double) seconds)).append(",\n");
+        sb.append("  \"results\": ").append(results).append(",\n");
+        sb.append("  \"staleResults\": ").append(stale).append(",\n");
+        sb.append("  \"errors\": ").append(errors).append(",\n");
+        sb.append("  \"timeouts\": ").append(timeouts).append(",\n");
+        sb.append("  \"latencyMillis\": {")
+                .append("\"mean\": ").append(String.format("%.3f", latency.meanNanos() / 1e6))
+                .append(", \"p50\": ").append(String.format("%.3f", latency.percentileNanos(50) / 1e6))
+                .append(", \"p99\": ").append(String.format("%.3f", latency.percentileNanos(99) / 1e6))
+                .append(", \"p999\": ").append(String.format("%.3f", latency.percentileNanos(99.9) / 1e6))
+                .append(", \"max\": ").append(String.format("%.3f", latency.maxNanos() / 1e6)).append("},\n");
+        sb.append("  \"upstreamRequests\": ").append(stub == null ? "null" : Long.toString(upstream)).append(",\n");
+        sb.append("  \"upstreamPerConversion\": ")
+                .append(stub == null ? "null" : String.format("%.4f", upstream / (double) Math.max(1, conversions))).append('\n');
+        return sb.append("}\n").toString();
+    }
+
+    /** Provider settings in effect, from {@code rate.*} properties and {@code RATE_*} variables, minus secrets. */
+    private static Map<String, String> settings() {
+        Map<String, String> settings = new TreeMap<>();
+        System.getenv().forEach((k, v) -> {
+            if (k.startsWith("RATE_") && !k.contains("KEY")) settings.put(k, v);
+        });
+        for (String k : System.getProperties().stringPropertyNames()) {
+            if (k.startsWith("rate.") && !k.toLowerCase().contains("key")) settings.put(k, System.getProperty(k));
+        }
+        return settings;
+    }
+
+    private static StringBuilder json(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    /** View that reports when each conversion has rendered, as a result (true) or an error (false). */
+    static final class HeadlessView implements ConverterView {
+        private volatile CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        volatile boolean lastStale;
+
+        CompletableFuture<Boolean> expect() {
+            outcome = new CompletableFuture<>();
+            return outcome;
+        }
+
+        @Override
+        public void setPresenter(ConverterPresenter presenter) {
+        }
+
+        @Override
+        public void clearError() {
+        }
+
+        @Override
+        public void showError(String message) {
+            outcome.complete(false);
+        }
+
+        @Override
+        public void showResult(String resultText) {
+        }
+
+        @Override
+        public void showLastUpdated(String lastUpdatedText) {
+            lastStale = lastUpdatedText.endsWith("refreshing...)");
+            outcome.complete(true);
+        }
+    }
+
+    /**
+     * Stub of the {@code /latest?base=&symbols=} endpoint {@code HttpRateService} calls, answering from the mock
+     * rates after {@code latencyMillis} ± {@code jitterMillis}. A share {@code errorRate} of requests fail with
+     * 503, and bodies are padded with unknown currency codes to at least {@code payloadBytes}.
+     */
+    static final class StubProvider implements AutoCloseable {
+        final long latencyMillis;
+        final long jitterMillis;
+        final double errorRate;
+        final int payloadBytes;
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong injectedErrors = new AtomicLong();
+        private final RateSnapshot rates = new InMemoryRateService().currentSnapshot();
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-provider");
+            t.setDaemon(true);
+            return t;
+        });
+
+        StubProvider(long latencyMillis, long jitterMillis, double errorRate, int payloadBytes) throws IOException {
+            if (latencyMillis < 0 || jitterMillis < 0 || payloadBytes < 0 || errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("latency, jitter and payload must be non-negative, errorRate within [0, 1]");
+            }
+            this.latencyMillis = latencyMillis;
+            this.jitterMillis = jitterMillis;
+            this.errorRate = errorRate;
+            this.payloadBytes = payloadBytes;
+            // Otherwise Nagle holds each body back for the client's delayed ACK, adding ~40 ms per request.
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+            server.setExecutor(executor);
+            server.createContext("/latest", this::handle);
+            server.start();
+        }
+
+        int getPort() {
+            return server.getAddress().getPort();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = latencyMillis + (jitterMillis == 0 ? 0 : random.nextLong(-jitterMillis, jitterMillis + 1));
+            try {
+                if (delay > 0) Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = 200;
+            byte[] body;
+            if (random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                status = 503;
+                body = "{\"error\":\"injected\"}".getBytes(StandardCharsets.UTF_8);
+            } else {
+                body = body(exchange.getRequestURI().getRawQuery());
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try (OutputStream os = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(status, body.length);
+                os.write(body);
+            } catch (IOException ignored) {
+                // Client timed out or cancelled and closed the connection.
+            }
+        }
+
+        /** Rates relative to {@code base} (default USD) for {@code symbols}, or for every currency when absent. */
+        private byte[] body(String query) {
+            Currency base = Currency.USD;
+            List<Currency> symbols = new ArrayList<>();
+            if (query != null) {
+                for (String param : query.split("&")) {
+                    int eq = param.indexOf('=');
+                    if (eq < 0) continue;
+                    String name = param.substring(0, eq);
+                    String value = URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8);
+                    try {
+                        if (name.equals("base")) base = Currency.valueOf(value);
+                        if (name.equals("symbols")) {
+                            for (String s : value.split(",")) symbols.add(Currency.valueOf(s));
+                        }
+                    } catch (IllegalArgumentException ignored) {
+                        // Unknown codes are left out, as real providers do.
+                    }
+                }
+            }
+            if (symbols.isEmpty()) symbols = List.of(Currency.values());
+            StringBuilder sb = new StringBuilder(Math.max(256, payloadBytes + 32));
+            sb.append("{\"base\":\"").append(base).append("\",\"rates\":{");
+            for (Currency c : symbols) {
+                sb.append('"').append(c).append("\":").append(rates.rate(base, c)).append(',');
+            }
+            // Pad with codes the client does not know, so parsing cost grows with the payload like a real table.
+            for (int i = 0; sb.length() < payloadBytes - 2; i++) {
+                sb.append('"').append(String.format("%03d", i % 1000)).append("\":1.2345678901,");
+            }
+            sb.setLength(sb.length() - 1);
+            return sb.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.currencyconverter.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plain-Java tests for LatencyHistogram bucketing, percentiles and concurrent recording.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class LatencyHistogramTest {
+
+    public static void main(String[] args) throws Exception {
+        LatencyHistogramTest t = new LatencyHistogramTest();
+        t.bucketsAreOrderedAndTight();
+        t.smallValuesAreExact();
+        t.edgeValues();
+        t.percentilesOfUniformDistribution();
+        t.highPercentilesOnSmallCounts();
+        t.concurrentRecordsAreAllCounted();
+        System.out.println("[DEBUG_LOG] All latency histogram tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    public void bucketsAreOrderedAndTight() {
+        int previous = -1;
+        for (int exponent = 0; exponent < 41; exponent++) {
+            long base = 1L << exponent;
+            for (long v : new long[]{base - 1, base, base + 1, base + base / 2, 2 * base - 1}) {
+                if (v < 0) continue;
+                int b = LatencyHistogram.bucketOf(v);
+                long upper = LatencyHistogram.upperBound(b);
+                assertTrue(v <= upper, v + " above its bucket's upper bound " + upper);
+                assertTrue(b == 0 || v > LatencyHistogram.upperBound(b - 1), v + " belongs in an earlier bucket");
+                assertTrue(upper - v <= v / LatencyHistogram.SUB_BUCKETS, "Bucket of " + v + " wider than 1/8: " + upper);
+            }
+            int b = LatencyHistogram.bucketOf(base);
+            assertTrue(b > previous || base < LatencyHistogram.SUB_BUCKETS && b >= previous, "Buckets grow with the value at 2^" + exponent);
+            previous = b;
+        }
+        int overflow = LatencyHistogram.bucketOf(1L << 42);
+        assertTrue(overflow == LatencyHistogram.bucketOf(Long.MAX_VALUE) && overflow > previous, "Huge values share the last bucket");
+        assertTrue(LatencyHistogram.upperBound(overflow) == Long.MAX_VALUE, "Overflow bucket is unbounded");
+    }
+
+    public void smallValuesAreExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 0; v < 16; v++) h.record(v);
+        assertTrue(h.percentileNanos(50) == 7, "Median of 0..15 is 7: " + h.percentileNanos(50));
+        assertTrue(h.percentileNanos(100) == 15 && h.maxNanos() == 15, "Max is exact");
+        assertTrue(h.percentileNanos(0) == 0, "p0 is the smallest value");
+        assertTrue(h.meanNanos() == 7.5, "Mean: " + h.meanNanos());
+    }
+
+    public void edgeValues() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertTrue(h.count() == 0 && h.percentileNanos(99) == 0 && h.meanNanos() == 0, "Empty histogram reads 0");
+        h.record(-5);
+        assertTrue(h.count() == 1 && h.maxNanos() == 0 && h.percentileNanos(50) == 0, "Negative values count as 0");
+        h.record(Long.MAX_VALUE);
+        assertTrue(h.maxNanos() == Long.MAX_VALUE, "Max keeps the largest value");
+        assertTrue(h.percentileNanos(100) == Long.MAX_VALUE, "Overflow bucket reports the max: " + h.percentileNanos(100));
+        assertTrue(h.percentileNanos(50) == 0, "Lower half still in the zero bucket");
+        h.reset();
+        assertTrue(h.count() == 0 && h.maxNanos() == 0 && h.percentileNanos(50) == 0, "Reset clears everything");
+    }
+
+    public void percentilesOfUniformDistribution() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v * 1_000); // 1 us .. 100 ms
+        checkWithinBucket(h, 50, 50_000_000L);
+        checkWithinBucket(h, 90, 90_000_000L);
+        checkWithinBucket(h, 99, 99_000_000L);
+        checkWithinBucket(h, 99.9, 99_900_000L);
+        assertTrue(h.percentileNanos(100) == 100_000_000L, "p100 is the exact max");
+        assertTrue(h.meanNanos() == 50_000_500.0, "Mean: " + h.meanNanos());
+    }
+
+    private static void checkWithinBucket(LatencyHistogram h, double percentile, long exact) {
+        long p = h.percentileNanos(percentile);
+        assertTrue(p >= exact && p <= exact + exact / LatencyHistogram.SUB_BUCKETS,
+                "p" + percentile + " = " + p + " should be the upper bound of the bucket holding " + exact);
+    }
+
+    public void highPercentilesOnSmallCounts() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 9; i++) h.record(1_000_000);
+        h.record(250_000_000);
+        // With 10 samples every percentile above 90 is the single slowest one, never an interpolated value.
+        assertTrue(h.percentileNanos(99.9) == 250_000_000L, "p99.9 of 10 samples is the max: " + h.percentileNanos(99.9));
+        assertTrue(h.percentileNanos(95) == 250_000_000L, "p95 of 10 samples is the max");
+        long p90 = h.percentileNanos(90);
+        assertTrue(p90 >= 1_000_000 && p90 <= 1_000_000 + 1_000_000 / LatencyHistogram.SUB_BUCKETS, "p90 is the fast group: " + p90);
+
+        LatencyHistogram one = new LatencyHistogram();
+        one.record(12_345);
+        assertTrue(one.percentileNanos(99.9) == 12_345 && one.percentileNanos(1) == 12_345, "A single sample is every percentile");
+    }
+
+    public void concurrentRecordsAreAllCounted() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        int threads = 4;
+        int perThread = 200_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        long[] maxes = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    long v = 1 + random.nextInt(1_000_000);
+                    maxes[id] = Math.max(maxes[id], v);
+                    h.record(v);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long expectedMax = 0;
+        for (long m : maxes) expectedMax = Math.max(expectedMax, m);
+        assertTrue(h.count() == (long) threads * perThread, "Every record counted: " + h.count());
+        assertTrue(h.maxNanos() == expectedMax, "Max survives concurrent updates: " + h.maxNanos() + " vs " + expectedMax);
+        assertTrue(h.percentileNanos(100) == expectedMax, "p100 is the max");
+        long p50 = h.percentileNanos(50);
+        assertTrue(p50 > 450_000 && p50 < 570_000, "Median of uniform 1..1e6 near 500k: " + p50);
+    }
+}
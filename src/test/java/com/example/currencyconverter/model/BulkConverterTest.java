@@ -0,0 +1,92 @@
+package com.example.currencyconverter.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Plain-Java tests for the double-precision BulkConverter paths, comparing the parallel methods against the
+ * sequential ones around the parallel threshold and chunk boundaries.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class BulkConverterTest {
+
+    private static final int CHUNK = BulkConverter.CHUNK_SIZE;
+    private static final int THRESHOLD = BulkConverter.PARALLEL_THRESHOLD;
+    private static final int[] SIZES = {
+            0, 1, CHUNK - 1, CHUNK, CHUNK + 1, THRESHOLD - 1, THRESHOLD, THRESHOLD + 1,
+            THRESHOLD + CHUNK - 1, THRESHOLD + CHUNK + 7, 5 * CHUNK + 3
+    };
+
+    public static void main(String[] args) {
+        BulkConverterTest t = new BulkConverterTest();
+        t.rowWiseParallelMatchesSequential();
+        t.columnarParallelMatchesSequential();
+        t.unsupportedPairsAreNaN();
+        t.rejectsShortOutput();
+        System.out.println("[DEBUG_LOG] All bulk converter tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private final BulkConverter bulk = BulkConverter.from(new InMemoryRateService());
+
+    public void rowWiseParallelMatchesSequential() {
+        Random random = new Random(11);
+        for (int n : SIZES) {
+            double[] amounts = new double[n];
+            int[] from = new int[n];
+            int[] to = new int[n];
+            for (int i = 0; i < n; i++) {
+                amounts[i] = random.nextDouble() * 10_000;
+                from[i] = random.nextInt(Currency.COUNT);
+                to[i] = random.nextInt(Currency.COUNT);
+            }
+            double[] sequential = new double[n];
+            double[] parallel = new double[n];
+            Arrays.fill(parallel, -1);
+            bulk.convert(amounts, from, to, sequential);
+            bulk.convertParallel(amounts, from, to, parallel);
+            assertTrue(Arrays.equals(sequential, parallel), "Row-wise parallel differs from sequential for n=" + n);
+            if (n > 0) {
+                int last = n - 1;
+                assertTrue(parallel[last] == amounts[last] * bulk.getSnapshot().rate(from[last], to[last]),
+                        "Last row of the final partial chunk is converted for n=" + n);
+            }
+        }
+    }
+
+    public void columnarParallelMatchesSequential() {
+        Random random = new Random(13);
+        for (int n : SIZES) {
+            double[] amounts = new double[n];
+            for (int i = 0; i < n; i++) amounts[i] = random.nextDouble() * 10_000;
+            double[] sequential = new double[n];
+            double[] parallel = new double[n];
+            Arrays.fill(parallel, -1);
+            bulk.convert(amounts, Currency.USD, Currency.NGN, sequential);
+            bulk.convertParallel(amounts, Currency.USD, Currency.NGN, parallel);
+            assertTrue(Arrays.equals(sequential, parallel), "Columnar parallel differs from sequential for n=" + n);
+        }
+    }
+
+    public void unsupportedPairsAreNaN() {
+        double[] out = new double[THRESHOLD + 1];
+        double[] amounts = new double[out.length];
+        Arrays.fill(amounts, 1);
+        BulkConverter empty = new BulkConverter(RateSnapshot.fromAnchorRates(new double[Currency.COUNT], Instant.now()));
+        empty.convertParallel(amounts, Currency.USD, Currency.EUR, out);
+        assertTrue(Double.isNaN(out[0]) && Double.isNaN(out[out.length - 1]), "No rate gives NaN on every chunk");
+    }
+
+    public void rejectsShortOutput() {
+        try {
+            bulk.convertParallel(new double[THRESHOLD], new int[THRESHOLD], new int[THRESHOLD], new double[THRESHOLD - 1]);
+            throw new AssertionError("Short output array accepted");
+        } catch (IndexOutOfBoundsException expected) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.currencyconverter.model;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plain-Java tests for CachingRateService with a hand-moved clock and background reloads run by the test.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class CachingRateServiceTest {
+
+    public static void main(String[] args) throws Exception {
+        CachingRateServiceTest t = new CachingRateServiceTest();
+        t.servesCachedQuoteWithinTtl();
+        t.servesStaleForOneMoreTtlWhileReloading();
+        t.cachesEmptyResultsOnlyWhileFresh();
+        t.concurrentMissesShareOneLoad();
+        t.evictsLeastRecentlyUsed();
+        System.out.println("[DEBUG_LOG] All caching rate service tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    /** Clock the test moves by hand. */
+    static final class ManualClock extends Clock {
+        final AtomicLong millis = new AtomicLong();
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public long millis() { return millis.get(); }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis.get()); }
+    }
+
+    /** Answers with an increasing rate per call, or empty while {@code empty} is set. */
+    static final class CountingDelegate implements ExchangeRateService {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean empty;
+        volatile CountDownLatch gate;
+
+        @Override
+        public Optional<RateQuote> getRate(Currency base, Currency quote) {
+            int n = calls.incrementAndGet();
+            CountDownLatch g = gate;
+            if (g != null) {
+                try {
+                    g.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return empty ? Optional.empty() : Optional.of(new RateQuote(base, quote, n, Instant.now()));
+        }
+    }
+
+    /** Background reloads queued by the cache, run when the test says so. */
+    private final List<Runnable> reloads = new ArrayList<>();
+
+    private CachingRateService cache(CountingDelegate delegate, ManualClock clock, int maxEntries) {
+        reloads.clear();
+        return new CachingRateService(delegate, TTL, TTL, maxEntries, clock, reloads::add);
+    }
+
+    private void runReloads() {
+        List<Runnable> queued = new ArrayList<>(reloads);
+        reloads.clear();
+        queued.forEach(Runnable::run);
+    }
+
+    public void servesCachedQuoteWithinTtl() {
+        CountingDelegate delegate = new CountingDelegate();
+        ManualClock clock = new ManualClock();
+        CachingRateService cache = cache(delegate, clock, 16);
+        cache.getRate(Currency.USD, Currency.EUR);
+        clock.millis.set(TTL.toMillis() - 1);
+        assertTrue(cache.getRate(Currency.USD, Currency.EUR).get().getRate() == 1, "Cached quote served");
+        assertTrue(delegate.calls.get() == 1 && reloads.isEmpty(), "No upstream call within the TTL");
+    }
+
+    public void servesStaleForOneMoreTtlWhileReloading() {
+        CountingDelegate delegate = new CountingDelegate();
+        ManualClock clock = new ManualClock();
+        CachingRateService cache = cache(delegate, clock, 16);
+        cache.getRate(Currency.USD, Currency.EUR);
+
+        clock.millis.set(TTL.toMillis() + 1);
+        assertTrue(cache.getRate(Currency.USD, Currency.EUR).get().getRate() == 1, "Stale quote served at once");
+        assertTrue(cache.getRate(Currency.USD, Currency.EUR).get().getRate() == 1, "Still stale until the reload runs");
+        assertTrue(delegate.calls.get() == 1 && !reloads.isEmpty(), "Reload queued, not run inline");
+        runReloads();
+        assertTrue(delegate.calls.get() == 2, "Queued reloads share one upstream call: " + delegate.calls.get());
+        assertTrue(cache.getRate(Currency.USD, Currency.EUR).get().getRate() == 2, "Reloaded quote served");
+
+        // Past TTL + staleTtl the caller waits for a fresh quote.
+        clock.millis.set(TTL.toMillis() + 1 + 2 * TTL.toMillis());
+        assertTrue(cache.getRate(Currency.USD, Currency.EUR).get().getRate() == 3, "Expired quote reloaded synchronously");
+        assertTrue(reloads.isEmpty(), "No background reload for an expired quote");
+    }
+
+    public void cachesEmptyResultsOnlyWhileFresh() {
+        CountingDelegate delegate = new CountingDelegate();
+        delegate.empty = true;
+        ManualClock clock = new ManualClock();
+        CachingRateService cache = cache(delegate, clock, 16);
+        assertTrue(cache.getRate(Currency.USD, Currency.GHS).isEmpty(), "Empty result returned");
+        assertTrue(cache.getRate(Currency.USD, Currency.GHS).isEmpty() && delegate.calls.get() == 1, "Empty result cached");
+        delegate.empty = false;
+        clock.millis.set(TTL.toMillis());
+        assertTrue(cache.getRate(Currency.USD, Currency.GHS).isPresent(), "Empty result is not served stale");
+        assertTrue(delegate.calls.get() == 2 && reloads.isEmpty(), "Reloaded synchronously after the TTL");
+    }
+
+    public void concurrentMissesShareOneLoad() throws Exception {
+        CountingDelegate delegate = new CountingDelegate();
+        delegate.gate = new CountDownLatch(1);
+        CachingRateService cache = cache(delegate, new ManualClock(), 16);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<Optional<RateQuote>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) results.add(callers.submit(() -> cache.getRate(Currency.USD, Currency.EUR)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delegate.calls.get() == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+        Thread.sleep(50); // let the other callers reach the in-flight load
+        delegate.gate.countDown();
+        for (Future<Optional<RateQuote>> f : results) {
+            assertTrue(f.get(5, TimeUnit.SECONDS).get().getRate() == 1, "Every caller gets the shared result");
+        }
+        assertTrue(delegate.calls.get() == 1, "One upstream call for concurrent misses: " + delegate.calls.get());
+        callers.shutdown();
+    }
+
+    public void evictsLeastRecentlyUsed() {
+        CountingDelegate delegate = new CountingDelegate();
+        ManualClock clock = new ManualClock();
+        CachingRateService cache = cache(delegate, clock, 2);
+        cache.getRate(Currency.USD, Currency.EUR);
+        cache.getRate(Currency.USD, Currency.GBP);
+        clock.millis.set(1);
+        cache.getRate(Currency.USD, Currency.EUR); // EUR is now the more recently used
+        cache.getRate(Currency.USD, Currency.JPY);
+        assertTrue(cache.size() == 2, "Bounded at maxEntries: " + cache.size());
+        int before = delegate.calls.get();
+        cache.getRate(Currency.USD, Currency.EUR);
+        assertTrue(delegate.calls.get() == before, "Recently used pair kept");
+        cache.getRate(Currency.USD, Currency.GBP);
+        assertTrue(delegate.calls.get() == before + 1, "Least recently used pair was evicted");
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.currencyconverter.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain-Java tests for CrossRateGraph. Run by executing the main method; throws AssertionError on failures.
+ */
+public class CrossRateGraphTest {
+
+    private static final int USD = Currency.USD.ordinal();
+    private static final int EUR = Currency.EUR.ordinal();
+    private static final int GBP = Currency.GBP.ordinal();
+    private static final int JPY = Currency.JPY.ordinal();
+    private static final int CAD = Currency.CAD.ordinal();
+
+    public static void main(String[] args) {
+        CrossRateGraphTest t = new CrossRateGraphTest();
+        t.triangulatesThroughAChainOfLegs();
+        t.prefersFewestHopsThenFreshestLegs();
+        t.tickRepricesOnlyRoutesThroughTheLeg();
+        t.detectsInconsistentCycles();
+        t.removingALegReroutes();
+        System.out.println("[DEBUG_LOG] All cross-rate graph tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static boolean close(double a, double b) {
+        return Math.abs(a - b) <= 1e-12 * Math.max(1.0, Math.abs(b));
+    }
+
+    public void triangulatesThroughAChainOfLegs() {
+        CrossRateGraph graph = new CrossRateGraph();
+        graph.update(USD, EUR, 0.92, Instant.ofEpochSecond(300));
+        graph.update(GBP, EUR, 1.15, Instant.ofEpochSecond(100));
+        graph.update(GBP, JPY, 190.0, Instant.ofEpochSecond(200));
+
+        double usdJpy = 0.92 / 1.15 * 190.0;
+        assertTrue(close(graph.rate(USD, JPY), usdJpy), "USD/JPY via EUR and GBP: " + graph.rate(USD, JPY));
+        assertTrue(close(graph.rate(JPY, USD), 1.0 / usdJpy), "Reverse direction");
+        assertTrue(Arrays.equals(graph.path(USD, JPY), new int[]{USD, EUR, GBP, JPY}), "Route " + Arrays.toString(graph.path(USD, JPY)));
+        assertTrue(graph.hops(USD, JPY) == 3 && graph.hops(USD, USD) == 0, "Hop counts");
+
+        Optional<RateQuote> q = graph.getRate(Currency.USD, Currency.JPY);
+        assertTrue(q.isPresent() && q.get().getTimestamp().equals(Instant.ofEpochSecond(100)), "Quote ages with its oldest leg: " + q);
+        assertTrue(Double.isNaN(graph.rate(USD, CAD)) && graph.getRate(Currency.USD, Currency.CAD).isEmpty(), "CAD has no legs");
+
+        RateSnapshot table = graph.snapshot(USD).orElseThrow(() -> new AssertionError("USD has legs"));
+        assertTrue(close(table.rate(Currency.EUR, Currency.JPY), 190.0 / 1.15), "Snapshot cross rate");
+        assertTrue(!table.supports(Currency.CAD), "Snapshot leaves unreachable currencies out");
+    }
+
+    public void prefersFewestHopsThenFreshestLegs() {
+        CrossRateGraph graph = new CrossRateGraph();
+        graph.update(USD, EUR, 0.92, Instant.ofEpochSecond(10));
+        graph.update(EUR, GBP, 0.87, Instant.ofEpochSecond(10));
+        graph.update(USD, CAD, 1.36, Instant.ofEpochSecond(50));
+        graph.update(CAD, GBP, 0.588, Instant.ofEpochSecond(50));
+        assertTrue(Arrays.equals(graph.path(USD, GBP), new int[]{USD, CAD, GBP}), "Equal hops: fresher route wins");
+
+        graph.update(USD, GBP, 0.80, Instant.ofEpochSecond(1));
+        assertTrue(graph.hops(USD, GBP) == 1 && close(graph.rate(USD, GBP), 0.80), "A direct leg beats any fresher chain");
+    }
+
+    public void tickRepricesOnlyRoutesThroughTheLeg() {
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        int n = registry.size();
+        CrossRateGraph graph = new CrossRateGraph();
+        for (int id = 0; id < n; id++) {
+            if (id != USD) graph.update(USD, id, 1.0 + id, Instant.ofEpochSecond(1));
+        }
+        int affected = graph.update(USD, EUR, 0.95, Instant.ofEpochSecond(2));
+        // Every tree reaches EUR through this leg once, except EUR's own tree, which reaches all others through it.
+        assertTrue(affected == 2 * (n - 1), "Tick should touch " + 2 * (n - 1) + " of " + n * (n - 1) + " pairs, touched " + affected);
+        int btc = registry.idOf("BTC");
+        assertTrue(close(graph.rate(EUR, btc), (1.0 + btc) / 0.95), "Re-priced EUR/BTC");
+        assertTrue(close(graph.rate(GBP, btc), (1.0 + btc) / (1.0 + GBP)), "Untouched GBP/BTC");
+        assertTrue(graph.getRate(Currency.EUR, Currency.GBP).get().getTimestamp().equals(Instant.ofEpochSecond(1)), "Oldest leg still dates the pair");
+
+        CrossRateGraph fresh = new CrossRateGraph();
+        for (int id = 0; id < n; id++) {
+            if (id != USD) fresh.update(USD, id, id == EUR ? 0.95 : 1.0 + id, Instant.ofEpochSecond(1));
+        }
+        for (int b = 0; b < n; b += 7) {
+            for (int q = 0; q < n; q += 5) {
+                assertTrue(close(graph.rate(b, q), fresh.rate(b, q)), "Incremental matches rebuild for " + b + "/" + q);
+            }
+        }
+    }
+
+    public void detectsInconsistentCycles() {
+        CrossRateGraph graph = new CrossRateGraph();
+        Instant now = Instant.now();
+        graph.update(USD, EUR, 0.92, now);
+        graph.update(EUR, GBP, 0.87, now);
+        graph.update(USD, GBP, 0.92 * 0.87, now);
+        graph.update(GBP, JPY, 190.0, now);
+        assertTrue(graph.findInconsistencies(1e-9).isEmpty(), "Consistent legs");
+
+        graph.update(USD, GBP, 0.80, now);
+        List<RateInconsistency> found = graph.findInconsistencies(1e-6);
+        assertTrue(found.size() == 1, "One disagreeing cycle: " + found);
+        RateInconsistency cycle = found.get(0);
+        int[] ids = cycle.getCycle();
+        assertTrue(cycle.legs() == 3 && ids[0] == ids[3], "Closed triangle: " + cycle);
+        double product = 1.0;
+        for (int i = 0; i < cycle.legs(); i++) product *= directRate(ids[i], ids[i + 1]);
+        assertTrue(close(product, cycle.getGain()) && cycle.getGain() > 1.0, "Gain is the product around the cycle: " + cycle);
+        assertTrue(cycle.isArbitrage(0.0) && !cycle.isArbitrage(0.001), "0.05% gain does not survive 10 bp per leg");
+        assertTrue(graph.findInconsistencies(0.01).isEmpty(), "Below tolerance");
+    }
+
+    private static double directRate(int from, int to) {
+        double[][] legs = new double[Currency.COUNT][Currency.COUNT];
+        legs[USD][EUR] = 0.92;
+        legs[EUR][GBP] = 0.87;
+        legs[USD][GBP] = 0.80;
+        return legs[from][to] > 0 ? legs[from][to] : 1.0 / legs[to][from];
+    }
+
+    public void removingALegReroutes() {
+        CrossRateGraph graph = new CrossRateGraph();
+        Instant now = Instant.now();
+        graph.update(USD, EUR, 0.92, now);
+        graph.update(EUR, GBP, 0.87, now);
+        graph.update(USD, GBP, 0.80, now);
+        assertTrue(graph.remove(GBP, USD) && !graph.remove(USD, GBP), "Leg removed once");
+        assertTrue(graph.hops(USD, GBP) == 2 && close(graph.rate(USD, GBP), 0.92 * 0.87), "Now routed via EUR");
+        assertTrue(graph.legCount() == 2, "Two legs left");
+    }
+}
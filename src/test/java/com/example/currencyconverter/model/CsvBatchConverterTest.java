@@ -0,0 +1,78 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain-Java tests for CsvBatchConverter. Run by executing the main method; throws AssertionError on failures.
+ */
+public class CsvBatchConverterTest {
+
+    public static void main(String[] args) throws IOException {
+        CsvBatchConverterTest t = new CsvBatchConverterTest();
+        t.convertsRowsAndKeepsHeader();
+        t.keepsRowOrderAcrossManyRegions();
+        System.out.println("[DEBUG_LOG] All CSV batch tests passed.");
+    }
+
+    private static RateSnapshot snapshot() {
+        double[] usdTo = new double[Currency.values().length];
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.5;
+        usdTo[Currency.JPY.ordinal()] = 150.0;
+        return RateSnapshot.fromAnchorRates(usdTo, Instant.parse("2024-01-01T00:00:00Z"));
+    }
+
+    private void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    public void convertsRowsAndKeepsHeader() throws IOException {
+        Path in = Files.createTempFile("batch-in", ".csv");
+        Path out = Files.createTempFile("batch-out", ".csv");
+        try {
+            Files.writeString(in, "amount,from,to\r\n10,USD,EUR\r\n3.5,eur,JPY\nabc,USD,EUR\n7,USD,GHS\n1,USD,XXX", StandardCharsets.US_ASCII);
+            CsvBatchConverter.Summary summary = new CsvBatchConverter(snapshot(), 2, 4096).convert(in, out);
+            List<String> lines = Files.readAllLines(out, StandardCharsets.US_ASCII);
+            assertTrue(lines.get(0).equals("amount,from,to,converted"), "Header: " + lines.get(0));
+            assertTrue(lines.get(1).equals("10,USD,EUR,5.00"), "Row 1: " + lines.get(1));
+            assertTrue(lines.get(2).equals("3.5,eur,JPY,1050.00"), "Row 2: " + lines.get(2));
+            assertTrue(lines.get(3).equals("abc,USD,EUR,"), "Bad amount: " + lines.get(3));
+            assertTrue(lines.get(4).equals("7,USD,GHS,"), "Unsupported pair: " + lines.get(4));
+            assertTrue(lines.get(5).equals("1,USD,XXX,"), "Unknown code: " + lines.get(5));
+            assertTrue(summary.getRows() == 5 && summary.getRejected() == 3, "Summary: " + summary);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+        }
+    }
+
+    public void keepsRowOrderAcrossManyRegions() throws IOException {
+        Path in = Files.createTempFile("batch-in", ".csv");
+        Path out = Files.createTempFile("batch-out", ".csv");
+        try {
+            int rows = 200_000;
+            StringBuilder sb = new StringBuilder(rows * 16);
+            for (int i = 0; i < rows; i++) {
+                sb.append(i).append(",USD,EUR\n");
+            }
+            Files.writeString(in, sb, StandardCharsets.US_ASCII);
+            // Tiny regions force many splits in the middle of lines.
+            CsvBatchConverter.Summary summary = new CsvBatchConverter(snapshot(), 4, 4099).convert(in, out);
+            assertTrue(summary.getRows() == rows && summary.getRejected() == 0, "Summary: " + summary);
+            List<String> lines = Files.readAllLines(out, StandardCharsets.US_ASCII);
+            assertTrue(lines.size() == rows, "Expected " + rows + " lines but got " + lines.size());
+            for (int i = 0; i < rows; i++) {
+                String expected = i + ",USD,EUR," + (i / 2) + (i % 2 == 0 ? ".00" : ".50");
+                assertTrue(lines.get(i).equals(expected), "Row " + i + ": " + lines.get(i));
+            }
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+        }
+    }
+}
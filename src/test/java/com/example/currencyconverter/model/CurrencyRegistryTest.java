@@ -0,0 +1,92 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Plain-Java tests for CurrencyRegistry. Run by executing the main method; throws AssertionError on failures.
+ */
+public class CurrencyRegistryTest {
+
+    public static void main(String[] args) throws IOException {
+        CurrencyRegistryTest t = new CurrencyRegistryTest();
+        t.enumConstantsKeepTheirOrdinals();
+        t.globalRegistryLoadsBundledList();
+        t.looksUpFromCharsAndBytes();
+        t.registersAtRuntime();
+        t.snapshotsCoverRegistryOnlyCurrencies();
+        System.out.println("[DEBUG_LOG] All currency registry tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    public void enumConstantsKeepTheirOrdinals() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        assertTrue(registry.size() == Currency.COUNT, "Fresh registry holds the enum only");
+        for (Currency c : Currency.values()) {
+            CurrencyUnit u = registry.unit(c.ordinal());
+            assertTrue(u.getCode().equals(c.name()) && u.toCurrency() == c, "Id of " + c);
+            assertTrue(c.unit() == CurrencyRegistry.global().unit(c.ordinal()), "Enum view of " + c);
+        }
+        assertTrue(registry.unit(Currency.JPY.ordinal()).getMinorUnits() == 0, "JPY has no minor units");
+    }
+
+    public void globalRegistryLoadsBundledList() {
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        assertTrue(registry.size() > 170, "Bundled list should cover ISO 4217, got " + registry.size());
+        CurrencyUnit btc = registry.find("BTC").orElseThrow(() -> new AssertionError("BTC"));
+        assertTrue(btc.getMinorUnits() == 8 && btc.toCurrency() == null, "BTC is registry-only");
+        assertTrue(registry.find("KWD").get().getMinorUnits() == 3, "KWD has 3 minor units");
+    }
+
+    public void looksUpFromCharsAndBytes() {
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        int usdt = registry.idOf("USDT");
+        byte[] line = "10,usdt,EUR".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(usdt >= 0 && registry.idOf(line, 3, 4) == usdt, "Case-insensitive byte lookup");
+        assertTrue(registry.idOf(new StringBuilder("eur")) == Currency.EUR.ordinal(), "CharSequence lookup");
+        assertTrue(registry.idOf("XXX") == -1 && registry.idOf("U$D") == -1 && registry.idOf("") == -1, "Unknown codes");
+        assertTrue(registry.idOf("ABCDEFGHIJKLM") == -1, "Too long");
+    }
+
+    public void registersAtRuntime() throws IOException {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        registry.load(new StringReader("# metals\nXAU 4\n\nbad-code\nSOL 8\n"));
+        CurrencyUnit xau = registry.find("xau").orElseThrow(() -> new AssertionError("XAU"));
+        assertTrue(xau.getId() == Currency.COUNT && xau.getCode().equals("XAU"), "Dense ids after the enum");
+        assertTrue(registry.register("xau", 2) == xau, "Registration is idempotent and interned");
+        assertTrue(registry.size() == Currency.COUNT + 2, "Bad line skipped, size " + registry.size());
+        try {
+            registry.register("X", 2);
+            throw new AssertionError("Single-letter code should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    public void snapshotsCoverRegistryOnlyCurrencies() {
+        CurrencyRegistry registry = CurrencyRegistry.global();
+        double[] usdTo = new double[registry.size()];
+        Arrays.fill(usdTo, Double.NaN);
+        int chf = registry.idOf("CHF");
+        int btc = registry.idOf("BTC");
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.9;
+        usdTo[chf] = 0.88;
+        usdTo[btc] = 0.00001;
+        RateSnapshot s = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+        assertTrue(Math.abs(s.rate(chf, Currency.EUR.ordinal()) - 0.9 / 0.88) < 1e-12, "CHF->EUR");
+        assertTrue(Math.abs(s.rate(btc, Currency.USD.ordinal()) - 100_000) < 1e-6, "BTC->USD");
+        assertTrue(Double.isNaN(s.rate(registry.idOf("SEK"), chf)) && Double.isNaN(s.rate(-1, chf)), "Missing legs");
+
+        double[] amounts = {2, 3};
+        double[] out = new double[2];
+        new BulkConverter(s).convert(amounts, new int[]{btc, chf}, new int[]{Currency.USD.ordinal(), chf}, out);
+        assertTrue(Math.abs(out[0] - 200_000) < 1e-6 && out[1] == 3, "Bulk conversion by id: " + Arrays.toString(out));
+    }
+}
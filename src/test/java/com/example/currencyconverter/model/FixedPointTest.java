@@ -0,0 +1,177 @@
+package com.example.currencyconverter.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Plain-Java tests for FixedPoint, Money and the fixed-point BulkConverter paths, checked against BigDecimal.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class FixedPointTest {
+
+    private static final RoundingMode[] MODES = {
+            RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+            RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN
+    };
+
+    public static void main(String[] args) {
+        FixedPointTest t = new FixedPointTest();
+        t.matchesBigDecimalForRandomInputs();
+        t.roundsTiesPerMode();
+        t.detectsOverflow();
+        t.parsesPlainDecimals();
+        t.moneyUsesCurrencyScale();
+        t.bulkConvertsMinorUnits();
+        System.out.println("[DEBUG_LOG] All fixed-point tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static BigInteger expected(long amount, int fromScale, int toScale, String rate, RoundingMode mode) {
+        return BigDecimal.valueOf(amount, fromScale).multiply(new BigDecimal(rate))
+                .setScale(toScale, mode).unscaledValue();
+    }
+
+    public void matchesBigDecimalForRandomInputs() {
+        Random random = new Random(42);
+        int checked = 0, overflows = 0;
+        for (int i = 0; i < 200_000; i++) {
+            // Amounts from a few minor units up to the full long range; rates with up to 10 significant digits.
+            long amount = random.nextLong() >> random.nextInt(64);
+            int fromScale = random.nextInt(9), toScale = random.nextInt(9);
+            BigDecimal rateDecimal = BigDecimal.valueOf(1 + random.nextInt(999_999_999), random.nextInt(16) - 3);
+            String rate = rateDecimal.toPlainString();
+            RoundingMode mode = MODES[random.nextInt(MODES.length)];
+            BigInteger want = expected(amount, fromScale, toScale, rate, mode);
+            long got;
+            try {
+                got = FixedPoint.convert(amount, fromScale, toScale, Double.parseDouble(rate), mode);
+            } catch (ArithmeticException e) {
+                assertTrue(want.bitLength() > 63 || want.equals(BigInteger.valueOf(Long.MIN_VALUE)),
+                        "Spurious overflow for " + amount + "@" + fromScale + " * " + rate + " -> " + want);
+                overflows++;
+                continue;
+            }
+            assertTrue(BigInteger.valueOf(got).equals(want), amount + "@" + fromScale + " * " + rate + " " + mode
+                    + " to scale " + toScale + ": got " + got + ", want " + want);
+            checked++;
+        }
+        assertTrue(checked > 100_000 && overflows > 1_000, "Coverage: " + checked + " exact, " + overflows + " overflows");
+    }
+
+    public void roundsTiesPerMode() {
+        // 0.05 EUR at 0.9 is exactly 0.045 USD.
+        long[] wantPositive = {5, 4, 5, 4, 5, 4, 4};
+        for (int m = 0; m < MODES.length; m++) {
+            assertTrue(FixedPoint.convert(5, 2, 2, 0.9, MODES[m]) == wantPositive[m], "0.045 " + MODES[m]);
+            assertTrue(FixedPoint.convert(-5, 2, 2, 0.9, MODES[m]) == expected(-5, 2, 2, "0.9", MODES[m]).longValue(), "-0.045 " + MODES[m]);
+        }
+        assertTrue(FixedPoint.convert(-5, 2, 2, 0.9, RoundingMode.CEILING) == -4, "Ceiling rounds negatives toward zero");
+        assertTrue(FixedPoint.convert(-5, 2, 2, 0.9, RoundingMode.FLOOR) == -5, "Floor rounds negatives away from zero");
+        assertTrue(FixedPoint.convert(10_000, 2, 0, 149.995, RoundingMode.HALF_EVEN) == 15_000, "149.995 JPY rounds to even");
+        assertTrue(FixedPoint.convert(100, 2, 2, 0.92, RoundingMode.UNNECESSARY) == 92, "Exact result needs no rounding");
+        try {
+            FixedPoint.convert(5, 2, 2, 0.9, RoundingMode.UNNECESSARY);
+            throw new AssertionError("UNNECESSARY must reject inexact results");
+        } catch (ArithmeticException expected) {
+            // ok
+        }
+        assertTrue(FixedPoint.rescale(12_345, 2, 0, RoundingMode.HALF_UP) == 123, "Rescale down");
+        assertTrue(FixedPoint.rescale(123, 0, 8, RoundingMode.HALF_UP) == 12_300_000_000L, "Rescale up");
+    }
+
+    public void detectsOverflow() {
+        long[] amounts = {Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 10};
+        for (long amount : amounts) {
+            try {
+                FixedPoint.convert(amount, 2, 8, 150.0, RoundingMode.HALF_EVEN);
+                throw new AssertionError("Expected overflow for " + amount);
+            } catch (ArithmeticException expected) {
+                // ok
+            }
+        }
+        assertTrue(FixedPoint.convert(Long.MAX_VALUE, 8, 0, 1.0, RoundingMode.DOWN) == Long.MAX_VALUE / 100_000_000,
+                "Large amounts that shrink still convert");
+        try {
+            FixedPoint.convert(1, 2, 2, 0.0, RoundingMode.HALF_EVEN);
+            throw new AssertionError("Zero rate must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    public void parsesPlainDecimals() {
+        assertTrue(FixedPoint.parse(" 1234.5 ", 2, RoundingMode.HALF_EVEN) == 123_450, "Pads fraction");
+        assertTrue(FixedPoint.parse("-0.125", 2, RoundingMode.HALF_EVEN) == -12, "Half-even drop");
+        assertTrue(FixedPoint.parse("0.125", 2, RoundingMode.HALF_UP) == 13, "Half-up drop");
+        assertTrue(FixedPoint.parse("0.1250001", 2, RoundingMode.HALF_EVEN) == 13, "Sticky digits beyond the half");
+        assertTrue(FixedPoint.parse("+7", 0, RoundingMode.UNNECESSARY) == 7 && FixedPoint.parse("5.", 1, RoundingMode.DOWN) == 50, "Sign and bare dot");
+        assertTrue(FixedPoint.fractionDigits("12.3450") == 4 && FixedPoint.fractionDigits("12") == 0, "Fraction digits");
+        for (String bad : new String[]{"", ".", "1e3", "1,000", "1.2.3", "--1", "abc"}) {
+            try {
+                FixedPoint.parse(bad, 2, RoundingMode.HALF_EVEN);
+                throw new AssertionError("Should reject '" + bad + "'");
+            } catch (NumberFormatException expected) {
+                // ok
+            }
+        }
+        try {
+            FixedPoint.parse("92233720368547758.08", 2, RoundingMode.HALF_EVEN);
+            throw new AssertionError("Should overflow");
+        } catch (ArithmeticException expected) {
+            // ok
+        }
+    }
+
+    public void moneyUsesCurrencyScale() {
+        Money usd = Money.parse("100.01", Currency.USD.unit(), RoundingMode.HALF_EVEN);
+        Money jpy = usd.convertTo(Currency.JPY.unit(), 149.995, RoundingMode.HALF_EVEN);
+        assertTrue(jpy.getMinorAmount() == 15_001 && jpy.toString().equals("15001 JPY"), "JPY has no minor units: " + jpy);
+        CurrencyUnit btc = CurrencyRegistry.global().find("BTC").get();
+        Money sats = usd.convertTo(btc, 0.0000153, RoundingMode.DOWN);
+        assertTrue(sats.toString().equals("0.00153015 BTC"), "BTC has 8 minor units: " + sats);
+        assertTrue(usd.plus(usd).toBigDecimal().compareTo(new BigDecimal("200.02")) == 0, "Addition");
+        try {
+            usd.plus(jpy);
+            throw new AssertionError("Currencies must match");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+        Money lowest = new Money(-Long.MAX_VALUE, Currency.USD.unit());
+        try {
+            lowest.plus(new Money(-1, Currency.USD.unit()));
+            throw new AssertionError("Sum equal to NO_AMOUNT should overflow");
+        } catch (ArithmeticException expected) {
+            // ok
+        }
+    }
+
+    public void bulkConvertsMinorUnits() {
+        double[] usdTo = new double[Currency.COUNT];
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.92;
+        usdTo[Currency.JPY.ordinal()] = 150.0;
+        BulkConverter bulk = new BulkConverter(RateSnapshot.fromAnchorRates(usdTo, Instant.now()));
+        int usd = Currency.USD.ordinal(), eur = Currency.EUR.ordinal(), jpy = Currency.JPY.ordinal(), gbp = Currency.GBP.ordinal();
+
+        long[] amounts = {10_000, 1_000, 333, Long.MAX_VALUE, 500};
+        int[] from = {usd, jpy, usd, usd, usd};
+        int[] to = {eur, usd, jpy, jpy, gbp};
+        long[] out = new long[amounts.length];
+        int failed = bulk.convertMinor(amounts, from, to, out, RoundingMode.HALF_EVEN);
+        assertTrue(failed == 2, "Overflow and missing pair fail: " + Arrays.toString(out));
+        assertTrue(out[0] == 9_200 && out[1] == 667 && out[2] == 500, "Per-row scales: " + Arrays.toString(out));
+        assertTrue(out[3] == FixedPoint.NO_AMOUNT && out[4] == FixedPoint.NO_AMOUNT, "Failed rows are marked");
+
+        long[] column = {1, 2, 3, -3};
+        long[] converted = new long[column.length];
+        assertTrue(bulk.convertMinor(column, Currency.USD, Currency.JPY, converted, RoundingMode.HALF_UP) == 0, "Column");
+        assertTrue(Arrays.equals(converted, new long[]{2, 3, 5, -5}), "Cents to yen: " + Arrays.toString(converted));
+    }
+}
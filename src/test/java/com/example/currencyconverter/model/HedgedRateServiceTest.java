@@ -0,0 +1,225 @@
+package com.example.currencyconverter.model;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plain-Java tests for HedgedRateService against local stub providers with injected latency.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class HedgedRateServiceTest {
+
+    public static void main(String[] args) throws Exception {
+        HedgedRateServiceTest t = new HedgedRateServiceTest();
+        t.hedgesSlowProviderAndPrefersFastOne();
+        t.failsOverImmediatelyOnErrors();
+        t.instantFailuresRankBehindSlowerHealthyProvider();
+        t.staleGuardAnswerFailsOverToFreshProvider();
+        t.emptyOnlyWhenEveryProviderFails();
+        t.cancelsTheLosingRequest();
+        System.out.println("[DEBUG_LOG] All hedged rate service tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    /** Stub provider answering {@code /latest} after a fixed delay, or failing with 500. */
+    static final class StubProvider implements AutoCloseable {
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final AtomicInteger requests = new AtomicInteger();
+
+        StubProvider(long latencyMillis, int status) throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/latest", exchange -> {
+                requests.incrementAndGet();
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "{\"base\":\"USD\",\"rates\":{\"EUR\":0.92,\"USD\":1.0}}".getBytes(StandardCharsets.UTF_8);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    exchange.sendResponseHeaders(status, body.length);
+                    os.write(body);
+                } catch (IOException ignored) {
+                    // Client cancelled and closed the connection.
+                }
+            });
+            server.start();
+        }
+
+        HttpRateService service() {
+            return new HttpRateService("http://127.0.0.1:" + server.getAddress().getPort(), null);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public void hedgesSlowProviderAndPrefersFastOne() throws Exception {
+        try (StubProvider slow = new StubProvider(2000, 200); StubProvider fast = new StubProvider(5, 200)) {
+            HedgedRateService hedged = new HedgedRateService(List.of(slow.service(), fast.service()));
+            long start = System.nanoTime();
+            Optional<RateQuote> q = hedged.getRate(Currency.USD, Currency.EUR);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(q.isPresent() && Math.abs(q.get().getRate() - 0.92) < 1e-9, "Expected a quote: " + q);
+            assertTrue(millis < 1500, "Hedge should beat the slow provider, took " + millis + "ms");
+            assertTrue(hedged.getHedgeCount() == 1 && hedged.getWins(1) == 1, "Fast provider should win the hedge");
+
+            for (int i = 0; i < 20; i++) {
+                assertTrue(hedged.getRate(Currency.USD, Currency.EUR).isPresent(), "Lookup " + i);
+            }
+            assertTrue(hedged.getWins(1) == 21, "Fast provider should now be primary, wins=" + hedged.getWins(1));
+            assertTrue(slow.requests.get() == 1, "Slow provider should not be asked again: " + slow.requests.get());
+            assertTrue(hedged.getScore(1) < hedged.getScore(0), "Fast provider should score better");
+            hedged.shutdown();
+        }
+    }
+
+    public void failsOverImmediatelyOnErrors() throws Exception {
+        try (StubProvider broken = new StubProvider(0, 500); StubProvider healthy = new StubProvider(20, 200)) {
+            HedgedRateService hedged = new HedgedRateService(List.of(broken.service(), healthy.service()),
+                    Duration.ofSeconds(1), Duration.ofSeconds(1));
+            long start = System.nanoTime();
+            Optional<RateQuote> q = hedged.getRate(Currency.USD, Currency.EUR);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(q.isPresent(), "Healthy provider should answer");
+            assertTrue(millis < 900, "Failover must not wait for the hedge delay, took " + millis + "ms");
+            assertTrue(hedged.getFailoverCount() == 1 && hedged.getHedgeCount() == 0, "Expected one failover");
+            assertTrue(hedged.getScore(0) > hedged.getScore(1), "Errors should push the broken provider down");
+
+            int brokenBefore = broken.requests.get();
+            for (int i = 0; i < 10; i++) hedged.getRate(Currency.USD, Currency.EUR);
+            assertTrue(broken.requests.get() == brokenBefore, "Broken provider should no longer be tried first");
+            hedged.shutdown();
+        }
+    }
+
+    /** A provider that fails in microseconds must not keep ranking first on its latency. */
+    public void instantFailuresRankBehindSlowerHealthyProvider() {
+        AtomicInteger deadCalls = new AtomicInteger();
+        boolean[] down = {false};
+        ExchangeRateService flaky = new ExchangeRateService() {
+            @Override
+            public Optional<RateQuote> getRate(Currency base, Currency quote) {
+                return getRateAsync(base, quote).join();
+            }
+
+            @Override
+            public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+                deadCalls.incrementAndGet();
+                if (down[0]) return CompletableFuture.failedFuture(new ConnectException("Connection refused"));
+                return CompletableFuture.completedFuture(Optional.of(new RateQuote(base, quote, 0.92, Instant.now())));
+            }
+        };
+        ExchangeRateService healthy = new ExchangeRateService() {
+            @Override
+            public Optional<RateQuote> getRate(Currency base, Currency quote) {
+                return getRateAsync(base, quote).join();
+            }
+
+            @Override
+            public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+                return CompletableFuture.supplyAsync(() -> Optional.of(new RateQuote(base, quote, 0.92, Instant.now())),
+                        CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS));
+            }
+        };
+        // A wide hedge delay keeps hedges out of the count, so only ranking sends requests to the dead provider.
+        HedgedRateService hedged = new HedgedRateService(List.of(flaky, healthy),
+                Duration.ofSeconds(1), Duration.ofSeconds(2));
+        // Warm up: both answer, the instant one wins and has latency samples near zero.
+        for (int i = 0; i < 20; i++) assertTrue(hedged.getRate(Currency.USD, Currency.EUR).isPresent(), "Warm-up " + i);
+        assertTrue(hedged.getScore(0) < hedged.getScore(1),
+                "Instant provider ranks first while healthy: " + hedged.getScore(0) + " vs " + hedged.getScore(1));
+
+        down[0] = true;
+        deadCalls.set(0);
+        for (int i = 0; i < 200; i++) assertTrue(hedged.getRate(Currency.USD, Currency.EUR).isPresent(), "Lookup " + i);
+        assertTrue(deadCalls.get() == 1, "Dead provider asked only by the first lookup, not " + deadCalls.get());
+        assertTrue(hedged.getFailoverCount() == 1, "One failover: " + hedged.getFailoverCount());
+        assertTrue(hedged.getScore(0) > hedged.getScore(1),
+                "Dead provider scores worse: " + hedged.getScore(0) + " vs " + hedged.getScore(1));
+        hedged.shutdown();
+    }
+
+    /** A guard's stale fallback must not win the race while another provider still has a fresh quote. */
+    public void staleGuardAnswerFailsOverToFreshProvider() throws Exception {
+        StubProvider first = new StubProvider(0, 200);
+        try (StubProvider second = new StubProvider(20, 200)) {
+            RateProviderGuard guardedFirst = RateProviderGuard.around(first.service(), Double.POSITIVE_INFINITY, 10);
+            RateProviderGuard guardedSecond = RateProviderGuard.around(second.service(), Double.POSITIVE_INFINITY, 10);
+            HedgedRateService hedged = new HedgedRateService(List.of(guardedFirst, guardedSecond));
+            for (int i = 0; i < 5; i++) assertTrue(hedged.getRate(Currency.USD, Currency.EUR).isPresent(), "Warm-up " + i);
+            assertTrue(first.requests.get() > 0, "First provider has a last good quote");
+
+            first.close(); // connection refused from now on
+            for (int i = 0; i < RateProviderGuard.FAILURE_THRESHOLD; i++) {
+                Optional<RateQuote> q = guardedFirst.getRate(Currency.USD, Currency.EUR);
+                assertTrue(q.isPresent() && q.get().isStale(), "Guard falls back to its last good quote: " + q);
+            }
+            assertTrue(guardedFirst.getState() == RateProviderGuard.State.OPEN, "First guard open: " + guardedFirst.getState());
+
+            // The open guard answers instantly with its stale quote; that must count as a failure, not a win.
+            for (int i = 0; i < 50; i++) {
+                Optional<RateQuote> q = hedged.getRate(Currency.USD, Currency.EUR);
+                assertTrue(q.isPresent() && !q.get().isStale(), "Lookup " + i + " answered fresh: " + q);
+            }
+            assertTrue(hedged.getFailoverCount() >= 1, "Failed over: " + hedged.getFailoverCount());
+
+            second.close();
+            Optional<RateQuote> last = hedged.getRate(Currency.USD, Currency.EUR);
+            assertTrue(last.isPresent() && last.get().isStale(), "Stale quote still served when every provider is down: " + last);
+            hedged.shutdown();
+        }
+    }
+
+    public void emptyOnlyWhenEveryProviderFails() throws Exception {
+        try (StubProvider a = new StubProvider(0, 500); StubProvider b = new StubProvider(0, 503)) {
+            HedgedRateService hedged = new HedgedRateService(List.of(a.service(), b.service()));
+            assertTrue(hedged.getRate(Currency.USD, Currency.EUR).isEmpty(), "All providers failed");
+            assertTrue(a.requests.get() > 0 && b.requests.get() > 0, "Both providers should have been tried");
+            hedged.shutdown();
+        }
+    }
+
+    public void cancelsTheLosingRequest() {
+        CompletableFuture<Optional<RateQuote>> hanging = new CompletableFuture<>();
+        ExchangeRateService stuck = new ExchangeRateService() {
+            @Override
+            public Optional<RateQuote> getRate(Currency base, Currency quote) {
+                return hanging.join();
+            }
+
+            @Override
+            public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+                return hanging;
+            }
+        };
+        HedgedRateService hedged = new HedgedRateService(List.of(stuck, new InMemoryRateService()),
+                Duration.ofMillis(20), Duration.ofMillis(20));
+        assertTrue(hedged.getRate(Currency.USD, Currency.EUR).isPresent(), "In-memory provider should answer");
+        assertTrue(hanging.isCancelled(), "Losing request should be cancelled");
+        hedged.shutdown();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.currencyconverter.model;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Plain-Java tests for HttpRateService's transport against a stub provider that counts requests and bytes:
+ * conditional requests, compression, connection reuse and timeouts.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class HttpRateServiceTest {
+
+    public static void main(String[] args) throws Exception {
+        HttpRateServiceTest t = new HttpRateServiceTest();
+        t.revalidatesTableWithEtag();
+        t.revalidatesPairsWithLastModified();
+        t.reusesOneConnection();
+        t.requestTimeoutBoundsSlowProvider();
+        System.out.println("[DEBUG_LOG] All HTTP rate service tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    /** Stub provider serving the full open.er-api table, with optional validators, compression and delay. */
+    static final class CountingProvider implements AutoCloseable {
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final byte[] payload;
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        final AtomicLong bodyBytes = new AtomicLong();
+        final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        volatile String etag;
+        volatile String lastModified;
+        /** Content-Encoding to answer with, if the client accepts it; null sends identity bodies. */
+        volatile String encoding = "gzip";
+        volatile long delayMillis;
+
+        CountingProvider() throws IOException {
+            try (InputStream in = HttpRateServiceTest.class.getResourceAsStream("/rates/open_er_api_all.json")) {
+                if (in == null) throw new IllegalStateException("Missing payload");
+                payload = in.readAllBytes();
+            }
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/latest", this::handle);
+            server.start();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String tag = etag, modified = lastModified;
+            if (tag != null) exchange.getResponseHeaders().add("ETag", tag);
+            if (modified != null) exchange.getResponseHeaders().add("Last-Modified", modified);
+            boolean fresh = (tag != null && tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")))
+                    || (tag == null && modified != null && modified.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since")));
+            try (OutputStream os = exchange.getResponseBody()) {
+                if (fresh) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+                byte[] body = payload;
+                String accepted = String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+                String coding = encoding;
+                if (coding != null && accepted.contains(coding)) {
+                    body = compress(new ByteArrayOutputStream(), coding.equals("gzip"));
+                    exchange.getResponseHeaders().add("Content-Encoding", coding);
+                }
+                bodyBytes.addAndGet(body.length);
+                exchange.sendResponseHeaders(200, body.length);
+                os.write(body);
+            } catch (IOException ignored) {
+                // Client timed out and closed the connection.
+            }
+        }
+
+        private byte[] compress(ByteArrayOutputStream out, boolean gzip) throws IOException {
+            try (OutputStream z = gzip ? new GZIPOutputStream(out) : new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED, true))) {
+                z.write(payload);
+            }
+            return out.toByteArray();
+        }
+
+        HttpRateService service(Duration requestTimeout) {
+            return new HttpRateService("http://127.0.0.1:" + server.getAddress().getPort(), null, null,
+                    Duration.ofSeconds(2), requestTimeout, 2);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public void revalidatesTableWithEtag() throws Exception {
+        try (CountingProvider provider = new CountingProvider()) {
+            provider.etag = "\"v1\"";
+            HttpRateService service = provider.service(Duration.ofSeconds(5));
+            int refreshes = 10;
+            for (int i = 0; i < refreshes; i++) {
+                Optional<RateSnapshot> table = service.refreshSnapshot().get();
+                assertTrue(table.isPresent() && table.get().rate(Currency.USD, Currency.JPY) > 0, "Refresh " + i + " yields a table");
+            }
+            assertTrue(provider.requests.get() == refreshes && provider.notModified.get() == refreshes - 1,
+                    "One download, then revalidations: " + provider.notModified.get() + "/" + provider.requests.get());
+            assertTrue(service.getNotModifiedCount() == refreshes - 1, "Client counts 304s");
+            long sent = provider.bodyBytes.get();
+            assertTrue(sent == service.getBytesReceived() && sent < provider.payload.length * 3 / 4,
+                    "Only one compressed body crosses the wire: " + sent + " of " + provider.payload.length);
+            System.out.println("[DEBUG_LOG] " + refreshes + " table refreshes: " + sent + " body bytes, "
+                    + (long) refreshes * provider.payload.length + " without revalidation or compression");
+
+            provider.etag = "\"v2\""; // the table changed upstream
+            assertTrue(service.refreshSnapshot().get().isPresent(), "Changed table is downloaded");
+            assertTrue(provider.notModified.get() == refreshes - 1 && provider.bodyBytes.get() == 2 * sent, "Second download");
+        }
+    }
+
+    public void revalidatesPairsWithLastModified() throws Exception {
+        try (CountingProvider provider = new CountingProvider()) {
+            provider.lastModified = "Mon, 01 Jan 2024 00:00:00 GMT";
+            HttpRateService service = provider.service(Duration.ofSeconds(5));
+            provider.encoding = "deflate"; // raw deflate, as some servers send it
+            for (int i = 0; i < 3; i++) {
+                Optional<RateQuote> q = service.getRate(Currency.USD, Currency.EUR);
+                assertTrue(q.isPresent() && q.get().getRate() > 0, "Lookup " + i + ": " + q);
+            }
+            assertTrue(provider.requests.get() == 3 && provider.notModified.get() == 2, "Pairs revalidate by date");
+
+            provider.encoding = null;
+            provider.lastModified = "Tue, 02 Jan 2024 00:00:00 GMT";
+            assertTrue(service.getRate(Currency.USD, Currency.EUR).isPresent(), "Identity bodies still work");
+        }
+    }
+
+    public void reusesOneConnection() throws Exception {
+        try (CountingProvider provider = new CountingProvider()) {
+            HttpRateService service = provider.service(Duration.ofSeconds(5));
+            for (int i = 0; i < 20; i++) {
+                assertTrue(service.getRate(Currency.USD, Currency.GBP).isPresent(), "Lookup " + i);
+            }
+            assertTrue(provider.clientPorts.size() == 1, "Sequential lookups share a connection: " + provider.clientPorts);
+        }
+    }
+
+    public void requestTimeoutBoundsSlowProvider() throws Exception {
+        try (CountingProvider provider = new CountingProvider()) {
+            provider.delayMillis = 3000;
+            HttpRateService service = provider.service(Duration.ofMillis(200));
+            long start = System.nanoTime();
+            Optional<RateQuote> q = service.getRate(Currency.USD, Currency.EUR);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(q.isEmpty(), "Timed-out lookup is empty");
+            // Direct attempt and fallback each give up after 200 ms.
+            assertTrue(millis < 2000, "Lookup should time out quickly, took " + millis + "ms");
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.currencyconverter.model;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Minimal in-process WebSocket tick feed for tests.
+ *
+ * <p>Implements just enough of RFC 6455 for {@code java.net.http.WebSocket}: the upgrade handshake,
+ * unmasked server text frames and masked client text/close frames. Each client's subscribe message is
+ * recorded, and {@link #replay(int, long, LongFunction)} pushes generated ticks to every connected
+ * client at a fixed rate, batching frames per millisecond so tens of thousands of ticks per second are
+ * reachable.</p>
+ */
+final class LocalRateFeedServer implements AutoCloseable {
+
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService pool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "local-rate-feed");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final List<String> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong ticksSent = new AtomicLong();
+
+    LocalRateFeedServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        pool.execute(this::acceptLoop);
+    }
+
+    URI uri() {
+        return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/feed");
+    }
+
+    /** Subscribe messages received so far, one per (re)connect. */
+    List<String> subscriptions() {
+        return subscriptions;
+    }
+
+    int connectedClients() {
+        return clients.size();
+    }
+
+    long ticksSent() {
+        return ticksSent.get();
+    }
+
+    /** Send one text frame to every connected client and flush it immediately. */
+    void broadcast(String text) {
+        send(text);
+        for (Client c : clients) {
+            c.flush();
+        }
+    }
+
+    private void send(String text) {
+        byte[] frame = textFrame(text);
+        for (Client c : clients) {
+            c.send(frame);
+        }
+        ticksSent.incrementAndGet();
+    }
+
+    /**
+     * Push {@code count} ticks at roughly {@code ticksPerSecond}, blocking until done.
+     *
+     * @param tickFactory builds the message for tick number {@code i}
+     */
+    void replay(int ticksPerSecond, long count, LongFunction<String> tickFactory) {
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            send(tickFactory.apply(i));
+            long due = start + (i + 1) * 1_000_000_000L / ticksPerSecond;
+            long wait = due - System.nanoTime();
+            if (wait > 1_000_000L) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        for (Client c : clients) {
+            c.flush();
+        }
+    }
+
+    /** Abruptly close every client socket, simulating a feed outage. */
+    void dropConnections() {
+        for (Client c : clients) {
+            c.closeQuietly();
+        }
+        clients.clear();
+    }
+
+    @Override
+    public void close() {
+        dropConnections();
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+        pool.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                pool.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            InputStream in = socket.getInputStream();
+            String key = readHandshakeKey(in);
+            if (key == null) {
+                socket.close();
+                return;
+            }
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+            String accept = Base64.getEncoder().encodeToString(sha1(key + WS_GUID));
+            out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Client client = new Client(socket, out);
+            clients.add(client);
+            readFrames(in, client);
+        } catch (IOException ignored) {
+            // client went away
+        } finally {
+            clients.removeIf(c -> c.socket == socket);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+
+    private void readFrames(InputStream in, Client client) throws IOException {
+        while (true) {
+            int b0 = in.read();
+            int b1 = in.read();
+            if (b0 < 0 || b1 < 0) return;
+            int opcode = b0 & 0x0F;
+            long len = b1 & 0x7F;
+            if (len == 126) len = (in.read() << 8) | in.read();
+            else if (len == 127) {
+                len = 0;
+                for (int i = 0; i < 8; i++) len = (len << 8) | in.read();
+            }
+            byte[] mask = (b1 & 0x80) != 0 ? in.readNBytes(4) : null;
+            byte[] payload = in.readNBytes((int) len);
+            if (mask != null) {
+                for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+            }
+            if (opcode == 0x1) {
+                subscriptions.add(new String(payload, StandardCharsets.UTF_8));
+            } else if (opcode == 0x8) {
+                client.send(new byte[]{(byte) 0x88, 0});
+                client.flush();
+                return;
+            }
+        }
+    }
+
+    private static String readHandshakeKey(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        String key = null;
+        while (true) {
+            int c = in.read();
+            if (c < 0) return null;
+            if (c == '\n') {
+                String l = line.toString().trim();
+                if (l.isEmpty()) return key;
+                int colon = l.indexOf(':');
+                if (colon > 0 && l.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = l.substring(colon + 1).trim();
+                }
+                line.setLength(0);
+            } else {
+                line.append((char) c);
+            }
+        }
+    }
+
+    private static byte[] textFrame(String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        int len = payload.length;
+        byte[] frame;
+        int offset;
+        if (len < 126) {
+            frame = new byte[2 + len];
+            frame[1] = (byte) len;
+            offset = 2;
+        } else if (len < 65536) {
+            frame = new byte[4 + len];
+            frame[1] = 126;
+            frame[2] = (byte) (len >>> 8);
+            frame[3] = (byte) len;
+            offset = 4;
+        } else {
+            frame = new byte[10 + len];
+            frame[1] = 127;
+            for (int i = 0; i < 8; i++) frame[2 + i] = (byte) ((long) len >>> (56 - 8 * i));
+            offset = 10;
+        }
+        frame[0] = (byte) 0x81;
+        System.arraycopy(payload, 0, frame, offset, len);
+        return frame;
+    }
+
+    private static byte[] sha1(String s) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(s.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Client {
+        final Socket socket;
+        final OutputStream out;
+        private long lastFlush = System.nanoTime();
+
+        Client(Socket socket, OutputStream out) {
+            this.socket = socket;
+            this.out = out;
+        }
+
+        synchronized void send(byte[] frame) {
+            try {
+                out.write(frame);
+                long now = System.nanoTime();
+                if (now - lastFlush > 1_000_000L) {
+                    out.flush();
+                    lastFlush = now;
+                }
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+
+        synchronized void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Plain-Java tests for RateHistoryStore. Run by executing the main method; throws AssertionError on failures.
+ */
+public class RateHistoryStoreTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    public static void main(String[] args) throws Exception {
+        RateHistoryStoreTest t = new RateHistoryStoreTest();
+        t.answersPointInTimeLookupsAcrossSegments();
+        t.scansRangesInOrder();
+        t.reopensExistingHistory();
+        t.readersNeverSeeAnEmptySegment();
+        System.out.println("[DEBUG_LOG] All rate history tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    /** EUR per USD drifts by one pip per record so every record is distinguishable. */
+    private static RateSnapshot snapshot(int i) {
+        double[] usdTo = new double[Currency.values().length];
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.9 + i * 0.0001;
+        usdTo[Currency.JPY.ordinal()] = 150.0;
+        return RateSnapshot.fromAnchorRates(usdTo, T0.plusSeconds(10L * i));
+    }
+
+    private static Path tempDir() throws IOException {
+        return Files.createTempDirectory("rate-history");
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static RateHistoryStore filled(Path dir, int records) throws IOException {
+        RateHistoryStore store = new RateHistoryStore(dir, 1000);
+        for (int i = 0; i < records; i++) {
+            assertTrue(store.append(snapshot(i)), "Append " + i);
+        }
+        return store;
+    }
+
+    public void answersPointInTimeLookupsAcrossSegments() throws IOException {
+        Path dir = tempDir();
+        try (RateHistoryStore store = filled(dir, 5000)) {
+            assertTrue(store.getSegmentCount() == 5 && store.size() == 5000, "Expected 5 full segments");
+            assertTrue(!store.append(snapshot(10)), "Out-of-order snapshot must be rejected");
+
+            Optional<RateQuote> exact = store.getRateAt(Currency.USD, Currency.EUR, T0.plusSeconds(10L * 2500));
+            assertTrue(exact.isPresent() && Math.abs(exact.get().getRate() - 1.15) < 1e-9, "Exact: " + exact);
+
+            // Between records the earlier one is in effect, also right at a segment boundary.
+            Optional<RateQuote> between = store.getRateAt(Currency.USD, Currency.EUR, T0.plusSeconds(10L * 999 + 5));
+            assertTrue(between.isPresent() && between.get().getTimestamp().equals(T0.plusSeconds(9990)), "Between: " + between);
+
+            Optional<RateQuote> cross = store.getRateAt(Currency.EUR, Currency.JPY, T0);
+            assertTrue(cross.isPresent() && Math.abs(cross.get().getRate() - 150.0 / 0.9) < 1e-9, "Cross: " + cross);
+
+            assertTrue(store.getRateAt(Currency.USD, Currency.EUR, T0.minusSeconds(1)).isEmpty(), "Before history");
+            assertTrue(store.getRateAt(Currency.USD, Currency.GBP, T0.plusSeconds(100)).isEmpty(), "Unrecorded currency");
+            Optional<RateQuote> after = store.getRateAt(Currency.USD, Currency.EUR, T0.plusSeconds(1_000_000));
+            assertTrue(after.isPresent() && after.get().getTimestamp().equals(T0.plusSeconds(49_990)), "After: " + after);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    public void scansRangesInOrder() throws IOException {
+        Path dir = tempDir();
+        try (RateHistoryStore store = filled(dir, 5000)) {
+            long[] last = {Long.MIN_VALUE};
+            long n = store.scan(Currency.USD, Currency.EUR, T0.plusSeconds(9_995), T0.plusSeconds(20_000), (t, r) -> {
+                assertTrue(t > last[0], "Points must be in time order");
+                last[0] = t;
+            });
+            // Records 1000..2000 inclusive: the range starts right after record 999 and spans a boundary.
+            assertTrue(n == 1001, "Expected 1001 points but got " + n);
+            assertTrue(store.scan(Currency.USD, Currency.EUR, T0.minusSeconds(100), T0.minusSeconds(1), (t, r) -> { }) == 0,
+                    "Nothing before history");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    public void reopensExistingHistory() throws IOException {
+        Path dir = tempDir();
+        try {
+            filled(dir, 1500).close();
+            try (RateHistoryStore reopened = new RateHistoryStore(dir, 1000)) {
+                assertTrue(reopened.size() == 1500, "Reopened size: " + reopened.size());
+                assertTrue(reopened.append(snapshot(1500)), "Appending continues after reopen");
+                assertTrue(reopened.size() == 1501 && reopened.getSegmentCount() == 2, "Appended into the open segment");
+                Optional<RateQuote> q = reopened.getRateAt(Currency.USD, Currency.EUR, T0.plusSeconds(15_000));
+                assertTrue(q.isPresent() && Math.abs(q.get().getRate() - 1.05) < 1e-9, "Reopened lookup: " + q);
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /** Readers racing the appender across many segment starts, including the very first one. */
+    public void readersNeverSeeAnEmptySegment() throws Exception {
+        Path dir = tempDir();
+        int records = 20_000;
+        try (RateHistoryStore store = new RateHistoryStore(dir, 4)) {
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Instant end = T0.plusSeconds(10L * records);
+            Runnable reader = () -> {
+                try {
+                    while (!done.get()) {
+                        Optional<RateQuote> q = store.getRateAt(Currency.USD, Currency.EUR, end);
+                        if (q.isPresent()) {
+                            long i = (q.get().getTimestamp().getEpochSecond() - T0.getEpochSecond()) / 10;
+                            assertTrue(Math.abs(q.get().getRate() - (0.9 + i * 0.0001)) < 1e-9, "Torn record " + i + ": " + q);
+                        }
+                        store.scan(Currency.USD, Currency.EUR, end.minusSeconds(100), end, (t, r) -> { });
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            };
+            Thread[] readers = {new Thread(reader, "history-reader-1"), new Thread(reader, "history-reader-2")};
+            for (Thread r : readers) r.start();
+            try {
+                for (int i = 0; i < records && failure.get() == null; i++) {
+                    store.append(snapshot(i));
+                    if (i % 4 == 0) Thread.yield(); // give readers a chance at every new segment on one CPU
+                }
+            } finally {
+                done.set(true);
+                for (Thread r : readers) r.join();
+            }
+            if (failure.get() != null) throw new AssertionError("Reader failed during appends", failure.get());
+            assertTrue(store.size() == records && store.getSegmentCount() == records / 4, "All records kept: " + store.size());
+        } finally {
+            delete(dir);
+        }
+    }
+}
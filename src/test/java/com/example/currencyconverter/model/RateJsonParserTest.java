@@ -0,0 +1,122 @@
+package com.example.currencyconverter.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Plain-Java tests for RateJsonParser against payload shapes captured from real providers
+ * (see src/test/resources/rates). Run by executing the main method; throws AssertionError on failures.
+ */
+public class RateJsonParserTest {
+
+    public static void main(String[] args) throws IOException {
+        RateJsonParserTest t = new RateJsonParserTest();
+        t.exchangeratesApiIoRatesObject();
+        t.frankfurterOmitsBase();
+        t.exchangerateApiConversionRates();
+        t.currencylayerStyleQuotes();
+        t.exponentsQuotedValuesAndUnknownCodes();
+        t.errorPayloadYieldsNothing();
+        t.largeAllCurrencyPayload();
+        t.streamMatchesByteArray();
+        t.truncatedInputKeepsWhatWasParsed();
+        System.out.println("[DEBUG_LOG] All rate parser tests passed.");
+    }
+
+    private static byte[] load(String name) throws IOException {
+        try (InputStream in = RateJsonParserTest.class.getResourceAsStream("/rates/" + name)) {
+            if (in == null) throw new AssertionError("Missing test resource " + name);
+            return in.readAllBytes();
+        }
+    }
+
+    private void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private void assertRate(RateJsonParser.Result r, Currency c, double expected) {
+        double actual = r.rate(c);
+        assertTrue(Double.compare(actual, expected) == 0, c + ": expected " + expected + " but was " + actual);
+    }
+
+    public void exchangeratesApiIoRatesObject() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("exchangeratesapi_io.json"));
+        assertTrue(r.getBase() == Currency.EUR, "Base should be EUR");
+        assertTrue(r.size() == 10, "Expected 10 rates but got " + r.size());
+        assertRate(r, Currency.USD, 1.104707);
+        assertRate(r, Currency.NGN, 1002.513876);
+        assertTrue(Double.isNaN(r.rate(Currency.EUR)), "Base is not listed in rates");
+        assertTrue(r.toAnchorRates()[Currency.EUR.ordinal()] == 1.0, "Anchor rates should fill in the base");
+    }
+
+    public void frankfurterOmitsBase() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("frankfurter.json"));
+        assertTrue(r.getBase() == Currency.USD, "Base should be USD");
+        assertRate(r, Currency.EUR, 0.91274);
+        assertRate(r, Currency.JPY, 142.13);
+        assertTrue(!r.has(Currency.NGN), "NGN is not in the payload");
+    }
+
+    public void exchangerateApiConversionRates() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("exchangerate_api_v6.json"));
+        assertTrue(r.getBase() == Currency.GBP, "Base should come from base_code");
+        assertRate(r, Currency.GBP, 1.0);
+        assertRate(r, Currency.JPY, 179.4521);
+    }
+
+    public void currencylayerStyleQuotes() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("exchangerate_host.json"));
+        assertTrue(r.getBase() == Currency.USD, "Base should come from source");
+        assertRate(r, Currency.EUR, 0.905204);
+        assertRate(r, Currency.GHS, 11.950018);
+        assertTrue(r.size() == 5, "Expected 5 quotes but got " + r.size());
+    }
+
+    public void exponentsQuotedValuesAndUnknownCodes() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("exponent_and_strings.json"));
+        assertTrue(r.getBase() == Currency.NGN, "Base should be NGN");
+        assertRate(r, Currency.USD, 1.1029e-3);
+        assertRate(r, Currency.EUR, 9.98E-4);
+        assertRate(r, Currency.GBP, 0.000866);
+        assertRate(r, Currency.ZAR, 2.0315e-2);
+        assertRate(r, Currency.GHS, 1.3);
+        assertTrue(!r.has(Currency.INR), "Non-numeric INR must be ignored");
+    }
+
+    public void errorPayloadYieldsNothing() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("error_response.json"));
+        assertTrue(r.size() == 0, "Error payload has no rates");
+        assertTrue(r.getBase() == null, "Error payload has no base");
+    }
+
+    public void largeAllCurrencyPayload() throws IOException {
+        RateJsonParser.Result r = RateJsonParser.parse(load("open_er_api_all.json"));
+        assertTrue(r.getBase() == Currency.USD, "Base should be USD");
+        assertTrue(r.size() == 162, "Every registered code in the payload should be found, got " + r.size());
+        assertRate(r, Currency.INR, 83.2135);
+        int chf = CurrencyRegistry.global().idOf("CHF");
+        assertTrue(chf >= Currency.COUNT && r.has(chf), "Registry-only currencies are parsed too");
+        assertRate(r, Currency.ZAR, 18.2915);
+    }
+
+    public void streamMatchesByteArray() throws IOException {
+        byte[] body = load("open_er_api_all.json");
+        RateJsonParser.Result fromBytes = RateJsonParser.parse(body);
+        RateJsonParser.Result fromStream = new RateJsonParser.Result();
+        // Deliver one byte at a time to exercise buffer refills at every boundary.
+        RateJsonParser.parse(new ByteArrayInputStream(body) {
+            @Override public synchronized int read(byte[] b, int off, int len) { return super.read(b, off, Math.min(len, 1)); }
+        }, fromStream);
+        for (Currency c : Currency.values()) {
+            assertTrue(Double.compare(fromBytes.rate(c), fromStream.rate(c)) == 0, "Stream and array disagree on " + c);
+        }
+    }
+
+    public void truncatedInputKeepsWhatWasParsed() {
+        byte[] body = "{\"base\":\"EUR\",\"rates\":{\"USD\":1.1,\"GBP\":0.8".getBytes();
+        RateJsonParser.Result r = RateJsonParser.parse(body);
+        assertRate(r, Currency.USD, 1.1);
+        assertRate(r, Currency.GBP, 0.8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.currencyconverter.model;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plain-Java tests for RateProviderGuard against a local stub provider that enforces a request quota.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class RateProviderGuardTest {
+
+    public static void main(String[] args) throws Exception {
+        RateProviderGuardTest t = new RateProviderGuardTest();
+        t.budgetKeepsWithinQuota();
+        t.coalescesConcurrentLookups();
+        t.honoursRetryAfter();
+        t.breakerServesStaleQuotesUntilRecovery();
+        System.out.println("[DEBUG_LOG] All rate provider guard tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    /**
+     * Stub provider allowing {@code quota} requests per {@code windowMillis}; beyond that it answers 429 with
+     * {@code Retry-After} set to the rest of the window. {@code failStatus}, when non-zero, fails every request.
+     */
+    static final class QuotaProvider implements AutoCloseable {
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final int quota;
+        final long windowMillis;
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        volatile int failStatus;
+        volatile long delayMillis;
+        private long windowStart;
+        private int used;
+
+        QuotaProvider(int quota, long windowMillis) throws IOException {
+            this.quota = quota;
+            this.windowMillis = windowMillis;
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/latest", this::handle);
+            server.start();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            long retryAfterMillis = 0;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (now - windowStart >= windowMillis) {
+                    windowStart = now;
+                    used = 0;
+                }
+                if (++used > quota) retryAfterMillis = windowStart + windowMillis - now;
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = 200;
+            byte[] body = "{\"base\":\"USD\",\"rates\":{\"EUR\":0.92,\"GBP\":0.79,\"JPY\":151.2,\"USD\":1.0}}".getBytes(StandardCharsets.UTF_8);
+            if (retryAfterMillis > 0) {
+                rejected.incrementAndGet();
+                status = 429;
+                exchange.getResponseHeaders().add("Retry-After", Long.toString((retryAfterMillis + 999) / 1000));
+                body = "{\"error\":\"quota exceeded\"}".getBytes(StandardCharsets.UTF_8);
+            } else if (failStatus != 0) {
+                status = failStatus;
+            }
+            try (OutputStream os = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(status, body.length);
+                os.write(body);
+            } catch (IOException ignored) {
+                // Client gave up and closed the connection.
+            }
+        }
+
+        HttpRateService service() {
+            return new HttpRateService("http://127.0.0.1:" + server.getAddress().getPort(), null, null,
+                    Duration.ofSeconds(2), Duration.ofSeconds(2), 2);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public void budgetKeepsWithinQuota() throws Exception {
+        try (QuotaProvider provider = new QuotaProvider(5, 60_000)) {
+            // 5 requests a minute, all of them available up front.
+            RateProviderGuard guard = RateProviderGuard.around(provider.service(), 5 / 60.0, 5);
+            Currency[] quotes = {Currency.EUR, Currency.GBP, Currency.JPY};
+            int stale = 0;
+            for (int i = 0; i < 30; i++) {
+                Optional<RateQuote> q = guard.getRate(Currency.USD, quotes[i % quotes.length]);
+                assertTrue(q.isPresent(), "Lookup " + i + " is answered");
+                if (q.get().isStale()) stale++;
+            }
+            assertTrue(provider.requests.get() == 5 && provider.rejected.get() == 0,
+                    "Budget stops at the quota: " + provider.requests.get() + " sent, " + provider.rejected.get() + " rejected");
+            assertTrue(guard.getThrottledCount() == 25 && stale == 25 && guard.getStaleServedCount() == 25,
+                    "Throttled lookups get last good quotes, flagged stale: " + stale);
+            assertTrue(guard.getState() == RateProviderGuard.State.CLOSED, "Budget alone does not open the circuit");
+        }
+    }
+
+    public void coalescesConcurrentLookups() throws Exception {
+        try (QuotaProvider provider = new QuotaProvider(100, 60_000)) {
+            provider.delayMillis = 300;
+            RateProviderGuard guard = RateProviderGuard.around(provider.service(), Double.POSITIVE_INFINITY, 10);
+            List<CompletableFuture<Optional<RateQuote>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                lookups.add(guard.getRateAsync(Currency.USD, Currency.EUR));
+            }
+            lookups.get(0).cancel(true); // one caller leaving does not abort the shared request
+            for (int i = 1; i < lookups.size(); i++) {
+                Optional<RateQuote> q = lookups.get(i).get();
+                assertTrue(q.isPresent() && !q.get().isStale() && Math.abs(q.get().getRate() - 0.92) < 1e-9, "Caller " + i + ": " + q);
+            }
+            assertTrue(provider.requests.get() == 1 && guard.getCoalescedCount() == 19,
+                    "One request for 20 callers: " + provider.requests.get() + " sent, " + guard.getCoalescedCount() + " coalesced");
+        }
+    }
+
+    public void honoursRetryAfter() throws Exception {
+        try (QuotaProvider provider = new QuotaProvider(2, 2_000)) {
+            HttpRateService http = provider.service();
+            RateProviderGuard guard = RateProviderGuard.around(http, Double.POSITIVE_INFINITY, 10,
+                    Duration.ofMillis(50), Duration.ofSeconds(5));
+            long start = System.nanoTime();
+            assertTrue(guard.getRate(Currency.USD, Currency.EUR).isPresent(), "First lookup within quota");
+            assertTrue(guard.getRate(Currency.USD, Currency.EUR).isPresent(), "Second lookup within quota");
+
+            Optional<RateQuote> throttled = guard.getRate(Currency.USD, Currency.EUR);
+            assertTrue(throttled.isPresent() && throttled.get().isStale(), "429 is answered with the last quote: " + throttled);
+            assertTrue(provider.rejected.get() == 1 && provider.requests.get() == 3, "No fallback request after a 429");
+            assertTrue(guard.getState() == RateProviderGuard.State.OPEN, "429 opens the circuit");
+
+            Optional<RateQuote> q;
+            do {
+                Thread.sleep(50);
+                q = guard.getRate(Currency.USD, Currency.EUR);
+            } while (q.isPresent() && q.get().isStale() && System.nanoTime() - start < 10_000_000_000L);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(q.isPresent() && !q.get().isStale(), "Fresh quotes resume after Retry-After: " + q);
+            assertTrue(millis >= 1_500, "Waited out Retry-After rather than the 50ms backoff: " + millis + "ms");
+            assertTrue(provider.rejected.get() == 1 && provider.requests.get() == 4,
+                    "Only the trial request was sent after the 429: " + provider.requests.get());
+            assertTrue(guard.getState() == RateProviderGuard.State.CLOSED, "Successful trial closes the circuit");
+        }
+    }
+
+    public void breakerServesStaleQuotesUntilRecovery() throws Exception {
+        try (QuotaProvider provider = new QuotaProvider(1_000, 60_000)) {
+            RateProviderGuard guard = RateProviderGuard.around(provider.service(), Double.POSITIVE_INFINITY, 10,
+                    Duration.ofMillis(100), Duration.ofSeconds(1));
+            RateQuote good = guard.getRate(Currency.USD, Currency.GBP).orElseThrow();
+
+            provider.failStatus = 503;
+            for (int i = 0; i < 2; i++) {
+                Optional<RateQuote> q = guard.getRate(Currency.USD, Currency.GBP);
+                assertTrue(q.isPresent() && q.get().isStale() && q.get().getRate() == good.getRate(), "Failure " + i + " serves stale: " + q);
+            }
+            // Each lookup failed twice (direct and fallback); the third failure opened the circuit.
+            assertTrue(guard.getState() == RateProviderGuard.State.OPEN && guard.getOpenCount() == 1, "Circuit opens");
+            int sent = provider.requests.get();
+            for (int i = 0; i < 20; i++) {
+                Optional<RateQuote> q = guard.getRate(Currency.USD, Currency.GBP);
+                assertTrue(q.isPresent() && q.get().isStale(), "Open circuit serves stale");
+            }
+            assertTrue(provider.requests.get() == sent && guard.getShortCircuitCount() == 20, "Open circuit sends nothing");
+            assertTrue(guard.getRate(Currency.USD, Currency.JPY).isEmpty(), "No last good quote, nothing to serve");
+
+            provider.failStatus = 0;
+            long deadline = System.nanoTime() + 3_000_000_000L;
+            while (guard.getState() == RateProviderGuard.State.OPEN && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            Optional<RateQuote> recovered = guard.getRate(Currency.USD, Currency.GBP);
+            assertTrue(recovered.isPresent() && !recovered.get().isStale(), "Trial lookup succeeds: " + recovered);
+            assertTrue(guard.getState() == RateProviderGuard.State.CLOSED && provider.requests.get() == sent + 1, "Circuit closes");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.currencyconverter.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Plain-Java tests for RatePublisher over a service whose rates the test moves by hand.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class RatePublisherTest {
+
+    public static void main(String[] args) throws Exception {
+        RatePublisherTest t = new RatePublisherTest();
+        t.streamsCurrentQuotesThenChanges();
+        t.slowSubscriberDoesNotStallOthers();
+        t.dropOldestKeepsNewestInOrder();
+        t.pollBackedServicePublishes();
+        t.closeCompletesAndCancelDetaches();
+        t.lastCancelClosesUpstreamFeed();
+        t.invalidRequestErrorsFromTheDrain();
+        System.out.println("[DEBUG_LOG] All rate publisher tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static final int PAIRS = Currency.values().length * (Currency.values().length - 1);
+
+    /** Pushes whatever USD-anchored table the test sets, like the in-memory and WebSocket services. */
+    static final class FeedService implements ExchangeRateService {
+        private final RateChangeNotifier changes = new RateChangeNotifier();
+        private volatile RateSnapshot snapshot;
+
+        FeedService() {
+            double[] usdTo = new double[Currency.values().length];
+            java.util.Arrays.fill(usdTo, 2.0);
+            usdTo[Currency.USD.ordinal()] = 1.0;
+            set(usdTo);
+        }
+
+        void setUsdTo(Currency c, double rate) {
+            double[] usdTo = new double[Currency.values().length];
+            for (Currency each : Currency.values()) usdTo[each.ordinal()] = snapshot.rate(Currency.USD, each);
+            usdTo[c.ordinal()] = rate;
+            set(usdTo);
+        }
+
+        private void set(double[] usdTo) {
+            snapshot = RateSnapshot.fromAnchorRates(usdTo, Instant.now());
+            changes.publish(snapshot);
+        }
+
+        @Override
+        public Optional<RateQuote> getRate(Currency base, Currency quote) {
+            return snapshot.getRate(base, quote);
+        }
+
+        @Override
+        public RateSubscription subscribe(Currency base, Currency quote, java.util.function.Consumer<RateQuote> listener) {
+            return changes.subscribe(base, quote, listener, snapshot);
+        }
+
+        /** Upstream subscriptions currently open. */
+        int feeds() {
+            return changes.size();
+        }
+    }
+
+    /** Records what it receives, requesting {@code initial} up front. */
+    static class Recorder implements Flow.Subscriber<RateQuote> {
+        final List<RateQuote> received = java.util.Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch completed = new CountDownLatch(1);
+        final long initial;
+        volatile Flow.Subscription subscription;
+
+        Recorder(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            if (initial > 0) s.request(initial);
+        }
+
+        @Override public void onNext(RateQuote item) { received.add(item); }
+        @Override public void onError(Throwable t) { throw new AssertionError("Unexpected error", t); }
+        @Override public void onComplete() { completed.countDown(); }
+
+        RateQuote last() {
+            synchronized (received) {
+                return received.isEmpty() ? null : received.get(received.size() - 1);
+            }
+        }
+    }
+
+    private static void await(java.util.function.BooleanSupplier cond, String msg) throws InterruptedException {
+        await(cond, () -> msg);
+    }
+
+    /** Variant whose message is built only on timeout, so it reports the state at that point. */
+    private static void await(java.util.function.BooleanSupplier cond, Supplier<String> msg) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!cond.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError(msg.get());
+            Thread.sleep(2);
+        }
+    }
+
+    public void streamsCurrentQuotesThenChanges() throws Exception {
+        FeedService service = new FeedService();
+        try (RatePublisher publisher = service.publisher()) {
+            Recorder all = new Recorder(Long.MAX_VALUE);
+            Recorder one = new Recorder(Long.MAX_VALUE);
+            publisher.subscribe(all);
+            publisher.pair(Currency.USD, Currency.EUR).subscribe(one);
+            await(() -> all.received.size() == PAIRS && one.received.size() == 1, () -> "Every current quote arrives: " + all.received.size());
+
+            service.setUsdTo(Currency.EUR, 0.5);
+            int touched = 2 * (Currency.values().length - 1); // every pair with EUR on either side
+            await(() -> all.received.size() == PAIRS + touched && one.received.size() == 2, () -> "Each changed pair arrives once: " + all.received.size());
+            assertTrue(one.last().getRate() == 0.5, "Pair subscriber sees the new rate: " + one.last());
+            service.setUsdTo(Currency.GBP, 2.0); // unchanged
+            Thread.sleep(50);
+            assertTrue(all.received.size() == PAIRS + touched, "Unchanged tables publish nothing");
+        }
+    }
+
+    public void slowSubscriberDoesNotStallOthers() throws Exception {
+        FeedService service = new FeedService();
+        ExecutorService pool = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "publisher-test");
+            t.setDaemon(true);
+            return t;
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        try (RatePublisher publisher = new RatePublisher(service, pool, RatePublisher.Overflow.CONFLATE, 16)) {
+            Recorder slow = new Recorder(Long.MAX_VALUE) {
+                @Override
+                public void onNext(RateQuote item) {
+                    super.onNext(item);
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            Recorder fast = new Recorder(Long.MAX_VALUE);
+            Flow.Publisher<RateQuote> usdEur = publisher.pair(Currency.USD, Currency.EUR);
+            usdEur.subscribe(slow);
+            usdEur.subscribe(fast);
+            await(() -> slow.received.size() == 1, "Slow subscriber takes its first quote");
+            // Otherwise the fast subscriber's seed could be conflated with the first change below.
+            await(() -> fast.received.size() == 1, () -> "Fast subscriber takes its first quote: " + fast.received.size());
+            for (int i = 1; i <= 100; i++) {
+                service.setUsdTo(Currency.EUR, 5 + i / 100.0);
+                int expected = i + 1;
+                await(() -> fast.received.size() == expected, () -> "Fast subscriber gets every change: " + fast.received.size() + " of " + expected);
+            }
+            assertTrue(slow.received.size() == 1, "Slow subscriber is still stuck on its first quote");
+
+            release.countDown();
+            await(() -> slow.last().getRate() == 6.0, "Slow subscriber catches up on the latest rate");
+            assertTrue(slow.received.size() == 2, "Conflation skips the intermediate quotes: " + slow.received.size());
+            assertTrue(publisher.getDiscardedCount() == 99, "Superseded quotes are counted: " + publisher.getDiscardedCount());
+        }
+        pool.shutdown();
+    }
+
+    public void dropOldestKeepsNewestInOrder() throws Exception {
+        FeedService service = new FeedService();
+        try (RatePublisher publisher = new RatePublisher(service, Runnable::run, RatePublisher.Overflow.DROP_OLDEST, 4)) {
+            Recorder r = new Recorder(0);
+            publisher.pair(Currency.USD, Currency.EUR).subscribe(r);
+            for (int i = 1; i <= 10; i++) service.setUsdTo(Currency.EUR, i);
+            assertTrue(r.received.isEmpty(), "Nothing is delivered without demand");
+            r.subscription.request(2);
+            r.subscription.request(10);
+            List<Double> rates = new ArrayList<>();
+            for (RateQuote q : r.received) rates.add(q.getRate());
+            assertTrue(rates.equals(List.of(7.0, 8.0, 9.0, 10.0)), "The four newest remain, in order: " + rates);
+            assertTrue(publisher.getDiscardedCount() == 7, "Dropped quotes are counted: " + publisher.getDiscardedCount());
+        }
+    }
+
+    public void pollBackedServicePublishes() throws Exception {
+        // No subscribe override, like HttpRateService outside snapshot mode: the default poll feeds the publisher.
+        RateQuote fixed = new RateQuote(Currency.USD, Currency.JPY, 150.0, Instant.now());
+        ExchangeRateService polled = (base, quote) -> Optional.of(fixed);
+        try (RatePublisher publisher = polled.publisher()) {
+            Recorder r = new Recorder(1);
+            publisher.pair(Currency.USD, Currency.JPY).subscribe(r);
+            await(() -> r.received.size() == 1, "First poll is published at once");
+            assertTrue(r.received.get(0).getRate() == 150.0, "Polled quote is delivered");
+        }
+    }
+
+    public void closeCompletesAndCancelDetaches() throws Exception {
+        FeedService service = new FeedService();
+        RatePublisher publisher = new RatePublisher(service, Runnable::run, RatePublisher.Overflow.CONFLATE, 8);
+        Recorder kept = new Recorder(Long.MAX_VALUE);
+        Recorder cancelled = new Recorder(Long.MAX_VALUE);
+        publisher.pair(Currency.GBP, Currency.NGN).subscribe(kept);
+        publisher.subscribe(cancelled);
+        assertTrue(publisher.getSubscriberCount() == 2, "Both subscribers attached");
+        cancelled.subscription.cancel();
+        int before = cancelled.received.size();
+        service.setUsdTo(Currency.NGN, 1600);
+        assertTrue(cancelled.received.size() == before && publisher.getSubscriberCount() == 1, "Cancelled subscriber gets nothing more");
+        assertTrue(kept.last().getRate() == 800.0, "Remaining subscriber still fed: " + kept.last());
+
+        publisher.close();
+        assertTrue(kept.completed.await(1, TimeUnit.SECONDS), "Close completes subscribers");
+        Recorder late = new Recorder(1);
+        publisher.subscribe(late);
+        assertTrue(late.completed.await(1, TimeUnit.SECONDS) && late.received.isEmpty(), "Subscribing after close completes at once");
+    }
+
+    public void lastCancelClosesUpstreamFeed() throws Exception {
+        FeedService service = new FeedService();
+        try (RatePublisher publisher = new RatePublisher(service, Runnable::run, RatePublisher.Overflow.CONFLATE, 8)) {
+            Flow.Publisher<RateQuote> usdEur = publisher.pair(Currency.USD, Currency.EUR);
+            Recorder first = new Recorder(Long.MAX_VALUE);
+            Recorder second = new Recorder(Long.MAX_VALUE);
+            Recorder all = new Recorder(Long.MAX_VALUE);
+            usdEur.subscribe(first);
+            usdEur.subscribe(second);
+            assertTrue(service.feeds() == 1, "Subscribers of one pair share its feed: " + service.feeds());
+            publisher.subscribe(all);
+            assertTrue(service.feeds() == PAIRS, "All-pairs subscriber reuses the open feed: " + service.feeds());
+
+            all.subscription.cancel();
+            assertTrue(service.feeds() == 1, "Pairs nobody else watches are closed: " + service.feeds());
+            first.subscription.cancel();
+            assertTrue(service.feeds() == 1, "The pair keeps its feed while one subscriber is left");
+            second.subscription.cancel();
+            assertTrue(service.feeds() == 0, "Last cancel closes the feed: " + service.feeds());
+
+            service.setUsdTo(Currency.EUR, 0.5);
+            Recorder again = new Recorder(Long.MAX_VALUE);
+            usdEur.subscribe(again);
+            assertTrue(service.feeds() == 1, "A new subscriber reopens the feed");
+            assertTrue(again.received.size() == 1 && again.last().getRate() == 0.5, "It starts from the current rate: " + again.received);
+        }
+        assertTrue(service.feeds() == 0, "Close releases every feed");
+    }
+
+    public void invalidRequestErrorsFromTheDrain() throws Exception {
+        FeedService service = new FeedService();
+        ExecutorService pool = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "publisher-test");
+            t.setDaemon(true);
+            return t;
+        });
+        CountDownLatch failed = new CountDownLatch(1);
+        List<String> errorThreads = java.util.Collections.synchronizedList(new ArrayList<>());
+        try (RatePublisher publisher = new RatePublisher(service, pool, RatePublisher.Overflow.CONFLATE, 8)) {
+            Recorder r = new Recorder(Long.MAX_VALUE) {
+                @Override
+                public void onError(Throwable t) {
+                    errorThreads.add(Thread.currentThread().getName() + ":" + t.getClass().getSimpleName());
+                    failed.countDown();
+                }
+            };
+            publisher.pair(Currency.USD, Currency.EUR).subscribe(r);
+            await(() -> r.received.size() == 1, "Current quote delivered");
+            r.subscription.request(0);
+            r.subscription.request(-1);
+            assertTrue(failed.await(5, TimeUnit.SECONDS), "Invalid request is reported");
+            service.setUsdTo(Currency.EUR, 0.5);
+            Thread.sleep(50);
+            assertTrue(errorThreads.equals(List.of("publisher-test:IllegalArgumentException")),
+                    "One error, delivered by the drain, not the caller: " + errorThreads);
+            assertTrue(r.received.size() == 1 && service.feeds() == 0, "The failed subscriber is detached");
+        }
+        pool.shutdown();
+    }
+}
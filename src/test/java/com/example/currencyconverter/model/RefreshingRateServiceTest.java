@@ -0,0 +1,183 @@
+package com.example.currencyconverter.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plain-Java tests for RefreshingRateService, with a hand-moved clock and ticks run by the test.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class RefreshingRateServiceTest {
+
+    public static void main(String[] args) throws Exception {
+        RefreshingRateServiceTest t = new RefreshingRateServiceTest();
+        t.onlyFirstLookupWaits();
+        t.refreshesSpreadOverJitterWindow();
+        t.mostRequestedPairsRefreshFirst();
+        t.coldPairsSlowDownThenLeave();
+        t.servesStaleWhenRefreshesFail();
+        t.failedFirstLookupIsRetried();
+        System.out.println("[DEBUG_LOG] All refreshing rate service tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static final Duration INTERVAL = Duration.ofSeconds(10);
+    private static final long INTERVAL_NANOS = INTERVAL.toNanos();
+
+    /** Answers every lookup with an increasing rate; async lookups either complete at once or wait for the test. */
+    static final class CountingProvider implements ExchangeRateService {
+        final AtomicInteger lookups = new AtomicInteger();
+        final List<String> requested = new ArrayList<>();
+        final List<CompletableFuture<Optional<RateQuote>>> pending = new ArrayList<>();
+        volatile boolean holdAsync;
+        volatile boolean failing;
+
+        @Override
+        public Optional<RateQuote> getRate(Currency base, Currency quote) {
+            int n = lookups.incrementAndGet();
+            return failing ? Optional.empty() : Optional.of(new RateQuote(base, quote, n, Instant.now()));
+        }
+
+        @Override
+        public synchronized CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+            requested.add(base + "/" + quote);
+            if (!holdAsync) return CompletableFuture.completedFuture(getRate(base, quote));
+            CompletableFuture<Optional<RateQuote>> f = new CompletableFuture<>();
+            pending.add(f);
+            return f;
+        }
+
+        synchronized void completeOldest() {
+            pending.remove(0).complete(getRate(Currency.USD, Currency.EUR));
+        }
+    }
+
+    private static RefreshingRateService service(CountingProvider provider, AtomicLong clock, Duration idle, int maxInFlight) {
+        return new RefreshingRateService(provider, INTERVAL, idle, maxInFlight, clock::get, null);
+    }
+
+    public void onlyFirstLookupWaits() {
+        CountingProvider provider = new CountingProvider();
+        RefreshingRateService service = service(provider, new AtomicLong(), INTERVAL.multipliedBy(10), 4);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(service.getRate(Currency.USD, Currency.EUR).get().getRate() == 1, "Served from the working set");
+        }
+        assertTrue(service.getRateAsync(Currency.USD, Currency.EUR).join().isPresent(), "Async lookup served from memory too");
+        assertTrue(provider.lookups.get() == 1 && service.getBlockingLoadCount() == 1, "One upstream lookup: " + provider.lookups.get());
+        assertTrue(service.getWorkingSetSize() == 1, "Pair joined the working set");
+    }
+
+    public void refreshesSpreadOverJitterWindow() {
+        CountingProvider provider = new CountingProvider();
+        AtomicLong clock = new AtomicLong();
+        RefreshingRateService service = service(provider, clock, INTERVAL.multipliedBy(10), 1_000);
+        int pairs = 0;
+        for (Currency base : Currency.values()) {
+            for (Currency quote : Currency.values()) {
+                if (base == quote) continue;
+                service.getRate(base, quote);
+                pairs++;
+            }
+        }
+        clock.set((long) (INTERVAL_NANOS * (1 - RefreshingRateService.JITTER)) - 1);
+        service.tick();
+        assertTrue(service.getRefreshCount() == 0, "Nothing is due before the jitter window");
+        clock.set(INTERVAL_NANOS * 9 / 10);
+        service.tick();
+        long midway = service.getRefreshCount();
+        assertTrue(midway > 0 && midway < pairs, "Refreshes are spread over the window, not all at once: " + midway + "/" + pairs);
+        clock.set(INTERVAL_NANOS);
+        service.tick();
+        assertTrue(service.getRefreshCount() == pairs, "Every pair is refreshed within one interval: " + service.getRefreshCount());
+        assertTrue(service.getRate(Currency.USD, Currency.EUR).get().getRate() > pairs, "Lookups see the refreshed quote");
+        assertTrue(service.getBlockingLoadCount() == pairs, "Refreshes never block lookups");
+    }
+
+    public void mostRequestedPairsRefreshFirst() {
+        CountingProvider provider = new CountingProvider();
+        AtomicLong clock = new AtomicLong();
+        RefreshingRateService service = service(provider, clock, INTERVAL.multipliedBy(10), 1);
+        for (int i = 0; i < 2; i++) service.getRate(Currency.GBP, Currency.USD);
+        for (int i = 0; i < 20; i++) service.getRate(Currency.EUR, Currency.USD);
+        for (int i = 0; i < 8; i++) service.getRate(Currency.JPY, Currency.USD);
+        provider.requested.clear();
+        provider.holdAsync = true;
+
+        clock.set(INTERVAL_NANOS);
+        for (int i = 0; i < 3; i++) {
+            service.tick();
+            service.tick(); // a second tick while one is in flight starts nothing more
+            provider.completeOldest();
+        }
+        assertTrue(provider.requested.equals(List.of("EUR/USD", "JPY/USD", "GBP/USD")),
+                "Refreshed by demand, one at a time: " + provider.requested);
+    }
+
+    public void coldPairsSlowDownThenLeave() {
+        CountingProvider provider = new CountingProvider();
+        AtomicLong clock = new AtomicLong();
+        RefreshingRateService service = service(provider, clock, INTERVAL.multipliedBy(5), 4);
+        service.getRate(Currency.USD, Currency.EUR);
+        service.getRate(Currency.USD, Currency.NGN);
+        for (long t = 1; t <= 4; t++) {
+            clock.set(t * INTERVAL_NANOS);
+            service.getRate(Currency.USD, Currency.NGN); // hot
+            service.tick();
+        }
+        long hot = provider.requested.stream().filter("USD/NGN"::equals).count();
+        long cold = provider.requested.stream().filter("USD/EUR"::equals).count();
+        assertTrue(hot == 4 && cold == 2, "The unrequested pair is refreshed at half the rate: " + hot + " vs " + cold);
+
+        clock.set(6 * INTERVAL_NANOS);
+        service.getRate(Currency.USD, Currency.NGN);
+        service.tick();
+        assertTrue(service.getWorkingSetSize() == 1 && service.getEvictionCount() == 1, "The idle pair left the working set");
+        long before = service.getBlockingLoadCount();
+        service.getRate(Currency.USD, Currency.EUR);
+        assertTrue(service.getBlockingLoadCount() == before + 1, "An evicted pair is loaded again on demand");
+    }
+
+    public void servesStaleWhenRefreshesFail() {
+        CountingProvider provider = new CountingProvider();
+        AtomicLong clock = new AtomicLong();
+        RefreshingRateService service = service(provider, clock, INTERVAL.multipliedBy(10), 4);
+        RateQuote first = service.getRate(Currency.USD, Currency.EUR).get();
+        provider.failing = true;
+        for (long t = 1; t <= 3; t++) {
+            clock.set(t * INTERVAL_NANOS);
+            service.tick();
+            Optional<RateQuote> q = service.getRate(Currency.USD, Currency.EUR);
+            assertTrue(q.isPresent() && q.get().getRate() == first.getRate(), "Last good quote is kept");
+            assertTrue(q.get().isStale() == (t == 3), "Flagged stale only after three intervals, t=" + t);
+        }
+        provider.failing = false;
+        clock.set(4 * INTERVAL_NANOS);
+        service.tick();
+        assertTrue(!service.getRate(Currency.USD, Currency.EUR).get().isStale(), "A successful refresh clears the flag");
+    }
+
+    public void failedFirstLookupIsRetried() {
+        CountingProvider provider = new CountingProvider();
+        RefreshingRateService service = service(provider, new AtomicLong(), INTERVAL.multipliedBy(10), 4);
+        provider.failing = true;
+        assertTrue(service.getRate(Currency.USD, Currency.EUR).isEmpty(), "First lookup fails");
+        assertTrue(service.getRateAsync(Currency.USD, Currency.GBP).join().isEmpty(), "First async lookup fails");
+        assertTrue(service.getWorkingSetSize() == 0, "Empty results do not join the working set");
+        provider.failing = false;
+        assertTrue(service.getRate(Currency.USD, Currency.EUR).isPresent(), "Second lookup goes to the provider again");
+        assertTrue(service.getRateAsync(Currency.USD, Currency.GBP).join().isPresent(), "Second async lookup too");
+        assertTrue(service.getWorkingSetSize() == 2 && service.getBlockingLoadCount() == 4, "Tracked once loaded");
+        long lookups = provider.lookups.get();
+        assertTrue(service.getRate(Currency.USD, Currency.EUR).isPresent() && provider.lookups.get() == lookups,
+                "Then served from the working set");
+    }
+}
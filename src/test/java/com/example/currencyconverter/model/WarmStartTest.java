@@ -0,0 +1,100 @@
+package com.example.currencyconverter.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Plain-Java tests for the warm-start snapshot file and HttpRateService warm start, printing
+ * time-to-first-conversion cold and warm. Run by executing the main method; throws AssertionError on failures.
+ */
+public class WarmStartTest {
+
+    public static void main(String[] args) throws Exception {
+        WarmStartTest t = new WarmStartTest();
+        t.snapshotFileRoundTrips();
+        t.warmStartServesSavedRatesUntilRefreshed();
+        t.warmStartSurvivesUnreachableProvider();
+        System.out.println("[DEBUG_LOG] All warm start tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static Path savedTable() throws IOException {
+        Path file = Files.createTempFile("last-rates", ".bin");
+        double[] usdTo = new double[Currency.values().length];
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = 0.90;
+        usdTo[Currency.GBP.ordinal()] = 0.80;
+        RateSnapshotFile.write(RateSnapshot.fromAnchorRates(usdTo, Instant.parse("2024-01-01T00:00:00Z")), file);
+        return file;
+    }
+
+    public void snapshotFileRoundTrips() throws IOException {
+        Path file = savedTable();
+        try {
+            assertTrue(Files.size(file) < 64, "File should be compact: " + Files.size(file) + " bytes");
+            RateSnapshot s = RateSnapshotFile.read(file).orElseThrow(() -> new AssertionError("Should read back"));
+            assertTrue(Math.abs(s.rate(Currency.EUR, Currency.GBP) - 0.8 / 0.9) < 1e-12, "Cross rate survives");
+            assertTrue(!s.supports(Currency.JPY), "Missing currencies stay missing");
+            assertTrue(s.getTimestamp().equals(Instant.parse("2024-01-01T00:00:00Z")), "Timestamp survives");
+            assertTrue(s.asStale().getRate(Currency.USD, Currency.EUR).get().isStale(), "Stale flag reaches quotes");
+
+            Files.write(file, new byte[]{1, 2, 3});
+            assertTrue(RateSnapshotFile.read(file).isEmpty(), "Corrupt file is ignored");
+            assertTrue(RateSnapshotFile.read(file.resolveSibling("does-not-exist.bin")).isEmpty(), "Missing file is ignored");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void warmStartServesSavedRatesUntilRefreshed() throws Exception {
+        Path file = savedTable();
+        try (HedgedRateServiceTest.StubProvider stub = new HedgedRateServiceTest.StubProvider(300, 200)) {
+            long start = System.nanoTime();
+            Optional<RateQuote> cold = stub.service().getRate(Currency.USD, Currency.EUR);
+            long coldMicros = (System.nanoTime() - start) / 1000;
+            assertTrue(cold.isPresent() && !cold.get().isStale(), "Cold lookup goes to the network");
+
+            start = System.nanoTime();
+            HttpRateService warm = stub.service();
+            assertTrue(warm.enableWarmStart(file), "Saved table should load");
+            Optional<RateQuote> first = warm.getRate(Currency.USD, Currency.EUR);
+            long warmMicros = (System.nanoTime() - start) / 1000;
+            System.out.println("[DEBUG_LOG] Time to first conversion: cold=" + coldMicros + "us warm=" + warmMicros + "us");
+            assertTrue(first.isPresent() && first.get().isStale() && first.get().getRate() == 0.90, "Warm: " + first);
+            assertTrue(warmMicros < coldMicros / 2, "Warm start should not wait for the network");
+
+            // The background refresh replaces the stale table and saves the fresh one.
+            long deadline = System.currentTimeMillis() + 5000;
+            Optional<RateQuote> later = first;
+            while (later.isPresent() && later.get().isStale() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                later = warm.getRate(Currency.USD, Currency.EUR);
+            }
+            assertTrue(later.isPresent() && !later.get().isStale() && later.get().getRate() == 0.92, "Refreshed: " + later);
+            // The table is saved before it is served, so the file already holds it.
+            RateSnapshot saved = RateSnapshotFile.read(file).orElseThrow(() -> new AssertionError("Saved table"));
+            assertTrue(saved.rate(Currency.USD, Currency.EUR) == 0.92, "Fresh table should be saved");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void warmStartSurvivesUnreachableProvider() throws Exception {
+        Path file = savedTable();
+        try {
+            HttpRateService offline = new HttpRateService("http://127.0.0.1:1", null);
+            assertTrue(offline.enableWarmStart(file), "Saved table should load");
+            Thread.sleep(200); // let the background refresh fail
+            Optional<RateQuote> q = offline.getRate(Currency.GBP, Currency.EUR);
+            assertTrue(q.isPresent() && q.get().isStale(), "Saved rates keep serving while offline: " + q);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.currencyconverter.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Plain-Java tests for WebSocketRateService against {@link LocalRateFeedServer}.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class WebSocketRateServiceTest {
+
+    public static void main(String[] args) throws Exception {
+        WebSocketRateServiceTest t = new WebSocketRateServiceTest();
+        t.offlineInstanceServesSeedRates();
+        t.ticksUpdateRates();
+        t.subscribersSeeOnlyTheirPairChanging();
+        t.reconnectsAndResubscribesAfterDrop();
+        t.sustainsHighTickRate();
+        System.out.println("[DEBUG_LOG] All WebSocket rate service tests passed.");
+    }
+
+    private void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static boolean await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) return true;
+            Thread.sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+
+    public void offlineInstanceServesSeedRates() {
+        WebSocketRateService service = new WebSocketRateService();
+        double rate = service.getRate(Currency.USD, Currency.EUR).orElseThrow().getRate();
+        assertTrue(rate == 0.92, "Seed USD/EUR should be 0.92");
+        service.shutdown();
+    }
+
+    public void ticksUpdateRates() throws Exception {
+        try (LocalRateFeedServer feed = new LocalRateFeedServer()) {
+            WebSocketRateService service = new WebSocketRateService(feed.uri());
+            try {
+                assertTrue(await(() -> feed.connectedClients() == 1, 5000), "Service should connect");
+                assertTrue(await(() -> feed.subscriptions().size() == 1, 5000), "Service should subscribe");
+                assertTrue(feed.subscriptions().get(0).contains("\"subscribe\""), "Subscribe message expected");
+
+                feed.broadcast("{\"base\":\"USD\",\"rates\":{\"EUR\":0.95}}");
+                assertTrue(await(() -> service.getTicksApplied() == 1, 5000), "Tick should be applied");
+                assertTrue(service.getRate(Currency.USD, Currency.EUR).orElseThrow().getRate() == 0.95, "USD/EUR should update");
+
+                // A non-USD tick is rebased through the current table: GBP per EUR 0.9 -> USD/GBP = 0.95 * 0.9
+                feed.broadcast("{\"base\":\"EUR\",\"rates\":{\"GBP\":0.9}}");
+                assertTrue(await(() -> service.getTicksApplied() == 2, 5000), "Second tick should be applied");
+                double usdGbp = service.getRate(Currency.USD, Currency.GBP).orElseThrow().getRate();
+                assertTrue(Math.abs(usdGbp - 0.855) < 1e-12, "USD/GBP should be rebased, was " + usdGbp);
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    public void subscribersSeeOnlyTheirPairChanging() throws Exception {
+        try (LocalRateFeedServer feed = new LocalRateFeedServer()) {
+            WebSocketRateService service = new WebSocketRateService(feed.uri());
+            List<Double> eur = new CopyOnWriteArrayList<>();
+            RateSubscription sub = service.subscribe(Currency.USD, Currency.EUR, q -> eur.add(q.getRate()));
+            try {
+                assertTrue(eur.equals(List.of(0.92)), "Current rate is delivered at once: " + eur);
+                assertTrue(await(() -> feed.subscriptions().size() == 1, 5000), "Service should subscribe");
+                feed.broadcast("{\"base\":\"USD\",\"rates\":{\"JPY\":151.0}}");
+                feed.broadcast("{\"base\":\"USD\",\"rates\":{\"EUR\":0.92}}");
+                feed.broadcast("{\"base\":\"USD\",\"rates\":{\"EUR\":0.93}}");
+                assertTrue(await(() -> service.getTicksApplied() == 3, 5000), "Ticks should be applied");
+                assertTrue(eur.equals(List.of(0.92, 0.93)), "Only the EUR change is pushed: " + eur);
+                sub.close();
+                feed.broadcast("{\"base\":\"USD\",\"rates\":{\"EUR\":0.94}}");
+                assertTrue(await(() -> service.getTicksApplied() == 4, 5000), "Tick after close");
+                assertTrue(eur.size() == 2, "Closed subscriptions are not notified: " + eur);
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    public void reconnectsAndResubscribesAfterDrop() throws Exception {
+        try (LocalRateFeedServer feed = new LocalRateFeedServer()) {
+            WebSocketRateService service = new WebSocketRateService(feed.uri());
+            try {
+                assertTrue(await(() -> feed.subscriptions().size() == 1, 5000), "Service should subscribe");
+                feed.dropConnections();
+                assertTrue(await(() -> feed.subscriptions().size() == 2, 10000), "Service should resubscribe after a drop");
+                assertTrue(service.getConnectCount() == 2, "Expected exactly one reconnect");
+                assertTrue(service.getRate(Currency.USD, Currency.JPY).isPresent(), "Rates must survive the outage");
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    public void sustainsHighTickRate() throws Exception {
+        try (LocalRateFeedServer feed = new LocalRateFeedServer()) {
+            WebSocketRateService service = new WebSocketRateService(feed.uri());
+            try {
+                assertTrue(await(() -> feed.subscriptions().size() == 1, 5000), "Service should subscribe");
+                int ticks = 20_000;
+                long start = System.nanoTime();
+                feed.replay(20_000, ticks, i -> "{\"base\":\"USD\",\"rates\":{\"EUR\":" + (0.9 + (i % 1000) * 1e-5) + "}}");
+                assertTrue(await(() -> service.getTicksApplied() == ticks, 10000),
+                        "All ticks should be applied, got " + service.getTicksApplied());
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.println("[DEBUG_LOG] Applied " + ticks + " ticks in " + String.format("%.2f", seconds) + "s");
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+}
@@ -2,13 +2,20 @@ package com.example.currencyconverter.presenter;
 
 import com.example.currencyconverter.model.Currency;
 import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.RateChangeNotifier;
 import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.model.RateSnapshot;
+import com.example.currencyconverter.model.RateSubscription;
 import com.example.currencyconverter.view.ConverterView;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Plain-Java self-contained tests for ConverterPresenterImpl.
@@ -17,7 +24,7 @@ import java.util.Optional;
  */
 public class ConverterPresenterImplTest {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         ConverterPresenterImplTest t = new ConverterPresenterImplTest();
         t.nullAmountShowsError();
         t.emptyAmountShowsError();
@@ -25,12 +32,17 @@ public class ConverterPresenterImplTest {
         t.negativeAmountShowsError();
         t.missingCurrenciesShowError();
         t.unsupportedPairShowsError();
+        t.throwingProviderCompletesEmpty();
         t.happyPathShowsResultAndLastUpdated();
+        t.asyncOnlyLatestResultReachesView();
+        t.roundsToTargetMinorUnits();
+        t.watchRendersOnlyRateChanges();
+        t.coalescesTickBurstsPerFrame();
         System.out.println("[DEBUG_LOG] All presenter tests passed.");
     }
 
     private static class FakeView implements ConverterView {
-        final List<String> calls = new ArrayList<>();
+        final List<String> calls = new CopyOnWriteArrayList<>(); // pushed updates may arrive on another thread
         @Override public void setPresenter(ConverterPresenter presenter) { /* no-op for tests */ }
         @Override public void showResult(String resultText) { calls.add("showResult:" + resultText); }
         @Override public void showLastUpdated(String timestampText) { calls.add("showLastUpdated:" + timestampText); }
@@ -102,6 +114,15 @@ public class ConverterPresenterImplTest {
         assertTrue(view.calls.stream().anyMatch(s -> s.equals("showError:This currency pair is not supported yet.")), "Should show unsupported pair error");
     }
 
+    public void throwingProviderCompletesEmpty() throws Exception {
+        // The presenter relies on getRateAsync never completing exceptionally for provider failures.
+        ExchangeRateService throwing = (base, quote) -> {
+            throw new IllegalStateException("provider down");
+        };
+        Optional<RateQuote> q = throwing.getRateAsync(Currency.USD, Currency.EUR).get(5, java.util.concurrent.TimeUnit.SECONDS);
+        assertTrue(q.isEmpty(), "Default async lookup completes empty instead of exceptionally");
+    }
+
     public void happyPathShowsResultAndLastUpdated() {
         setUp();
         Instant now = Instant.parse("2024-01-01T10:15:30Z");
@@ -111,4 +132,111 @@ public class ConverterPresenterImplTest {
         assertTrue(view.calls.stream().anyMatch(s -> s.startsWith("showResult:")), "Should show result");
         assertTrue(view.calls.stream().anyMatch(s -> s.toLowerCase().startsWith("showlastupdated:Last updated:".toLowerCase())), "Should show last updated");
     }
+
+    public void roundsToTargetMinorUnits() {
+        setUp();
+        Instant now = Instant.parse("2024-01-01T10:15:30Z");
+        rateService.next = Optional.of(new RateQuote(Currency.USD, Currency.JPY, 149.995, now));
+        presenter.onConvert("100.01", Currency.USD, Currency.JPY);
+        assertTrue(view.calls.contains("showResult:100.01 USD = 15,001 JPY"), "JPY has no decimals: " + view.calls);
+
+        setUp();
+        rateService.next = Optional.of(new RateQuote(Currency.EUR, Currency.USD, 0.9, now));
+        presenter.onConvert("0.05", Currency.EUR, Currency.USD);
+        // 0.05 * 0.9 is exactly 0.045, a tie that rounds to even; the double product 0.045000000000000005 rounded up.
+        assertTrue(view.calls.contains("showResult:0.05 EUR = 0.04 USD"), "Half-even on the exact product: " + view.calls);
+    }
+
+    public void asyncOnlyLatestResultReachesView() {
+        view = new FakeView();
+        List<CompletableFuture<Optional<RateQuote>>> issued = new ArrayList<>();
+        ExchangeRateService asyncService = new ExchangeRateService() {
+            @Override public Optional<RateQuote> getRate(Currency base, Currency quote) { return Optional.empty(); }
+            @Override public CompletableFuture<Optional<RateQuote>> getRateAsync(Currency base, Currency quote) {
+                CompletableFuture<Optional<RateQuote>> f = new CompletableFuture<>();
+                issued.add(f);
+                return f;
+            }
+        };
+        List<Runnable> uiQueue = new ArrayList<>();
+        presenter = new ConverterPresenterImpl(asyncService, uiQueue::add);
+        presenter.attachView(view);
+
+        Instant now = Instant.parse("2024-01-01T10:15:30Z");
+        presenter.onConvert("1", Currency.USD, Currency.EUR);
+        presenter.onConvert("2", Currency.USD, Currency.GBP);
+        assertTrue(issued.get(0).isCancelled(), "Superseded lookup should be cancelled");
+        issued.get(1).complete(Optional.of(new RateQuote(Currency.USD, Currency.GBP, 0.5, now)));
+        assertTrue(view.calls.stream().noneMatch(s -> s.startsWith("showResult:")), "Result must be delivered via the UI executor");
+        uiQueue.forEach(Runnable::run);
+        assertTrue(view.calls.contains("showResult:2 USD = 1.00 GBP"), "Latest result should be shown");
+        assertTrue(view.calls.stream().filter(s -> s.startsWith("showResult:")).count() == 1, "Only one result should be shown");
+    }
+
+    private static RateSnapshot usdTable(double eur) {
+        double[] usdTo = new double[Currency.COUNT];
+        usdTo[Currency.USD.ordinal()] = 1.0;
+        usdTo[Currency.EUR.ordinal()] = eur;
+        usdTo[Currency.GBP.ordinal()] = 0.8;
+        return RateSnapshot.fromAnchorRates(usdTo, Instant.parse("2024-01-01T10:15:30Z"));
+    }
+
+    public void watchRendersOnlyRateChanges() throws InterruptedException {
+        view = new FakeView();
+        RateChangeNotifier changes = new RateChangeNotifier();
+        RateSnapshot[] table = {usdTable(0.9)};
+        ExchangeRateService pushService = new ExchangeRateService() {
+            @Override public Optional<RateQuote> getRate(Currency base, Currency quote) { return table[0].getRate(base, quote); }
+            @Override public RateSubscription subscribe(Currency base, Currency quote, Consumer<RateQuote> listener) {
+                return changes.subscribe(base, quote, listener, table[0]);
+            }
+        };
+        presenter = new ConverterPresenterImpl(pushService);
+        presenter.attachView(view);
+
+        presenter.onWatch("100", Currency.USD, Currency.EUR);
+        assertTrue(view.calls.size() == 3 && view.calls.get(1).equals("showResult:100 USD = 90.00 EUR"),
+                "Watch renders once at start: " + view.calls);
+        view.calls.clear();
+        changes.publish(table[0] = usdTable(0.9)); // a new table with the same EUR rate
+        changes.publish(table[0]);
+        assertTrue(view.calls.isEmpty(), "Unchanged rate must not repaint: " + view.calls);
+        changes.publish(table[0] = usdTable(0.95));
+        // Within a frame of the first push, so it is handed over by the frame timer.
+        for (int i = 0; i < 100 && !view.calls.contains("showResult:100 USD = 95.00 EUR"); i++) Thread.sleep(10);
+        assertTrue(view.calls.contains("showResult:100 USD = 95.00 EUR"), "Changed rate repaints: " + view.calls);
+
+        presenter.onConvert("5", Currency.USD, Currency.GBP); // any new input retires the watch's renders
+        view.calls.clear();
+        changes.publish(usdTable(0.97));
+        Thread.sleep(50);
+        assertTrue(view.calls.isEmpty(), "Superseded watch must not render: " + view.calls);
+        presenter.stopWatching();
+        assertTrue(changes.size() == 0, "Stopping closes the subscription");
+    }
+
+    public void coalescesTickBurstsPerFrame() throws InterruptedException {
+        List<Runnable> uiQueue = new ArrayList<>();
+        List<Integer> delivered = new ArrayList<>();
+        FrameCoalescer<Integer> frames = new FrameCoalescer<>(uiQueue::add, 0, delivered::add);
+        for (int i = 1; i <= 1000; i++) frames.offer(i);
+        assertTrue(uiQueue.size() == 1, "A burst schedules one hand-off, got " + uiQueue.size());
+        uiQueue.remove(0).run();
+        assertTrue(delivered.equals(List.of(1000)), "Only the latest value is delivered: " + delivered);
+
+        // With a real frame length, ticks arriving right after a hand-off wait for the next frame.
+        AtomicInteger handOffs = new AtomicInteger();
+        List<Integer> latest = new ArrayList<>();
+        FrameCoalescer<Integer> paced = new FrameCoalescer<>(r -> { handOffs.incrementAndGet(); r.run(); },
+                FrameCoalescer.FRAME_NANOS, v -> { synchronized (latest) { latest.add(v); } });
+        long end = System.nanoTime() + 200_000_000L;
+        int i = 0;
+        while (System.nanoTime() < end) paced.offer(++i);
+        Thread.sleep(50);
+        assertTrue(handOffs.get() <= 200 / 16 + 2, "At most one hand-off per frame: " + handOffs.get() + " for " + i + " ticks");
+        synchronized (latest) {
+            assertTrue(!latest.isEmpty() && latest.get(latest.size() - 1) == i, "Last tick is delivered: " + latest);
+        }
+        assertTrue(paced.getDispatchCount() == handOffs.get(), "Dispatch count");
+    }
 }
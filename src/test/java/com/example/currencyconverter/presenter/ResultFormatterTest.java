@@ -0,0 +1,210 @@
+package com.example.currencyconverter.presenter;
+
+import com.example.currencyconverter.model.Currency;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plain-Java tests for ResultFormatter: byte-identical output to NumberFormat and DateTimeFormatter, thread safety
+ * under a parallel stress run, and no allocation on the append path.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class ResultFormatterTest {
+
+    private static final String[] ZONES = {"UTC", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe", "Europe/London"};
+
+    public static void main(String[] args) throws Exception {
+        ResultFormatterTest t = new ResultFormatterTest();
+        t.amountsMatchNumberFormat();
+        t.minorAmountsMatchNumberFormat();
+        t.timestampsMatchDateTimeFormatter();
+        t.otherLocalesUseTheirSymbols();
+        t.parallelStressMatchesReference();
+        t.appendPathDoesNotAllocate();
+        System.out.println("[DEBUG_LOG] All result formatter tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private static NumberFormat fixed(int digits) {
+        NumberFormat nf = NumberFormat.getNumberInstance(Locale.US);
+        nf.setMinimumFractionDigits(digits);
+        nf.setMaximumFractionDigits(digits);
+        return nf;
+    }
+
+    /** Amounts as typed, random doubles across magnitudes, and exact ties at every digit. */
+    private static double sample(Random random, int i) {
+        switch (i % 4) {
+            case 0: return (random.nextInt(2_000_000) - 1_000_000) / 2000.0; // ties at the 4th decimal
+            case 1: return random.nextInt(10_000_000) / 8.0;                  // exact binary ties
+            case 2: return random.nextDouble() * Math.pow(10, random.nextInt(20) - 6) * (random.nextBoolean() ? 1 : -1);
+            default: return Double.parseDouble(BigDecimal.valueOf(random.nextInt(Integer.MAX_VALUE), random.nextInt(6)).toPlainString());
+        }
+    }
+
+    public void amountsMatchNumberFormat() {
+        ResultFormatter formatter = new ResultFormatter();
+        NumberFormat amounts = NumberFormat.getNumberInstance(Locale.US);
+        NumberFormat[] fixed = new NumberFormat[7];
+        for (int d = 0; d < fixed.length; d++) fixed[d] = fixed(d);
+        Random random = new Random(11);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 400_000; i++) {
+            double v = sample(random, i);
+            sb.setLength(0);
+            String want = amounts.format(v);
+            assertTrue(formatter.appendAmount(sb, v).toString().equals(want), v + ": got " + sb + ", want " + want);
+            int d = random.nextInt(fixed.length);
+            sb.setLength(0);
+            want = fixed[d].format(v);
+            assertTrue(formatter.appendFixed(sb, v, d).toString().equals(want), v + "@" + d + ": got " + sb + ", want " + want);
+        }
+        double[] edge = {0.0, -0.0, -0.0004, 0.0005, 0.0015, 999.9995, 1e-320, 4.5e12, 1e15, 1e300, -1e300,
+                Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double v : edge) {
+            sb.setLength(0);
+            assertTrue(formatter.appendAmount(sb, v).toString().equals(amounts.format(v)), "Edge " + v + ": " + sb);
+            sb.setLength(0);
+            assertTrue(formatter.appendFixed(sb, v, 2).toString().equals(fixed[2].format(v)), "Edge fixed " + v + ": " + sb);
+        }
+    }
+
+    public void minorAmountsMatchNumberFormat() {
+        ResultFormatter formatter = new ResultFormatter();
+        Random random = new Random(5);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            long minor = random.nextLong() >> random.nextInt(64);
+            int scale = random.nextInt(9);
+            sb.setLength(0);
+            String want = fixed(scale).format(BigDecimal.valueOf(minor, scale));
+            assertTrue(formatter.appendMinor(sb, minor, scale).toString().equals(want), minor + "@" + scale + ": " + sb);
+        }
+        sb.setLength(0);
+        assertTrue(formatter.appendMinor(sb, Long.MIN_VALUE, 2).toString().equals(fixed(2).format(BigDecimal.valueOf(Long.MIN_VALUE, 2))),
+                "Long.MIN_VALUE: " + sb);
+        sb.setLength(0);
+        assertTrue(formatter.appendMinor(sb, Long.MIN_VALUE, 0).toString().equals(fixed(0).format(Long.MIN_VALUE)), "Long.MIN_VALUE units: " + sb);
+        assertTrue(formatter.formatResult(100.0, Currency.USD, 9_200L, 2, Currency.EUR).equals("100 USD = 92.00 EUR"), "Result line");
+        assertTrue(formatter.formatResult(1234.5, Currency.USD, 185_175.0, 0, Currency.JPY).equals("1,234.5 USD = 185,175 JPY"), "Double result line");
+    }
+
+    public void timestampsMatchDateTimeFormatter() {
+        Random random = new Random(3);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            ResultFormatter formatter = new ResultFormatter(Locale.US, zone);
+            DateTimeFormatter reference = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z").withZone(zone);
+            List<Instant> instants = new ArrayList<>();
+            // Seconds around this year's and the next transitions, then random instants from 1900 to 2100.
+            var rules = zone.getRules();
+            var transition = rules.nextTransition(Instant.parse("2024-01-01T00:00:00Z"));
+            for (int n = 0; n < 4 && transition != null; n++) {
+                for (int s = -2; s <= 2; s++) instants.add(transition.getInstant().plusSeconds(s));
+                transition = rules.nextTransition(transition.getInstant());
+            }
+            for (int i = 0; i < 20_000; i++) {
+                instants.add(Instant.ofEpochSecond(-2_208_988_800L + (long) (random.nextDouble() * 6_311_433_600L), random.nextInt(1_000_000_000)));
+            }
+            instants.add(Instant.EPOCH);
+            instants.add(Instant.parse("1600-02-29T23:59:59Z"));
+            for (Instant ts : instants) {
+                String want = "Last updated: " + reference.format(ts);
+                assertTrue(formatter.formatLastUpdated(ts, false).equals(want), id + " " + ts + ": " + formatter.formatLastUpdated(ts, false));
+            }
+            Instant ts = Instant.parse("2024-06-01T12:00:00Z");
+            assertTrue(formatter.formatLastUpdated(ts, true).equals("Last updated: " + reference.format(ts) + " (saved rates, refreshing...)"), "Stale");
+        }
+    }
+
+    public void otherLocalesUseTheirSymbols() {
+        StringBuilder sb = new StringBuilder();
+        for (Locale locale : new Locale[]{Locale.GERMANY, Locale.FRANCE, new Locale("de", "CH"), new Locale("en", "IN")}) {
+            ResultFormatter formatter = new ResultFormatter(locale, ZoneId.of("UTC"));
+            NumberFormat reference = NumberFormat.getNumberInstance(locale);
+            for (double v : new double[]{1234567.891, -0.5, 12.0, 1000.0005}) {
+                sb.setLength(0);
+                String want = reference.format(v);
+                assertTrue(formatter.appendAmount(sb, v).toString().equals(want), locale + " " + v + ": got " + sb + ", want " + want);
+            }
+        }
+    }
+
+    public void parallelStressMatchesReference() throws Exception {
+        ResultFormatter shared = new ResultFormatter(Locale.US, ZoneId.of("America/New_York"));
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                results.add(pool.submit(() -> {
+                    // Each thread checks the shared formatter against references it owns exclusively.
+                    NumberFormat amounts = NumberFormat.getNumberInstance(Locale.US);
+                    NumberFormat money = fixed(2);
+                    DateTimeFormatter dates = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z").withZone(ZoneId.of("America/New_York"));
+                    Random random = new Random(seed);
+                    int checked = 0;
+                    for (int i = 0; i < 50_000; i++) {
+                        double amount = Math.abs(sample(random, i));
+                        long minor = random.nextInt(Integer.MAX_VALUE);
+                        String want = amounts.format(amount) + " USD = " + money.format(BigDecimal.valueOf(minor, 2)) + " EUR";
+                        String got = shared.formatResult(amount, Currency.USD, minor, 2, Currency.EUR);
+                        if (!got.equals(want)) throw new AssertionError("Thread " + seed + ": got " + got + ", want " + want);
+                        Instant ts = Instant.ofEpochSecond(1_700_000_000L + random.nextInt(100_000_000));
+                        if (!shared.formatLastUpdated(ts, false).equals("Last updated: " + dates.format(ts))) {
+                            throw new AssertionError("Thread " + seed + " timestamp " + ts);
+                        }
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> f : results) total += f.get();
+            assertTrue(total == threads * 50_000, "All threads completed: " + total);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public void appendPathDoesNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!mx.isThreadAllocatedMemorySupported() || !mx.isThreadAllocatedMemoryEnabled()) return;
+        ResultFormatter formatter = new ResultFormatter();
+        StringBuilder sb = new StringBuilder(256);
+        Instant[] stamps = new Instant[60];
+        for (int s = 0; s < stamps.length; s++) stamps[s] = Instant.parse("2024-06-01T12:00:00Z").plusSeconds(s);
+        long sink = 0;
+        for (int round = 0; round < 3; round++) { // the last round runs after the JIT has settled
+            long thread = Thread.currentThread().getId();
+            long before = mx.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 200_000; i++) {
+                sb.setLength(0);
+                formatter.appendAmount(sb, i * 1.0005).append(" USD = ");
+                formatter.appendMinor(sb, i * 9_200L, 2).append(' ');
+                formatter.appendTimestamp(sb, stamps[i % 60]);
+                sink += sb.length();
+            }
+            long allocated = mx.getThreadAllocatedBytes(thread) - before;
+            if (round == 2) assertTrue(allocated < 200_000, "Append path allocated " + allocated + " bytes for 200k results");
+        }
+        assertTrue(sink > 0, "Formatted");
+    }
+}
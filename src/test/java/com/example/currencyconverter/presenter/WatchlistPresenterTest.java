@@ -0,0 +1,166 @@
+package com.example.currencyconverter.presenter;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.InMemoryRateService;
+import com.example.currencyconverter.model.RateQuote;
+import com.example.currencyconverter.view.WatchlistView;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plain-Java tests for WatchlistPresenter, with a single-threaded executor standing in for the FX thread.
+ * Run by executing the main method; throws AssertionError on failures.
+ */
+public class WatchlistPresenterTest {
+
+    public static void main(String[] args) throws Exception {
+        WatchlistPresenterTest t = new WatchlistPresenterTest();
+        t.watchesEveryPair();
+        t.batchesThousandPairsAtTenHertzPerFrame();
+        t.replacedRowsIgnoreLateTicks();
+        System.out.println("[DEBUG_LOG] All watchlist presenter tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    /** Records what it shows; only ever touched on the UI executor's thread, apart from reads after it drains. */
+    private static final class FakeView implements WatchlistView {
+        volatile List<String> labels = List.of();
+        volatile RateQuote[] shown = new RateQuote[0];
+        volatile int batches;
+        volatile int largestBatch;
+        volatile boolean duplicateInBatch;
+        volatile long maxApplyNanos;
+        final AtomicLong applied = new AtomicLong();
+
+        @Override public void setPresenter(WatchlistPresenter presenter) { }
+
+        @Override
+        public void showRows(List<String> labels) {
+            this.labels = labels;
+            this.shown = new RateQuote[labels.size()];
+        }
+
+        @Override
+        public void applyQuotes(int[] rows, RateQuote[] quotes, int count) {
+            long start = System.nanoTime();
+            BitSet seen = new BitSet();
+            RateQuote[] target = shown;
+            for (int i = 0; i < count; i++) {
+                if (seen.get(rows[i])) duplicateInBatch = true;
+                seen.set(rows[i]);
+                target[rows[i]] = quotes[i];
+            }
+            applied.addAndGet(count);
+            batches++;
+            largestBatch = Math.max(largestBatch, count);
+            maxApplyNanos = Math.max(maxApplyNanos, System.nanoTime() - start);
+        }
+    }
+
+    /** Daemon, so a failed assertion does not leave the JVM running. */
+    private static ExecutorService uiThread() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "fake-fx");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void drain(ExecutorService ui) throws Exception {
+        // The frame timer may still hand over one last batch.
+        Thread.sleep(3 * FrameCoalescer.FRAME_NANOS / 1_000_000 + 20);
+        ui.submit(() -> { }).get();
+    }
+
+    public void watchesEveryPair() throws Exception {
+        ExecutorService ui = uiThread();
+        InMemoryRateService service = new InMemoryRateService();
+        WatchlistPresenter presenter = new WatchlistPresenter(service, ui);
+        FakeView view = new FakeView();
+        presenter.attachView(view);
+        List<Currency> all = List.of(Currency.values());
+        presenter.watchPairs(all, all);
+        drain(ui);
+        int n = all.size();
+        assertTrue(view.labels.size() == n * (n - 1) && view.labels.get(0).equals(all.get(0) + "/" + all.get(1)), "One row per pair: " + view.labels.size());
+        for (int i = 0; i < view.shown.length; i++) {
+            RateQuote q = view.shown[i];
+            assertTrue(q != null && (q.getBase() + "/" + q.getQuote()).equals(view.labels.get(i)), "Row " + i + " shows its pair: " + q);
+            assertTrue(q.getRate() == service.rate(q.getBase(), q.getQuote()), "Row " + i + " shows the service's rate");
+        }
+        assertTrue(view.batches <= 2, "Initial quotes arrive in one batch, not " + view.batches);
+        presenter.stop();
+        ui.shutdown();
+    }
+
+    public void batchesThousandPairsAtTenHertzPerFrame() throws Exception {
+        ExecutorService ui = uiThread();
+        WatchlistPresenter presenter = new WatchlistPresenter(new InMemoryRateService(), ui);
+        FakeView view = new FakeView();
+        presenter.attachView(view);
+        int pairs = 1_000;
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < pairs; i++) labels.add("P" + i);
+        ui.submit(() -> presenter.showRows(labels)).get();
+
+        // Same shape as the FX stress mode: every pair 10 times a second, spread over 10 ms steps.
+        int seconds = 2;
+        double[] rates = new double[pairs];
+        Arrays.fill(rates, 1.0);
+        long start = System.nanoTime();
+        int step = 0;
+        for (long next = start; next < start + TimeUnit.SECONDS.toNanos(seconds); next += TimeUnit.MILLISECONDS.toNanos(10)) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            Instant now = Instant.now();
+            for (int k = 0; k < pairs / 10; k++) {
+                int i = (step * pairs / 10 + k) % pairs;
+                rates[i] += 0.0001;
+                presenter.onTick(i, new RateQuote(Currency.USD, Currency.EUR, rates[i], now));
+            }
+            step++;
+        }
+        long elapsed = System.nanoTime() - start;
+        drain(ui);
+
+        long ticks = presenter.getTickCount();
+        double frames = elapsed / (double) FrameCoalescer.FRAME_NANOS;
+        assertTrue(ticks == (long) pairs * 10 * seconds, "Every tick is received: " + ticks);
+        assertTrue(presenter.getFrameCount() <= frames + 3 && view.batches <= frames + 3,
+                "At most one batch per frame: " + view.batches + " batches in " + (long) frames + " frames");
+        assertTrue(!view.duplicateInBatch, "A row appears once per batch");
+        for (int i = 0; i < pairs; i++) {
+            assertTrue(view.shown[i] != null && view.shown[i].getRate() == rates[i], "Row " + i + " ends on its latest tick");
+        }
+        System.out.printf("[DEBUG_LOG] %d ticks in %.1fs -> %d batches (max %d rows, %.2f ms to apply)%n",
+                ticks, elapsed / 1e9, view.batches, view.largestBatch, view.maxApplyNanos / 1e6);
+        ui.shutdown();
+    }
+
+    public void replacedRowsIgnoreLateTicks() throws Exception {
+        ExecutorService ui = uiThread();
+        WatchlistPresenter presenter = new WatchlistPresenter(new InMemoryRateService(), ui, 0);
+        FakeView view = new FakeView();
+        presenter.attachView(view);
+        List<Currency> all = List.of(Currency.values());
+        ui.submit(() -> presenter.watchPairs(all, all)).get();
+        ui.submit(() -> presenter.showRows(List.of("A", "B"))).get();
+        presenter.onTick(5, new RateQuote(Currency.USD, Currency.EUR, 1.5, Instant.now()));
+        presenter.onTick(1, new RateQuote(Currency.USD, Currency.EUR, 1.5, Instant.now()));
+        drain(ui);
+        assertTrue(view.shown.length == 2 && view.shown[0] == null && view.shown[1].getRate() == 1.5,
+                "Only in-range ticks for the new rows are shown");
+        ui.shutdown();
+    }
+}
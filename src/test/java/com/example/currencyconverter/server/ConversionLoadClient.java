@@ -0,0 +1,73 @@
+package com.example.currencyconverter.server;
+
+import com.example.currencyconverter.metrics.LatencyHistogram;
+import com.example.currencyconverter.model.InMemoryRateService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for {@link ConversionServer}: N clients each send {@code GET /convert}
+ * back-to-back over keep-alive connections for a fixed duration, then throughput and latency
+ * percentiles are printed.
+ *
+ * <p>Usage: {@code ConversionLoadClient [baseUrl|-] [clients] [seconds]}. With {@code -} (the default) an
+ * in-process server backed by {@link InMemoryRateService} is started on a free port.</p>
+ */
+public class ConversionLoadClient {
+
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : "-";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        ConversionServer local = null;
+        if ("-".equals(target)) {
+            local = new ConversionServer(new InMemoryRateService(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            local.start();
+            target = "http://127.0.0.1:" + local.getPort();
+        }
+        URI uri = URI.create(target + "/convert?amount=100&from=USD&to=EUR");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        long warmupEnd = System.nanoTime() + 2_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread t = new Thread(() -> {
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start >= end) return;
+                    try {
+                        HttpResponse<Void> r = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (r.statusCode() != 200) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (start >= warmupEnd) latency.record(System.nanoTime() - start);
+                }
+            }, "load-client-" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+        if (local != null) local.stop(1);
+
+        long n = latency.count();
+        System.out.printf("[INFO] %d clients, %ds: %d requests, %.0f req/s, %d errors%n",
+                clients, seconds, n, n / (double) seconds, errors.get());
+        System.out.printf("[INFO] latency p50=%.0fus p99=%.0fus p99.9=%.0fus max=%.0fus%n",
+                latency.percentileNanos(50) / 1e3, latency.percentileNanos(99) / 1e3,
+                latency.percentileNanos(99.9) / 1e3, latency.maxNanos() / 1e3);
+    }
+}
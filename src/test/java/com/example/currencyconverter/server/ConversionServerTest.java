@@ -0,0 +1,118 @@
+package com.example.currencyconverter.server;
+
+import com.example.currencyconverter.model.Currency;
+import com.example.currencyconverter.model.ExchangeRateService;
+import com.example.currencyconverter.model.InMemoryRateService;
+import com.example.currencyconverter.model.RateQuote;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plain-Java tests for ConversionServer. Run by executing the main method; throws AssertionError on failures.
+ */
+public class ConversionServerTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        ConversionServerTest t = new ConversionServerTest();
+        ConversionServer server = new ConversionServer(new InMemoryRateService(),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getPort();
+            t.singleConversionUsesPresenterFormatting(base);
+            t.invalidInputIsReportedAs400(base);
+            t.batchConvertsEveryRowInOrder(base);
+            t.batchRoundsOnceToTargetMinorUnits(base);
+            t.healthAndMethodChecks(base);
+        } finally {
+            server.stop(1);
+        }
+        t.batchesShareOneSnapshot();
+        System.out.println("[DEBUG_LOG] All conversion server tests passed.");
+    }
+
+    private static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    private HttpResponse<String> get(String url) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public void singleConversionUsesPresenterFormatting(String base) throws Exception {
+        HttpResponse<String> r = get(base + "/convert?amount=100&from=USD&to=EUR");
+        assertTrue(r.statusCode() == 200, "Status: " + r.statusCode() + " " + r.body());
+        assertTrue(r.body().contains("\"result\":\"100 USD = 92.00 EUR\""), "Body: " + r.body());
+        assertTrue(r.body().contains("\"lastUpdated\":\"Last updated: "), "Body: " + r.body());
+        assertTrue(r.headers().firstValue("Content-Type").orElse("").equals("application/json"), "Content-Type");
+    }
+
+    public void invalidInputIsReportedAs400(String base) throws Exception {
+        HttpResponse<String> r = get(base + "/convert?amount=abc&from=USD&to=EUR");
+        assertTrue(r.statusCode() == 400 && r.body().startsWith("{\"error\":"), "Bad amount: " + r.body());
+        r = get(base + "/convert?amount=1&from=XXX&to=EUR");
+        assertTrue(r.statusCode() == 400, "Unknown currency: " + r.body());
+    }
+
+    public void batchConvertsEveryRowInOrder(String base) throws Exception {
+        String body = "10,USD,EUR\r\n2,usd,GBP\nabc,USD,EUR\n1,USD,XXX\n\n5,EUR,EUR\n";
+        HttpResponse<String> r = postBatch(base, body);
+        assertTrue(r.statusCode() == 200, "Status: " + r.statusCode());
+        assertTrue(r.body().equals("[9.20,1.60,null,null,5.00]"), "Body: " + r.body());
+    }
+
+    public void batchRoundsOnceToTargetMinorUnits(String base) throws Exception {
+        // 0.005 * 0.92 = 0.0046 rounds to 0.00; 2.5 JPY and 3.5 JPY tie and round to even; 1e3 is accepted.
+        String body = "0.005,USD,EUR\n2.5,JPY,JPY\n3.5,JPY,JPY\n1e3,USD,JPY\n-12.34,USD,USD\n";
+        HttpResponse<String> r = postBatch(base, body);
+        assertTrue(r.body().equals("[0.00,2,4,150000,-12.34]"), "Body: " + r.body());
+    }
+
+    private HttpResponse<String> postBatch(String base, String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(base + "/convert/batch"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** A per-pair service has no table of its own; its snapshot costs one lookup per currency. */
+    public void batchesShareOneSnapshot() throws Exception {
+        InMemoryRateService rates = new InMemoryRateService();
+        AtomicInteger lookups = new AtomicInteger();
+        ExchangeRateService perPair = new ExchangeRateService() {
+            @Override
+            public Optional<RateQuote> getRate(Currency base, Currency quote) {
+                lookups.incrementAndGet();
+                return rates.getRate(base, quote);
+            }
+        };
+        ConversionServer server = new ConversionServer(perPair,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Duration.ofMinutes(1));
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getPort();
+            for (int i = 0; i < 5; i++) {
+                assertTrue(postBatch(base, "10,USD,EUR\n").body().equals("[9.20]"), "Batch " + i);
+            }
+        } finally {
+            server.stop(1);
+        }
+        assertTrue(lookups.get() == Currency.values().length, "One snapshot for all batches: " + lookups.get() + " lookups");
+    }
+
+    public void healthAndMethodChecks(String base) throws Exception {
+        HttpResponse<String> r = get(base + "/health");
+        assertTrue(r.statusCode() == 200 && r.body().equals("{\"status\":\"ok\"}"), "Health: " + r.body());
+        r = get(base + "/convert/batch");
+        assertTrue(r.statusCode() == 405, "GET on batch: " + r.statusCode());
+    }
+}